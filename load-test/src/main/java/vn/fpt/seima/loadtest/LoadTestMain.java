@@ -0,0 +1,67 @@
+package vn.fpt.seima.loadtest;
+
+import vn.fpt.seima.loadtest.journey.LoadRunner;
+import vn.fpt.seima.loadtest.seed.DatasetGenerator;
+import vn.fpt.seima.loadtest.stub.SmtpStub;
+import vn.fpt.seima.loadtest.stub.StubServers;
+
+/**
+ * Entry point of the load test tool:
+ * <ul>
+ *     <li>{@code stubs}: serves stand-ins for Gemini, Azure Form Recognizer, FCM, Branch.io, Cloudinary
+ *     and SMTP until stopped</li>
+ *     <li>{@code seed}: fills a database created by the server with users, wallets, budgets, groups and
+ *     years of transactions, and writes the manifest the journeys log in with</li>
+ *     <li>{@code run}: drives virtual users through the journeys and reports latency per endpoint</li>
+ * </ul>
+ * See load-test/README.md for the whole procedure.
+ */
+public class LoadTestMain {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            usage();
+            System.exit(1);
+        }
+        Options options = new Options(args, 1);
+        switch (args[0]) {
+            case "stubs" -> runStubs(options);
+            case "seed" -> new DatasetGenerator(DatasetGenerator.Settings.from(options)).generate();
+            case "run" -> new LoadRunner(LoadRunner.Settings.from(options)).run();
+            default -> {
+                usage();
+                System.exit(1);
+            }
+        }
+    }
+
+    private static void runStubs(Options options) throws Exception {
+        StubServers stubs = new StubServers(options.integer("http-port", 18080),
+                options.duration("latency", "0ms"));
+        SmtpStub smtp = new SmtpStub(options.integer("smtp-port", 2525));
+        stubs.start();
+        smtp.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            stubs.stop();
+            smtp.stop();
+            System.out.println("Requests served: " + stubs.counts() + ", emails received: " + smtp.received());
+        }));
+        System.out.printf("Stubs listening: HTTP on %d, SMTP on %d. Ctrl+C to stop.%n",
+                stubs.port(), smtp.port());
+        Thread.currentThread().join();
+    }
+
+    private static void usage() {
+        System.out.println("""
+                Usage: java -jar seima-server-load-test.jar <command> [--option value ...]
+                  stubs  [--http-port 18080] [--smtp-port 2525] [--latency 0ms]
+                  seed   [--jdbc-url %s] [--db-user seima] [--db-password seima]
+                         [--users 100] [--years 3] [--transactions-per-month 60] [--group-size 5]
+                         [--password LoadTest@123] [--random-seed 42] [--manifest %s]
+                  run    [--base-url http://localhost:8081] [--manifest %s] [--virtual-users 50]
+                         [--duration 5m] [--warmup 30s] [--ramp-up 30s] [--think-time 500ms]
+                         [--session-iterations 5] [--report target/load-report.json]
+                """.formatted(DatasetGenerator.Settings.DEFAULT_JDBC_URL, DatasetGenerator.Settings.DEFAULT_MANIFEST,
+                DatasetGenerator.Settings.DEFAULT_MANIFEST));
+    }
+}
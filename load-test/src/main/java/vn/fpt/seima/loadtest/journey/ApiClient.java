@@ -0,0 +1,84 @@
+package vn.fpt.seima.loadtest.journey;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import vn.fpt.seima.loadtest.report.LatencyRecorder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Calls the server and times each call under an endpoint label. The server answers HTTP 200 with the
+ * real outcome in {@code status_code}, so a call only succeeds when both are 2xx.
+ */
+public class ApiClient {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final LatencyRecorder recorder;
+
+    public ApiClient(HttpClient httpClient, String baseUrl, LatencyRecorder recorder) {
+        this.httpClient = httpClient;
+        this.baseUrl = baseUrl;
+        this.recorder = recorder;
+    }
+
+    /**
+     * @return the response's {@code data}, or null when the call failed
+     */
+    public JsonNode get(String endpoint, String path, String accessToken) {
+        return call(endpoint, request(path, accessToken).GET().build());
+    }
+
+    public JsonNode post(String endpoint, String path, String accessToken, Object body) {
+        String json;
+        try {
+            json = MAPPER.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize request body", e);
+        }
+        return call(endpoint, request(path, accessToken)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build());
+    }
+
+    private HttpRequest.Builder request(String path, String accessToken) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/json");
+        if (accessToken != null) {
+            builder.header("Authorization", "Bearer " + accessToken);
+        }
+        return builder;
+    }
+
+    private JsonNode call(String endpoint, HttpRequest request) {
+        long started = System.nanoTime();
+        long elapsed = -1;
+        JsonNode data = null;
+        boolean succeeded = false;
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            elapsed = System.nanoTime() - started;
+            if (response.statusCode() / 100 == 2) {
+                JsonNode body = MAPPER.readTree(response.body());
+                int status = body.path("status_code").asInt(response.statusCode());
+                succeeded = status / 100 == 2;
+                data = succeeded ? body.path("data") : null;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // Connection failures and timeouts count as errors
+        }
+        recorder.record(endpoint, elapsed >= 0 ? elapsed : System.nanoTime() - started, succeeded);
+        return data;
+    }
+}
@@ -0,0 +1,136 @@
+package vn.fpt.seima.loadtest.journey;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import vn.fpt.seima.loadtest.Options;
+import vn.fpt.seima.loadtest.report.LatencyRecorder;
+import vn.fpt.seima.loadtest.seed.Dataset;
+import vn.fpt.seima.loadtest.seed.DatasetGenerator;
+
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the virtual users against a server started with the loadtest profile. Users start spread over
+ * the ramp-up, each on a seeded user of its own where the dataset has enough; latencies are only
+ * recorded after the warm-up. The summary is printed and written as JSON to the report file.
+ */
+public class LoadRunner {
+    private final Settings settings;
+
+    public LoadRunner(Settings settings) {
+        this.settings = settings;
+    }
+
+    public record Settings(String baseUrl, Path manifest, int virtualUsers, Duration duration, Duration warmup,
+                           Duration rampUp, Duration thinkTime, int sessionIterations, Path report) {
+
+        public static Settings from(Options options) {
+            return new Settings(
+                    options.string("base-url", "http://localhost:8081"),
+                    Path.of(options.string("manifest", DatasetGenerator.Settings.DEFAULT_MANIFEST)),
+                    options.integer("virtual-users", 50),
+                    options.duration("duration", "5m"),
+                    options.duration("warmup", "30s"),
+                    options.duration("ramp-up", "30s"),
+                    options.duration("think-time", "500ms"),
+                    options.integer("session-iterations", 5),
+                    Path.of(options.string("report", "target/load-report.json")));
+        }
+    }
+
+    public List<LatencyRecorder.EndpointStats> run() throws Exception {
+        Dataset dataset = Dataset.read(settings.manifest());
+        if (dataset.users().isEmpty()) {
+            throw new IllegalStateException("The dataset in " + settings.manifest() + " has no users");
+        }
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        ApiClient api = new ApiClient(httpClient, settings.baseUrl(), recorder);
+
+        long started = System.nanoTime();
+        long measureFrom = started + settings.warmup().toNanos();
+        long deadline = measureFrom + settings.duration().toNanos();
+        long rampStep = settings.rampUp().toNanos() / Math.max(1, settings.virtualUsers());
+        System.out.printf("Running %d virtual users against %s: %ds warm-up, then %ds measured%n",
+                settings.virtualUsers(), settings.baseUrl(), settings.warmup().toSeconds(), settings.duration().toSeconds());
+
+        Duration window;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < settings.virtualUsers(); i++) {
+                Dataset.SeededUser user = dataset.users().get(i % dataset.users().size());
+                UserJourney journey = new UserJourney(api, user, settings.thinkTime(), settings.sessionIterations(),
+                        deadline, i);
+                long startAt = started + i * rampStep;
+                executor.submit(() -> {
+                    sleepUntil(startAt);
+                    journey.run();
+                });
+            }
+
+            sleepUntil(measureFrom);
+            recorder.start();
+            Instant measuring = Instant.now();
+            sleepUntil(deadline);
+            recorder.stop();
+            window = Duration.between(measuring, Instant.now());
+
+            // Journeys stop at the deadline; give in-flight requests a moment before abandoning them
+            executor.shutdown();
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        }
+
+        List<LatencyRecorder.EndpointStats> stats = recorder.summarize(window);
+        System.out.println();
+        System.out.print(LatencyRecorder.table(stats));
+        writeReport(stats, window);
+        return stats;
+    }
+
+    private void writeReport(List<LatencyRecorder.EndpointStats> stats, Duration window) throws Exception {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("finished_at", Instant.now().toString());
+        report.put("base_url", settings.baseUrl());
+        report.put("virtual_users", settings.virtualUsers());
+        report.put("measured_seconds", window.toMillis() / 1000.0);
+        report.put("think_time_ms", settings.thinkTime().toMillis());
+        report.put("endpoints", stats);
+
+        if (settings.report().getParent() != null) {
+            Files.createDirectories(settings.report().getParent());
+        }
+        new ObjectMapper()
+                .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(settings.report().toFile(), report);
+        System.out.println("Report written to " + settings.report());
+    }
+
+    private static void sleepUntil(long nanoTime) {
+        long remaining = nanoTime - System.nanoTime();
+        if (remaining <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(remaining);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package vn.fpt.seima.loadtest.journey;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import vn.fpt.seima.loadtest.seed.Dataset;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * One virtual user: logs in, then repeats the mobile app's main loop (monthly overview, add an expense,
+ * reports, group feed) with a pause between screens, logging in again every few iterations as a new
+ * session would.
+ */
+public class UserJourney implements Runnable {
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    private final ApiClient api;
+    private final Dataset.SeededUser user;
+    private final Duration thinkTime;
+    private final int sessionIterations;
+    private final long deadline;
+    private final Random random;
+
+    public UserJourney(ApiClient api, Dataset.SeededUser user, Duration thinkTime, int sessionIterations,
+                       long deadlineNanos, long randomSeed) {
+        this.api = api;
+        this.user = user;
+        this.thinkTime = thinkTime;
+        this.sessionIterations = sessionIterations;
+        this.deadline = deadlineNanos;
+        this.random = new Random(randomSeed);
+    }
+
+    @Override
+    public void run() {
+        while (running()) {
+            String token = login();
+            if (token == null) {
+                pause();
+                continue;
+            }
+            for (int i = 0; i < sessionIterations && running(); i++) {
+                iterate(token);
+            }
+        }
+    }
+
+    private String login() {
+        Map<String, Object> body = new HashMap<>();
+        body.put("email", user.email());
+        body.put("password", user.password());
+        body.put("device_id", "loadtest-device-" + user.userId());
+        body.put("fcm_token", "loadtest-fcm-token-" + user.userId());
+        JsonNode data = api.post("POST /auth/login", "/api/v1/auth/login", null, body);
+        pause();
+        return data == null || data.path("access_token").isMissingNode() ? null : data.path("access_token").asText();
+    }
+
+    private void iterate(String token) {
+        LocalDate today = LocalDate.now();
+        api.get("GET /transactions/overview",
+                "/api/v1/transactions/overview?month=" + YearMonth.from(today).format(MONTH), token);
+        pause();
+
+        addExpense(token);
+        pause();
+
+        int categoryId = user.expenseCategoryIds().get(random.nextInt(user.expenseCategoryIds().size()));
+        api.get("GET /transactions/view-report",
+                "/api/v1/transactions/view-report?startDate=" + today.minusMonths(3).withDayOfMonth(1) + "&endDate=" + today, token);
+        api.get("GET /transactions/view-report/category/{id}",
+                "/api/v1/transactions/view-report/category/" + categoryId + "?type=MONTHLY", token);
+        api.get("GET /transactions/view-chart",
+                "/api/v1/transactions/view-chart?startDate=" + today.withDayOfYear(1) + "&endDate=" + today, token);
+        pause();
+
+        if (user.groupId() != null) {
+            api.get("GET /transactions/view-history-transactions-group/{id}",
+                    "/api/v1/transactions/view-history-transactions-group/" + user.groupId() + "?page=0&size=20", token);
+            pause();
+        }
+    }
+
+    private void addExpense(String token) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("wallet_id", user.walletId());
+        body.put("category_id", user.expenseCategoryIds().get(random.nextInt(user.expenseCategoryIds().size())));
+        body.put("amount", (20 + random.nextInt(480)) * 1000);
+        body.put("currency_code", "VND");
+        body.put("transaction_date", LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).toString());
+        body.put("description", "Load test expense");
+        // Some expenses are shared with the group, which also notifies its members
+        if (user.groupId() != null && random.nextInt(5) == 0) {
+            body.put("group_id", user.groupId());
+        }
+        api.post("POST /transactions/expense", "/api/v1/transactions/expense", token, body);
+    }
+
+    private boolean running() {
+        return System.nanoTime() < deadline && !Thread.currentThread().isInterrupted();
+    }
+
+    private void pause() {
+        if (thinkTime.isZero()) {
+            return;
+        }
+        // Jitter of +-50% keeps virtual users from moving in lockstep
+        long millis = thinkTime.toMillis();
+        try {
+            Thread.sleep(millis / 2 + (long) (random.nextDouble() * millis));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
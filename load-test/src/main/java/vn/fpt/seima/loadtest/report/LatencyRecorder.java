@@ -0,0 +1,124 @@
+package vn.fpt.seima.loadtest.report;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Keeps every response time per endpoint while recording is on, so percentiles are exact rather than
+ * estimated. A run of a few hundred thousand requests needs a few megabytes.
+ * <p>
+ * Requests made before {@link #start()} (the warm-up) are dropped.
+ */
+public class LatencyRecorder {
+    public static final String ALL = "ALL";
+
+    private final Map<String, Series> series = new ConcurrentSkipListMap<>();
+    private volatile boolean recording;
+
+    public void start() {
+        recording = true;
+    }
+
+    public void stop() {
+        recording = false;
+    }
+
+    public void record(String endpoint, long nanos, boolean succeeded) {
+        if (recording) {
+            series.computeIfAbsent(endpoint, key -> new Series()).add(nanos, succeeded);
+        }
+    }
+
+    /**
+     * Statistics of each endpoint, by name, followed by all endpoints together
+     * @param window how long recording ran, for throughput
+     */
+    public List<EndpointStats> summarize(Duration window) {
+        List<EndpointStats> stats = new ArrayList<>();
+        Series all = new Series();
+        series.forEach((endpoint, endpointSeries) -> {
+            stats.add(endpointSeries.stats(endpoint, window));
+            all.addAll(endpointSeries);
+        });
+        if (!stats.isEmpty()) {
+            stats.add(all.stats(ALL, window));
+        }
+        return stats;
+    }
+
+    public record EndpointStats(String endpoint, long requests, long errors, double throughputPerSecond,
+                                double p50Ms, double p95Ms, double p99Ms, double maxMs, double meanMs) {
+    }
+
+    public static String table(List<EndpointStats> stats) {
+        StringBuilder out = new StringBuilder();
+        String format = "%-48s %9s %7s %9s %9s %9s %9s %9s%n";
+        out.append(String.format(format, "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        for (EndpointStats s : stats) {
+            out.append(String.format(format, s.endpoint(), s.requests(), s.errors(),
+                    String.format("%.1f", s.throughputPerSecond()), String.format("%.1f", s.p50Ms()),
+                    String.format("%.1f", s.p95Ms()), String.format("%.1f", s.p99Ms()), String.format("%.1f", s.maxMs())));
+        }
+        return out.toString();
+    }
+
+    private static final class Series {
+        private long[] nanos = new long[1024];
+        private int size;
+        private long errors;
+
+        synchronized void add(long value, boolean succeeded) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = value;
+            if (!succeeded) {
+                errors++;
+            }
+        }
+
+        synchronized void addAll(Series other) {
+            long[] values;
+            int otherSize;
+            long otherErrors;
+            synchronized (other) {
+                values = other.nanos;
+                otherSize = other.size;
+                otherErrors = other.errors;
+            }
+            if (size + otherSize > nanos.length) {
+                nanos = Arrays.copyOf(nanos, Math.max(nanos.length * 2, size + otherSize));
+            }
+            System.arraycopy(values, 0, nanos, size, otherSize);
+            size += otherSize;
+            errors += otherErrors;
+        }
+
+        synchronized EndpointStats stats(String endpoint, Duration window) {
+            long[] sorted = Arrays.copyOf(nanos, size);
+            Arrays.sort(sorted);
+            double seconds = Math.max(window.toMillis(), 1) / 1000.0;
+            double mean = size == 0 ? 0 : Arrays.stream(sorted).average().orElse(0);
+            return new EndpointStats(endpoint, size, errors, size / seconds,
+                    millis(percentile(sorted, 50)), millis(percentile(sorted, 95)), millis(percentile(sorted, 99)),
+                    millis(size == 0 ? 0 : sorted[size - 1]), millis((long) mean));
+        }
+
+        // Nearest-rank: the smallest value with at least p% of the samples at or below it
+        private static long percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+            return sorted[Math.max(0, rank - 1)];
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
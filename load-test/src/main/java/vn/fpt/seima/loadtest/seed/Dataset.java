@@ -0,0 +1,32 @@
+package vn.fpt.seima.loadtest.seed;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Manifest of a seeded dataset: what each virtual user logs in with and the ids its journey uses.
+ */
+public record Dataset(List<SeededUser> users) {
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE);
+
+    public record SeededUser(String email, String password, int userId, int walletId,
+                             List<Integer> expenseCategoryIds, Integer groupId) {
+    }
+
+    public void write(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        MAPPER.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), this);
+    }
+
+    public static Dataset read(Path file) throws IOException {
+        return MAPPER.readValue(file.toFile(), Dataset.class);
+    }
+}
@@ -0,0 +1,312 @@
+package vn.fpt.seima.loadtest.seed;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import vn.fpt.seima.loadtest.Options;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Fills the database with a reproducible dataset: users in groups, a wallet and a monthly budget
+ * each, and {@code years} of income and expenses. Rows go in through JDBC batches rather than the API,
+ * so millions of transactions take minutes; the schema must already exist, which starting the server
+ * once against the database takes care of.
+ * <p>
+ * Wallet balances are computed from the generated transactions. Budget periods are left for the server
+ * to materialise on first use, as it does for budgets it did not create itself.
+ */
+public class DatasetGenerator {
+    static final String EMAIL_FORMAT = "loadtest.user%d@seima.test";
+    private static final List<String> EXPENSE_CATEGORIES = List.of(
+            "Food & Drink", "Transport", "Shopping", "Bills", "Entertainment", "Health");
+    private static final List<String> INCOME_CATEGORIES = List.of("Salary", "Bonus");
+    private static final String CURRENCY = "VND";
+    private static final BigDecimal INITIAL_BALANCE = BigDecimal.valueOf(5_000_000);
+    private static final BigDecimal BUDGET_LIMIT = BigDecimal.valueOf(10_000_000);
+    private static final int BATCH_SIZE = 1000;
+    // Share of expenses recorded against the user's group, feeding the group history
+    private static final double GROUP_EXPENSE_SHARE = 0.1;
+
+    private final Settings settings;
+    private final Random random;
+
+    public DatasetGenerator(Settings settings) {
+        this.settings = settings;
+        this.random = new Random(settings.randomSeed());
+    }
+
+    public record Settings(String jdbcUrl, String dbUser, String dbPassword, int users, int years,
+                           int transactionsPerMonth, int groupSize, String password, long randomSeed,
+                           Path manifest) {
+        public static final String DEFAULT_JDBC_URL = "jdbc:mysql://localhost:13306/seima_loadtest"
+                + "?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC&rewriteBatchedStatements=true";
+        public static final String DEFAULT_MANIFEST = "target/dataset.json";
+
+        public static Settings from(Options options) {
+            return new Settings(
+                    options.string("jdbc-url", DEFAULT_JDBC_URL),
+                    options.string("db-user", "seima"),
+                    options.string("db-password", "seima"),
+                    options.integer("users", 100),
+                    options.integer("years", 3),
+                    options.integer("transactions-per-month", 60),
+                    options.integer("group-size", 5),
+                    options.string("password", "LoadTest@123"),
+                    options.integer("random-seed", 42),
+                    Path.of(options.string("manifest", DEFAULT_MANIFEST)));
+        }
+    }
+
+    public Dataset generate() throws SQLException, IOException {
+        long started = System.nanoTime();
+        List<Dataset.SeededUser> users = new ArrayList<>();
+        long transactions = 0;
+        try (Connection connection = DriverManager.getConnection(settings.jdbcUrl(), settings.dbUser(), settings.dbPassword())) {
+            connection.setAutoCommit(false);
+            if (queryInt(connection, "SELECT user_id FROM `user` WHERE user_email = ?", EMAIL_FORMAT.formatted(1)) != null) {
+                throw new IllegalStateException("The database already holds a load test dataset; "
+                        + "recreate it (docker compose down -v) before seeding again");
+            }
+            int walletTypeId = systemWalletType(connection);
+            List<Integer> expenseCategories = systemCategories(connection, "EXPENSE", EXPENSE_CATEGORIES);
+            List<Integer> incomeCategories = systemCategories(connection, "INCOME", INCOME_CATEGORIES);
+            connection.commit();
+
+            // Hashing once keeps seeding fast; every user shares the password anyway
+            String passwordHash = new BCryptPasswordEncoder().encode(settings.password());
+            Integer groupId = null;
+            for (int n = 1; n <= settings.users(); n++) {
+                boolean groupOwner = settings.groupSize() > 0 && (n - 1) % settings.groupSize() == 0;
+                if (groupOwner) {
+                    groupId = insertGroup(connection, n);
+                }
+                int userId = insertUser(connection, n, passwordHash);
+                if (groupId != null) {
+                    insertGroupMember(connection, groupId, userId, groupOwner ? "OWNER" : "MEMBER");
+                }
+                int walletId = insertWallet(connection, userId, walletTypeId);
+                UserTransactions generated = insertTransactions(connection, userId, walletId, groupId,
+                        expenseCategories, incomeCategories);
+                update(connection, "UPDATE wallet SET current_balance = ? WHERE wallet_id = ?",
+                        INITIAL_BALANCE.add(generated.balanceChange()), walletId);
+                insertBudget(connection, userId, walletId, expenseCategories.subList(0, Math.min(3, expenseCategories.size())));
+                connection.commit();
+
+                transactions += generated.count();
+                users.add(new Dataset.SeededUser(EMAIL_FORMAT.formatted(n), settings.password(), userId, walletId,
+                        expenseCategories, groupId));
+                if (n % 10 == 0 || n == settings.users()) {
+                    System.out.printf("Seeded %d/%d users, %d transactions%n", n, settings.users(), transactions);
+                }
+            }
+        }
+
+        Dataset dataset = new Dataset(users);
+        dataset.write(settings.manifest());
+        System.out.printf("Dataset of %d users and %d transactions seeded in %ds, manifest written to %s%n",
+                users.size(), transactions, (System.nanoTime() - started) / 1_000_000_000L, settings.manifest());
+        return dataset;
+    }
+
+    private record UserTransactions(long count, BigDecimal balanceChange) {
+    }
+
+    private UserTransactions insertTransactions(Connection connection, int userId, int walletId, Integer groupId,
+                                                List<Integer> expenseCategories, List<Integer> incomeCategories)
+            throws SQLException {
+        String sql = "INSERT INTO `transaction` (user_id, wallet_id, category_id, group_id, transaction_type, amount, "
+                + "currency_code, transaction_date, description, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        LocalDateTime now = LocalDateTime.now();
+        YearMonth month = YearMonth.from(now).minusYears(settings.years());
+        long count = 0;
+        BigDecimal balanceChange = BigDecimal.ZERO;
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (; !month.isAfter(YearMonth.from(now)); month = month.plusMonths(1)) {
+                // Salary on the first of the month, then a varying number of expenses
+                LocalDateTime payday = month.atDay(1).atTime(9, 0);
+                if (!payday.isAfter(now)) {
+                    BigDecimal salary = amount(15_000_000, 30_000_000);
+                    addTransaction(statement, userId, walletId, pick(incomeCategories), null, "INCOME", salary, payday, "Salary");
+                    balanceChange = balanceChange.add(salary);
+                    count++;
+                }
+                int expenses = (int) Math.round(settings.transactionsPerMonth() * (0.8 + random.nextDouble() * 0.4));
+                for (int i = 0; i < expenses; i++) {
+                    LocalDateTime date = month.atDay(1 + random.nextInt(month.lengthOfMonth()))
+                            .atTime(7 + random.nextInt(15), random.nextInt(60));
+                    if (date.isAfter(now)) {
+                        continue;
+                    }
+                    Integer expenseGroup = groupId != null && random.nextDouble() < GROUP_EXPENSE_SHARE ? groupId : null;
+                    BigDecimal expense = amount(20_000, 500_000);
+                    addTransaction(statement, userId, walletId, pick(expenseCategories), expenseGroup, "EXPENSE", expense,
+                            date, "Expense " + (i + 1));
+                    balanceChange = balanceChange.subtract(expense);
+                    if (++count % BATCH_SIZE == 0) {
+                        statement.executeBatch();
+                    }
+                }
+            }
+            statement.executeBatch();
+        }
+        return new UserTransactions(count, balanceChange);
+    }
+
+    private void addTransaction(PreparedStatement statement, int userId, int walletId, int categoryId, Integer groupId,
+                                String type, BigDecimal amount, LocalDateTime date, String description) throws SQLException {
+        Timestamp timestamp = Timestamp.valueOf(date);
+        statement.setInt(1, userId);
+        statement.setInt(2, walletId);
+        statement.setInt(3, categoryId);
+        if (groupId != null) {
+            statement.setInt(4, groupId);
+        } else {
+            statement.setNull(4, Types.INTEGER);
+        }
+        statement.setString(5, type);
+        statement.setBigDecimal(6, amount);
+        statement.setString(7, CURRENCY);
+        statement.setTimestamp(8, timestamp);
+        statement.setString(9, description);
+        statement.setTimestamp(10, timestamp);
+        statement.setTimestamp(11, timestamp);
+        statement.addBatch();
+    }
+
+    private int insertUser(Connection connection, int n, String passwordHash) throws SQLException {
+        return insert(connection, "INSERT INTO `user` (user_full_name, user_email, user_password, user_dob, "
+                        + "is_log_by_google, user_gender, base_currency_code, user_created_date, user_is_active) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                "Load Test User " + n, EMAIL_FORMAT.formatted(n), passwordHash, LocalDate.of(1995, 1, 1),
+                false, n % 2 == 0, CURRENCY, LocalDateTime.now().minusYears(settings.years()), true);
+    }
+
+    private int insertWallet(Connection connection, int userId, int walletTypeId) throws SQLException {
+        return insert(connection, "INSERT INTO wallet (currency_code, current_balance, initial_balance, wallet_created_at, "
+                        + "wallet_is_archived, wallet_name, is_default, exclude_from_total, is_deleted, user_id, wallet_type_id) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                CURRENCY, INITIAL_BALANCE, INITIAL_BALANCE, LocalDateTime.now().minusYears(settings.years()),
+                false, "Cash", true, false, false, userId, walletTypeId);
+    }
+
+    private void insertBudget(Connection connection, int userId, int walletId, List<Integer> categories) throws SQLException {
+        LocalDateTime start = YearMonth.now().minusYears(settings.years()).atDay(1).atStartOfDay();
+        int budgetId = insert(connection, "INSERT INTO budget (user_id, budget_name, start_date, period_type, "
+                        + "overall_amount_limit, budget_remaining_amount, currency_code, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                userId, "Monthly spending", start, "MONTHLY", BUDGET_LIMIT, BUDGET_LIMIT, CURRENCY, start);
+        for (int categoryId : categories) {
+            insert(connection, "INSERT INTO budget_category_limit (budget_id, category_id) VALUES (?, ?)", budgetId, categoryId);
+        }
+        insert(connection, "INSERT INTO budget_wallet (budget_id, wallet_id) VALUES (?, ?)", budgetId, walletId);
+    }
+
+    private int insertGroup(Connection connection, int firstUser) throws SQLException {
+        return insert(connection, "INSERT INTO app_group (group_name, group_invite_code, group_created_date, group_is_active) "
+                        + "VALUES (?, ?, ?, ?)",
+                "Load Test Group " + ((firstUser - 1) / settings.groupSize() + 1), UUID.randomUUID().toString(),
+                LocalDateTime.now().minusYears(settings.years()), true);
+    }
+
+    private void insertGroupMember(Connection connection, int groupId, int userId, String role) throws SQLException {
+        insert(connection, "INSERT INTO group_member (group_id, user_id, role, join_date, status) VALUES (?, ?, ?, ?, ?)",
+                groupId, userId, role, LocalDateTime.now().minusYears(settings.years()), "ACTIVE");
+    }
+
+    private int systemWalletType(Connection connection) throws SQLException {
+        Integer existing = queryInt(connection,
+                "SELECT wallet_type_id FROM wallet_type WHERE is_system_defined = ? ORDER BY wallet_type_id LIMIT 1", true);
+        if (existing != null) {
+            return existing;
+        }
+        return insert(connection, "INSERT INTO wallet_type (type_name, is_system_defined) VALUES (?, ?)", "Cash", true);
+    }
+
+    // Uses the system categories already in the database, creating a default set if there are none
+    private List<Integer> systemCategories(Connection connection, String type, List<String> defaults) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement("SELECT category_id FROM category "
+                + "WHERE user_id IS NULL AND group_id IS NULL AND category_type = ? ORDER BY category_id")) {
+            statement.setString(1, type);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+        }
+        if (ids.isEmpty()) {
+            for (String name : defaults) {
+                ids.add(insert(connection, "INSERT INTO category (category_name, category_type, is_system_defined) "
+                        + "VALUES (?, ?, ?)", name, type, true));
+            }
+        }
+        return ids;
+    }
+
+    private BigDecimal amount(long min, long max) {
+        // Rounded to a thousand, like real VND prices
+        long thousands = (min + (long) (random.nextDouble() * (max - min))) / 1000;
+        return BigDecimal.valueOf(thousands * 1000);
+    }
+
+    private int pick(List<Integer> ids) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    private static int insert(Connection connection, String sql, Object... params) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            bind(statement, params);
+            statement.executeUpdate();
+            try (ResultSet keys = statement.getGeneratedKeys()) {
+                if (!keys.next()) {
+                    throw new SQLException("No id generated for: " + sql);
+                }
+                return keys.getInt(1);
+            }
+        }
+    }
+
+    private static void update(Connection connection, String sql, Object... params) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            bind(statement, params);
+            statement.executeUpdate();
+        }
+    }
+
+    private static Integer queryInt(Connection connection, String sql, Object... params) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            bind(statement, params);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : null;
+            }
+        }
+    }
+
+    private static void bind(PreparedStatement statement, Object... params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            Object param = params[i];
+            if (param instanceof LocalDateTime dateTime) {
+                statement.setTimestamp(i + 1, Timestamp.valueOf(dateTime));
+            } else if (param instanceof LocalDate date) {
+                statement.setDate(i + 1, java.sql.Date.valueOf(date));
+            } else {
+                statement.setObject(i + 1, param);
+            }
+        }
+    }
+}
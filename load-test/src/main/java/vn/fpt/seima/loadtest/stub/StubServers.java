@@ -0,0 +1,205 @@
+package vn.fpt.seima.loadtest.stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One HTTP server standing in for every external API the server calls, each under its own path
+ * prefix, so the server only needs its base URLs pointed here (see application-loadtest.yaml):
+ * <ul>
+ *     <li>{@code /gemini}: generateContent, answering with a fixed invoice</li>
+ *     <li>{@code /azure}: Form Recognizer analyze and its result poll</li>
+ *     <li>{@code /fcm}: FCM v1 messages:send</li>
+ *     <li>{@code /branch}: link creation, single and bulk</li>
+ *     <li>{@code /cloudinary}: image upload and destroy</li>
+ * </ul>
+ * Every response can be delayed by a fixed latency to stand in for the real round trip.
+ * {@code GET /stats} returns the number of requests each stub has served.
+ */
+public class StubServers {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String INVOICE_JSON = """
+            {"total_amount": 125000, "currency_code": "VND", "transaction_date": "2025-01-15T12:30:00",
+             "description_invoice": "Load test invoice", "customer_name": "Seima Mart"}""";
+
+    private final int requestedPort;
+    private final Duration latency;
+    private final Map<String, AtomicLong> counts = new ConcurrentHashMap<>();
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public StubServers(int port, Duration latency) {
+        this.requestedPort = port;
+        this.latency = latency;
+    }
+
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(requestedPort), 512);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/gemini", stub("gemini", this::gemini));
+        server.createContext("/azure", stub("azure", this::azure));
+        server.createContext("/fcm", stub("fcm", this::fcm));
+        server.createContext("/branch", stub("branch", this::branch));
+        server.createContext("/cloudinary", stub("cloudinary", this::cloudinary));
+        server.createContext("/stats", exchange -> respond(exchange, 200, counts()));
+        server.start();
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    public Map<String, Long> counts() {
+        Map<String, Long> snapshot = new LinkedHashMap<>();
+        counts.forEach((stub, count) -> snapshot.put(stub, count.get()));
+        return snapshot;
+    }
+
+    private void gemini(HttpExchange exchange, byte[] body) throws IOException {
+        Map<String, Object> part = Map.of("text", "```json\n" + INVOICE_JSON + "\n```");
+        Map<String, Object> candidate = Map.of("content", Map.of("role", "model", "parts", List.of(part)));
+        respond(exchange, 200, Map.of("candidates", List.of(candidate)));
+    }
+
+    private void azure(HttpExchange exchange, byte[] body) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        if ("POST".equals(exchange.getRequestMethod()) && path.endsWith(":analyze")) {
+            String model = path.substring(0, path.length() - ":analyze".length());
+            String location = "http://" + exchange.getRequestHeaders().getFirst("Host") + model
+                    + "/analyzeResults/" + UUID.randomUUID() + "?api-version=2023-07-31";
+            exchange.getResponseHeaders().add("Operation-Location", location);
+            respond(exchange, 202, null);
+            return;
+        }
+        if (path.contains("/analyzeResults/")) {
+            respond(exchange, 200, Map.of(
+                    "status", "succeeded",
+                    "analyzeResult", Map.of("content", "SEIMA MART\nTotal: 125,000 VND\n15/01/2025 12:30")));
+            return;
+        }
+        respond(exchange, 404, Map.of("error", "unknown Form Recognizer call " + path));
+    }
+
+    private void fcm(HttpExchange exchange, byte[] body) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        if (!path.endsWith("/messages:send")) {
+            respond(exchange, 404, Map.of("error", "unknown FCM call " + path));
+            return;
+        }
+        String project = path.replaceFirst("^/fcm/v1/projects/([^/]+)/.*$", "$1");
+        respond(exchange, 200, Map.of("name", "projects/" + project + "/messages/" + UUID.randomUUID()));
+    }
+
+    private void branch(HttpExchange exchange, byte[] body) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        if (path.startsWith("/branch/v1/url/bulk/")) {
+            JsonNode links = MAPPER.readTree(body);
+            List<Map<String, String>> urls = new ArrayList<>();
+            for (int i = 0; i < links.size(); i++) {
+                urls.add(Map.of("url", shortLink()));
+            }
+            respond(exchange, 200, urls);
+            return;
+        }
+        if (path.equals("/branch/v1/url")) {
+            respond(exchange, 200, Map.of("url", shortLink()));
+            return;
+        }
+        respond(exchange, 404, Map.of("error", "unknown Branch call " + path));
+    }
+
+    private void cloudinary(HttpExchange exchange, byte[] body) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        if (path.endsWith("/destroy")) {
+            respond(exchange, 200, Map.of("result", "ok"));
+            return;
+        }
+        if (path.endsWith("/upload")) {
+            String publicId = "loadtest/" + UUID.randomUUID().toString().replace("-", "");
+            long version = System.currentTimeMillis() / 1000;
+            String url = "https://res.cloudinary.com/loadtest/image/upload/v" + version + "/" + publicId + ".jpg";
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("public_id", publicId);
+            result.put("version", version);
+            result.put("format", "jpg");
+            result.put("resource_type", "image");
+            result.put("bytes", body.length);
+            result.put("url", url.replace("https://", "http://"));
+            result.put("secure_url", url);
+            respond(exchange, 200, result);
+            return;
+        }
+        respond(exchange, 404, Map.of("error", "unknown Cloudinary call " + path));
+    }
+
+    private static String shortLink() {
+        return "https://seima.test.app.link/" + UUID.randomUUID().toString().substring(0, 11);
+    }
+
+    private HttpHandler stub(String name, StubHandler handler) {
+        AtomicLong count = counts.computeIfAbsent(name, key -> new AtomicLong());
+        return exchange -> {
+            try (exchange) {
+                byte[] body;
+                try (InputStream in = exchange.getRequestBody()) {
+                    body = in.readAllBytes();
+                }
+                count.incrementAndGet();
+                if (!latency.isZero()) {
+                    Thread.sleep(latency);
+                }
+                handler.handle(exchange, body);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                respond(exchange, 500, Map.of("error", String.valueOf(e.getMessage())));
+            }
+        };
+    }
+
+    private static void respond(HttpExchange exchange, int status, Object body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] bytes = MAPPER.writeValueAsString(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @FunctionalInterface
+    private interface StubHandler {
+        void handle(HttpExchange exchange, byte[] body) throws IOException;
+    }
+}
@@ -0,0 +1,70 @@
+package vn.fpt.seima.loadtest.report;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyRecorderTest {
+
+    private static long ms(long millis) {
+        return millis * 1_000_000L;
+    }
+
+    @Test
+    void summarize_ShouldReportNearestRankPercentilesAndThroughput() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        recorder.start();
+        for (int i = 1; i <= 100; i++) {
+            recorder.record("GET /overview", ms(i), i != 100);
+        }
+
+        List<LatencyRecorder.EndpointStats> stats = recorder.summarize(Duration.ofSeconds(10));
+
+        LatencyRecorder.EndpointStats overview = stats.get(0);
+        assertEquals("GET /overview", overview.endpoint());
+        assertEquals(100, overview.requests());
+        assertEquals(1, overview.errors());
+        assertEquals(10.0, overview.throughputPerSecond(), 0.001);
+        assertEquals(50.0, overview.p50Ms(), 0.001);
+        assertEquals(95.0, overview.p95Ms(), 0.001);
+        assertEquals(99.0, overview.p99Ms(), 0.001);
+        assertEquals(100.0, overview.maxMs(), 0.001);
+    }
+
+    @Test
+    void summarize_ShouldAddCombinedRowAfterEndpoints() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        recorder.start();
+        recorder.record("POST /expense", ms(30), true);
+        recorder.record("GET /overview", ms(10), true);
+        recorder.record("GET /overview", ms(20), false);
+
+        List<LatencyRecorder.EndpointStats> stats = recorder.summarize(Duration.ofSeconds(1));
+
+        assertEquals(List.of("GET /overview", "POST /expense", LatencyRecorder.ALL),
+                stats.stream().map(LatencyRecorder.EndpointStats::endpoint).toList());
+        LatencyRecorder.EndpointStats all = stats.get(2);
+        assertEquals(3, all.requests());
+        assertEquals(1, all.errors());
+        assertEquals(20.0, all.p50Ms(), 0.001);
+        assertEquals(30.0, all.maxMs(), 0.001);
+    }
+
+    @Test
+    void record_BeforeStartOrAfterStop_ShouldBeIgnored() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        recorder.record("GET /overview", ms(500), true);
+        recorder.start();
+        recorder.record("GET /overview", ms(5), true);
+        recorder.stop();
+        recorder.record("GET /overview", ms(900), true);
+
+        List<LatencyRecorder.EndpointStats> stats = recorder.summarize(Duration.ofSeconds(1));
+
+        assertEquals(1, stats.get(0).requests());
+        assertEquals(5.0, stats.get(0).maxMs(), 0.001);
+    }
+}
@@ -0,0 +1,109 @@
+package vn.fpt.seima.loadtest.stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StubServersTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newHttpClient();
+    private StubServers stubs;
+    private SmtpStub smtp;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stubs = new StubServers(0, Duration.ZERO);
+        stubs.start();
+        smtp = new SmtpStub(0);
+        smtp.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stubs.stop();
+        smtp.stop();
+    }
+
+    private HttpResponse<String> post(String path, String body) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + stubs.port() + path))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    void gemini_ShouldAnswerWithInvoiceTheServerCanParse() throws Exception {
+        HttpResponse<String> response = post("/gemini/v1beta/models/gemini-2.0-flash:generateContent?key=x", "{}");
+
+        String text = mapper.readTree(response.body())
+                .at("/candidates/0/content/parts/0/text").asText();
+        JsonNode invoice = mapper.readTree(text.replace("```json", "").replace("```", ""));
+        assertEquals(125000, invoice.path("total_amount").asInt());
+        assertEquals(1L, stubs.counts().get("gemini"));
+    }
+
+    @Test
+    void azure_AnalyzeShouldPointAtPollableResult() throws Exception {
+        HttpResponse<String> analyze = post(
+                "/azure/formrecognizer/documentModels/prebuilt-invoice:analyze?api-version=2023-07-31", "{}");
+        assertEquals(202, analyze.statusCode());
+
+        String location = analyze.headers().firstValue("Operation-Location").orElseThrow();
+        HttpResponse<String> result = client.send(HttpRequest.newBuilder(URI.create(location)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertEquals("succeeded", mapper.readTree(result.body()).path("status").asText());
+    }
+
+    @Test
+    void branchBulk_ShouldReturnOneLinkPerRequest() throws Exception {
+        HttpResponse<String> response = post("/branch/v1/url/bulk/key", "[{}, {}, {}]");
+
+        JsonNode links = mapper.readTree(response.body());
+        assertEquals(3, links.size());
+        assertTrue(links.get(0).path("url").asText().startsWith("https://"));
+    }
+
+    @Test
+    void fcm_ShouldAcknowledgeSend() throws Exception {
+        HttpResponse<String> response = post("/fcm/v1/projects/seima-loadtest/messages:send", "{\"message\":{}}");
+
+        assertTrue(mapper.readTree(response.body()).path("name").asText().startsWith("projects/seima-loadtest/messages/"));
+    }
+
+    @Test
+    void smtp_ShouldAcceptMessage() throws Exception {
+        try (Socket socket = new Socket("localhost", smtp.port());
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII)) {
+            assertTrue(in.readLine().startsWith("220"));
+            out.write("HELO test\r\nMAIL FROM:<a@seima.test>\r\nRCPT TO:<b@seima.test>\r\nDATA\r\n");
+            out.flush();
+            assertTrue(in.readLine().startsWith("250"));
+            assertTrue(in.readLine().startsWith("250"));
+            assertTrue(in.readLine().startsWith("250"));
+            assertTrue(in.readLine().startsWith("354"));
+            out.write("Subject: hi\r\n\r\nbody\r\n.\r\nQUIT\r\n");
+            out.flush();
+            assertTrue(in.readLine().startsWith("250"));
+            assertTrue(in.readLine().startsWith("221"));
+        }
+        assertEquals(1, smtp.received());
+    }
+}
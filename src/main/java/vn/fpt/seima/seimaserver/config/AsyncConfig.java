@@ -4,8 +4,10 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import vn.fpt.seima.seimaserver.config.email.EmailDeliveryProperties;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * Configuration for asynchronous processing
@@ -46,6 +48,24 @@ public class AsyncConfig {
         return executor;
     }
     
+    /**
+     * Workers for queued email delivery
+     * When every worker is busy the poller sends the batch itself, which stops it from reading more
+     */
+    @Bean(name = "emailTaskExecutor")
+    public Executor emailTaskExecutor(EmailDeliveryProperties emailDeliveryProperties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(emailDeliveryProperties.getWorkers());
+        executor.setMaxPoolSize(emailDeliveryProperties.getWorkers());
+        executor.setQueueCapacity(emailDeliveryProperties.getWorkers());
+        executor.setThreadNamePrefix("EmailDelivery-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
     /**
      * General task executor for other async operations
      */
@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 import jakarta.annotation.PostConstruct;
@@ -30,6 +31,9 @@ public class BranchConfig {
 
     @Bean
     public RestTemplate branchRestTemplate() {
-        return new RestTemplate();
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(branchProperties.getConnectTimeout());
+        requestFactory.setReadTimeout(branchProperties.getReadTimeout());
+        return new RestTemplate(requestFactory);
     }
 } 
\ No newline at end of file
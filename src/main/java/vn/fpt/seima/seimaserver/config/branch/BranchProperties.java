@@ -4,6 +4,8 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
 /**
  * Branch.io configuration properties
  */
@@ -17,4 +19,14 @@ public class BranchProperties {
     private String branchSecret;
     private String domain;
 
-} 
\ No newline at end of file
+    // Base URL of the Branch API, can point at a local stand-in server
+    private String apiUrl = "https://api2.branch.io";
+
+    // Created links are reused for as long as an invitation stays valid (30 days)
+    private Duration linkCacheTtl = Duration.ofDays(30);
+
+    // Branch calls must not hold a request thread for long
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(5);
+
+}
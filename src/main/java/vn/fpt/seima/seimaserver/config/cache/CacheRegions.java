@@ -0,0 +1,19 @@
+package vn.fpt.seima.seimaserver.config.cache;
+
+/**
+ * Names of the Hibernate second-level cache regions. Every region must be configured in
+ * {@link SecondLevelCacheProperties}; Hibernate refuses to start with a region that has no cache.
+ */
+public final class CacheRegions {
+    public static final String WALLET_TYPE = "reference-wallet-type";
+    public static final String BANK_INFORMATION = "reference-bank-information";
+    public static final String CATEGORY = "reference-category";
+    public static final String REFERENCE_QUERIES = "reference-queries";
+
+    // Created by Hibernate itself once the query cache is on
+    public static final String DEFAULT_QUERY_RESULTS = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+    private CacheRegions() {
+    }
+}
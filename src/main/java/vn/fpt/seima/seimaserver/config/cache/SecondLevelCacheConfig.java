@@ -0,0 +1,74 @@
+package vn.fpt.seima.seimaserver.config.cache;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.ehcache.config.CacheConfiguration;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.util.Map;
+
+/**
+ * Turns on the Hibernate second-level entity and query cache, backed by an Ehcache JCache manager
+ * that is separate from the Redis-backed Spring {@code cacheManager}. Regions are created here from
+ * {@link SecondLevelCacheProperties} and their hit, miss, put and eviction counts are published as
+ * {@code cache.*} metrics.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.cache.second-level", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SecondLevelCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(SecondLevelCacheProperties properties) {
+        CachingProvider provider = Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+        for (Map.Entry<String, SecondLevelCacheProperties.Region> region : properties.getRegions().entrySet()) {
+            if (cacheManager.getCache(region.getKey()) != null) {
+                continue;
+            }
+            cacheManager.createCache(region.getKey(), Eh107Configuration.fromEhcacheCacheConfiguration(toEhcache(region.getValue())));
+            cacheManager.enableStatistics(region.getKey(), true);
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            // A region without a configured cache is a mistake, not something to create with defaults
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(CacheManager hibernateCacheManager, SecondLevelCacheProperties properties) {
+        return registry -> properties.getRegions().keySet().forEach(region ->
+                JCacheMetrics.monitor(registry, hibernateCacheManager.getCache(region), Tags.of("cache.manager", "hibernate")));
+    }
+
+    private static CacheConfiguration<Object, Object> toEhcache(SecondLevelCacheProperties.Region region) {
+        return CacheConfigurationBuilder
+                .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(region.getMaxEntries()))
+                .withExpiry(region.getTimeToLive() == null
+                        ? ExpiryPolicyBuilder.noExpiration()
+                        : ExpiryPolicyBuilder.timeToLiveExpiration(region.getTimeToLive()))
+                .build();
+    }
+}
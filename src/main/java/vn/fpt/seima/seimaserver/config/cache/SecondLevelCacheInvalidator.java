@@ -0,0 +1,118 @@
+package vn.fpt.seima.seimaserver.config.cache;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Keeps the second-level caches of all instances in step. After a cached entity is inserted, updated
+ * or deleted and the transaction commits, its entity name is broadcast on a Redis channel; the other
+ * instances evict that entity region and the query regions, whose results may now be wrong. The local
+ * cache is already kept up to date by Hibernate.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.cache.second-level", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SecondLevelCacheInvalidator implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener, MessageListener {
+    static final String EVICTION_CHANNEL = "hibernate:l2:evict";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().requireService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(EVICTION_CHANNEL));
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.canWriteToCache();
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        broadcast(event.getPersister());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        broadcast(event.getPersister());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        broadcast(event.getPersister());
+    }
+
+    // Nothing was committed, so nothing to tell the other instances
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).trim().split(" ", 2);
+        if (parts.length != 2) {
+            log.warn("Ignoring malformed second-level cache eviction message");
+            return;
+        }
+        if (nodeId.equals(parts[0])) {
+            return;
+        }
+        try {
+            Cache cache = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getCache();
+            cache.evictEntityData(parts[1]);
+            cache.evictQueryRegions();
+        } catch (Exception e) {
+            log.warn("Failed to evict second-level cache for {}: {}", parts[1], e.getMessage());
+        }
+    }
+
+    private void broadcast(EntityPersister persister) {
+        try {
+            stringRedisTemplate.convertAndSend(EVICTION_CHANNEL, nodeId + " " + persister.getEntityName());
+        } catch (Exception e) {
+            log.error("Failed to broadcast second-level cache eviction for {}", persister.getEntityName(), e);
+        }
+    }
+}
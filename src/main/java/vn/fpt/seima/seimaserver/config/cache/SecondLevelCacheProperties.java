@@ -0,0 +1,48 @@
+package vn.fpt.seima.seimaserver.config.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Sizes and TTLs of the Hibernate second-level cache regions holding read-mostly reference data
+ * (wallet types, banks, categories). Changes made on one instance evict the region on the others
+ * through the Redis channel {@code hibernate:l2:evict}; the TTL only bounds how long a lost
+ * broadcast can leave an instance stale.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.cache.second-level")
+public class SecondLevelCacheProperties {
+
+    private boolean enabled = true;
+
+    // One entry per region in CacheRegions; configured entries override these defaults
+    private Map<String, Region> regions = new LinkedHashMap<>(Map.of(
+            CacheRegions.WALLET_TYPE, new Region(Duration.ofHours(12), 200),
+            CacheRegions.BANK_INFORMATION, new Region(Duration.ofHours(12), 500),
+            CacheRegions.CATEGORY, new Region(Duration.ofHours(1), 5000),
+            CacheRegions.REFERENCE_QUERIES, new Region(Duration.ofHours(1), 100),
+            CacheRegions.DEFAULT_QUERY_RESULTS, new Region(Duration.ofMinutes(10), 500),
+            // Must outlive every cached query result, or stale results are served as fresh
+            CacheRegions.UPDATE_TIMESTAMPS, new Region(null, 1000)));
+
+    @Data
+    public static class Region {
+        // Null keeps entries until they are evicted for space or invalidated
+        private Duration timeToLive;
+        private long maxEntries = 1000;
+
+        public Region() {
+        }
+
+        public Region(Duration timeToLive, long maxEntries) {
+            this.timeToLive = timeToLive;
+            this.maxEntries = maxEntries;
+        }
+    }
+}
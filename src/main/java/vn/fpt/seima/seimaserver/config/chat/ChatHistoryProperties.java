@@ -0,0 +1,31 @@
+package vn.fpt.seima.seimaserver.config.chat;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Chat history housekeeping. Cleared messages are only flagged as deleted; they are removed for good
+ * by a background purger in small batches, each in its own short transaction.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.chat-history")
+public class ChatHistoryProperties {
+
+    // Largest page a client may ask for
+    private int maxPageSize = 100;
+
+    // Cleared messages are kept this long before they are purged
+    private Duration purgeAfter = Duration.ofDays(7);
+
+    // Rows deleted per statement, and statements per run, so no run holds locks for long
+    private int purgeBatchSize = 500;
+    private int purgeMaxBatches = 20;
+
+    // Idle per-user message counters expire and are rebuilt from the table on next use
+    private Duration counterTtl = Duration.ofDays(30);
+
+}
@@ -5,6 +5,9 @@ import com.cloudinary.utils.ObjectUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import java.util.Map;
 
 @Configuration
 public class CloudinaryConfig {
@@ -18,13 +21,21 @@ public class CloudinaryConfig {
     @Value("${cloudinary.api_secret}")
     private String apiSecret;
 
+    // API host, only set to point uploads at a local stand-in
+    @Value("${cloudinary.upload-prefix:}")
+    private String uploadPrefix;
+
     @Bean
     public Cloudinary cloudinary() {
-        return new Cloudinary(ObjectUtils.asMap(
+        Map<String, Object> config = ObjectUtils.asMap(
                 "cloud_name", cloudName,
                 "api_key", apiKey,
                 "api_secret", apiSecret,
                 "secure", true
-        ));
+        );
+        if (StringUtils.hasText(uploadPrefix)) {
+            config.put("upload_prefix", uploadPrefix);
+        }
+        return new Cloudinary(config);
     }
-}
\ No newline at end of file
+}
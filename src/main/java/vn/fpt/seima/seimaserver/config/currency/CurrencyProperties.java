@@ -0,0 +1,26 @@
+package vn.fpt.seima.seimaserver.config.currency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Currency conversion for totals across wallets and transactions in different currencies. Rates come
+ * from the {@code exchange_rate} table and, optionally, a local CSV file, and are held in memory.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.currency")
+public class CurrencyProperties {
+
+    // Currency the stored rates are quoted against, and the one users report in unless they pick another
+    private String baseCurrency = "VND";
+
+    // Optional CSV of currency_code,rate_date,rate lines; its rates win over the table's for the same day
+    private String ratesFile;
+
+    // How far back rates are loaded; older days use the earliest loaded rate
+    private Duration history = Duration.ofDays(3 * 365);
+}
@@ -0,0 +1,66 @@
+package vn.fpt.seima.seimaserver.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Replaces the auto-configured datasource with one that routes read-only transactions to the
+ * replicas, when {@code app.datasource.routing.enabled} is set.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.routing", name = "enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                                             DataSourceProperties dataSourceProperties,
+                                                             DataSourceRoutingProperties properties,
+                                                             StringRedisTemplate stringRedisTemplate) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (DataSourceRoutingProperties.Replica replica : properties.getReplicas()) {
+            if (!StringUtils.hasText(replica.getUrl())) {
+                continue;
+            }
+            String name = StringUtils.hasText(replica.getName()) ? replica.getName() : "replica-" + (replicas.size() + 1);
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(dataSourceProperties.determineDriverClassName())
+                    .url(replica.getUrl())
+                    .username(replica.getUsername() != null ? replica.getUsername() : dataSourceProperties.determineUsername())
+                    .password(replica.getPassword() != null ? replica.getPassword() : dataSourceProperties.determinePassword())
+                    .build();
+            dataSource.setPoolName(name);
+            dataSource.setReadOnly(true);
+            replicas.put(name, dataSource);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas,
+                new ReadYourWritesWindow(stringRedisTemplate, properties.getStickyWindow()), properties.getMaxLag());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        // Defers getting the connection to the first statement, when the transaction's read-only flag is set
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
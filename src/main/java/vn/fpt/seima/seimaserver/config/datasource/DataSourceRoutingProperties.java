@@ -0,0 +1,39 @@
+package vn.fpt.seima.seimaserver.config.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas for read-only transactions. Off by default; with routing enabled but no replica
+ * configured (or none healthy) every connection still goes to the primary.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.datasource.routing")
+public class DataSourceRoutingProperties {
+
+    private boolean enabled = false;
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    // Replicas further behind than this are skipped until they catch up
+    private Duration maxLag = Duration.ofSeconds(2);
+
+    // After a user's own write, their reads stay on the primary for this long
+    private Duration stickyWindow = Duration.ofSeconds(10);
+
+    @Data
+    public static class Replica {
+        private String name;
+        private String url;
+
+        // Default to the primary's credentials
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,48 @@
+package vn.fpt.seima.seimaserver.config.datasource;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * Runs the reads that refill a shared cache against the primary. A cache is evicted after the write
+ * commits, and a refill read from a replica up to {@code maxLag} behind would store the old rows for
+ * the cache's whole TTL. The reads get their own read-only transaction, since the caller's may already
+ * hold a replica connection; a read-write caller is on the primary already and reads in place.
+ */
+@Component
+public class PrimaryReads {
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private final TransactionTemplate transactionTemplate;
+    private final DataSourceRoutingProperties properties;
+
+    public PrimaryReads(PlatformTransactionManager transactionManager, DataSourceRoutingProperties properties) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+        this.properties = properties;
+    }
+
+    public <T> T read(Supplier<T> reads) {
+        if (!properties.isEnabled() || ACTIVE.get() != null
+                || (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly())) {
+            return reads.get();
+        }
+        ACTIVE.set(Boolean.TRUE);
+        try {
+            return transactionTemplate.execute(status -> reads.get());
+        } finally {
+            ACTIVE.remove();
+        }
+    }
+
+    static boolean isActive() {
+        return ACTIVE.get() != null;
+    }
+}
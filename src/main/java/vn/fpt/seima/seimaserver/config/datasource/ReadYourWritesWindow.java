@@ -0,0 +1,40 @@
+package vn.fpt.seima.seimaserver.config.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+
+/**
+ * Remembers in Redis which users wrote recently, so every node sends their next reads to the
+ * primary instead of a replica that may not have the write yet.
+ */
+@Slf4j
+public class ReadYourWritesWindow {
+    private static final String KEY_PREFIX = "db:sticky:";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Duration window;
+
+    public ReadYourWritesWindow(StringRedisTemplate stringRedisTemplate, Duration window) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.window = window;
+    }
+
+    public void wrote(String principal) {
+        try {
+            stringRedisTemplate.opsForValue().set(KEY_PREFIX + principal, "1", window);
+        } catch (Exception e) {
+            log.warn("Failed to record write of {}: {}", principal, e.getMessage());
+        }
+    }
+
+    public boolean isOpen(String principal) {
+        try {
+            return Boolean.TRUE.equals(stringRedisTemplate.hasKey(KEY_PREFIX + principal));
+        } catch (Exception e) {
+            // Without Redis we can't tell, and the primary is always up to date
+            return true;
+        }
+    }
+}
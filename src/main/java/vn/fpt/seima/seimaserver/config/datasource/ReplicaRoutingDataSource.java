@@ -0,0 +1,176 @@
+package vn.fpt.seima.seimaserver.config.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections of read-only transactions ({@code @Transactional(readOnly = true)}) to a replica,
+ * round robin, and everything else to the primary. A read stays on the primary when no replica is
+ * within {@code maxLag}, when the chosen replica refuses the connection, when the current user
+ * committed a write within the {@link ReadYourWritesWindow}, or when it refills a cache through
+ * {@link PrimaryReads}.
+ * <p>
+ * The transaction's read-only flag is only known once it has begun, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements DisposableBean {
+    private static final String PRIMARY = "primary";
+    private static final String WRITE_TRACKED = ReplicaRoutingDataSource.class.getName() + ".WRITE_TRACKED";
+
+    private final DataSource primary;
+    private final Map<String, DataSource> replicas;
+    private final ReadYourWritesWindow readYourWritesWindow;
+    private final Duration maxLag;
+    private final AtomicInteger next = new AtomicInteger();
+
+    // Replaced as a whole by the lag check; empty until the first check has passed
+    private volatile List<String> healthyReplicas = List.of();
+
+    public ReplicaRoutingDataSource(DataSource primary,
+                                    Map<String, DataSource> replicas,
+                                    ReadYourWritesWindow readYourWritesWindow,
+                                    Duration maxLag) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.readYourWritesWindow = readYourWritesWindow;
+        this.maxLag = maxLag;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        String key = determineTarget();
+        if (PRIMARY.equals(key)) {
+            return primary.getConnection();
+        }
+        try {
+            return replicas.get(key).getConnection();
+        } catch (SQLException e) {
+            log.warn("Replica {} unavailable, reading from the primary: {}", key, e.getMessage());
+            markUnhealthy(key);
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    String determineTarget() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            trackWrite();
+            return PRIMARY;
+        }
+        List<String> healthy = healthyReplicas;
+        if (healthy.isEmpty() || PrimaryReads.isActive()) {
+            return PRIMARY;
+        }
+        String principal = currentPrincipal();
+        if (principal != null && readYourWritesWindow.isOpen(principal)) {
+            return PRIMARY;
+        }
+        return healthy.get(Math.floorMod(next.getAndIncrement(), healthy.size()));
+    }
+
+    /**
+     * Opens the user's read-your-writes window once their read-write transaction commits.
+     */
+    private void trackWrite() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.hasResource(WRITE_TRACKED)) {
+            return;
+        }
+        String principal = currentPrincipal();
+        if (principal == null) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(WRITE_TRACKED, principal);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                readYourWritesWindow.wrote(principal);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(WRITE_TRACKED);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.routing.lag-check-interval-ms:5000}")
+    public void checkReplicaLag() {
+        List<String> healthy = new ArrayList<>();
+        for (Map.Entry<String, DataSource> replica : replicas.entrySet()) {
+            Duration lag = lagOf(replica.getValue());
+            if (lag != null && lag.compareTo(maxLag) <= 0) {
+                healthy.add(replica.getKey());
+            } else if (healthyReplicas.contains(replica.getKey())) {
+                log.warn("Replica {} is {} behind, reading from the others", replica.getKey(),
+                        lag == null ? "not replicating or" : lag);
+            }
+        }
+        healthyReplicas = List.copyOf(healthy);
+    }
+
+    /**
+     * @return how far the replica is behind the primary, or null if it is unreachable or not replicating
+     */
+    private Duration lagOf(DataSource replica) {
+        try {
+            return new JdbcTemplate(replica).query("SHOW REPLICA STATUS", rs -> {
+                if (!rs.next()) {
+                    return null;
+                }
+                long seconds = rs.getLong("Seconds_Behind_Source");
+                return rs.wasNull() ? null : Duration.ofSeconds(seconds);
+            });
+        } catch (Exception e) {
+            log.debug("Lag check failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private synchronized void markUnhealthy(String key) {
+        List<String> healthy = new ArrayList<>(healthyReplicas);
+        if (healthy.remove(key)) {
+            healthyReplicas = List.copyOf(healthy);
+        }
+    }
+
+    private static String currentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
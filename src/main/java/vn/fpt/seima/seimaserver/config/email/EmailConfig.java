@@ -31,6 +31,9 @@ public class EmailConfig {
     @Value("${spring.mail.properties.mail.smtp.starttls.enable}")
     private boolean starttlsEnable;
 
+    @Value("${app.email.template-cache:true}")
+    private boolean templateCache;
+
     @Bean
     public JavaMailSender javaMailSender() {
         JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
@@ -44,6 +47,10 @@ public class EmailConfig {
         props.put("mail.smtp.auth", smtpAuth);
         props.put("mail.smtp.starttls.enable", starttlsEnable);
         props.put("mail.debug", "false"); // Set to true for debugging
+        // Sends run on the delivery workers, a stuck SMTP session must not hold one forever
+        props.put("mail.smtp.connectiontimeout", "10000");
+        props.put("mail.smtp.timeout", "10000");
+        props.put("mail.smtp.writetimeout", "10000");
 
         return mailSender;
     }
@@ -62,7 +69,7 @@ public class EmailConfig {
         templateResolver.setSuffix(".html");
         templateResolver.setTemplateMode("HTML");
         templateResolver.setCharacterEncoding("UTF-8");
-        templateResolver.setCacheable(false); // Set to true in production
+        templateResolver.setCacheable(templateCache); // Parsed templates are reused between emails
         return templateResolver;
     }
 } 
\ No newline at end of file
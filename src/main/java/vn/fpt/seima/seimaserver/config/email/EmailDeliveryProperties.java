@@ -0,0 +1,29 @@
+package vn.fpt.seima.seimaserver.config.email;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Queued email delivery. Template emails are written to a Redis stream and sent by a small pool of
+ * workers, each batch over a single SMTP connection.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.email.delivery")
+public class EmailDeliveryProperties {
+
+    // Worker threads, and how many queued emails each one takes per SMTP connection
+    private int workers = 2;
+    private int batchSize = 20;
+
+    // Failed deliveries are retried with exponential backoff: 30s, 1m, 2m, ...
+    private int maxAttempts = 5;
+    private Duration retryBackoff = Duration.ofSeconds(30);
+
+    // Emails taken by a worker that died are picked up again after this long
+    private Duration claimIdleTimeout = Duration.ofMinutes(5);
+
+}
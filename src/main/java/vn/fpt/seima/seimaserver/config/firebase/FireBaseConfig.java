@@ -1,5 +1,8 @@
 package vn.fpt.seima.seimaserver.config.firebase;
 
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.auth.oauth2.AccessToken;
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.firebase.FirebaseApp;
 import com.google.firebase.FirebaseOptions;
@@ -19,7 +22,12 @@ import org.springframework.util.StringUtils;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
 
 @Configuration
 @AutoConfigureBefore(SecurityAutoConfiguration.class)
@@ -28,7 +36,7 @@ public class FireBaseConfig {
     private static final Logger logger = LoggerFactory.getLogger(FireBaseConfig.class);
 
     @Bean
-    @Profile("dev")
+    @Profile("dev & !loadtest")
     @ConditionalOnResource(resources = "classpath:${firebase.credential-url}")
     public FirebaseApp firebaseAppDev(
             @Value("${firebase.credential-url}") String credentialUrl,
@@ -52,6 +60,32 @@ public class FireBaseConfig {
         return initializeFirebaseApp(serviceAccountStream, projectId);
     }
 
+    /**
+     * Load tests send pushes to a local stand-in: every Google API call is redirected to the stub URL,
+     * authenticated with a fixed token so no credentials file or token exchange is needed.
+     */
+    @Bean
+    @Profile("loadtest")
+    public FirebaseApp firebaseAppLoadTest(
+            @Value("${firebase.stub-url}") String stubUrl,
+            @Value("${firebase.project-id}") String projectId) {
+
+        logger.info("LOADTEST profile active. Sending Firebase requests to {}", stubUrl);
+        if (!FirebaseApp.getApps().isEmpty()) {
+            return FirebaseApp.getInstance();
+        }
+        HttpTransport transport = new NetHttpTransport.Builder()
+                .setConnectionFactory(url -> (HttpURLConnection) URI.create(stubUrl + url.getFile()).toURL().openConnection())
+                .build();
+        AccessToken token = new AccessToken("loadtest", Date.from(Instant.now().plus(Duration.ofDays(365))));
+        FirebaseOptions options = FirebaseOptions.builder()
+                .setCredentials(GoogleCredentials.create(token))
+                .setProjectId(projectId)
+                .setHttpTransport(transport)
+                .build();
+        return FirebaseApp.initializeApp(options);
+    }
+
     private FirebaseApp initializeFirebaseApp(InputStream serviceAccount, String projectId) throws IOException {
         if (!StringUtils.hasText(projectId)) {
             logger.error("Firebase project ID is not configured. Skipping initialization.");
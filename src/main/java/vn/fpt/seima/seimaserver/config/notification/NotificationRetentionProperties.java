@@ -0,0 +1,55 @@
+package vn.fpt.seima.seimaserver.config.notification;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import vn.fpt.seima.seimaserver.entity.NotificationType;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * How long notifications stay in the {@code notification} table. Expired rows are either deleted or
+ * moved to the monthly-partitioned {@code notification_archive} table, optionally rolled up first into
+ * one {@code notification_digest} row per user, type and month.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.notification.retention")
+public class NotificationRetentionProperties {
+
+    private boolean enabled = true;
+
+    // Rows moved per transaction, and transactions per type and read state in one run
+    private int batchSize = 500;
+    private int maxBatches = 50;
+
+    // Applies to every type without its own entry in policies
+    private Policy defaultPolicy = new Policy();
+
+    // A type's policy replaces the default one as a whole
+    private Map<NotificationType, Policy> policies = new EnumMap<>(NotificationType.class);
+
+    public Policy policyFor(NotificationType type) {
+        return policies.getOrDefault(type, defaultPolicy);
+    }
+
+    public enum Action {
+        DELETE,
+        ARCHIVE
+    }
+
+    @Data
+    public static class Policy {
+        // Age after which read / unread notifications expire; unread ones are kept unless unreadAfter is set
+        private Duration readAfter = Duration.ofDays(180);
+        private Duration unreadAfter;
+
+        private Action action = Action.ARCHIVE;
+
+        // Count expired notifications into notification_digest before they leave the table
+        private boolean digest;
+    }
+
+}
@@ -0,0 +1,56 @@
+package vn.fpt.seima.seimaserver.config.ratelimit;
+
+import io.github.bucket4j.distributed.ExpirationAfterWriteStrategy;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.redis.lettuce.cas.LettuceBasedProxyManager;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.codec.ByteArrayCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+/**
+ * Buckets live in Redis so every instance shares the same limits. Bucket4j needs a raw Lettuce
+ * connection with byte[] values, so it gets its own client next to the Spring Data one.
+ */
+@Configuration
+public class RateLimitConfig {
+
+    @Value("${redis.host}")
+    private String redisHost;
+
+    @Value("${redis.port}")
+    private int redisPort;
+
+    @Value("${redis.username}")
+    private String redisUsername;
+
+    @Value("${redis.password}")
+    private String redisPassword;
+
+    @Bean(destroyMethod = "shutdown")
+    public RedisClient rateLimitRedisClient() {
+        RedisURI.Builder uri = RedisURI.builder().withHost(redisHost).withPort(redisPort);
+        if (StringUtils.hasText(redisPassword)) {
+            uri.withAuthentication(StringUtils.hasText(redisUsername) ? redisUsername : "default", redisPassword);
+        }
+        return RedisClient.create(uri.build());
+    }
+
+    @Bean(destroyMethod = "close")
+    public StatefulRedisConnection<byte[], byte[]> rateLimitRedisConnection(RedisClient rateLimitRedisClient) {
+        return rateLimitRedisClient.connect(ByteArrayCodec.INSTANCE);
+    }
+
+    @Bean
+    public ProxyManager<byte[]> rateLimitProxyManager(StatefulRedisConnection<byte[], byte[]> rateLimitRedisConnection,
+                                                      RateLimitProperties rateLimitProperties) {
+        return LettuceBasedProxyManager.builderFor(rateLimitRedisConnection)
+                .withExpirationStrategy(ExpirationAfterWriteStrategy
+                        .basedOnTimeForRefillingBucketUpToMax(rateLimitProperties.getIdleTimeout()))
+                .build();
+    }
+}
@@ -0,0 +1,81 @@
+package vn.fpt.seima.seimaserver.config.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.bucket4j.ConsumptionProbe;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import vn.fpt.seima.seimaserver.config.base.ApiResponse;
+import vn.fpt.seima.seimaserver.service.RateLimitService;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registered as a plain servlet filter, which runs after the Spring Security chain, so authenticated
+ * calls are limited per user rather than per IP. Anonymous calls are limited per client address, which
+ * server.forward-headers-strategy resolves from X-Forwarded-For when the app runs behind a proxy.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final String REMAINING_HEADER = "X-Rate-Limit-Remaining";
+
+    private final RateLimitService rateLimitService;
+    private final RateLimitProperties rateLimitProperties;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !rateLimitProperties.isEnabled() || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ConsumptionProbe probe;
+        try {
+            probe = rateLimitService.tryConsume(request.getMethod(), request.getRequestURI(), clientId(request));
+        } catch (Exception e) {
+            // Fail open: an unreachable Redis must not take the whole API down
+            log.warn("Rate limiter unavailable, letting {} {} through", request.getMethod(), request.getRequestURI(), e);
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (probe.isConsumed()) {
+            response.setHeader(REMAINING_HEADER, String.valueOf(probe.getRemainingTokens()));
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(probe.getNanosToWaitForRefill()) + 1);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setHeader(REMAINING_HEADER, "0");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ApiResponse<>(HttpStatus.TOO_MANY_REQUESTS.value(),
+                "Too many requests. Please try again in " + retryAfterSeconds + " seconds.", null));
+    }
+
+    private static String clientId(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
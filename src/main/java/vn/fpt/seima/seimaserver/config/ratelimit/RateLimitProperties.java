@@ -0,0 +1,58 @@
+package vn.fpt.seima.seimaserver.config.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rate limiting configuration. The first policy whose method and path pattern match a request applies;
+ * anything else falls under the default policy. Limits are per user, or per IP for anonymous calls.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Consumption a node may keep locally before writing it back to Redis. Capped at a tenth of a
+    // policy's capacity, so tight limits (registration, OTP) are always checked against Redis.
+    private long localSyncTokens = 20;
+    private Duration localSyncTimeout = Duration.ofSeconds(1);
+
+    // Buckets untouched for this long are dropped from the node and expire in Redis
+    private Duration idleTimeout = Duration.ofMinutes(10);
+    private int maxLocalBuckets = 10_000;
+
+    private Policy defaultPolicy = new Policy("default", null, "/api/**", 300, Duration.ofMinutes(1));
+
+    private List<Policy> policies = new ArrayList<>(List.of(
+            new Policy("ocr", "POST", "/api/v1/transactions/scan-invoice/**", 10, Duration.ofMinutes(1)),
+            new Policy("speech", "POST", "/api/v1/transcription/**", 10, Duration.ofMinutes(1)),
+            new Policy("import", "POST", "/api/v1/transactions/import", 5, Duration.ofMinutes(10)),
+            new Policy("register", "POST", "/api/v1/auth/register", 3, Duration.ofMinutes(5)),
+            new Policy("otp-resend", "POST", "/api/v1/auth/resend-*otp", 2, Duration.ofMinutes(10)),
+            new Policy("login", "POST", "/api/v1/auth/login", 10, Duration.ofMinutes(1)),
+            // Sends an OTP email like a resend; per-email sends are also capped by OtpService
+            new Policy("forgot-password", "POST", "/api/v1/auth/forgot-password", 3, Duration.ofMinutes(10)),
+            new Policy("google-login", "POST", "/api/v1/auth/google", 10, Duration.ofMinutes(1))
+    ));
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Policy {
+        private String name;
+        // Null matches any method
+        private String method;
+        private String pattern;
+        private long capacity;
+        private Duration period;
+    }
+}
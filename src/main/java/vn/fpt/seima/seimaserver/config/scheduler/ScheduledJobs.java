@@ -0,0 +1,65 @@
+package vn.fpt.seima.seimaserver.config.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Component;
+import vn.fpt.seima.seimaserver.service.BudgetPeriodService;
+import vn.fpt.seima.seimaserver.service.ChatHistoryService;
+import vn.fpt.seima.seimaserver.service.ClusterJobService;
+import vn.fpt.seima.seimaserver.service.NotificationRetentionService;
+import vn.fpt.seima.seimaserver.service.TransactionArchiveService;
+
+import java.util.List;
+
+/**
+ * Triggers of the maintenance jobs that must run once per cluster rather than once per instance. Every
+ * instance fires them, and {@link ClusterJobService} lets only the lease holder do the work.
+ * <p>
+ * Jobs that keep per-instance state stay scheduled on their own classes: rate-limit bucket eviction,
+ * replica lag checks, exchange-rate reloads and financial-health refreshes. The email queue jobs are
+ * already shared out by the Redis consumer group.
+ */
+@Component
+@RequiredArgsConstructor
+public class ScheduledJobs {
+    public static final String BUDGET_PERIOD_ROLL_FORWARD = "budget-period-roll-forward";
+    public static final String TRANSACTION_ARCHIVE = "transaction-archive";
+    public static final String NOTIFICATION_RETENTION = "notification-retention";
+    public static final String CHAT_HISTORY_PURGE = "chat-history-purge";
+    private static final String ROLL_FORWARD_CRON = "${budget.period.roll-forward-cron:0 5 0 * * *}";
+    public static final List<String> ALL = List.of(BUDGET_PERIOD_ROLL_FORWARD, TRANSACTION_ARCHIVE,
+            NOTIFICATION_RETENTION, CHAT_HISTORY_PURGE);
+
+    private final ClusterJobService clusterJobService;
+    private final BudgetPeriodService budgetPeriodService;
+    private final TransactionArchiveService transactionArchiveService;
+    private final NotificationRetentionService notificationRetentionService;
+    private final ChatHistoryService chatHistoryService;
+
+    @Value(ROLL_FORWARD_CRON)
+    private String rollForwardCron;
+
+    // Sharded by user id, so a large run is spread over the instances that are up
+    @Scheduled(cron = ROLL_FORWARD_CRON)
+    public void rollForwardBudgetPeriods() {
+        clusterJobService.runSharded(BUDGET_PERIOD_ROLL_FORWARD, CronExpression.parse(rollForwardCron),
+                budgetPeriodService::rollForwardPeriods);
+    }
+
+    @Scheduled(cron = "${app.transaction.archive.cron:0 0 4 * * *}")
+    public void archiveTransactions() {
+        clusterJobService.runExclusive(TRANSACTION_ARCHIVE, transactionArchiveService::archiveTransactions);
+    }
+
+    @Scheduled(cron = "${app.notification.retention.cron:0 30 3 * * *}")
+    public void applyNotificationRetention() {
+        clusterJobService.runExclusive(NOTIFICATION_RETENTION, notificationRetentionService::applyRetention);
+    }
+
+    @Scheduled(fixedDelayString = "${app.chat-history.purge-interval-ms:300000}")
+    public void purgeDeletedChatMessages() {
+        clusterJobService.runExclusive(CHAT_HISTORY_PURGE, chatHistoryService::purgeDeletedMessages);
+    }
+}
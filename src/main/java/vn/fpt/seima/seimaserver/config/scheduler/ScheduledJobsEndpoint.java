@@ -0,0 +1,39 @@
+package vn.fpt.seima.seimaserver.config.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+import vn.fpt.seima.seimaserver.dto.response.scheduler.JobRun;
+import vn.fpt.seima.seimaserver.service.ClusterJobService;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code /actuator/scheduledjobs}: recent runs of each cluster-wide job, across all instances.
+ * Like other actuator endpoints it is only reachable once listed in
+ * {@code management.endpoints.web.exposure.include}.
+ */
+@Component
+@Endpoint(id = "scheduledjobs")
+@RequiredArgsConstructor
+public class ScheduledJobsEndpoint {
+    private final ClusterJobService clusterJobService;
+
+    @ReadOperation
+    public Map<String, List<JobRun>> runs() {
+        Map<String, List<JobRun>> runs = new LinkedHashMap<>();
+        for (String job : ScheduledJobs.ALL) {
+            runs.put(job, clusterJobService.recentRuns(job));
+        }
+        return runs;
+    }
+
+    @ReadOperation
+    public List<JobRun> runsOf(@Selector String job) {
+        return clusterJobService.recentRuns(job);
+    }
+}
@@ -0,0 +1,51 @@
+package vn.fpt.seima.seimaserver.config.scheduler;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cluster-wide scheduled jobs. Each run takes a lease in Redis ({@code job:lease:<job>}) so that only
+ * one instance does the work; the others skip that tick.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.scheduler")
+public class SchedulerProperties {
+
+    // Off: every instance runs every job, as a single instance without Redis needs
+    private boolean clusterLeases = true;
+
+    // Lease TTL, renewed while the run is going; a node dying mid-run blocks the job for at most this long
+    private Duration leaseTime = Duration.ofMinutes(30);
+
+    // A finished run keeps its lease this long, so instances whose clocks fire a little later skip the same tick
+    private Duration minLeaseTime = Duration.ofSeconds(30);
+
+    // Runs kept per job in job:history:<job>
+    private int historySize = 50;
+
+    // Per-job overrides, keyed by the job names in ScheduledJobs
+    private Map<String, Job> jobs = new LinkedHashMap<>();
+
+    public Duration leaseTimeOf(String job) {
+        Job settings = jobs.get(job);
+        return settings != null && settings.getLeaseTime() != null ? settings.getLeaseTime() : leaseTime;
+    }
+
+    public int shardsOf(String job) {
+        Job settings = jobs.get(job);
+        return settings != null ? Math.max(1, settings.getShards()) : 1;
+    }
+
+    @Data
+    public static class Job {
+        private Duration leaseTime;
+        // Contiguous user id ranges a sharded job is split into, each under its own lease
+        private int shards = 1;
+    }
+}
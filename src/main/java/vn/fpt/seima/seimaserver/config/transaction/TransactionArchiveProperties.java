@@ -0,0 +1,32 @@
+package vn.fpt.seima.seimaserver.config.transaction;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Hot/cold split of transactions. The {@code transaction} table keeps the current year and the
+ * previous ones up to {@code hotYears}; older rows, and rows soft-deleted (INACTIVE) for longer than
+ * {@code inactiveGrace}, are moved to {@code transaction_archive} by a background job.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.transaction.archive")
+public class TransactionArchiveProperties {
+
+    private boolean enabled = true;
+
+    // Full years before the current one that stay in the hot table
+    private int hotYears = 1;
+
+    // How long soft-deleted transactions stay in the hot table
+    private Duration inactiveGrace = Duration.ofDays(30);
+
+    // Rows moved per transaction, batches per run, and the pause between batches to leave room for live traffic
+    private int batchSize = 500;
+    private int maxBatches = 200;
+    private Duration batchPause = Duration.ofMillis(100);
+
+}
@@ -0,0 +1,19 @@
+package vn.fpt.seima.seimaserver.config.web;
+
+import vn.fpt.seima.seimaserver.event.ResourceFamily;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a per-user GET endpoint whose response only changes when one of the listed families is bumped
+ * for the current user. The ETag is checked before the handler runs, so a matching If-None-Match is
+ * answered with 304 without touching the service.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConditionalGet {
+    ResourceFamily[] value() default {};
+}
@@ -0,0 +1,80 @@
+package vn.fpt.seima.seimaserver.config.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import vn.fpt.seima.seimaserver.entity.User;
+import vn.fpt.seima.seimaserver.service.ConditionalGetService;
+import vn.fpt.seima.seimaserver.util.UserUtils;
+
+import java.util.Arrays;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+    static final String ETAG_ATTRIBUTE = ConditionalGetInterceptor.class.getName() + ".etag";
+    static final String CACHE_CONTROL = "private, no-cache";
+
+    private final ConditionalGetService conditionalGetService;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!HttpMethod.GET.matches(request.getMethod()) || !(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        ConditionalGet conditionalGet = handlerMethod.getMethodAnnotation(ConditionalGet.class);
+        if (conditionalGet == null) {
+            return true;
+        }
+        User currentUser = UserUtils.getCurrentUser();
+        if (currentUser == null) {
+            return true;
+        }
+
+        String resource = request.getQueryString() != null
+                ? request.getRequestURI() + "?" + request.getQueryString()
+                : request.getRequestURI();
+        String etag;
+        try {
+            etag = "\"" + conditionalGetService.getETag(currentUser.getUserId(), resource,
+                    Arrays.asList(conditionalGet.value())) + "\"";
+        } catch (Exception e) {
+            // Without a version we can only serve the full response
+            log.warn("Could not compute ETag for {}", resource, e);
+            return true;
+        }
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+            return false;
+        }
+        // The header itself is only added once the handler has produced a successful body
+        request.setAttribute(ETAG_ATTRIBUTE, etag);
+        return true;
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
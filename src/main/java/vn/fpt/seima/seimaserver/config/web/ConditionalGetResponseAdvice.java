@@ -0,0 +1,42 @@
+package vn.fpt.seima.seimaserver.config.web;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+import vn.fpt.seima.seimaserver.config.base.ApiResponse;
+
+/**
+ * Adds the ETag computed by {@link ConditionalGetInterceptor} to successful responses only. Errors are
+ * reported inside an {@link ApiResponse} with HTTP 200, and tagging one would let the client keep
+ * revalidating the error until the next write.
+ */
+@ControllerAdvice
+public class ConditionalGetResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return returnType.hasMethodAnnotation(ConditionalGet.class);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)
+                || !(body instanceof ApiResponse<?> apiResponse)
+                || apiResponse.getStatusCode() < 200 || apiResponse.getStatusCode() >= 300) {
+            return body;
+        }
+        Object etag = servletRequest.getServletRequest().getAttribute(ConditionalGetInterceptor.ETAG_ATTRIBUTE);
+        if (etag != null) {
+            response.getHeaders().setETag(etag.toString());
+            response.getHeaders().setCacheControl(ConditionalGetInterceptor.CACHE_CONTROL);
+        }
+        return body;
+    }
+}
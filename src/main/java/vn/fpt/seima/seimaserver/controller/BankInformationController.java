@@ -6,6 +6,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import vn.fpt.seima.seimaserver.config.base.ApiResponse;
+import vn.fpt.seima.seimaserver.config.web.ConditionalGet;
 import vn.fpt.seima.seimaserver.dto.response.bank.BankInformationResponse;
 import vn.fpt.seima.seimaserver.service.BankInformationService;
 
@@ -20,6 +21,7 @@ public class BankInformationController {
     private final BankInformationService bankInformationService;
 
     @GetMapping
+    @ConditionalGet
     @Operation(summary = "Get all banks")
     public ApiResponse<List<BankInformationResponse>> getAllBanks() {
         List<BankInformationResponse> banks = bankInformationService.getAllBanks();
@@ -7,11 +7,13 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import vn.fpt.seima.seimaserver.config.base.ApiResponse;
+import vn.fpt.seima.seimaserver.config.web.ConditionalGet;
 import vn.fpt.seima.seimaserver.dto.request.budget.CreateBudgetRequest;
 import vn.fpt.seima.seimaserver.dto.request.budget.UpdateBudgetRequest;
 import vn.fpt.seima.seimaserver.dto.response.budget.BudgetLastResponse;
 import vn.fpt.seima.seimaserver.dto.response.budget.BudgetResponse;
 import vn.fpt.seima.seimaserver.dto.response.budgetPeriod.BudgetPeriodResponse;
+import vn.fpt.seima.seimaserver.event.ResourceFamily;
 import vn.fpt.seima.seimaserver.exception.ResourceNotFoundException;
 import vn.fpt.seima.seimaserver.service.BudgetPeriodService;
 import vn.fpt.seima.seimaserver.service.BudgetService;
@@ -107,6 +109,7 @@ public class BudgetController {
     }
 
     @GetMapping("/last-budget")
+    @ConditionalGet(ResourceFamily.BUDGETS)
     public ApiResponse<List<BudgetLastResponse>> getBudgetLastPeriod() {
         try {
 
@@ -5,7 +5,9 @@ import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import vn.fpt.seima.seimaserver.config.base.ApiResponse;
 import vn.fpt.seima.seimaserver.dto.request.category.CreateCategoryRequest;
@@ -25,15 +27,21 @@ public class CategoryController {
 
 
     @GetMapping
-    public ApiResponse<List<CategoryResponse>> getAllCategoriesByTypeAndUser(
+    public ResponseEntity<ApiResponse<List<CategoryResponse>>> getAllCategoriesByTypeAndUser(
             @RequestParam Integer categoryType,
             @RequestParam Integer groupId
     ) {
         try {
+            // Read before the list, so a change in between leaves an older tag rather than a newer one
+            String etag = categoryService.getCategoryCatalogueETag(categoryType, groupId);
             List<CategoryResponse> categories = categoryService.getAllCategoryByTypeAndUser(categoryType, groupId);
-            return new ApiResponse<>(HttpStatus.OK.value(), "Category list retrieved successfully", categories);
+            // Only a successful list is tagged; Spring answers 304 without the body when If-None-Match matches
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .body(new ApiResponse<>(HttpStatus.OK.value(), "Category list retrieved successfully", categories));
         } catch (Exception ex) {
-            return new ApiResponse<>(HttpStatus.INTERNAL_SERVER_ERROR.value(),ex.getMessage(), null);
+            return ResponseEntity.ok(new ApiResponse<>(HttpStatus.INTERNAL_SERVER_ERROR.value(), ex.getMessage(), null));
         }
     }
 
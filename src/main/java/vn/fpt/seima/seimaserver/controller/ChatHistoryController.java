@@ -4,12 +4,10 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import vn.fpt.seima.seimaserver.config.base.ApiResponse;
+import vn.fpt.seima.seimaserver.dto.response.chat.ChatHistorySliceResponse;
 import vn.fpt.seima.seimaserver.dto.response.chat.ChatMessageResponse;
 import vn.fpt.seima.seimaserver.service.ChatHistoryService;
 
@@ -25,14 +23,15 @@ public class ChatHistoryController {
     private final ChatHistoryService chatHistoryService;
     
     @GetMapping
-    @Operation(summary = "Get user's complete chat history with pagination")
-    public ApiResponse<Page<ChatMessageResponse>> getUserChatHistory(
-            @RequestParam(defaultValue = "0") int page,
+    @Operation(summary = "Get user's chat history, newest first; pass nextCursor to get older messages")
+    public ApiResponse<ChatHistorySliceResponse> getUserChatHistory(
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "50") int size) {
         try {
-            Pageable pageable = PageRequest.of(page, size);
-            Page<ChatMessageResponse> response = chatHistoryService.getUserChatHistory(pageable);
+            ChatHistorySliceResponse response = chatHistoryService.getUserChatHistory(cursor, size);
             return new ApiResponse<>(HttpStatus.OK.value(), "Chat history retrieved successfully", response);
+        } catch (IllegalArgumentException ex) {
+            return new ApiResponse<>(HttpStatus.BAD_REQUEST.value(), ex.getMessage(), null);
         } catch (Exception ex) {
             log.error("Error retrieving chat history", ex);
             return new ApiResponse<>(HttpStatus.INTERNAL_SERVER_ERROR.value(), "Failed to retrieve chat history: " + ex.getMessage(), null);
@@ -8,6 +8,7 @@ import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import vn.fpt.seima.seimaserver.config.base.ApiResponse;
+import vn.fpt.seima.seimaserver.config.web.ConditionalGet;
 import vn.fpt.seima.seimaserver.dto.request.group.CreateGroupRequest;
 import vn.fpt.seima.seimaserver.dto.request.group.UpdateGroupRequest;
 import vn.fpt.seima.seimaserver.dto.request.group.CancelJoinGroupRequest;
@@ -17,6 +18,7 @@ import vn.fpt.seima.seimaserver.dto.response.group.UserJoinedGroupResponse;
 import vn.fpt.seima.seimaserver.dto.response.group.GroupMemberStatusResponse;
 import vn.fpt.seima.seimaserver.dto.response.group.UserPendingGroupResponse;
 import vn.fpt.seima.seimaserver.dto.response.group.InvitedGroupMemberResponse;
+import vn.fpt.seima.seimaserver.event.ResourceFamily;
 import vn.fpt.seima.seimaserver.service.GroupService;
 
 import java.util.List;
@@ -53,6 +55,7 @@ public class GroupController {
     }
 
     @GetMapping("/joined")
+    @ConditionalGet(ResourceFamily.GROUPS)
     @ResponseStatus(HttpStatus.OK)
     public ApiResponse<List<UserJoinedGroupResponse>> getUserJoinedGroups() {
         List<UserJoinedGroupResponse> joinedGroups = groupService.getUserJoinedGroups();
@@ -7,7 +7,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import vn.fpt.seima.seimaserver.config.base.ApiResponse;
+import vn.fpt.seima.seimaserver.dto.request.group.BulkEmailInvitationRequest;
 import vn.fpt.seima.seimaserver.dto.request.group.EmailInvitationRequest;
+import vn.fpt.seima.seimaserver.dto.response.group.BulkEmailInvitationResponse;
 import vn.fpt.seima.seimaserver.dto.response.group.EmailInvitationResponse;
 import vn.fpt.seima.seimaserver.exception.GroupException;
 import vn.fpt.seima.seimaserver.service.GroupInvitationService;
@@ -66,6 +68,36 @@ public class GroupInvitationController {
             );
         }
     }
-    
 
-} 
\ No newline at end of file
+    @PostMapping("/groups/invitations/email/bulk")
+    @ResponseStatus(HttpStatus.OK)
+    public ApiResponse<BulkEmailInvitationResponse> sendBulkEmailInvitation(@RequestBody @Valid BulkEmailInvitationRequest request) {
+
+        log.info("Received request to send bulk email invitation for group: {} to {} emails",
+                request.getGroupId(), request.getEmails().size());
+
+        try {
+            BulkEmailInvitationResponse response = groupInvitationService.sendBulkEmailInvitation(request);
+            return new ApiResponse<>(
+                HttpStatus.OK.value(),
+                String.format("%d of %d invitations sent", response.getInvitedCount(), response.getResults().size()),
+                response
+            );
+
+        } catch (GroupException e) {
+            log.warn("Bulk group invitation business logic error: {}", e.getMessage());
+            return new ApiResponse<>(
+                HttpStatus.CONFLICT.value(),
+                e.getMessage(),
+                null
+            );
+        } catch (Exception e) {
+            log.error("Error sending bulk email invitation: ", e);
+            return new ApiResponse<>(
+                HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                "Failed to send invitations: " + e.getMessage(),
+                null
+            );
+        }
+    }
+}
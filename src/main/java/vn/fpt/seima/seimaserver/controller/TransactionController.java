@@ -1,23 +1,33 @@
 package vn.fpt.seima.seimaserver.controller;
 
+import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import vn.fpt.seima.seimaserver.config.base.ApiResponse;
+import vn.fpt.seima.seimaserver.config.web.ConditionalGet;
 import vn.fpt.seima.seimaserver.dto.request.transaction.CreateTransactionRequest;
+import vn.fpt.seima.seimaserver.dto.request.upload.DirectUploadRequest;
 import vn.fpt.seima.seimaserver.dto.response.budget.BudgetResponse;
 import vn.fpt.seima.seimaserver.dto.response.budget.FinancialHealthResponse;
 import vn.fpt.seima.seimaserver.dto.response.transaction.*;
 import vn.fpt.seima.seimaserver.entity.PeriodType;
 import vn.fpt.seima.seimaserver.entity.User;
+import vn.fpt.seima.seimaserver.event.ResourceFamily;
 import vn.fpt.seima.seimaserver.service.FinancialHealthService;
 import vn.fpt.seima.seimaserver.service.OcrService;
+import vn.fpt.seima.seimaserver.service.TransactionExportService;
+import vn.fpt.seima.seimaserver.service.TransactionExportService.ExportFormat;
+import vn.fpt.seima.seimaserver.service.TransactionImportService;
 import vn.fpt.seima.seimaserver.service.TransactionService;
 import vn.fpt.seima.seimaserver.util.UserUtils;
 
@@ -25,6 +35,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @AllArgsConstructor
@@ -33,6 +44,8 @@ public class TransactionController {
     private final TransactionService transactionService;
     private final OcrService ocrService;
     private final FinancialHealthService financialHealthService;
+    private final TransactionImportService transactionImportService;
+    private final TransactionExportService transactionExportService;
     @PostMapping(value = "/expense")
     public ApiResponse<TransactionResponse> recordExpense(@RequestBody  CreateTransactionRequest request) {
         try {
@@ -85,6 +98,7 @@ public class TransactionController {
     }
 
     @GetMapping("/overview")
+    @ConditionalGet(ResourceFamily.TRANSACTIONS)
     public ApiResponse<TransactionOverviewResponse> overviewTransaction(@RequestParam("month")
                                                                         @DateTimeFormat(pattern = "yyyy-MM") YearMonth month) {
         try {
@@ -114,6 +128,46 @@ public class TransactionController {
         }
     }
 
+    @PostMapping("/scan-invoice/uploaded")
+    public ApiResponse<TransactionOcrResponse> scanUploadedInvoice(@RequestBody @Valid DirectUploadRequest request) {
+        try {
+            User currentUser = UserUtils.getCurrentUser();
+            if (currentUser == null) {
+                return new ApiResponse<>(HttpStatus.UNAUTHORIZED.value(), "You are not logged in", null);
+            }
+            TransactionOcrResponse transactionCreated = ocrService.extractTextFromUpload(currentUser.getUserId(), request);
+            return new ApiResponse<>(HttpStatus.OK.value(), "Scan invoice successfully", transactionCreated);
+        } catch (IllegalArgumentException ex) {
+            return new ApiResponse<>(400, ex.getMessage(), null);
+        } catch (Exception ex) {
+            return new ApiResponse<>(500, ex.getMessage(), null);
+        }
+    }
+
+    @PostMapping("/import")
+    public ApiResponse<TransactionImportResponse> importTransactions(@RequestParam("file") MultipartFile file) {
+        try {
+            TransactionImportResponse job = transactionImportService.startImport(file);
+            return new ApiResponse<>(HttpStatus.ACCEPTED.value(), "Transaction import started", job);
+        } catch (IllegalArgumentException ex) {
+            return new ApiResponse<>(400, ex.getMessage(), null);
+        } catch (Exception ex) {
+            return new ApiResponse<>(500, ex.getMessage(), null);
+        }
+    }
+
+    @GetMapping("/import/{jobId}")
+    public ApiResponse<TransactionImportResponse> getImportStatus(@PathVariable String jobId) {
+        try {
+            TransactionImportResponse job = transactionImportService.getImportStatus(jobId);
+            return new ApiResponse<>(HttpStatus.OK.value(), "Transaction import status retrieved successfully", job);
+        } catch (IllegalArgumentException ex) {
+            return new ApiResponse<>(400, ex.getMessage(), null);
+        } catch (Exception ex) {
+            return new ApiResponse<>(500, ex.getMessage(), null);
+        }
+    }
+
     @GetMapping("/view-history-transactions")
     public ApiResponse<Page<TransactionResponse>> viewHistoryTransactions(
             @RequestParam(defaultValue = "0") int page,
@@ -251,6 +305,44 @@ public class TransactionController {
         }
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) Integer walletId,
+            @RequestParam(required = false) Integer categoryId,
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        User user = UserUtils.getCurrentUser();
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (startDate != null && endDate != null && startDate.isAfter(endDate)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        // The body runs on an async thread without the security context, so the user id is captured here
+        Integer userId = user.getUserId();
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream gzipOut = new GZIPOutputStream(out, 8192);
+                transactionExportService.exportTransactions(userId, startDate, endDate, walletId, categoryId, format, gzipOut);
+                gzipOut.finish();
+            } else {
+                transactionExportService.exportTransactions(userId, startDate, endDate, walletId, categoryId, format, out);
+            }
+        };
+
+        String fileName = "transactions-" + LocalDate.now() + (format == ExportFormat.JSON ? ".json" : ".csv")
+                + (gzip ? ".gz" : "");
+        MediaType contentType = gzip ? MediaType.parseMediaType("application/gzip")
+                : format == ExportFormat.JSON ? MediaType.APPLICATION_JSON : MediaType.parseMediaType("text/csv");
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .contentType(contentType)
+                .body(body);
+    }
+
     @GetMapping("/transaction-today")
     @ResponseStatus(HttpStatus.OK)
     public ApiResponse<List<TransactionTodayResponse>> viewTransactionToday() {
@@ -264,6 +356,7 @@ public class TransactionController {
     }
 
     @GetMapping("/view-chart")
+    @ConditionalGet(ResourceFamily.TRANSACTIONS)
     public ApiResponse<TransactionReportResponse> viewChartTransactions(
             @RequestParam(value = "startDate") LocalDate startDate,
             @RequestParam(value = "endDate") LocalDate endDate
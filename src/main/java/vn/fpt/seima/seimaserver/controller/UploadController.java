@@ -0,0 +1,42 @@
+package vn.fpt.seima.seimaserver.controller;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import vn.fpt.seima.seimaserver.config.base.ApiResponse;
+import vn.fpt.seima.seimaserver.dto.request.upload.UploadSignatureRequest;
+import vn.fpt.seima.seimaserver.dto.response.upload.UploadSignatureResponse;
+import vn.fpt.seima.seimaserver.entity.User;
+import vn.fpt.seima.seimaserver.service.CloudinaryService;
+import vn.fpt.seima.seimaserver.util.UserUtils;
+
+/**
+ * Issues signatures for uploading images straight to Cloudinary.
+ * The client then sends the public id, version and signature from Cloudinary's response
+ * with the group, profile or receipt request instead of the file itself.
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/uploads")
+public class UploadController {
+
+    private final CloudinaryService cloudinaryService;
+
+    @PostMapping("/signature")
+    public ApiResponse<UploadSignatureResponse> createUploadSignature(@RequestBody @Valid UploadSignatureRequest request) {
+        try {
+            User currentUser = UserUtils.getCurrentUser();
+            if (currentUser == null) {
+                return new ApiResponse<>(HttpStatus.UNAUTHORIZED.value(), "You are not logged in", null);
+            }
+            UploadSignatureResponse response = cloudinaryService.createUploadSignature(request.getPurpose(), currentUser.getUserId());
+            return new ApiResponse<>(HttpStatus.OK.value(), "Upload signature created", response);
+        } catch (Exception e) {
+            log.error("Failed to create upload signature", e);
+            return new ApiResponse<>(HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getMessage(), null);
+        }
+    }
+}
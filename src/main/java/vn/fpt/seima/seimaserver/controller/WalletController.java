@@ -7,8 +7,10 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import vn.fpt.seima.seimaserver.config.base.ApiResponse;
+import vn.fpt.seima.seimaserver.config.web.ConditionalGet;
 import vn.fpt.seima.seimaserver.dto.request.wallet.CreateWalletRequest;
 import vn.fpt.seima.seimaserver.dto.response.wallet.WalletResponse;
+import vn.fpt.seima.seimaserver.event.ResourceFamily;
 import vn.fpt.seima.seimaserver.service.WalletService;
 
 import java.util.List;
@@ -45,6 +47,7 @@ public class WalletController {
     }
 
     @GetMapping
+    @ConditionalGet(ResourceFamily.WALLETS)
     @Operation(summary = "Get all wallets for the current user")
     public ApiResponse<List<WalletResponse>> getAllWallets() {
         List<WalletResponse> wallets = walletService.getAllWallets();
@@ -0,0 +1,22 @@
+package vn.fpt.seima.seimaserver.dto.request.email;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class QueuedEmail {
+    private String id;
+    private List<String> recipients; // Each recipient gets their own message
+    private String subject;
+    private String templateName;
+    private Map<String, Object> variables;
+    private int attempt;
+}
@@ -0,0 +1,25 @@
+package vn.fpt.seima.seimaserver.dto.request.group;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkEmailInvitationRequest {
+
+    @NotNull(message = "Group ID is required")
+    private Integer groupId;
+
+    @NotEmpty(message = "At least one email is required")
+    @Size(max = 50, message = "Cannot invite more than 50 emails at once")
+    private List<String> emails;
+}
@@ -1,5 +1,6 @@
 package vn.fpt.seima.seimaserver.dto.request.group;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
@@ -7,6 +8,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.web.multipart.MultipartFile;
+import vn.fpt.seima.seimaserver.dto.request.upload.DirectUploadRequest;
 
 @Data
 @Builder
@@ -22,4 +24,11 @@ public class CreateGroupRequest {
      * If not provided, group will use default avatar.
      */
     private MultipartFile image;
+
+    /**
+     * Image the client already uploaded to Cloudinary with a signature from /api/v1/uploads/signature.
+     * Use instead of image.
+     */
+    @Valid
+    private DirectUploadRequest uploadedImage;
 } 
\ No newline at end of file
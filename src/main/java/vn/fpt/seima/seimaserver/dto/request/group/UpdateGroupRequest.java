@@ -1,11 +1,13 @@
 package vn.fpt.seima.seimaserver.dto.request.group;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.web.multipart.MultipartFile;
+import vn.fpt.seima.seimaserver.dto.request.upload.DirectUploadRequest;
 
 @Data
 @Builder
@@ -22,6 +24,13 @@ public class UpdateGroupRequest {
      * If not provided, current avatar will be kept.
      */
     private MultipartFile image;
+
+    /**
+     * Image the client already uploaded to Cloudinary with a signature from /api/v1/uploads/signature.
+     * Use instead of image.
+     */
+    @Valid
+    private DirectUploadRequest uploadedImage;
     
     /**
      * Flag to indicate if user wants to remove current avatar.
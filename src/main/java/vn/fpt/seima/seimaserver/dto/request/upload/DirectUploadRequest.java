@@ -0,0 +1,27 @@
+package vn.fpt.seima.seimaserver.dto.request.upload;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of an upload the client made straight to Cloudinary, copied from Cloudinary's response
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DirectUploadRequest {
+
+    @NotBlank(message = "Public ID is required")
+    private String publicId;
+
+    @NotNull(message = "Version is required")
+    private Long version;
+
+    @NotBlank(message = "Signature is required")
+    private String signature;
+}
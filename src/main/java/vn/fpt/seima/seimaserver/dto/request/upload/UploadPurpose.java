@@ -0,0 +1,20 @@
+package vn.fpt.seima.seimaserver.dto.request.upload;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * What an image is uploaded for, which decides its Cloudinary folder and accepted formats
+ */
+@Getter
+@AllArgsConstructor
+public enum UploadPurpose {
+    GROUP_AVATAR("groups", List.of("jpg", "jpeg", "png", "gif", "webp")),
+    USER_AVATAR("users/avatars", List.of("jpg", "jpeg", "png", "gif", "webp")),
+    RECEIPT("transaction/receipt", List.of("jpg", "jpeg", "png"));
+
+    private final String folder;
+    private final List<String> allowedFormats;
+}
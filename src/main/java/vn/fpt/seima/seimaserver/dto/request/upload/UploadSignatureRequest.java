@@ -0,0 +1,17 @@
+package vn.fpt.seima.seimaserver.dto.request.upload;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSignatureRequest {
+
+    @NotNull(message = "Upload purpose is required")
+    private UploadPurpose purpose;
+}
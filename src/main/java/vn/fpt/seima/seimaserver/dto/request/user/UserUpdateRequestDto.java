@@ -1,10 +1,12 @@
 package vn.fpt.seima.seimaserver.dto.request.user;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Past;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
 import org.springframework.web.multipart.MultipartFile;
+import vn.fpt.seima.seimaserver.dto.request.upload.DirectUploadRequest;
 
 import java.time.LocalDate;
 
@@ -24,6 +26,12 @@ public class UserUpdateRequestDto {
     private String phoneNumber;
 
     private Boolean gender; // Cho phép null nếu không muốn cập nhật
+
+    /**
+     * Currency report totals are converted into (optional), e.g. VND or USD.
+     */
+    @Pattern(regexp = "^[A-Za-z]{3}$", message = "Currency code must be 3 letters")
+    private String baseCurrencyCode;
     
     /**
      * Image file for profile avatar upload (optional).
@@ -31,6 +39,13 @@ public class UserUpdateRequestDto {
      * If not provided, current avatar will be kept.
      */
     private MultipartFile image;
+
+    /**
+     * Image the client already uploaded to Cloudinary with a signature from /api/v1/uploads/signature.
+     * Use instead of image.
+     */
+    @Valid
+    private DirectUploadRequest uploadedImage;
     
     /**
      * Flag to indicate if user wants to remove current avatar.
@@ -0,0 +1,13 @@
+package vn.fpt.seima.seimaserver.dto.response.auth;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class OtpIssueResult {
+    public enum Status { ISSUED, LIMIT_REACHED, COOLING_DOWN }
+
+    private final Status status;
+    private final long retryAfterSeconds; // Only set while cooling down
+}
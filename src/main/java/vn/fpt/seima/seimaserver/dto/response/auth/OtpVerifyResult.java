@@ -0,0 +1,13 @@
+package vn.fpt.seima.seimaserver.dto.response.auth;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class OtpVerifyResult {
+    public enum Status { VERIFIED, NOT_FOUND, INVALID, LOCKED }
+
+    private final Status status;
+    private final int attemptsRemaining; // Only set when the code was invalid
+}
@@ -19,6 +19,8 @@ public class FinancialHealthResponse {
     private LocalDateTime updatedAt;
     private BigDecimal balance;
     private IncomeExpenseSummary incomeExpense;
+    // True when some amounts had no exchange rate and are added in their own currency
+    private boolean unconverted;
 
     @Data
     @AllArgsConstructor
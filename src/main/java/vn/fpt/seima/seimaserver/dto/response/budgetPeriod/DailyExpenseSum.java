@@ -0,0 +1,26 @@
+package vn.fpt.seima.seimaserver.dto.response.budgetPeriod;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Total expense of one calendar day in one currency, used to backfill budget periods without loading
+ * transactions.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DailyExpenseSum {
+    private LocalDate day;
+    private BigDecimal amount;
+    // Null when the transactions carry no currency, i.e. they are in the budget's currency
+    private String currencyCode;
+
+    public DailyExpenseSum(LocalDate day, BigDecimal amount) {
+        this(day, amount, null);
+    }
+}
@@ -0,0 +1,18 @@
+package vn.fpt.seima.seimaserver.dto.response.category;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * The user- or group-owned categories of one type, tagged with the catalogue version they were read at.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CategoryOverlay {
+    private long version;
+    private List<CategoryResponse> categories;
+}
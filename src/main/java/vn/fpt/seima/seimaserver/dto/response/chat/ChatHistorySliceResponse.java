@@ -0,0 +1,22 @@
+package vn.fpt.seima.seimaserver.dto.response.chat;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of chat history, newest first. Pass {@code nextCursor} back to get the older messages.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChatHistorySliceResponse {
+
+    private List<ChatMessageResponse> messages;
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,16 @@
+package vn.fpt.seima.seimaserver.dto.response.chat;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Messages of one user added after an already counted chat ID, and the highest ID among them.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChatMessageCount {
+    private Long count;
+    private Integer maxChatId;
+}
@@ -0,0 +1,28 @@
+package vn.fpt.seima.seimaserver.dto.response.currency;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import vn.fpt.seima.seimaserver.entity.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * A partial sum in one currency, as grouped by the database. Totals across currencies are formed by
+ * converting these partials, not the rows behind them.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CurrencyAmount {
+    private String currencyCode;
+    // Day the rate is taken for; null means the latest rate
+    private LocalDate day;
+    private TransactionType transactionType;
+    private BigDecimal amount;
+
+    public CurrencyAmount(String currencyCode, BigDecimal amount) {
+        this(currencyCode, null, null, amount);
+    }
+}
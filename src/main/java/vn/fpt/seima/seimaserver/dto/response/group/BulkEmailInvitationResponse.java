@@ -0,0 +1,21 @@
+package vn.fpt.seima.seimaserver.dto.response.group;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkEmailInvitationResponse {
+
+    private Integer groupId;
+    private String groupName;
+    private int invitedCount;
+    // One entry per distinct email, in request order
+    private List<EmailInvitationResponse> results;
+}
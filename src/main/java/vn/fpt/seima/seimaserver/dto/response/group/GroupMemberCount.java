@@ -0,0 +1,20 @@
+package vn.fpt.seima.seimaserver.dto.response.group;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import vn.fpt.seima.seimaserver.entity.GroupMemberStatus;
+
+/**
+ * Number of members of one group in one status, from a single grouped count over many groups,
+ * and how many of them have an active user account.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class GroupMemberCount {
+    private Integer groupId;
+    private GroupMemberStatus status;
+    private Long count;
+    private Long activeUserCount;
+}
@@ -0,0 +1,23 @@
+package vn.fpt.seima.seimaserver.dto.response.group;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import vn.fpt.seima.seimaserver.entity.GroupMemberRole;
+import vn.fpt.seima.seimaserver.entity.GroupMemberStatus;
+
+/**
+ * Role and status of a user's most recent membership row in a group, as held by the membership cache.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class GroupMembershipSnapshot {
+    private Integer userId;
+    private GroupMemberRole role;
+    private GroupMemberStatus status;
+
+    public boolean isActive() {
+        return status == GroupMemberStatus.ACTIVE;
+    }
+}
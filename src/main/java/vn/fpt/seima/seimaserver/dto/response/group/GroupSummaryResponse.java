@@ -0,0 +1,34 @@
+package vn.fpt.seima.seimaserver.dto.response.group;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cached per-group read model shared by the group list endpoints.
+ * Member counts only include members whose user account is active, except {@code activeMembershipCount},
+ * which counts every ACTIVE membership as {@code countActiveGroupMembers} does.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class GroupSummaryResponse {
+    private Integer groupId;
+    private String groupName;
+    private String groupAvatarUrl;
+    private Boolean groupIsActive;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime groupCreatedDate;
+
+    private GroupMemberResponse groupLeader;
+    private Integer activeMemberCount;
+    private Integer activeMembershipCount;
+    private Integer pendingMemberCount;
+    private Integer invitedMemberCount;
+}
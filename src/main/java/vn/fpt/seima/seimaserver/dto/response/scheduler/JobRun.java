@@ -0,0 +1,22 @@
+package vn.fpt.seima.seimaserver.dto.response.scheduler;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class JobRun {
+    private String job;
+    private String shard; // User id range of a sharded run, e.g. "1-2500"; null otherwise
+    private String node;
+    private Instant startedAt;
+    private long durationMs;
+    private boolean succeeded;
+    private String error;
+}
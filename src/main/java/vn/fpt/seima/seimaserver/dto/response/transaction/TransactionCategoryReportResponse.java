@@ -17,6 +17,8 @@ public class TransactionCategoryReportResponse {
     private BigDecimal averageIncome;
     private Map<String, GroupAmount> data;
     private Integer categoryId;
+    // True when some amounts had no exchange rate and are added in their own currency
+    private boolean unconverted;
 
     @Data
     @AllArgsConstructor
@@ -21,6 +21,8 @@ public class TransactionDetailReportResponse {
     private BigDecimal totalExpense;
     private BigDecimal totalIncome;
     private Map<String, GroupDetail> data;
+    // True when some amounts had no exchange rate and are added in their own currency
+    private boolean unconverted;
 
     @Data
     @AllArgsConstructor
@@ -0,0 +1,29 @@
+package vn.fpt.seima.seimaserver.dto.response.transaction;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import vn.fpt.seima.seimaserver.entity.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One flat export line, read straight from the cursor so no entity ends up in the persistence context.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransactionExportRow {
+    private Integer transactionId;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime transactionDate;
+    private TransactionType transactionType;
+    private BigDecimal amount;
+    private String currencyCode;
+    private String categoryName;
+    private String walletName;
+    private String description;
+    private String payeePayerName;
+}
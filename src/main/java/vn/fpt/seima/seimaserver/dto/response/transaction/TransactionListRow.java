@@ -0,0 +1,46 @@
+package vn.fpt.seima.seimaserver.dto.response.transaction;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import vn.fpt.seima.seimaserver.entity.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One transaction with its category, selected in a single query for history pages, the overview,
+ * today's list and wallet reports. Unlike an entity it has no lazy association to load later.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransactionListRow {
+
+    /**
+     * Select list and joins shared by the hot and archive queries; both entities alias as {@code t}.
+     * Ids of the other associations are read from the foreign key columns without a join.
+     */
+    public static final String SELECT = "SELECT new vn.fpt.seima.seimaserver.dto.response.transaction.TransactionListRow(" +
+            "t.transactionId, t.user.userId, t.wallet.id, c.categoryId, t.group.groupId, t.transactionType, " +
+            "t.amount, t.currencyCode, t.transactionDate, t.description, t.receiptImageUrl, t.payeePayerName, " +
+            "t.createdAt, t.updatedAt, c.categoryName, c.categoryIconUrl) ";
+    public static final String JOINS = "LEFT JOIN t.category c ";
+
+    private Integer transactionId;
+    private Integer userId;
+    private Integer walletId;
+    private Integer categoryId;
+    private Integer groupId;
+    private TransactionType transactionType;
+    private BigDecimal amount;
+    private String currencyCode;
+    private LocalDateTime transactionDate;
+    private String description;
+    private String receiptImageUrl;
+    private String payeePayerName;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private String categoryName;
+    private String categoryIconUrl;
+}
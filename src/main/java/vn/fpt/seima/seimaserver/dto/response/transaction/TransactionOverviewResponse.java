@@ -28,6 +28,8 @@ public class TransactionOverviewResponse {
         private BigDecimal totalIncome;
         private BigDecimal totalExpense;
         private BigDecimal balance; // totalIncome - totalExpense
+        // True when some amounts had no exchange rate and are added in their own currency
+        private boolean unconverted;
     }
 
     @Data
@@ -24,6 +24,8 @@ public class TransactionReportResponse {
         private BigDecimal totalIncome;
         private BigDecimal totalExpense;
         private BigDecimal balance;
+        // True when some amounts had no exchange rate and are added in their own currency
+        private boolean unconverted;
     }
 
     @Data
@@ -0,0 +1,25 @@
+package vn.fpt.seima.seimaserver.dto.response.upload;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Everything the client posts to {@code uploadUrl} together with the file.
+ * Cloudinary rejects the signature once the timestamp is more than an hour old.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSignatureResponse {
+    private String uploadUrl;
+    private String apiKey;
+    private String publicId;
+    private long timestamp;
+    private String allowedFormats;
+    private String uploadPreset;
+    private String signature;
+    private long expiresAt;
+}
@@ -19,4 +19,5 @@ public class UserProfileResponseDto {
     private String userPhoneNumber;
     private String userAvatarUrl;
     private Boolean isLogByGoogle;
+    private String baseCurrencyCode;
 }
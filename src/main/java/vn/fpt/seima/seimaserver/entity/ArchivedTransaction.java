@@ -0,0 +1,98 @@
+package vn.fpt.seima.seimaserver.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A transaction moved out of the hot {@code transaction} table, with its original ID. The archive has
+ * no foreign keys and only the indexes the read queries need, and its rows are never updated in place.
+ */
+@Data
+@Entity
+@Table(
+        name = "transaction_archive",
+        indexes = {
+                @Index(name = "idx_transaction_archive_user_date", columnList = "user_id, transaction_date"),
+                @Index(name = "idx_transaction_archive_group_date", columnList = "group_id, transaction_date"),
+                @Index(name = "idx_transaction_archive_category", columnList = "category_id"),
+                @Index(name = "idx_transaction_archive_wallet", columnList = "wallet_id")
+        }
+)
+public class ArchivedTransaction {
+    @Id
+    @Column(name = "transaction_id")
+    private Integer transactionId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "wallet_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Wallet wallet;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "category_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Category category;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "group_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Group group;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "transaction_type", length = 50)
+    private TransactionType transactionType;
+
+    @Column(name = "amount", precision = 18, scale = 2, nullable = false)
+    private BigDecimal amount;
+
+    @Column(name = "currency_code", length = 3)
+    private String currencyCode;
+
+    @Column(name = "transaction_date")
+    private LocalDateTime transactionDate;
+
+    @Column(name = "description", columnDefinition = "TEXT")
+    private String description;
+
+    @Column(name = "receipt_image_url", length = 512)
+    private String receiptImageUrl;
+
+    @Column(name = "payee_payer_name", length = 255)
+    private String payeePayerName;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    /**
+     * Read-only copy in the shape of a hot transaction, so archived rows flow through the same mappers.
+     * It is not managed: saving it would insert a new hot row.
+     */
+    public Transaction toTransaction() {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(transactionId);
+        transaction.setUser(user);
+        transaction.setWallet(wallet);
+        transaction.setCategory(category);
+        transaction.setGroup(group);
+        transaction.setTransactionType(transactionType);
+        transaction.setAmount(amount);
+        transaction.setCurrencyCode(currencyCode);
+        transaction.setTransactionDate(transactionDate);
+        transaction.setDescription(description);
+        transaction.setReceiptImageUrl(receiptImageUrl);
+        transaction.setPayeePayerName(payeePayerName);
+        transaction.setCreatedAt(createdAt);
+        transaction.setUpdatedAt(updatedAt);
+        return transaction;
+    }
+}
@@ -2,9 +2,14 @@ package vn.fpt.seima.seimaserver.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import vn.fpt.seima.seimaserver.config.cache.CacheRegions;
 
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.BANK_INFORMATION)
 @Table(name = "bank_information")
 public class BankInformation {
     @Id
@@ -6,7 +6,12 @@ import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "budget_period")
+@Table(
+        name = "budget_period",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_budget_period_budget_index", columnNames = {"budget_id", "period_index"})
+        }
+)
 public class BudgetPeriod {
 
     @Id
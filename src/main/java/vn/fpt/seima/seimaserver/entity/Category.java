@@ -4,6 +4,9 @@ package vn.fpt.seima.seimaserver.entity;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import vn.fpt.seima.seimaserver.config.cache.CacheRegions;
 
 
 import java.util.Set;
@@ -11,6 +14,8 @@ import java.util.Set;
 
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.CATEGORY)
 @Table(name = "category")
 public class Category {
     @Id
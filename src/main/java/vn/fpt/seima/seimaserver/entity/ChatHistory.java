@@ -14,7 +14,11 @@ import java.time.LocalDateTime;
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "chat_history")
+@Table(name = "chat_history", indexes = {
+    @Index(name = "idx_chat_history_user_deleted_timestamp", columnList = "user_id, deleted, timestamp"),
+    @Index(name = "idx_chat_history_user_deleted_chat", columnList = "user_id, deleted, chat_id"),
+    @Index(name = "idx_chat_history_deleted_at", columnList = "deleted_at")
+})
 public class ChatHistory {
     
     @Id
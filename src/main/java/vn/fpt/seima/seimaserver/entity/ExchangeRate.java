@@ -0,0 +1,33 @@
+package vn.fpt.seima.seimaserver.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Daily rate of a currency against the base currency in {@code app.currency.base-currency}: one unit of
+ * {@code currencyCode} is worth {@code rate} units of it on {@code rateDate}.
+ */
+@Data
+@Entity
+@Table(name = "exchange_rate",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_exchange_rate_currency_date", columnNames = {"currency_code", "rate_date"})
+        })
+public class ExchangeRate {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "exchange_rate_id")
+    private Integer exchangeRateId;
+
+    @Column(name = "currency_code", length = 3, nullable = false)
+    private String currencyCode;
+
+    @Column(name = "rate_date", nullable = false)
+    private LocalDate rateDate;
+
+    @Column(name = "rate", precision = 19, scale = 8, nullable = false)
+    private BigDecimal rate;
+}
@@ -12,7 +12,8 @@ import java.time.LocalDateTime;
     @Index(name = "idx_notification_sender", columnList = "sender_id"),
     @Index(name = "idx_notification_type", columnList = "notification_type"),
     @Index(name = "idx_notification_created", columnList = "created_at"),
-    @Index(name = "idx_notification_receiver_type_created", columnList = "receiver_id, notification_type, created_at")
+    @Index(name = "idx_notification_receiver_type_created", columnList = "receiver_id, notification_type, created_at"),
+    @Index(name = "idx_notification_type_read_created", columnList = "notification_type, is_read, created_at")
 })
 @Data
 public class Notification {
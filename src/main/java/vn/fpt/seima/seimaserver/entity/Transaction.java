@@ -14,6 +14,8 @@ import java.time.LocalDateTime;
         name = "transaction",
         indexes = {
                 @Index(name = "idx_transaction_user_date", columnList = "user_id, transaction_date"),
+                @Index(name = "idx_transaction_date", columnList = "transaction_date"),
+                @Index(name = "idx_transaction_type_updated", columnList = "transaction_type, updated_at"),
         }
 )
 public class Transaction {
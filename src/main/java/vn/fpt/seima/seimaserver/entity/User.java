@@ -49,6 +49,10 @@ public class User {
     @Column(name = "user_avatar_url", length = 512) // ERD là varchar(255), tăng lên 512 cho URL dài
     private String userAvatarUrl;
 
+    // Currency totals are reported in; null means app.currency.base-currency
+    @Column(name = "base_currency_code", length = 3)
+    private String baseCurrencyCode;
+
     @CreationTimestamp // Tự động gán thời gian tạo
     @Column(name = "user_created_date", updatable = false) // ERD là user_created_date (timestamp)
     private LocalDateTime userCreatedDate;
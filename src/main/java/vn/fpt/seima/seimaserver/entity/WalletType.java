@@ -3,10 +3,15 @@ package vn.fpt.seima.seimaserver.entity;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import vn.fpt.seima.seimaserver.config.cache.CacheRegions;
 
 import java.util.Set;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.WALLET_TYPE)
 @Table(name = "wallet_type")
 @Getter
 @Setter
@@ -0,0 +1,15 @@
+package vn.fpt.seima.seimaserver.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when a user or group category is created, updated or deleted. The owning user and group
+ * catalogue versions are bumped after commit, so cached pickers and client ETags go stale.
+ */
+@Getter
+@AllArgsConstructor
+public class CategoryChangedEvent {
+    private final Integer userId;
+    private final Integer groupId;
+}
@@ -0,0 +1,14 @@
+package vn.fpt.seima.seimaserver.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published whenever a user's transactions, budgets or wallets change in a way that can move their
+ * financial-health score. The score is recomputed after commit, debounced per user.
+ */
+@Getter
+@AllArgsConstructor
+public class FinancialHealthChangedEvent {
+    private final Integer userId;
+}
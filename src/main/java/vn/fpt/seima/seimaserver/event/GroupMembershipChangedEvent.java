@@ -0,0 +1,15 @@
+package vn.fpt.seima.seimaserver.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when a group's members, their roles or statuses, or the group's own details change.
+ * The cached group summary and the group's cached memberships are dropped after commit and rebuilt on
+ * the next read.
+ */
+@Getter
+@AllArgsConstructor
+public class GroupMembershipChangedEvent {
+    private final Integer groupId;
+}
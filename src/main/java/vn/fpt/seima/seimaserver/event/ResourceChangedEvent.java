@@ -0,0 +1,20 @@
+package vn.fpt.seima.seimaserver.event;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Published by write paths so that the user's version of each affected {@link ResourceFamily} is bumped
+ * after commit, which changes the ETag of every conditional GET that depends on it.
+ */
+@Getter
+public class ResourceChangedEvent {
+    private final Integer userId;
+    private final List<ResourceFamily> families;
+
+    public ResourceChangedEvent(Integer userId, ResourceFamily... families) {
+        this.userId = userId;
+        this.families = List.of(families);
+    }
+}
@@ -0,0 +1,12 @@
+package vn.fpt.seima.seimaserver.event;
+
+/**
+ * Groups of per-user read endpoints that go stale together. Each family has its own version counter,
+ * see {@link ResourceChangedEvent}.
+ */
+public enum ResourceFamily {
+    TRANSACTIONS,
+    WALLETS,
+    BUDGETS,
+    GROUPS
+}
@@ -0,0 +1,14 @@
+package vn.fpt.seima.seimaserver.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when a user's name, avatar or active flag may have changed. Cached read models that embed
+ * them, such as the summaries of the groups the user owns, are dropped after commit.
+ */
+@Getter
+@AllArgsConstructor
+public class UserProfileChangedEvent {
+    private final Integer userId;
+}
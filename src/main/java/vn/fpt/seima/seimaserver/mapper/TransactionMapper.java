@@ -54,4 +54,11 @@ public interface TransactionMapper {
     @Mapping(target = "categoryIconUrl", source = "transaction.category.categoryIconUrl")
 
     TransactionTodayResponse transactionToday(Transaction transaction);
+
+    // Projected rows carry the category and foreign key columns under the response field names
+    TransactionResponse toResponse(TransactionListRow row);
+
+    TransactionOverviewResponse.TransactionItem toTransactionItem(TransactionListRow row);
+
+    TransactionTodayResponse transactionToday(TransactionListRow row);
 }
@@ -14,6 +14,7 @@ public class UserMapper {
                 .userPhoneNumber(user.getUserPhoneNumber())
                 .userAvatarUrl(user.getUserAvatarUrl())
                 .isLogByGoogle(user.getIsLogByGoogle())
+                .baseCurrencyCode(user.getBaseCurrencyCode())
                 .build();
     }
 }
@@ -0,0 +1,235 @@
+package vn.fpt.seima.seimaserver.repository;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+import vn.fpt.seima.seimaserver.dto.response.budgetPeriod.DailyExpenseSum;
+import vn.fpt.seima.seimaserver.dto.response.currency.CurrencyAmount;
+import vn.fpt.seima.seimaserver.dto.response.transaction.TransactionExportRow;
+import vn.fpt.seima.seimaserver.dto.response.transaction.TransactionListRow;
+import vn.fpt.seima.seimaserver.entity.Transaction;
+import vn.fpt.seima.seimaserver.entity.TransactionType;
+import vn.fpt.seima.seimaserver.entity.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Queries over the hot {@code transaction} table only. Use {@link TransactionRepository}, which reads
+ * the archive as well when the requested dates reach into it.
+ */
+public interface ActiveTransactionRepository extends Repository<Transaction, Integer> {
+
+    String BY_DATE = "WHERE t.transactionType != :type " +
+            "AND t.transactionDate BETWEEN :startDate AND :endDate " +
+            "AND ((:groupId IS NULL AND t.group.groupId IS NULL) OR (:groupId IS NOT NULL AND t.group.groupId = :groupId)) " +
+            "AND t.user.userId = :userId";
+
+    Optional<Transaction> findById(Integer id);
+
+    @Query(TransactionListRow.SELECT + "FROM Transaction t " + TransactionListRow.JOINS +
+            "WHERE t.transactionType != :type " +
+            "AND t.transactionDate BETWEEN :startDate AND :endDate " +
+            "and t.user.userId = :userId and t.group.groupId is null")
+    List<TransactionListRow> findAllByUserAndTransactionDateBetween(
+            @Param("userId") Integer userId,
+            @Param("type") TransactionType type,
+            @Param("startDate")LocalDateTime startDate,
+            @Param("endDate")LocalDateTime endDate);
+
+    @Query(value = TransactionListRow.SELECT + "FROM Transaction t " + TransactionListRow.JOINS +
+            "WHERE t.transactionType != :type and t.user.userId = :userId",
+            countQuery = "SELECT COUNT(t) FROM Transaction t WHERE t.transactionType != :type and t.user.userId = :userId")
+    Page<TransactionListRow> findByType(
+                                        @Param("type") TransactionType type,
+                                        @Param("userId") Integer userId,
+                                        Pageable pageable);
+
+    @Query(value = TransactionListRow.SELECT + "FROM Transaction t " + TransactionListRow.JOINS +
+            "WHERE t.transactionType != :type and t.group.groupId = :groupId",
+            countQuery = "SELECT COUNT(t) FROM Transaction t WHERE t.transactionType != :type and t.group.groupId = :groupId")
+    Page<TransactionListRow> findByTypeGroup(
+            @Param("type") TransactionType type,
+            @Param("groupId") Integer groupId
+            , Pageable pageable);
+
+    @Query(value = TransactionListRow.SELECT + "FROM Transaction t " + TransactionListRow.JOINS + BY_DATE,
+            countQuery = "SELECT COUNT(t) FROM Transaction t " + BY_DATE)
+    Page<TransactionListRow> findByDate(
+            @Param("type") TransactionType type,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            @Param("groupId") Integer groupId,
+            @Param("userId") Integer userId,
+            Pageable pageable);
+
+
+    @Query("SELECT t FROM Transaction t " +
+            "WHERE t.user IN :users " +
+            "AND (:categoryId IS NULL OR t.category.categoryId = :categoryId) " +
+            "AND t.transactionDate BETWEEN :startDate AND :endDate " +
+            "AND t.transactionType != 'INACTIVE' " +
+            "AND ((:groupId IS NULL AND t.group.groupId IS NULL) " +
+            "OR (:groupId IS NOT NULL AND t.group.groupId = :groupId))")
+    List<Transaction> listReportByUserAndCategoryAndTransactionDateBetween(
+            @Param("users") List<User> users,
+            @Param("categoryId") Integer categoryId,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            @Param("groupId") Integer groupId
+    );
+    void deleteByCategory_CategoryId(Integer categoryId);
+
+    List<Transaction> findAllByCategory_CategoryId(Integer categoryId);
+
+    @Query("SELECT t FROM Transaction t " +
+            "WHERE t.user IN :users AND t.category.categoryId = :categoryId " +
+            "AND t.transactionDate BETWEEN :start AND :end " +
+            "AND t.transactionType IN ('EXPENSE', 'INCOME')" +
+            "AND ((:groupId IS NULL AND t.group.groupId IS NULL) " +
+            "OR (:groupId IS NOT NULL AND t.group.groupId = :groupId))")
+    List<Transaction> findExpensesByUserAndDateRange(
+            @Param("categoryId") Integer categoryId,
+            @Param("users") List<User> users,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end,
+            @Param("groupId") Integer groupId
+            );
+
+    @Query("SELECT CASE WHEN COUNT(t) > 0 THEN true ELSE false END " +
+            "FROM Transaction t " +
+            "WHERE t.user.userId = :userId " +
+            "AND t.transactionDate BETWEEN :start AND :end " +
+            "AND t.transactionType IN ('EXPENSE', 'INCOME') " +
+            "AND t.group IS NULL")
+    boolean existsExpensesByUserAndDateRange(
+            @Param("userId") Integer userId,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
+
+    @Query("SELECT new vn.fpt.seima.seimaserver.dto.response.currency.CurrencyAmount(" +
+            "t.currencyCode, CAST(t.transactionDate AS LocalDate), t.transactionType, SUM(t.amount)) " +
+            "FROM Transaction t " +
+            "WHERE t.user.userId = :userId " +
+            "AND t.transactionDate BETWEEN :start AND :end " +
+            "AND t.transactionType IN ('INCOME', 'EXPENSE') " +
+            "AND t.group IS NULL " +
+            "GROUP BY t.currencyCode, CAST(t.transactionDate AS LocalDate), t.transactionType")
+    List<CurrencyAmount> sumIncomeAndExpenseByCurrency(@Param("userId") Integer userId,
+                                                       @Param("start") LocalDateTime start,
+                                                       @Param("end") LocalDateTime end);
+
+    @Query("SELECT COALESCE(SUM(t.amount), 0) FROM Transaction t WHERE t.user.userId = :userId AND " +
+            "t.transactionType = 'EXPENSE' AND t.category.categoryId in :categoryId AND " +
+            "t.transactionDate BETWEEN :from AND :to and t.group is null")
+    BigDecimal sumExpensesByCategoryAndMonth(@Param("userId") Integer userId,
+                                             @Param("categoryId") List<Integer> categoryId,
+                                             @Param("from") LocalDateTime from,
+                                             @Param("to") LocalDateTime to);
+
+    @Query("SELECT t FROM Transaction t " +
+            "WHERE t.transactionType = 'EXPENSE'" +
+            "AND t.transactionDate BETWEEN :startDate AND :endDate " +
+            "and t.user.userId = :userId and " +
+            "t.category.categoryId in (:categoryId) and " +
+            "t.group is null ")
+    Page<Transaction> getTransactionByBudget(@Param("userId") Integer userId,
+                                             @Param("categoryId") List<Integer> categoryId,
+                                             @Param("startDate") LocalDateTime startDate,
+                                             @Param("endDate") LocalDateTime endDate,
+                                             Pageable pageable);
+
+    @Query("SELECT t FROM Transaction t WHERE t.user.userId = :userId AND " +
+            "t.transactionType = 'EXPENSE' AND t.category.categoryId in :categoryId AND " +
+            "t.transactionDate BETWEEN :from AND :to and t.group is null and t.wallet.id in :walletId")
+    List<Transaction> listExpensesByCategoryAndMonth(@Param("userId") Integer userId,
+                                                     @Param("categoryId") List<Integer> categoryId,
+                                                     @Param("from") LocalDateTime from,
+                                                     @Param("to") LocalDateTime to,
+                                                     @Param("walletId") List<Integer> walletId);
+
+    @Query("SELECT new vn.fpt.seima.seimaserver.dto.response.budgetPeriod.DailyExpenseSum(" +
+            "CAST(t.transactionDate AS LocalDate), SUM(t.amount), t.currencyCode) " +
+            "FROM Transaction t WHERE t.user.userId = :userId AND " +
+            "t.transactionType = 'EXPENSE' AND t.category.categoryId in :categoryId AND " +
+            "t.transactionDate BETWEEN :from AND :to and t.group is null and t.wallet.id in :walletId " +
+            "GROUP BY CAST(t.transactionDate AS LocalDate), t.currencyCode " +
+            "ORDER BY CAST(t.transactionDate AS LocalDate)")
+    List<DailyExpenseSum> sumExpensesByDay(@Param("userId") Integer userId,
+                                           @Param("categoryId") List<Integer> categoryId,
+                                           @Param("from") LocalDateTime from,
+                                           @Param("to") LocalDateTime to,
+                                           @Param("walletId") List<Integer> walletId);
+
+    @Query(TransactionListRow.SELECT + "FROM Transaction t " + TransactionListRow.JOINS +
+            "where t.user.userId = :userId " +
+            "AND t.transactionDate BETWEEN :dateFrom AND :dateTo and t.group is null and t.wallet.id = :walletId and t.transactionType != 'INACTIVE'")
+    List<TransactionListRow> listTransactionByWallet(@Param("walletId")Integer walletId,
+                                              @Param("userId") Integer userId ,
+                                              @Param("dateFrom") LocalDateTime dateFrom,
+                                              @Param("dateTo") LocalDateTime dateTo);
+
+    @Query(TransactionListRow.SELECT + "FROM Transaction t " + TransactionListRow.JOINS +
+            "where t.user.userId = :userId " +
+            "and t.group is null and t.wallet.id = :walletId and t.transactionType != 'INACTIVE'")
+    List<TransactionListRow> listRowsByWallet(@Param("walletId") Integer walletId, @Param("userId") Integer userId);
+
+    @Query(TransactionListRow.SELECT + "FROM Transaction t " + TransactionListRow.JOINS +
+            "WHERE t.transactionType != :type and t.transactionDate BETWEEN :startOfDay AND :endOfDay " +
+            "and t.user.userId = :userId and t.group is null")
+    List<TransactionListRow> listTransactionToday(@Param("type") TransactionType type,
+                                                  @Param("userId") Integer userId,
+                                                  @Param("startOfDay") LocalDateTime startOfDay,
+                                                  @Param("endOfDay") LocalDateTime endOfDay);
+
+    @Query("SELECT COALESCE(SUM(t.amount), 0) FROM Transaction t WHERE t.user.userId = :userId AND " +
+            "t.transactionType = 'EXPENSE' AND t.wallet.id in :walletId AND " +
+            "t.group is null")
+    BigDecimal sumExpenseWallet(@Param("walletId") Integer walletId, @Param("userId") Integer userId);
+
+    @Query("SELECT COALESCE(SUM(t.amount), 0) FROM Transaction t WHERE t.user.userId = :userId AND " +
+            "t.transactionType = 'INCOME' AND t.wallet.id in :walletId AND " +
+            "t.group is null")
+    BigDecimal sumIncomeWallet(@Param("walletId") Integer walletId, @Param("userId") Integer userId);
+
+    @Query("SELECT t FROM Transaction t " +
+            "WHERE t.user = :users " +
+            "AND t.transactionDate BETWEEN :startDate AND :endDate " +
+            "AND t.transactionType != 'INACTIVE' " +
+            "AND t.group IS NULL")
+    List<Transaction> listTransactionsChart(
+            @Param("users") User users,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate
+    );
+
+    // Integer.MIN_VALUE makes MySQL Connector/J stream the result set row by row instead of buffering it
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT new vn.fpt.seima.seimaserver.dto.response.transaction.TransactionExportRow(" +
+            "t.transactionId, t.transactionDate, t.transactionType, t.amount, t.currencyCode, " +
+            "c.categoryName, w.walletName, t.description, t.payeePayerName) " +
+            "FROM Transaction t JOIN t.category c LEFT JOIN t.wallet w " +
+            "WHERE t.user.userId = :userId AND t.group IS NULL " +
+            "AND t.transactionType != 'INACTIVE' " +
+            "AND t.transactionDate BETWEEN :from AND :to " +
+            "AND (:walletId IS NULL OR w.id = :walletId) " +
+            "AND (:categoryId IS NULL OR c.categoryId = :categoryId) " +
+            "ORDER BY t.transactionDate, t.transactionId")
+    Stream<TransactionExportRow> streamForExport(@Param("userId") Integer userId,
+                                                 @Param("from") LocalDateTime from,
+                                                 @Param("to") LocalDateTime to,
+                                                 @Param("walletId") Integer walletId,
+                                                 @Param("categoryId") Integer categoryId);
+}
@@ -1,12 +1,22 @@
 package vn.fpt.seima.seimaserver.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import vn.fpt.seima.seimaserver.config.cache.CacheRegions;
 import vn.fpt.seima.seimaserver.entity.BankInformation;
 
-import java.util.Optional;
+import java.util.List;
 
 @Repository
 public interface BankInformationRepository extends JpaRepository<BankInformation, Integer> {
 
-} 
\ No newline at end of file
+    @Override
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.REFERENCE_QUERIES)
+    })
+    List<BankInformation> findAll();
+}
@@ -8,6 +8,7 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import vn.fpt.seima.seimaserver.entity.BudgetCategoryLimit;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -22,6 +23,9 @@ public interface BudgetCategoryLimitRepository extends JpaRepository<BudgetCateg
     @Query(value = "SELECT * FROM budget_category_limit WHERE  budget_id = :budgetId", nativeQuery = true)
     List<BudgetCategoryLimit> findByBudget(@Param("budgetId") Integer budgetId);
 
+    @Query("SELECT bc FROM BudgetCategoryLimit bc JOIN FETCH bc.category WHERE bc.budget.budgetId IN :budgetIds")
+    List<BudgetCategoryLimit> findWithCategoryByBudgetIds(@Param("budgetIds") Collection<Integer> budgetIds);
+
     @Query("SELECT CASE WHEN COUNT(bc) > 0 THEN true ELSE false END " +
             "FROM BudgetCategoryLimit bc " +
             "WHERE bc.budget.budgetId = :budgetId AND bc.category.categoryId = :categoryId")
@@ -1,22 +1,55 @@
 package vn.fpt.seima.seimaserver.repository;
 
 import io.lettuce.core.dynamic.annotation.Param;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import vn.fpt.seima.seimaserver.entity.Budget;
 import vn.fpt.seima.seimaserver.entity.BudgetPeriod;
 import vn.fpt.seima.seimaserver.entity.BudgetPeriodStatus;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BudgetPeriodRepository extends JpaRepository<BudgetPeriod, Integer> {
     List<BudgetPeriod> findByBudget_BudgetId(Integer budgetId);
 
+    @Modifying
+    @Query(value = "DELETE FROM budget_period WHERE budget_id = :budgetId", nativeQuery = true)
+    void deleteBudgetPeriodByBudget(@Param("budgetId") Integer budgetId);
+
+    Optional<BudgetPeriod> findByBudget_BudgetIdAndPeriodIndex(Integer budgetId, Integer periodIndex);
+
+    // Inserts the period unless another transaction already has; the no-op update only swallows the duplicate key
+    @Modifying
+    @Query(value = "INSERT INTO budget_period (budget_id, period_index, start_date, end_date, amount_limit, " +
+            "remaining_amount, status) VALUES (:budgetId, :periodIndex, :startDate, :endDate, :amountLimit, " +
+            ":remainingAmount, :status) ON DUPLICATE KEY UPDATE budget_period_id = budget_period_id", nativeQuery = true)
+    int insertIfAbsent(@Param("budgetId") Integer budgetId,
+                       @Param("periodIndex") Integer periodIndex,
+                       @Param("startDate") LocalDateTime startDate,
+                       @Param("endDate") LocalDateTime endDate,
+                       @Param("amountLimit") BigDecimal amountLimit,
+                       @Param("remainingAmount") BigDecimal remainingAmount,
+                       @Param("status") Integer status);
+
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT bp FROM BudgetPeriod bp WHERE bp.budget.budgetId = :budgetId AND bp.periodIndex = :periodIndex")
+    Optional<BudgetPeriod> findForShare(@Param("budgetId") Integer budgetId, @Param("periodIndex") Integer periodIndex);
+
+    List<BudgetPeriod> findByBudget_BudgetIdAndPeriodIndexIn(Integer budgetId, Collection<Integer> periodIndexes);
+
+    List<BudgetPeriod> findByBudget_BudgetIdInAndPeriodIndexIn(Collection<Integer> budgetIds, Collection<Integer> periodIndexes);
+
     @Query("SELECT bp FROM BudgetPeriod bp WHERE bp.budget = :budget AND bp.status = :status and bp.endDate <= :date order by  bp.periodIndex desc")
     Page<BudgetPeriod> getListBudgetPeriods(@Param("budget") Budget budget,
                                             @Param("status") BudgetPeriodStatus status,
@@ -43,4 +76,12 @@ public interface BudgetPeriodRepository extends JpaRepository<BudgetPeriod, Inte
     Integer countNegativeRemaining(@Param("budget") Budget budget,
                                    @Param("status") BudgetPeriodStatus status,
                                    @Param("date") LocalDateTime date);
+
+    @Query("SELECT COUNT(DISTINCT bp.budget.budgetId) FROM BudgetPeriod bp " +
+            "WHERE bp.budget.user.userId = :userId " +
+            "AND bp.status = :status " +
+            "AND bp.remainingAmount < 0 and :date between bp.startDate and bp.endDate")
+    long countBudgetsWithNegativeRemaining(@Param("userId") Integer userId,
+                                           @Param("status") BudgetPeriodStatus status,
+                                           @Param("date") LocalDateTime date);
 }
\ No newline at end of file
@@ -22,9 +22,18 @@ public interface BudgetRepository extends JpaRepository<Budget, Integer> {
     @Query("SELECT b FROM Budget b WHERE b.user.id = :userId")
     List<Budget> findByUserId(@Param("userId") Integer userId);
 
+    @Query("SELECT COUNT(b) FROM Budget b WHERE b.user.id = :userId")
+    long countByUserId(@Param("userId") Integer userId);
+
     @Query("SELECT b FROM Budget b WHERE b.user.id = :userId and b.budgetId= :budgetId")
     Budget findByUserIdBudget(@Param("userId") Integer userId, @Param("budgetId") Integer budgetId);
 
+    @Query("SELECT b FROM Budget b WHERE b.startDate <= :date AND (b.endDate IS NULL OR b.endDate >= :date) " +
+            "AND b.user.userId BETWEEN :fromUserId AND :toUserId")
+    List<Budget> findRunningBudgets(@Param("date") LocalDateTime date,
+                                    @Param("fromUserId") Integer fromUserId,
+                                    @Param("toUserId") Integer toUserId);
+
     @Query("select case when count(*) < 5 then true else false end from Budget b where b.user.id = :userId ")
     boolean countBudgetByUserId(@Param("userId") Integer userId);
 
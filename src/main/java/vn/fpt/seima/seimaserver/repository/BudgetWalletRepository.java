@@ -29,4 +29,7 @@ public interface BudgetWalletRepository extends JpaRepository<BudgetWallet, Inte
             "WHERE bw.wallet.id = :walletId AND bw.budget.budgetId = :budgetId")
     boolean existsBudgetWalletByWalletAndBudget(@Param("budgetId") Integer budgetId,
                                                 @Param("walletId") Integer walletId);
+
+    @Query("SELECT bw.wallet.id FROM BudgetWallet bw WHERE bw.budget.budgetId = :budgetId")
+    List<Integer> findWalletIdsByBudgetId(@Param("budgetId") Integer budgetId);
 }
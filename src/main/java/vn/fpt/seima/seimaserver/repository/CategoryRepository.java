@@ -1,9 +1,13 @@
 package vn.fpt.seima.seimaserver.repository;
 
 import io.lettuce.core.dynamic.annotation.Param;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import vn.fpt.seima.seimaserver.config.cache.CacheRegions;
 import vn.fpt.seima.seimaserver.entity.Category;
 import vn.fpt.seima.seimaserver.entity.CategoryType;
 
@@ -27,6 +31,17 @@ public interface CategoryRepository extends JpaRepository<Category, Integer> {
             @Param("groupId") Integer groupId
     );
 
+    @Query("SELECT c FROM Category c WHERE c.user IS NULL AND c.group IS NULL")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.REFERENCE_QUERIES)
+    })
+    List<Category> findSystemCategories();
+
+    List<Category> findByCategoryTypeAndUser_UserId(CategoryType categoryType, Integer userId);
+
+    List<Category> findByCategoryTypeAndGroup_GroupId(CategoryType categoryType, Integer groupId);
+
     @Query("SELECT CASE WHEN COUNT(c) > 0 THEN true ELSE false END FROM Category c " +
             "WHERE c.categoryName = :categoryName AND c.categoryType = :type AND (c.user.userId = :userId or c.user is null)")
     boolean existsByCategoryNameAndTypeAndUser_UserId(@Param("categoryName") String categoryName,
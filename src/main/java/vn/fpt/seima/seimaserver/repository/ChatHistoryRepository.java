@@ -1,6 +1,5 @@
 package vn.fpt.seima.seimaserver.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -8,23 +7,41 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
+import vn.fpt.seima.seimaserver.dto.response.chat.ChatMessageCount;
 import vn.fpt.seima.seimaserver.entity.ChatHistory;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Repository
 public interface ChatHistoryRepository extends JpaRepository<ChatHistory, Integer> {
     
     /**
-     * Find all non-deleted chat messages for a specific user with pagination
-     * Ordered by timestamp descending (newest first)
+     * Find the newest non-deleted chat messages for a specific user
+     * Ordered by timestamp descending (newest first), chat ID breaking ties
      * @param userId the user ID
-     * @param pageable pagination parameters
-     * @return Page of ChatHistory ordered by timestamp descending
+     * @param pageable only the page size is used
+     * @return List of ChatHistory, without a count query
      */
-    @Query("SELECT c FROM ChatHistory c WHERE c.user.userId = :userId AND c.deleted = false ORDER BY c.timestamp DESC")
-    Page<ChatHistory> findByUserIdOrderByTimestampDesc(@Param("userId") Integer userId, Pageable pageable);
-    
+    @Query("SELECT c FROM ChatHistory c WHERE c.user.userId = :userId AND c.deleted = false ORDER BY c.timestamp DESC, c.chatId DESC")
+    List<ChatHistory> findLatestByUserId(@Param("userId") Integer userId, Pageable pageable);
+
+    /**
+     * Find the non-deleted chat messages older than a given message (keyset pagination)
+     * @param userId the user ID
+     * @param timestamp timestamp of the last message already returned
+     * @param chatId ID of the last message already returned
+     * @param pageable only the page size is used
+     * @return List of ChatHistory ordered by timestamp descending
+     */
+    @Query("SELECT c FROM ChatHistory c WHERE c.user.userId = :userId AND c.deleted = false " +
+            "AND (c.timestamp < :timestamp OR (c.timestamp = :timestamp AND c.chatId < :chatId)) " +
+            "ORDER BY c.timestamp DESC, c.chatId DESC")
+    List<ChatHistory> findByUserIdBefore(@Param("userId") Integer userId,
+                                         @Param("timestamp") LocalDateTime timestamp,
+                                         @Param("chatId") Integer chatId,
+                                         Pageable pageable);
+
     /**
      * Soft delete all chat history for a specific user
      * @param userId the user ID
@@ -42,6 +59,38 @@ public interface ChatHistoryRepository extends JpaRepository<ChatHistory, Intege
      */
     @Query("SELECT COUNT(c) FROM ChatHistory c WHERE c.user.userId = :userId AND c.deleted = false")
     Long countByUserId(@Param("userId") Integer userId);
+
+    /**
+     * Count the non-deleted messages added after a given chat ID, and the highest such ID
+     * @param userId the user ID
+     * @param afterChatId the highest chat ID already counted
+     * @return the count and maximum chat ID (null when there are none)
+     */
+    @Query("SELECT new vn.fpt.seima.seimaserver.dto.response.chat.ChatMessageCount(COUNT(c), MAX(c.chatId)) " +
+            "FROM ChatHistory c " +
+            "WHERE c.user.userId = :userId AND c.deleted = false AND c.chatId > :afterChatId")
+    ChatMessageCount countByUserIdAfter(@Param("userId") Integer userId, @Param("afterChatId") Integer afterChatId);
+
+    /**
+     * Highest chat ID of a user, deleted or not
+     * @param userId the user ID
+     * @return the maximum chat ID, or null when the user has no messages
+     */
+    @Query("SELECT MAX(c.chatId) FROM ChatHistory c WHERE c.user.userId = :userId")
+    Integer findMaxChatIdByUserId(@Param("userId") Integer userId);
+
+    /**
+     * Hard delete one batch of soft-deleted messages
+     * @param deletedBefore only messages cleared before this time are purged
+     * @param batchSize maximum number of rows to delete
+     * @return number of rows deleted
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM chat_history WHERE deleted = true AND deleted_at < :deletedBefore " +
+            "ORDER BY deleted_at LIMIT :batchSize",
+            nativeQuery = true)
+    int purgeDeleted(@Param("deletedBefore") LocalDateTime deletedBefore, @Param("batchSize") int batchSize);
     
     /**
      * Hard delete all chat history for a specific user (for cleanup purposes)
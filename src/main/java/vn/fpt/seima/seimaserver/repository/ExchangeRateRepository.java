@@ -0,0 +1,14 @@
+package vn.fpt.seima.seimaserver.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import vn.fpt.seima.seimaserver.entity.ExchangeRate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ExchangeRateRepository extends JpaRepository<ExchangeRate, Integer> {
+
+    List<ExchangeRate> findByRateDateGreaterThanEqual(LocalDate from);
+}
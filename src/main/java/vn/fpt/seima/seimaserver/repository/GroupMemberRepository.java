@@ -4,11 +4,14 @@ import io.lettuce.core.dynamic.annotation.Param;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import vn.fpt.seima.seimaserver.dto.response.group.GroupMemberCount;
+import vn.fpt.seima.seimaserver.dto.response.group.GroupMembershipSnapshot;
 import vn.fpt.seima.seimaserver.entity.Group;
 import vn.fpt.seima.seimaserver.entity.GroupMember;
 import vn.fpt.seima.seimaserver.entity.GroupMemberRole;
 import vn.fpt.seima.seimaserver.entity.GroupMemberStatus;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -169,4 +172,30 @@ public interface GroupMemberRepository extends JpaRepository<GroupMember, Intege
             "JOIN gm.group g " +
             "WHERE g.groupIsActive = true and g.groupId = :groupId")
     List<GroupMember> findActiveGroupMembers(@Param("groupId") Integer groupId);
+
+    @Query("SELECT new vn.fpt.seima.seimaserver.dto.response.group.GroupMemberCount(" +
+            "gm.group.groupId, gm.status, COUNT(gm), SUM(CASE WHEN u.userIsActive = true THEN 1L ELSE 0L END)) " +
+            "FROM GroupMember gm JOIN gm.user u " +
+            "WHERE gm.group.groupId IN :groupIds " +
+            "GROUP BY gm.group.groupId, gm.status")
+    List<GroupMemberCount> countMembersByGroupIds(@Param("groupIds") Collection<Integer> groupIds);
+
+    @Query("SELECT gm.group.groupId FROM GroupMember gm WHERE gm.user.userId = :userId")
+    List<Integer> findGroupIdsByUserId(@Param("userId") Integer userId);
+
+    @Query("SELECT gm FROM GroupMember gm " +
+            "JOIN FETCH gm.user " +
+            "WHERE gm.group.groupId IN :groupIds AND gm.role = 'OWNER' AND gm.status = :status")
+    List<GroupMember> findGroupOwners(@Param("groupIds") Collection<Integer> groupIds,
+                                      @Param("status") GroupMemberStatus status);
+
+    /**
+     * Every membership row of a group, oldest first, so the last row per user is the most recent one
+     */
+    @Query("SELECT new vn.fpt.seima.seimaserver.dto.response.group.GroupMembershipSnapshot(" +
+            "gm.user.userId, gm.role, gm.status) " +
+            "FROM GroupMember gm " +
+            "WHERE gm.group.groupId = :groupId " +
+            "ORDER BY gm.joinDate ASC, gm.groupMemberId ASC")
+    List<GroupMembershipSnapshot> findMembershipSnapshots(@Param("groupId") Integer groupId);
 }
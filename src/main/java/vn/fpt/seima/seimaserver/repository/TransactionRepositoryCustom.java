@@ -0,0 +1,100 @@
+package vn.fpt.seima.seimaserver.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import vn.fpt.seima.seimaserver.dto.response.budgetPeriod.DailyExpenseSum;
+import vn.fpt.seima.seimaserver.dto.response.currency.CurrencyAmount;
+import vn.fpt.seima.seimaserver.dto.response.transaction.TransactionExportRow;
+import vn.fpt.seima.seimaserver.dto.response.transaction.TransactionListRow;
+import vn.fpt.seima.seimaserver.entity.Transaction;
+import vn.fpt.seima.seimaserver.entity.TransactionType;
+import vn.fpt.seima.seimaserver.entity.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Transaction queries routed between the hot table and the archive by {@link TransactionTiers}.
+ * Archived rows are returned as unmanaged {@link Transaction} copies: read them, never save them.
+ * Pages spanning both tiers follow the page's sort, or list the hot rows first when it has none.
+ * Queries spanning both tiers read them in one transaction, so a batch the archive mover commits in
+ * between is seen either before or after it moved.
+ */
+public interface TransactionRepositoryCustom {
+
+    /**
+     * The transaction from whichever tier holds it; an archived one comes back as a read-only copy.
+     */
+    Optional<Transaction> findInAnyTier(Integer id);
+
+    /**
+     * Moves an archived transaction back to the hot table, so it can be loaded and changed like any other.
+     * The archive mover moves it back again once it is old enough.
+     * @return false when the archive does not hold the transaction
+     */
+    boolean restoreFromArchive(Integer id);
+
+    List<TransactionListRow> findAllByUserAndTransactionDateBetween(Integer userId, TransactionType type,
+                                                                    LocalDateTime startDate, LocalDateTime endDate);
+
+    Page<TransactionListRow> findByType(TransactionType type, Integer userId, Pageable pageable);
+
+    Page<TransactionListRow> findByTypeGroup(TransactionType type, Integer groupId, Pageable pageable);
+
+    Page<TransactionListRow> findByDate(TransactionType type, LocalDateTime startDate, LocalDateTime endDate,
+                                        Integer groupId, Integer userId, Pageable pageable);
+
+    List<Transaction> listReportByUserAndCategoryAndTransactionDateBetween(List<User> users, Integer categoryId,
+                                                                           LocalDateTime startDate, LocalDateTime endDate,
+                                                                           Integer groupId);
+
+    void deleteByCategory_CategoryId(Integer categoryId);
+
+    List<Transaction> findAllByCategory_CategoryId(Integer categoryId);
+
+    List<Transaction> findExpensesByUserAndDateRange(Integer categoryId, List<User> users,
+                                                     LocalDateTime start, LocalDateTime end, Integer groupId);
+
+    boolean existsExpensesByUserAndDateRange(Integer userId, LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Personal income and expense per currency, day and type, ready to be converted and added up.
+     */
+    List<CurrencyAmount> sumIncomeAndExpenseByCurrency(Integer userId, LocalDateTime start, LocalDateTime end);
+
+    BigDecimal sumExpensesByCategoryAndMonth(Integer userId, List<Integer> categoryId, LocalDateTime from, LocalDateTime to);
+
+    Page<Transaction> getTransactionByBudget(Integer userId, List<Integer> categoryId,
+                                             LocalDateTime startDate, LocalDateTime endDate, Pageable pageable);
+
+    List<Transaction> listExpensesByCategoryAndMonth(Integer userId, List<Integer> categoryId,
+                                                     LocalDateTime from, LocalDateTime to, List<Integer> walletId);
+
+    List<DailyExpenseSum> sumExpensesByDay(Integer userId, List<Integer> categoryId,
+                                           LocalDateTime from, LocalDateTime to, List<Integer> walletId);
+
+    List<TransactionListRow> listTransactionByWallet(Integer walletId, Integer userId, LocalDateTime dateFrom, LocalDateTime dateTo);
+
+    List<TransactionListRow> listRowsByWallet(Integer walletId, Integer userId);
+
+    List<TransactionListRow> listTransactionToday(TransactionType type, Integer userId,
+                                                  LocalDateTime startOfDay, LocalDateTime endOfDay);
+
+    BigDecimal sumExpenseWallet(Integer walletId, Integer userId);
+
+    BigDecimal sumIncomeWallet(Integer walletId, Integer userId);
+
+    List<Transaction> listTransactionsChart(User users, LocalDateTime startDate, LocalDateTime endDate);
+
+    Stream<TransactionExportRow> streamForExport(Integer userId, LocalDateTime from, LocalDateTime to,
+                                                 Integer walletId, Integer categoryId);
+
+    /**
+     * Soft-delete the archived transactions of a deleted wallet; the hot ones are updated by the caller
+     * @return number of archived rows updated
+     */
+    int deactivateArchivedByWallet(Integer walletId, Integer userId);
+}
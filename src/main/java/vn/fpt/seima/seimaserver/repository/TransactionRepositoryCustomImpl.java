@@ -0,0 +1,416 @@
+package vn.fpt.seima.seimaserver.repository;
+
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import vn.fpt.seima.seimaserver.dto.response.budgetPeriod.DailyExpenseSum;
+import vn.fpt.seima.seimaserver.dto.response.currency.CurrencyAmount;
+import vn.fpt.seima.seimaserver.dto.response.transaction.TransactionExportRow;
+import vn.fpt.seima.seimaserver.dto.response.transaction.TransactionListRow;
+import vn.fpt.seima.seimaserver.entity.ArchivedTransaction;
+import vn.fpt.seima.seimaserver.entity.Transaction;
+import vn.fpt.seima.seimaserver.entity.TransactionType;
+import vn.fpt.seima.seimaserver.entity.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class TransactionRepositoryCustomImpl implements TransactionRepositoryCustom {
+
+    private final ActiveTransactionRepository activeTransactionRepository;
+    private final ArchivedTransactionRepository archivedTransactionRepository;
+    private final TransactionTiers transactionTiers;
+    private final TransactionTemplate snapshotTemplate;
+
+    public TransactionRepositoryCustomImpl(ActiveTransactionRepository activeTransactionRepository,
+                                           ArchivedTransactionRepository archivedTransactionRepository,
+                                           TransactionTiers transactionTiers,
+                                           PlatformTransactionManager transactionManager) {
+        this.activeTransactionRepository = activeTransactionRepository;
+        this.archivedTransactionRepository = archivedTransactionRepository;
+        this.transactionTiers = transactionTiers;
+        // The mover inserts into the archive and deletes from the hot table in one transaction. Under
+        // REPEATABLE READ both reads of a read-only transaction see the same snapshot, so a moved row
+        // is never counted in both tiers or in neither. Joins the caller's transaction when there is one.
+        this.snapshotTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public Optional<Transaction> findInAnyTier(Integer id) {
+        return inOneSnapshot(() -> activeTransactionRepository.findById(id)
+                .or(() -> archivedTransactionRepository.findById(id).map(ArchivedTransaction::toTransaction)));
+    }
+
+    @Override
+    @Transactional
+    public boolean restoreFromArchive(Integer id) {
+        if (archivedTransactionRepository.copyToHot(id) == 0) {
+            return false;
+        }
+        archivedTransactionRepository.deleteArchivedById(id);
+        return true;
+    }
+
+    @Override
+    public List<TransactionListRow> findAllByUserAndTransactionDateBetween(Integer userId, TransactionType type,
+                                                                           LocalDateTime startDate, LocalDateTime endDate) {
+        return listAcrossTiers(startDate, endDate,
+                () -> activeTransactionRepository.findAllByUserAndTransactionDateBetween(userId, type, startDate, endDate),
+                () -> archivedTransactionRepository.findAllByUserAndTransactionDateBetween(userId, type, startDate, endDate),
+                TransactionListRow::getTransactionId);
+    }
+
+    @Override
+    public Page<TransactionListRow> findByType(TransactionType type, Integer userId, Pageable pageable) {
+        return pageAcrossTiers(null, null, pageable,
+                page -> activeTransactionRepository.findByType(type, userId, page),
+                page -> archivedTransactionRepository.findByType(type, userId, page),
+                TransactionListRow::getTransactionId);
+    }
+
+    @Override
+    public Page<TransactionListRow> findByTypeGroup(TransactionType type, Integer groupId, Pageable pageable) {
+        return pageAcrossTiers(null, null, pageable,
+                page -> activeTransactionRepository.findByTypeGroup(type, groupId, page),
+                page -> archivedTransactionRepository.findByTypeGroup(type, groupId, page),
+                TransactionListRow::getTransactionId);
+    }
+
+    @Override
+    public Page<TransactionListRow> findByDate(TransactionType type, LocalDateTime startDate, LocalDateTime endDate,
+                                               Integer groupId, Integer userId, Pageable pageable) {
+        return pageAcrossTiers(startDate, endDate, pageable,
+                page -> activeTransactionRepository.findByDate(type, startDate, endDate, groupId, userId, page),
+                page -> archivedTransactionRepository.findByDate(type, startDate, endDate, groupId, userId, page),
+                TransactionListRow::getTransactionId);
+    }
+
+    @Override
+    public List<Transaction> listReportByUserAndCategoryAndTransactionDateBetween(List<User> users, Integer categoryId,
+                                                                                  LocalDateTime startDate, LocalDateTime endDate,
+                                                                                  Integer groupId) {
+        return listAcrossTiers(startDate, endDate,
+                () -> activeTransactionRepository.listReportByUserAndCategoryAndTransactionDateBetween(users, categoryId, startDate, endDate, groupId),
+                () -> archivedTransactionRepository.listReportByUserAndCategoryAndTransactionDateBetween(users, categoryId, startDate, endDate, groupId));
+    }
+
+    @Override
+    @Transactional
+    public void deleteByCategory_CategoryId(Integer categoryId) {
+        activeTransactionRepository.deleteByCategory_CategoryId(categoryId);
+        archivedTransactionRepository.deleteByCategory_CategoryId(categoryId);
+    }
+
+    @Override
+    public List<Transaction> findAllByCategory_CategoryId(Integer categoryId) {
+        return listAcrossTiers(null, null,
+                () -> activeTransactionRepository.findAllByCategory_CategoryId(categoryId),
+                () -> archivedTransactionRepository.findAllByCategory_CategoryId(categoryId));
+    }
+
+    @Override
+    public List<Transaction> findExpensesByUserAndDateRange(Integer categoryId, List<User> users,
+                                                            LocalDateTime start, LocalDateTime end, Integer groupId) {
+        return listAcrossTiers(start, end,
+                () -> activeTransactionRepository.findExpensesByUserAndDateRange(categoryId, users, start, end, groupId),
+                () -> archivedTransactionRepository.findExpensesByUserAndDateRange(categoryId, users, start, end, groupId));
+    }
+
+    @Override
+    public boolean existsExpensesByUserAndDateRange(Integer userId, LocalDateTime start, LocalDateTime end) {
+        return aggregateAcrossTiers(start, end,
+                () -> activeTransactionRepository.existsExpensesByUserAndDateRange(userId, start, end),
+                () -> archivedTransactionRepository.existsExpensesByUserAndDateRange(userId, start, end),
+                Boolean::logicalOr);
+    }
+
+    @Override
+    public List<CurrencyAmount> sumIncomeAndExpenseByCurrency(Integer userId, LocalDateTime start, LocalDateTime end) {
+        // A day split across the tiers simply yields two partials; they are converted and added alike
+        return aggregateAcrossTiers(start, end,
+                () -> activeTransactionRepository.sumIncomeAndExpenseByCurrency(userId, start, end),
+                () -> archivedTransactionRepository.sumIncomeAndExpenseByCurrency(userId, start, end),
+                (hot, archived) -> Stream.concat(hot.stream(), archived.stream()).collect(Collectors.toList()));
+    }
+
+    @Override
+    public BigDecimal sumExpensesByCategoryAndMonth(Integer userId, List<Integer> categoryId, LocalDateTime from, LocalDateTime to) {
+        return aggregateAcrossTiers(from, to,
+                () -> activeTransactionRepository.sumExpensesByCategoryAndMonth(userId, categoryId, from, to),
+                () -> archivedTransactionRepository.sumExpensesByCategoryAndMonth(userId, categoryId, from, to),
+                BigDecimal::add);
+    }
+
+    @Override
+    public Page<Transaction> getTransactionByBudget(Integer userId, List<Integer> categoryId,
+                                                    LocalDateTime startDate, LocalDateTime endDate, Pageable pageable) {
+        return pageAcrossTiers(startDate, endDate, pageable,
+                page -> activeTransactionRepository.getTransactionByBudget(userId, categoryId, startDate, endDate, page),
+                page -> archivedTransactionRepository.getTransactionByBudget(userId, categoryId, startDate, endDate, page));
+    }
+
+    @Override
+    public List<Transaction> listExpensesByCategoryAndMonth(Integer userId, List<Integer> categoryId,
+                                                            LocalDateTime from, LocalDateTime to, List<Integer> walletId) {
+        return listAcrossTiers(from, to,
+                () -> activeTransactionRepository.listExpensesByCategoryAndMonth(userId, categoryId, from, to, walletId),
+                () -> archivedTransactionRepository.listExpensesByCategoryAndMonth(userId, categoryId, from, to, walletId));
+    }
+
+    @Override
+    public List<DailyExpenseSum> sumExpensesByDay(Integer userId, List<Integer> categoryId,
+                                                  LocalDateTime from, LocalDateTime to, List<Integer> walletId) {
+        return aggregateAcrossTiers(from, to,
+                () -> activeTransactionRepository.sumExpensesByDay(userId, categoryId, from, to, walletId),
+                () -> archivedTransactionRepository.sumExpensesByDay(userId, categoryId, from, to, walletId),
+                (hot, archived) -> {
+                    Map<LocalDate, Map<String, BigDecimal>> byDay = new TreeMap<>();
+                    Stream.concat(hot.stream(), archived.stream())
+                            .forEach(sum -> byDay.computeIfAbsent(sum.getDay(), day -> new LinkedHashMap<>())
+                                    .merge(sum.getCurrencyCode(), sum.getAmount(), BigDecimal::add));
+                    List<DailyExpenseSum> sums = new ArrayList<>();
+                    byDay.forEach((day, byCurrency) -> byCurrency.forEach((currency, amount) ->
+                            sums.add(new DailyExpenseSum(day, amount, currency))));
+                    return sums;
+                });
+    }
+
+    @Override
+    public List<TransactionListRow> listTransactionByWallet(Integer walletId, Integer userId, LocalDateTime dateFrom, LocalDateTime dateTo) {
+        return listAcrossTiers(dateFrom, dateTo,
+                () -> activeTransactionRepository.listTransactionByWallet(walletId, userId, dateFrom, dateTo),
+                () -> archivedTransactionRepository.listTransactionByWallet(walletId, userId, dateFrom, dateTo),
+                TransactionListRow::getTransactionId);
+    }
+
+    @Override
+    public List<TransactionListRow> listRowsByWallet(Integer walletId, Integer userId) {
+        return listAcrossTiers(null, null,
+                () -> activeTransactionRepository.listRowsByWallet(walletId, userId),
+                () -> archivedTransactionRepository.listRowsByWallet(walletId, userId),
+                TransactionListRow::getTransactionId);
+    }
+
+    @Override
+    public List<TransactionListRow> listTransactionToday(TransactionType type, Integer userId,
+                                                         LocalDateTime startOfDay, LocalDateTime endOfDay) {
+        return listAcrossTiers(startOfDay, endOfDay,
+                () -> activeTransactionRepository.listTransactionToday(type, userId, startOfDay, endOfDay),
+                () -> archivedTransactionRepository.listTransactionToday(type, userId, startOfDay, endOfDay),
+                TransactionListRow::getTransactionId);
+    }
+
+    @Override
+    public BigDecimal sumExpenseWallet(Integer walletId, Integer userId) {
+        return aggregateAcrossTiers(null, null,
+                () -> activeTransactionRepository.sumExpenseWallet(walletId, userId),
+                () -> archivedTransactionRepository.sumExpenseWallet(walletId, userId),
+                BigDecimal::add);
+    }
+
+    @Override
+    public BigDecimal sumIncomeWallet(Integer walletId, Integer userId) {
+        return aggregateAcrossTiers(null, null,
+                () -> activeTransactionRepository.sumIncomeWallet(walletId, userId),
+                () -> archivedTransactionRepository.sumIncomeWallet(walletId, userId),
+                BigDecimal::add);
+    }
+
+    @Override
+    public List<Transaction> listTransactionsChart(User users, LocalDateTime startDate, LocalDateTime endDate) {
+        return listAcrossTiers(startDate, endDate,
+                () -> activeTransactionRepository.listTransactionsChart(users, startDate, endDate),
+                () -> archivedTransactionRepository.listTransactionsChart(users, startDate, endDate));
+    }
+
+    @Override
+    public Stream<TransactionExportRow> streamForExport(Integer userId, LocalDateTime from, LocalDateTime to,
+                                                        Integer walletId, Integer categoryId) {
+        Supplier<Stream<TransactionExportRow>> hot =
+                () -> activeTransactionRepository.streamForExport(userId, from, to, walletId, categoryId);
+        Supplier<Stream<TransactionExportRow>> archived =
+                () -> archivedTransactionRepository.streamForExport(userId, from, to, walletId, categoryId);
+        return switch (transactionTiers.tierFor(from, to)) {
+            case HOT -> hot.get();
+            // Archived rows first: they are the older ones, bar backdated rows the mover has not reached yet.
+            // flatMap opens the hot stream only after the archived one is drained and closed: a connection
+            // streams one result set at a time.
+            case BOTH -> Stream.of(archived, hot).flatMap(Supplier::get);
+        };
+    }
+
+    @Override
+    @Transactional
+    public int deactivateArchivedByWallet(Integer walletId, Integer userId) {
+        return archivedTransactionRepository.deactivateByWallet(walletId, userId);
+    }
+
+    private List<Transaction> listAcrossTiers(LocalDateTime start, LocalDateTime end,
+                                              Supplier<List<Transaction>> hot,
+                                              Supplier<List<ArchivedTransaction>> archived) {
+        return listAcrossTiers(start, end, hot,
+                () -> archived.get().stream().map(ArchivedTransaction::toTransaction).collect(Collectors.toList()),
+                Transaction::getTransactionId);
+    }
+
+    private <T> List<T> listAcrossTiers(LocalDateTime start, LocalDateTime end,
+                                        Supplier<List<T>> hot, Supplier<List<T>> archived, Function<T, Integer> id) {
+        return switch (transactionTiers.tierFor(start, end)) {
+            case HOT -> hot.get();
+            case BOTH -> inOneSnapshot(() -> merge(hot.get(), archived.get(), id));
+        };
+    }
+
+    private <T> T aggregateAcrossTiers(LocalDateTime start, LocalDateTime end,
+                                       Supplier<T> hot, Supplier<T> archived, BinaryOperator<T> combine) {
+        return switch (transactionTiers.tierFor(start, end)) {
+            case HOT -> hot.get();
+            case BOTH -> inOneSnapshot(() -> combine.apply(hot.get(), archived.get()));
+        };
+    }
+
+    private Page<Transaction> pageAcrossTiers(LocalDateTime start, LocalDateTime end, Pageable pageable,
+                                              Function<Pageable, Page<Transaction>> hot,
+                                              Function<Pageable, Page<ArchivedTransaction>> archived) {
+        return pageAcrossTiers(start, end, pageable, hot,
+                page -> archived.apply(page).map(ArchivedTransaction::toTransaction),
+                Transaction::getTransactionId);
+    }
+
+    private <T> Page<T> pageAcrossTiers(LocalDateTime start, LocalDateTime end, Pageable pageable,
+                                        Function<Pageable, Page<T>> hot,
+                                        Function<Pageable, Page<T>> archived,
+                                        Function<T, Integer> id) {
+        return switch (transactionTiers.tierFor(start, end)) {
+            case HOT -> hot.apply(pageable);
+            case BOTH -> inOneSnapshot(() -> pageBothTiers(pageable, hot, archived, id));
+        };
+    }
+
+    private <T> Page<T> pageBothTiers(Pageable pageable,
+                                      Function<Pageable, Page<T>> hot,
+                                      Function<Pageable, Page<T>> archived,
+                                      Function<T, Integer> id) {
+        if (pageable.getSort().isSorted()) {
+            return pageBothTiersSorted(pageable, hot, archived, id);
+        }
+        Page<T> hotPage = hot.apply(pageable);
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(merge(hotPage.getContent(), archived.apply(pageable).getContent(), id));
+        }
+
+        // The archived rows are listed after the hot ones, so this page continues into them once the hot rows run out
+        long hotTotal = hotPage.getTotalElements();
+        int size = pageable.getPageSize();
+        List<T> content = new ArrayList<>(hotPage.getContent());
+        int missing = size - content.size();
+        long archivedTotal;
+        if (missing > 0) {
+            long archivedOffset = Math.max(0, pageable.getOffset() - hotTotal);
+            int firstPage = (int) (archivedOffset / size);
+            int skip = (int) (archivedOffset % size);
+            Page<T> first = archived.apply(PageRequest.of(firstPage, size, pageable.getSort()));
+            archivedTotal = first.getTotalElements();
+            List<T> rows = new ArrayList<>(first.getContent());
+            if (skip + missing > size && first.hasNext()) {
+                rows.addAll(archived.apply(PageRequest.of(firstPage + 1, size, pageable.getSort())).getContent());
+            }
+            rows.stream().skip(skip).limit(missing).forEach(content::add);
+        } else {
+            archivedTotal = archived.apply(PageRequest.of(0, 1, pageable.getSort())).getTotalElements();
+        }
+        return new PageImpl<>(content, pageable, hotTotal + archivedTotal);
+    }
+
+    /**
+     * A sorted page can draw on either tier, so the first {@code offset + size} rows of each are read
+     * in that order and merged. Deep pages cost more, but the API's pages are shallow.
+     */
+    private <T> Page<T> pageBothTiersSorted(Pageable pageable,
+                                            Function<Pageable, Page<T>> hot,
+                                            Function<Pageable, Page<T>> archived,
+                                            Function<T, Integer> id) {
+        Sort sort = pageable.getSort();
+        Pageable head = pageable.isUnpaged()
+                ? pageable
+                : PageRequest.of(0, Math.toIntExact(pageable.getOffset() + pageable.getPageSize()), sort);
+        Page<T> hotRows = hot.apply(head);
+        Page<T> archivedRows = archived.apply(head);
+
+        List<T> rows = merge(hotRows.getContent(), archivedRows.getContent(), id);
+        // Stable, so rows that tie keep hot before archived
+        rows.sort(comparator(sort));
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(rows);
+        }
+        List<T> content = rows.stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, hotRows.getTotalElements() + archivedRows.getTotalElements());
+    }
+
+    /**
+     * Orders rows by the properties of a {@link Sort}, read as bean properties of the row.
+     */
+    private static <T> Comparator<T> comparator(Sort sort) {
+        Comparator<T> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<Object> values = (a, b) -> compareValues(a, b, order.isIgnoreCase());
+            if (order.isDescending()) {
+                values = values.reversed();
+            }
+            values = switch (order.getNullHandling()) {
+                case NULLS_FIRST -> Comparator.nullsFirst(values);
+                case NULLS_LAST -> Comparator.nullsLast(values);
+                // As MySQL does: nulls first in ascending order, last in descending order
+                case NATIVE -> order.isAscending() ? Comparator.nullsFirst(values) : Comparator.nullsLast(values);
+            };
+            comparator = comparator.thenComparing(
+                    row -> new BeanWrapperImpl(row).getPropertyValue(order.getProperty()), values);
+        }
+        return comparator;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareValues(Object a, Object b, boolean ignoreCase) {
+        if (ignoreCase && a instanceof String left && b instanceof String right) {
+            return left.compareToIgnoreCase(right);
+        }
+        return ((Comparable) a).compareTo(b);
+    }
+
+    private <T> T inOneSnapshot(Supplier<T> reads) {
+        return snapshotTemplate.execute(status -> reads.get());
+    }
+
+    /**
+     * Hot rows win should a row still show up in both, e.g. on a database without consistent snapshots.
+     */
+    private static <T> List<T> merge(List<T> hot, List<T> archived, Function<T, Integer> id) {
+        Map<Integer, T> byId = new LinkedHashMap<>();
+        hot.forEach(row -> byId.put(id.apply(row), row));
+        archived.forEach(row -> byId.putIfAbsent(id.apply(row), row));
+        return new ArrayList<>(byId.values());
+    }
+}
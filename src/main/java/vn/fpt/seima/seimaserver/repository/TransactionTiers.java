@@ -0,0 +1,39 @@
+package vn.fpt.seima.seimaserver.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import vn.fpt.seima.seimaserver.config.transaction.TransactionArchiveProperties;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Where transactions live. Active rows dated on or after {@link #hotFrom()} are always in the hot table.
+ * Older rows are moved to the archive over time, but a backdated create, edit or import, or an archived
+ * row brought back to be changed, puts them in the hot table again until the next run of the mover, so
+ * queries reaching before {@link #hotFrom()} always read both tables.
+ */
+@Component
+@RequiredArgsConstructor
+public class TransactionTiers {
+    private final TransactionArchiveProperties properties;
+
+    public enum Tier {
+        HOT,
+        BOTH
+    }
+
+    public LocalDateTime hotFrom() {
+        return LocalDate.now().withDayOfYear(1).minusYears(properties.getHotYears()).atStartOfDay();
+    }
+
+    /**
+     * Tables a query over {@code [start, end]} has to read; a null bound is open-ended.
+     */
+    public Tier tierFor(LocalDateTime start, LocalDateTime end) {
+        if (start != null && !start.isBefore(hotFrom())) {
+            return Tier.HOT;
+        }
+        return Tier.BOTH;
+    }
+}
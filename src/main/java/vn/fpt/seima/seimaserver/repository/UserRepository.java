@@ -3,9 +3,13 @@ package vn.fpt.seima.seimaserver.repository;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import vn.fpt.seima.seimaserver.entity.User;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 
@@ -22,4 +26,13 @@ public interface UserRepository extends JpaRepository<User, Integer> {
     // I want write query to find user by email and isActive is false
     Optional<User> findByUserEmailAndUserIsActiveFalse(@Email @NotBlank String email);
 
+    // Active users for a batch of emails in one query, used by bulk invitations
+    List<User> findByUserEmailInAndUserIsActiveTrue(Collection<String> emails);
+
+    @Query("SELECT MAX(u.userId) FROM User u")
+    Optional<Integer> findMaxUserId();
+
+    @Query("SELECT u.baseCurrencyCode FROM User u WHERE u.userId = :userId")
+    Optional<String> findBaseCurrencyCode(@Param("userId") Integer userId);
+
 }
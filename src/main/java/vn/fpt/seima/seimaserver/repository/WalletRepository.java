@@ -1,9 +1,11 @@
 package vn.fpt.seima.seimaserver.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import vn.fpt.seima.seimaserver.dto.response.currency.CurrencyAmount;
 import vn.fpt.seima.seimaserver.entity.Wallet;
 
 import java.math.BigDecimal;
@@ -21,8 +23,14 @@ public interface WalletRepository extends JpaRepository<Wallet, Integer> {
     @Query("SELECT w FROM Wallet w WHERE w.user.userId = :userId AND w.isDeleted = false")
     List<Wallet> findAllActiveByUserId(@Param("userId") Integer userId);
 
-    @Query("SELECT COALESCE(SUM(w.currentBalance), 0) FROM Wallet w WHERE w.user.userId = :userId AND w.isDeleted = false")
-    BigDecimal sumBalanceByUserId(@Param("userId") Integer userId);
+    @Query("SELECT new vn.fpt.seima.seimaserver.dto.response.currency.CurrencyAmount(w.currencyCode, SUM(w.currentBalance)) " +
+            "FROM Wallet w WHERE w.user.userId = :userId AND w.isDeleted = false GROUP BY w.currencyCode")
+    List<CurrencyAmount> sumBalanceByCurrency(@Param("userId") Integer userId);
+
+    // Relative to the stored balance, so a balance change committed meanwhile is kept
+    @Modifying
+    @Query("UPDATE Wallet w SET w.currentBalance = w.currentBalance + :delta WHERE w.id = :id")
+    int addToBalance(@Param("id") Integer id, @Param("delta") BigDecimal delta);
 
     @Query("SELECT CASE WHEN COUNT(w) > 0 THEN true ELSE false END FROM Wallet w WHERE w.id = :id AND w.isDeleted = false")
     boolean existsByIdAndNotDeleted(@Param("id") Integer id);
@@ -4,6 +4,9 @@ import vn.fpt.seima.seimaserver.dto.response.group.BranchLinkResponse;
 import vn.fpt.seima.seimaserver.dto.response.group.GroupMemberResponse;
 import vn.fpt.seima.seimaserver.entity.Group;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Service interface for Branch.io link operations
  */
@@ -15,4 +18,10 @@ public interface BranchLinkService {
     
 
     BranchLinkResponse createInvitationDeepLink(Integer groupId, Integer invitedUserId, Integer inviterId, String actionType);
+
+    /**
+     * Create and cache the invitation deep links of many invitees with Branch's bulk endpoint.
+     * Runs in the background, so the landing pages later find their links in the cache.
+     */
+    void pregenerateInvitationDeepLinks(Integer groupId, Integer inviterId, Collection<Integer> invitedUserIds, List<String> actionTypes);
 } 
\ No newline at end of file
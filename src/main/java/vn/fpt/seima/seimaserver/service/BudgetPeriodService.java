@@ -6,10 +6,53 @@ import vn.fpt.seima.seimaserver.dto.response.budgetPeriod.BudgetPeriodResponse;
 import vn.fpt.seima.seimaserver.entity.Budget;
 import vn.fpt.seima.seimaserver.entity.BudgetPeriod;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface BudgetPeriodService {
-    List<BudgetPeriod> generateBudgetPeriods(Budget budget);
+    /**
+     * Upper bound used for open-ended CUSTOM budgets and for range queries on budgets without an end date.
+     */
+    LocalDateTime OPEN_END = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
     Page<BudgetPeriodResponse> getListBudgetPeriods(Integer budgetId, Pageable pageable);
 
+    /**
+     * @return 1-based index of the period containing {@code date}, or null when the date is outside the budget
+     */
+    Integer resolvePeriodIndex(Budget budget, LocalDateTime date);
+
+    /**
+     * Builds (without saving) the period at {@code periodIndex}, bounds computed from the budget start and period type.
+     */
+    BudgetPeriod buildPeriod(Budget budget, int periodIndex);
+
+    /**
+     * Returns the stored period containing {@code date}, materialising it on first touch.
+     *
+     * @return the period, or null when the date is outside the budget
+     */
+    BudgetPeriod getOrCreatePeriod(Budget budget, LocalDateTime date);
+
+    /**
+     * Backfills a budget from its historical expenses in the given categories and wallets.
+     *
+     * @return the periods touched by those expenses, remaining amount already reduced, plus the current period; not yet saved
+     */
+    List<BudgetPeriod> backfillPeriods(Budget budget, List<Integer> categoryIds, List<Integer> walletIds);
+
+    /**
+     * Subtracts historical expenses from already built periods in a single sweep over both date-sorted lists.
+     */
+    void applyExpenses(Budget budget, List<BudgetPeriod> periods, List<Integer> categoryIds, List<Integer> walletIds);
+
+    /**
+     * Materialises the current and the next few periods of every running budget.
+     */
+    void rollForwardPeriods();
+
+    /**
+     * Same as {@link #rollForwardPeriods()}, limited to the budgets of users with ids in the inclusive range.
+     */
+    void rollForwardPeriods(int fromUserId, int toUserId);
 }
@@ -0,0 +1,18 @@
+package vn.fpt.seima.seimaserver.service;
+
+import vn.fpt.seima.seimaserver.dto.response.category.CategoryResponse;
+import vn.fpt.seima.seimaserver.entity.CategoryType;
+
+import java.util.List;
+
+public interface CategoryCatalogueService {
+    /**
+     * System categories plus the categories owned by the group, or by the user when groupId is null.
+     */
+    List<CategoryResponse> getCategories(CategoryType type, Integer userId, Integer groupId);
+
+    /**
+     * Changes whenever {@link #getCategories} would return something different; costs one Redis read.
+     */
+    String getETag(CategoryType type, Integer userId, Integer groupId);
+}
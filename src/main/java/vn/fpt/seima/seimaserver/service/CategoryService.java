@@ -8,6 +8,11 @@ import java.util.List;
 public interface CategoryService {
     List<CategoryResponse> getAllCategoryByTypeAndUser(Integer categoryType, Integer groupId);
 
+    /**
+     * Entity tag for {@link #getAllCategoryByTypeAndUser}; changes whenever that list would.
+     */
+    String getCategoryCatalogueETag(Integer categoryType, Integer groupId);
+
     CategoryResponse getCategoryById(int id);
 
     CategoryResponse saveCategory(CreateCategoryRequest request);
@@ -1,7 +1,6 @@
 package vn.fpt.seima.seimaserver.service;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import vn.fpt.seima.seimaserver.dto.response.chat.ChatHistorySliceResponse;
 import vn.fpt.seima.seimaserver.dto.response.chat.ChatMessageResponse;
 
 import java.util.List;
@@ -9,11 +8,12 @@ import java.util.List;
 public interface ChatHistoryService {
     
     /**
-     * Get all messages from user's continuous chat history with pagination
-     * @param pageable pagination parameters
-     * @return paginated chat messages
+     * Get one page of the user's continuous chat history, newest first
+     * @param cursor nextCursor of the previous page, or null for the newest messages
+     * @param size number of messages to retrieve
+     * @return the messages and the cursor of the next (older) page
      */
-    Page<ChatMessageResponse> getUserChatHistory(Pageable pageable);
+    ChatHistorySliceResponse getUserChatHistory(String cursor, int size);
     
     /**
      * Get recent messages from user's chat history
@@ -32,4 +32,9 @@ public interface ChatHistoryService {
      * @return total message count
      */
     Long getUserTotalMessageCount();
+
+    /**
+     * Hard delete cleared messages that are past the grace period
+     */
+    void purgeDeletedMessages();
 } 
\ No newline at end of file
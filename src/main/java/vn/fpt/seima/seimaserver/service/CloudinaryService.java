@@ -1,6 +1,9 @@
 package vn.fpt.seima.seimaserver.service;
 
 import org.springframework.web.multipart.MultipartFile;
+import vn.fpt.seima.seimaserver.dto.request.upload.DirectUploadRequest;
+import vn.fpt.seima.seimaserver.dto.request.upload.UploadPurpose;
+import vn.fpt.seima.seimaserver.dto.response.upload.UploadSignatureResponse;
 
 import java.util.Map;
 
@@ -9,4 +12,8 @@ public interface CloudinaryService {
     Map uploadImage(MultipartFile file, String folderPath);
     //truyen vao publicId cua file
     boolean deleteImage(String publicId);
+    //tao chu ky de client upload thang len Cloudinary
+    UploadSignatureResponse createUploadSignature(UploadPurpose purpose, Integer userId);
+    //kiem tra anh client da upload, tra ve secure url
+    String verifyDirectUpload(UploadPurpose purpose, Integer userId, DirectUploadRequest upload);
 }
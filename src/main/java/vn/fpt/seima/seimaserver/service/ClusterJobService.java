@@ -0,0 +1,33 @@
+package vn.fpt.seima.seimaserver.service;
+
+import org.springframework.scheduling.support.CronExpression;
+import vn.fpt.seima.seimaserver.dto.response.scheduler.JobRun;
+
+import java.util.List;
+
+public interface ClusterJobService {
+
+    /**
+     * Runs the task on this instance unless another instance holds the job's lease
+     * @return whether the task ran here
+     */
+    boolean runExclusive(String job, Runnable task);
+
+    /**
+     * Splits users into the job's configured number of contiguous user id ranges, each under its own
+     * lease, so several instances can share one run. Each range runs at most once per tick of the
+     * job's schedule
+     * @return number of ranges processed on this instance
+     */
+    int runSharded(String job, CronExpression schedule, UserRangeTask task);
+
+    /**
+     * Latest runs of the job on any instance, newest first
+     */
+    List<JobRun> recentRuns(String job);
+
+    @FunctionalInterface
+    interface UserRangeTask {
+        void run(int fromUserId, int toUserId);
+    }
+}
@@ -0,0 +1,15 @@
+package vn.fpt.seima.seimaserver.service;
+
+import vn.fpt.seima.seimaserver.event.ResourceFamily;
+
+import java.util.Collection;
+
+public interface ConditionalGetService {
+    /**
+     * Entity tag for a user's view of a resource; changes when any of the given families is bumped for
+     * that user, and at the start of each day for date-relative views.
+     */
+    String getETag(Integer userId, String resource, Collection<ResourceFamily> families);
+
+    void bumpVersions(Integer userId, Collection<ResourceFamily> families);
+}
@@ -0,0 +1,11 @@
+package vn.fpt.seima.seimaserver.service;
+
+import vn.fpt.seima.seimaserver.dto.request.email.QueuedEmail;
+
+public interface EmailDeliveryService {
+    /**
+     * Queue a template email for the delivery workers and return immediately
+     * @param email the email to render and send, one message per recipient
+     */
+    void enqueue(QueuedEmail email);
+}
@@ -5,10 +5,12 @@ import jakarta.validation.constraints.NotBlank;
 import org.thymeleaf.context.Context;
 
 import java.io.File;
+import java.util.Collection;
 
 public interface EmailService {
     void sendSimpleMessage(String to, String subject, String text);
     void sendHtmlMessage(String to, String subject, String htmlBody);
     void sendMessageWithAttachment(String to, String subject, String text, File attachmentFile);
     void sendEmailWithHtmlTemplate(String to, String subject, String templateName, Context context);
+    void sendBulkEmailWithHtmlTemplate(Collection<String> recipients, String subject, String templateName, Context context);
 }
@@ -0,0 +1,50 @@
+package vn.fpt.seima.seimaserver.service;
+
+import vn.fpt.seima.seimaserver.dto.response.currency.CurrencyAmount;
+import vn.fpt.seima.seimaserver.entity.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Set;
+
+public interface ExchangeRateService {
+    /**
+     * Currency the user's totals are reported in: their own choice, otherwise the configured base currency.
+     */
+    String baseCurrencyOf(User user);
+
+    String baseCurrencyOf(Integer userId);
+
+    /**
+     * Converts with the rate of {@code day} (null for the latest). A missing currency code is taken to be
+     * the base currency. This is the conversion for amounts that are written, so a pair of currencies
+     * without rates is rejected with an {@link IllegalArgumentException}.
+     */
+    BigDecimal convert(BigDecimal amount, String from, String to, LocalDate day);
+
+    /**
+     * Converts like {@link #convert} for report totals, which may fall back: an amount in a currency
+     * without rates is returned unconverted and its currency added to {@code unconverted}, so the
+     * response can be flagged.
+     */
+    BigDecimal convertForReport(BigDecimal amount, String from, String to, LocalDate day, Set<String> unconverted);
+
+    /**
+     * Converts each partial sum once and adds them up, falling back as {@link #convertForReport} does.
+     */
+    BigDecimal total(Collection<CurrencyAmount> amounts, String to, Set<String> unconverted);
+
+    boolean supports(String currencyCode);
+
+    /**
+     * Changes whenever a refresh loads different rates; cached reports and ETags include it so they
+     * are not served from before the reload.
+     */
+    String ratesVersion();
+
+    /**
+     * Reloads the in-memory rate table from the {@code exchange_rate} table and the rates file.
+     */
+    void refreshRates();
+}
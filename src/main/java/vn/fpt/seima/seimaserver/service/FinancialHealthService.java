@@ -3,5 +3,18 @@ package vn.fpt.seima.seimaserver.service;
 import vn.fpt.seima.seimaserver.dto.response.budget.FinancialHealthResponse;
 
 public interface FinancialHealthService {
+    /**
+     * Reads the current user's materialised score; computed on the spot only if it has never been stored.
+     */
     FinancialHealthResponse calculateScore();
+
+    /**
+     * Recomputes and stores the score of {@code userId}, notifying the user when the level changes.
+     */
+    FinancialHealthResponse refreshScore(Integer userId);
+
+    /**
+     * Recomputes the scores of users whose last change is older than the debounce window.
+     */
+    void refreshDirtyScores();
 }
@@ -19,11 +19,13 @@ public class GeminiService {
 
     @Value("${gemini.api-key}")
     private String apiKey;
-    private final static String GEMINI_SERVER = "https://generativelanguage.googleapis.com/v1beta/models/gemini-2.0-flash:generateContent?key=";
+    @Value("${gemini.api-url:https://generativelanguage.googleapis.com}")
+    private String apiUrl;
+    private final static String GEMINI_PATH = "/v1beta/models/gemini-2.0-flash:generateContent?key=";
     private final RestTemplate restTemplate = new RestTemplate();
 
     public TransactionOcrResponse analyzeInvoiceFromOcrText(String ocrText, String imageUrl) {
-        String url = GEMINI_SERVER + apiKey;
+        String url = apiUrl + GEMINI_PATH + apiKey;
 
         String prompt = buildPrompt(ocrText);
 
@@ -1,6 +1,8 @@
 package vn.fpt.seima.seimaserver.service;
 
+import vn.fpt.seima.seimaserver.dto.request.group.BulkEmailInvitationRequest;
 import vn.fpt.seima.seimaserver.dto.request.group.EmailInvitationRequest;
+import vn.fpt.seima.seimaserver.dto.response.group.BulkEmailInvitationResponse;
 import vn.fpt.seima.seimaserver.dto.response.group.EmailInvitationResponse;
 import vn.fpt.seima.seimaserver.dto.response.group.GroupInvitationLandingResponse;
 import vn.fpt.seima.seimaserver.dto.response.group.GroupMemberResponse;
@@ -12,6 +14,12 @@ public interface GroupInvitationService {
 
     EmailInvitationResponse sendEmailInvitation(EmailInvitationRequest request);
 
+    /**
+     * Invite several emails at once. Emails that cannot be invited get their reason in the
+     * result instead of failing the whole request.
+     */
+    BulkEmailInvitationResponse sendBulkEmailInvitation(BulkEmailInvitationRequest request);
+
     GroupInvitationLandingResponse processInvitationToken(String invitationToken);
 
     SuccessAcceptanceGroupResponse handleSuccessAcceptance(Long userId, Long groupId);
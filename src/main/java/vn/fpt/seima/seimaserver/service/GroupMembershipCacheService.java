@@ -0,0 +1,22 @@
+package vn.fpt.seima.seimaserver.service;
+
+import vn.fpt.seima.seimaserver.dto.response.group.GroupMembershipSnapshot;
+
+import java.util.Optional;
+
+/**
+ * In-process cache of every group's memberships (groupId -> userId -> role, status) used for permission
+ * checks, so they do not hit the database on every group operation.
+ */
+public interface GroupMembershipCacheService {
+
+    /**
+     * The user's most recent membership in the group, whatever its status; empty if they never had one.
+     */
+    Optional<GroupMembershipSnapshot> getMembership(Integer groupId, Integer userId);
+
+    /**
+     * Drops the group's cached memberships on this instance and every other one.
+     */
+    void evictGroup(Integer groupId);
+}
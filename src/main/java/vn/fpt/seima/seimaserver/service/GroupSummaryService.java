@@ -0,0 +1,14 @@
+package vn.fpt.seima.seimaserver.service;
+
+import vn.fpt.seima.seimaserver.dto.response.group.GroupSummaryResponse;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface GroupSummaryService {
+    /**
+     * Summaries keyed by group id: one Redis round trip, plus three queries for whatever is not cached.
+     * Groups that no longer exist are absent from the map.
+     */
+    Map<Integer, GroupSummaryResponse> getSummaries(Collection<Integer> groupIds);
+}
@@ -2,6 +2,7 @@ package vn.fpt.seima.seimaserver.service;
 
 import vn.fpt.seima.seimaserver.dto.request.group.InvitationTokenData;
 
+import java.util.List;
 import java.util.Optional;
 
 
@@ -9,6 +10,11 @@ public interface InvitationTokenService {
     
 
     String createInvitationToken(InvitationTokenData tokenData);
+
+    /**
+     * Create tokens for several invitations in one round trip, returned in the same order
+     */
+    List<String> createInvitationTokens(List<InvitationTokenData> tokenDataList);
     
 
     Optional<InvitationTokenData> getInvitationTokenData(String token);
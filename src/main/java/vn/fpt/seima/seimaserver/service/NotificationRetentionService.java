@@ -0,0 +1,9 @@
+package vn.fpt.seima.seimaserver.service;
+
+public interface NotificationRetentionService {
+
+    /**
+     * Delete or archive every notification past its type's retention policy
+     */
+    void applyRetention();
+}
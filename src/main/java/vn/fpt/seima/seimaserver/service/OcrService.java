@@ -1,8 +1,11 @@
 package vn.fpt.seima.seimaserver.service;
 
 import org.springframework.web.multipart.MultipartFile;
+import vn.fpt.seima.seimaserver.dto.request.upload.DirectUploadRequest;
 import vn.fpt.seima.seimaserver.dto.response.transaction.TransactionOcrResponse;
 
 public interface OcrService {
      TransactionOcrResponse extractTextFromFile(MultipartFile file) throws Exception;
+
+     TransactionOcrResponse extractTextFromUpload(Integer userId, DirectUploadRequest upload) throws Exception;
 }
@@ -0,0 +1,28 @@
+package vn.fpt.seima.seimaserver.service;
+
+import vn.fpt.seima.seimaserver.dto.response.auth.OtpIssueResult;
+import vn.fpt.seima.seimaserver.dto.response.auth.OtpVerifyResult;
+
+public interface OtpService {
+    /**
+     * Store a fresh OTP under the key, counting it against the send limit
+     * @param key Redis key of the OTP
+     * @param otpCode the code that will be sent to the user
+     * @param resend whether the resend cooldown applies
+     * @return whether the code was stored, or why not
+     */
+    OtpIssueResult issue(String key, String otpCode, boolean resend);
+
+    /**
+     * Check a submitted OTP, consuming it on success and counting the attempt otherwise
+     * @param key Redis key of the OTP
+     * @param otpCode the code submitted by the user
+     * @return the outcome and, for a wrong code, the attempts left
+     */
+    OtpVerifyResult verify(String key, String otpCode);
+
+    /**
+     * Check whether an OTP is still pending under the key
+     */
+    boolean exists(String key);
+}
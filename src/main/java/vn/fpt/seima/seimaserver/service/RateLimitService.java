@@ -0,0 +1,12 @@
+package vn.fpt.seima.seimaserver.service;
+
+import io.github.bucket4j.ConsumptionProbe;
+
+public interface RateLimitService {
+    /**
+     * Takes one token from the client's bucket for the policy matching the request.
+     */
+    ConsumptionProbe tryConsume(String method, String path, String clientId);
+
+    void evictIdleBuckets();
+}
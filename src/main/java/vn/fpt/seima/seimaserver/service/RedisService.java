@@ -1,5 +1,6 @@
 package vn.fpt.seima.seimaserver.service;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -17,12 +18,19 @@ public interface RedisService {
 
     Object get(Object key);
 
+    /**
+     * Reads several plain keys in one round trip; missing keys come back as null, in order.
+     */
+    List<Object> multiGet(Collection<Object> keys);
+
     <T> T getObject(Object key, Class<T> clazz);
 
     Map<Object, Object> getField(Object key);
 
     Object hashGet(Object key, String field);
 
+    <T> T hashGetObject(Object key, String field, Class<T> clazz);
+
     List<Object> hashGetByFieldPrefix(Object key, String fieldPrefix);
 
     Set<Object> getFieldPrefixes(Object key);
@@ -35,4 +43,19 @@ public interface RedisService {
     
     void hashMultiSet(Object key, Map<String, ?> map);
 
+    /**
+     * Publishes a message to every instance subscribed to the channel.
+     */
+    void publish(String channel, Object message);
+
+    /**
+     * Atomically increments a counter key, creating it at 1 if it does not exist.
+     */
+    long increment(Object key);
+
+    /**
+     * Atomically increments a numeric hash field, creating it at 1 if it does not exist.
+     */
+    long hashIncrement(Object key, String field);
+
 }
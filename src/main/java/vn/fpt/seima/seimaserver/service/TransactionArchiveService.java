@@ -0,0 +1,9 @@
+package vn.fpt.seima.seimaserver.service;
+
+public interface TransactionArchiveService {
+
+    /**
+     * Move transactions older than the hot window, and long soft-deleted ones, to the archive table
+     */
+    void archiveTransactions();
+}
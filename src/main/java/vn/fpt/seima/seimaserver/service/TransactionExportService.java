@@ -0,0 +1,25 @@
+package vn.fpt.seima.seimaserver.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+public interface TransactionExportService {
+    enum ExportFormat {
+        CSV,
+        JSON
+    }
+
+    /**
+     * Writes the user's personal transactions, oldest first, to {@code out}.
+     * Rows are read from a forward-only cursor, so memory use does not depend on the history size.
+     * Null filters are ignored.
+     */
+    void exportTransactions(Integer userId,
+                            LocalDate from,
+                            LocalDate to,
+                            Integer walletId,
+                            Integer categoryId,
+                            ExportFormat format,
+                            OutputStream out) throws IOException;
+}
@@ -0,0 +1,14 @@
+package vn.fpt.seima.seimaserver.service;
+
+import org.springframework.web.multipart.MultipartFile;
+import vn.fpt.seima.seimaserver.dto.response.transaction.TransactionImportResponse;
+
+public interface TransactionImportService {
+
+    /**
+     * Queues a CSV statement for import and returns immediately with the job id.
+     */
+    TransactionImportResponse startImport(MultipartFile file);
+
+    TransactionImportResponse getImportStatus(String jobId);
+}
@@ -4,6 +4,7 @@ import vn.fpt.seima.seimaserver.dto.request.wallet.CreateWalletRequest;
 import vn.fpt.seima.seimaserver.dto.response.wallet.WalletResponse;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface WalletService {
@@ -12,5 +13,5 @@ public interface WalletService {
     List<WalletResponse> getAllWallets();
     WalletResponse updateWallet(Integer id, CreateWalletRequest request);
     void deleteWallet(Integer id);
-    void reduceAmount(Integer id, BigDecimal amount, String type, String code );
+    void reduceAmount(Integer id, BigDecimal amount, LocalDateTime transactionDate, String type, String code);
 } 
\ No newline at end of file
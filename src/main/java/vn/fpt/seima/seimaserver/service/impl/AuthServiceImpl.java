@@ -1,13 +1,11 @@
 package vn.fpt.seima.seimaserver.service.impl;
 
-import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
-import io.github.bucket4j.Refill;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.AllArgsConstructor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -19,13 +17,14 @@ import vn.fpt.seima.seimaserver.dto.request.auth.GoogleLoginRequestDto;
 import vn.fpt.seima.seimaserver.dto.request.auth.ForgotPasswordRequestDto;
 import vn.fpt.seima.seimaserver.dto.request.auth.LoginRequestDto;
 import vn.fpt.seima.seimaserver.dto.request.auth.NormalRegisterRequestDto;
-import vn.fpt.seima.seimaserver.dto.request.auth.OtpValueDto;
 import vn.fpt.seima.seimaserver.dto.request.auth.ResetPasswordRequestDto;
 import vn.fpt.seima.seimaserver.dto.request.auth.SetNewPasswordRequestDto;
 import vn.fpt.seima.seimaserver.dto.request.auth.VerifyForgotPasswordOtpRequestDto;
 import vn.fpt.seima.seimaserver.dto.request.auth.VerifyOtpRequestDto;
 import vn.fpt.seima.seimaserver.dto.response.auth.LoginResponseDto;
 import vn.fpt.seima.seimaserver.dto.response.auth.NormalRegisterResponseDto;
+import vn.fpt.seima.seimaserver.dto.response.auth.OtpIssueResult;
+import vn.fpt.seima.seimaserver.dto.response.auth.OtpVerifyResult;
 import vn.fpt.seima.seimaserver.dto.response.auth.VerifyForgotPasswordOtpResponseDto;
 import vn.fpt.seima.seimaserver.dto.response.user.UserInGoogleReponseDto;
 import vn.fpt.seima.seimaserver.exception.AccountNotVerifiedException;
@@ -36,17 +35,15 @@ import vn.fpt.seima.seimaserver.exception.MaxOtpAttemptsExceededException;
 import vn.fpt.seima.seimaserver.exception.NullRequestParamException;
 import vn.fpt.seima.seimaserver.exception.OtpNotFoundException;
 import vn.fpt.seima.seimaserver.entity.User;
+import vn.fpt.seima.seimaserver.event.UserProfileChangedEvent;
 import vn.fpt.seima.seimaserver.repository.UserDeviceRepository;
 import vn.fpt.seima.seimaserver.repository.UserRepository;
 import vn.fpt.seima.seimaserver.service.*;
 import vn.fpt.seima.seimaserver.util.OtpUtils;
 import vn.fpt.seima.seimaserver.dto.request.auth.ChangePasswordRequestDto;
 
-import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.Optional;
 
 import org.springframework.data.redis.core.RedisTemplate;
@@ -57,12 +54,15 @@ public class AuthServiceImpl implements AuthService {
 
     @Autowired
     private UserRepository userRepository;
+
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
     
     @Autowired
     private EmailService emailService;
 
     @Autowired
-    private RedisService redisService;
+    private OtpService otpService;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
@@ -102,13 +102,11 @@ public class AuthServiceImpl implements AuthService {
     @Value("${redis.port}")
     private String redisPort;
 
-    private static final int MAX_OTP_ATTEMPTS = 5;
-    private static final long OTP_EXPIRATION_TIME = 3; // in minutes
-    private static final int MAX_INCORRECT_OTP_ATTEMPTS = 3;
     private static final long VERIFICATION_TOKEN_EXPIRATION = 15 * 60; // 15 minutes in seconds
 
-    private final Map<String,Bucket> rateLimitBuckets = new ConcurrentHashMap<>();
-    private static final String OTP_KEY_PREFIX = "otp-:";
+    // OTPs are Redis hashes managed by OtpService
+    private static final String OTP_KEY_PREFIX = "otp:register:";
+    private static final String FORGOT_PASSWORD_OTP_KEY_PREFIX = "otp:forgot-password:";
 
 
 
@@ -117,13 +115,6 @@ public class AuthServiceImpl implements AuthService {
     @Transactional
     public NormalRegisterResponseDto processRegister(NormalRegisterRequestDto normalRegisterRequestDto) {
 
-        // 0. Rate Limiting check can be added here if needed
-        Bucket registerBucket = rateLimitBuckets.computeIfAbsent(
-            normalRegisterRequestDto.getEmail(),
-            key -> newBucketForRegister()
-        );
-        
-
         // 0.1 Validate confirm password
         if (normalRegisterRequestDto.getConfirmPassword() == null ||
             !normalRegisterRequestDto.getConfirmPassword().equals(normalRegisterRequestDto.getPassword())) {
@@ -177,8 +168,11 @@ public class AuthServiceImpl implements AuthService {
             userRepository.save(newUser);
         }
 
-        // 2. Generate OTP
+        // 2. Generate OTP and save it to Redis, unless the user has reached max attempts
         String otp = OtpUtils.generateOTP(6);
+        String emailCurrentUser = normalRegisterRequestDto.getEmail();
+        String otpKey = OTP_KEY_PREFIX + emailCurrentUser;
+        issueOtp(otpKey, otp, false);
         // 3.Process send OTP to mail
         logger.warn("is sending mail to: " + normalRegisterRequestDto.getEmail());
         Context context = new Context();
@@ -187,43 +181,10 @@ public class AuthServiceImpl implements AuthService {
         variables.put("otpRegister", otp);
         variables.put("appName",labName);
         context.setVariables(variables);
-        String emailCurrentUser = normalRegisterRequestDto.getEmail();
         String emailSubject ="Xác thực tài khoản Seima";
         String templateName = otpRegisterHtmlTemplate;
         emailService.sendEmailWithHtmlTemplate(emailCurrentUser, emailSubject, templateName, context);
-        // 4. Save OTP to Redis
-        String otpKey = OTP_KEY_PREFIX + emailCurrentUser;
         logger.info("sending OTP to email success: " + emailCurrentUser);
-        // Check if the OTP already exists for this email
-        OtpValueDto existingOtp = redisService.getObject(otpKey, OtpValueDto.class);
-        
-        if (existingOtp != null) {
-            // If the user has reached max attempts, throw exception
-            if (existingOtp.getAttemptCount() >= MAX_OTP_ATTEMPTS) {
-
-                throw new MaxOtpAttemptsExceededException("Maximum OTP attempts exceeded. Please try again later.");
-            }
-            
-            // Increment attempt count
-            OtpValueDto otpValueDto = OtpValueDto.builder()
-                    .otpCode(otp)
-                    .attemptCount(existingOtp.getAttemptCount() + 1)
-                    .build();
-            
-            // Save to Redis with expiration
-            redisService.set(otpKey,otpValueDto);
-            redisService.setTimeToLiveInMinutes(otpKey, OTP_EXPIRATION_TIME);
-        } else {
-            // Create new OTP entry
-            OtpValueDto otpValueDto = OtpValueDto.builder()
-                    .otpCode(otp)
-                    .attemptCount(1)
-                    .build();
-            
-            // Save to Redis with expiration
-            redisService.set(otpKey,otpValueDto);
-            redisService.setTimeToLiveInMinutes(otpKey, OTP_EXPIRATION_TIME);
-        }
 
         return NormalRegisterResponseDto.builder()
                 .email(emailCurrentUser)
@@ -246,40 +207,10 @@ public class AuthServiceImpl implements AuthService {
         String email = verifyOtpRequestDto.getEmail();
         String otp = verifyOtpRequestDto.getOtp();
         
-        // Get OTP from Redis
-        String otpKey = OTP_KEY_PREFIX + email;
-        OtpValueDto otpValueDto = redisService.getObject(otpKey, OtpValueDto.class);
-        
-        // Check if OTP exists
-        if (otpValueDto == null) {
-            throw new OtpNotFoundException("OTP not found or expired. Please request a new OTP.");
-        }
-        
-        // Check if OTP is correct
-        if (!otpValueDto.getOtpCode().equals(otp)) {
-            // Increment incorrect attempts counter
-            int incorrectAttempts = otpValueDto.getIncorrectAttempts() != null ? 
-                    otpValueDto.getIncorrectAttempts() + 1 : 1;
-                    
-            // Check if max incorrect attempts reached
-            if (incorrectAttempts >= MAX_INCORRECT_OTP_ATTEMPTS) {
-                // Delete OTP from Redis
-                redisService.delete(otpKey);
-                throw new MaxOtpAttemptsExceededException("Maximum incorrect OTP attempts reached. Please request a new OTP.");
-            }
-            
-            // Update incorrect attempts in Redis
-            otpValueDto.setIncorrectAttempts(incorrectAttempts);
-            redisService.set(otpKey, otpValueDto);
-            redisService.setTimeToLiveInMinutes(otpKey, OTP_EXPIRATION_TIME);
-
-            
-            throw new InvalidOtpException("Invalid OTP. Attempts remaining: " + (MAX_INCORRECT_OTP_ATTEMPTS - incorrectAttempts));
-        }
-        
-        // OTP verification successful
-        // Delete OTP from Redis
-        redisService.delete(otpKey);
+        // Verify OTP, the OTP is removed from Redis once it matches
+        verifyOtpCode(OTP_KEY_PREFIX + email, otp,
+                "OTP not found or expired. Please request a new OTP.",
+                "Maximum incorrect OTP attempts reached. Please request a new OTP.");
         
         // Find and activate existing user
         User user = userRepository.findByUserEmail(email)
@@ -299,6 +230,8 @@ public class AuthServiceImpl implements AuthService {
         user.setUserIsActive(true); // Activate the user
         
         userRepository.save(user);
+        // Group member counts only include active accounts
+        applicationEventPublisher.publishEvent(new UserProfileChangedEvent(user.getUserId()));
         
         return true;
     }
@@ -317,23 +250,9 @@ public class AuthServiceImpl implements AuthService {
             throw new NullRequestParamException("User not found. Please register first.");
         }
 
-        String otpKey = OTP_KEY_PREFIX + email;
-
-        // Check if OTP already exists in Redis
-        OtpValueDto existingOtpValueDto = redisService.getObject(otpKey, OtpValueDto.class);
-
-        int attemptCount = 1;
-        if (existingOtpValueDto != null) {
-            attemptCount = existingOtpValueDto.getAttemptCount() + 1;
-        }
-
-        // Check if max attempts exceeded
-        if (attemptCount > MAX_OTP_ATTEMPTS) {
-            throw new MaxOtpAttemptsExceededException("Maximum OTP attempts exceeded. Please try again later.");
-        }
-
-        // Generate new OTP
+        // Generate new OTP and save it to Redis, unless max attempts or the resend cooldown apply
         String otp = OtpUtils.generateOTP(6);
+        issueOtp(OTP_KEY_PREFIX + email, otp, true);
 
         // Send email
         Context context = new Context();
@@ -343,31 +262,8 @@ public class AuthServiceImpl implements AuthService {
         variables.put("appName", labName);
         context.setVariables(variables);
         emailService.sendEmailWithHtmlTemplate(email, "Seima - OTP Resend", otpRegisterHtmlTemplate, context);
-
-        // Save new OTP to Redis
-        OtpValueDto otpValueDto = OtpValueDto.builder()
-                .otpCode(otp)
-                .attemptCount(attemptCount)
-                .incorrectAttempts(0)
-                .build();
-        redisService.set(otpKey, otpValueDto);
-        redisService.setTimeToLiveInMinutes(otpKey, OTP_EXPIRATION_TIME);
-    }
-    
-    private Bucket newBucketForRegister() {
-        Bandwidth limit = Bandwidth.classic(3, Refill.greedy(3, Duration.ofMinutes(5))); // 3 requests per 5 minutes
-        return Bucket.builder()
-                .addLimit(limit)
-                .build();
     }
     
-    private Bucket newBucketForResend() {
-        Bandwidth limit = Bandwidth.classic(2, Refill.greedy(2, Duration.ofMinutes(10))); // 2 requests per 10 minutes
-        return Bucket.builder()
-                .addLimit(limit)
-                .build();
-    }
-
     @Override
     public LoginResponseDto login(LoginRequestDto loginRequestDto) {
         String email = loginRequestDto.getEmail();
@@ -384,10 +280,7 @@ public class AuthServiceImpl implements AuthService {
 
         // Check if user is inactive
         if (!user.getUserIsActive()) {
-            String otpKey = OTP_KEY_PREFIX + email;
-            OtpValueDto existingOtp = redisService.getObject(otpKey, OtpValueDto.class);
-            
-            if (existingOtp != null) {
+            if (otpService.exists(OTP_KEY_PREFIX + email)) {
                 // Còn OTP → Báo cần verify
                 throw new AccountNotVerifiedException("Your account is not verified. Please check your email and verify your account with the OTP code.");
             } else {
@@ -455,54 +348,27 @@ public class AuthServiceImpl implements AuthService {
         // Generate OTP
         String otp = OtpUtils.generateOTP(6);
         
-        // Save OTP to Redis with forgot password prefix
-        String otpKey = "forgot-password-otp:" + email;
+        // Save OTP to Redis with forgot password prefix, unless max attempts exceeded. A repeated request
+        // for the same email is a resend, so the resend cooldown applies to it too.
+        String otpKey = FORGOT_PASSWORD_OTP_KEY_PREFIX + email;
+        issueOtp(otpKey, otp, true);
         
-        // Check if there's an existing OTP attempt
-        OtpValueDto existingOtp = redisService.getObject(otpKey, OtpValueDto.class);
-        int attemptCount = 1;
-        
-        if (existingOtp != null) {
-            attemptCount = existingOtp.getAttemptCount() + 1;
-            
-            // Check if max attempts exceeded
-            if (attemptCount > MAX_OTP_ATTEMPTS) {
-                throw new MaxOtpAttemptsExceededException("Maximum OTP attempts exceeded. Please try again later.");
-            }
-        }
-        
-        OtpValueDto otpValueDto = OtpValueDto.builder()
-                .otpCode(otp)
-                .attemptCount(attemptCount)
-                .incorrectAttempts(0)
-                .build();
-        
-        redisService.set(otpKey, otpValueDto);
-        redisService.setTimeToLiveInMinutes(otpKey, OTP_EXPIRATION_TIME);
-        
-        // Send OTP email
-        try {
-            Context context = new Context();
-            HashMap<String, Object> variables = new HashMap<>();
-            variables.put("otp", otp);
-            variables.put("labName", labName);
-            variables.put("userName", user.getUserFullName());
-            context.setVariables(variables);
-            
-            emailService.sendEmailWithHtmlTemplate(
-                    email,
-                    passwordResetSubject,
-                    passwordResetHtmlTemplate,
-                    context
-            );
-            
-            logger.info("Forgot password OTP sent successfully to: {}", email);
-        } catch (Exception e) {
-            logger.error("Failed to send forgot password OTP email to: {}", email, e);
-            // Delete the OTP from Redis if email sending fails
-            redisService.delete(otpKey);
-            throw new RuntimeException("Failed to send OTP email");
-        }
+        // Send OTP email; it is queued and retried in the background, so the OTP stays valid for a resend
+        Context context = new Context();
+        HashMap<String, Object> variables = new HashMap<>();
+        variables.put("otp", otp);
+        variables.put("labName", labName);
+        variables.put("userName", user.getUserFullName());
+        context.setVariables(variables);
+
+        emailService.sendEmailWithHtmlTemplate(
+                email,
+                passwordResetSubject,
+                passwordResetHtmlTemplate,
+                context
+        );
+
+        logger.info("Forgot password OTP queued for: {}", email);
     }
     
 
@@ -526,39 +392,15 @@ public class AuthServiceImpl implements AuthService {
             throw new GoogleAccountConflictException("This account was created with Google login. Password reset is not available for Google accounts.");
         }
         
-        // Verify OTP
-        String otpKey = "forgot-password-otp:" + email;
-        OtpValueDto otpValueDto = redisService.getObject(otpKey, OtpValueDto.class);
-        
-        if (otpValueDto == null) {
-            throw new OtpNotFoundException("OTP not found or expired");
-        }
-        
-        if (!otpValueDto.getOtpCode().equals(otp)) {
-            // Increment incorrect attempts
-            int incorrectAttempts = otpValueDto.getIncorrectAttempts() != null ? 
-                    otpValueDto.getIncorrectAttempts() + 1 : 1;
-            
-            if (incorrectAttempts >= MAX_INCORRECT_OTP_ATTEMPTS) {
-                redisService.delete(otpKey);
-                throw new MaxOtpAttemptsExceededException("Maximum OTP verification attempts exceeded. Please request a new OTP.");
-            }
-            
-            // Update incorrect attempts in Redis
-            otpValueDto.setIncorrectAttempts(incorrectAttempts);
-            redisService.set(otpKey, otpValueDto);
-            redisService.setTimeToLiveInMinutes(otpKey, OTP_EXPIRATION_TIME);
-            
-            throw new InvalidOtpException("Invalid OTP. Attempts remaining: " + (MAX_INCORRECT_OTP_ATTEMPTS - incorrectAttempts));
-        }
+        // Verify OTP, the OTP is removed from Redis once it matches
+        verifyOtpCode(FORGOT_PASSWORD_OTP_KEY_PREFIX + email, otp,
+                "OTP not found or expired",
+                "Maximum OTP verification attempts exceeded. Please request a new OTP.");
         
         // Update user password
         user.setUserPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
         
-        // Clean up OTP from Redis
-        redisService.delete(otpKey);
-        
         logger.info("Password reset successful for user: {}", email);
         return true;
     }
@@ -579,58 +421,27 @@ public class AuthServiceImpl implements AuthService {
             throw new GoogleAccountConflictException("This account does not have a password set. Please use Google login.");
         }
         
-        String otpKey = "forgot-password-otp:" + email;
-        
-        // Check if OTP already exists in Redis
-        OtpValueDto existingOtpValueDto = redisService.getObject(otpKey, OtpValueDto.class);
-        
-        int attemptCount = 1;
-        if (existingOtpValueDto != null) {
-            attemptCount = existingOtpValueDto.getAttemptCount() + 1;
-        }
-        
-        // Check if max attempts exceeded
-        if (attemptCount > MAX_OTP_ATTEMPTS) {
-            throw new MaxOtpAttemptsExceededException("Maximum OTP attempts exceeded. Please try again later.");
-        }
-        
-        // Generate new OTP
+        // Generate new OTP and save it to Redis, unless max attempts or the resend cooldown apply
         String otp = OtpUtils.generateOTP(6);
-        
-        // Create new OTP entry
-        OtpValueDto otpValueDto = OtpValueDto.builder()
-                .otpCode(otp)
-                .attemptCount(attemptCount)
-                .incorrectAttempts(0)
-                .build();
-        
-        // Save to Redis with expiration
-        redisService.set(otpKey, otpValueDto);
-        redisService.setTimeToLiveInMinutes(otpKey, OTP_EXPIRATION_TIME);
+        String otpKey = FORGOT_PASSWORD_OTP_KEY_PREFIX + email;
+        issueOtp(otpKey, otp, true);
         
         // Send email
-        try {
-            Context context = new Context();
-            HashMap<String, Object> variables = new HashMap<>();
-            variables.put("otp", otp);
-            variables.put("labName", labName);
-            variables.put("userName", user.getUserFullName());
-            context.setVariables(variables);
-            
-            emailService.sendEmailWithHtmlTemplate(
-                    email, 
-                    passwordResetSubject + " - Resend", 
-                    passwordResetHtmlTemplate, 
-                    context
-            );
-            
-            logger.info("Forgot password OTP resent successfully to: {}", email);
-        } catch (Exception e) {
-            logger.error("Failed to resend forgot password OTP email to: {}", email, e);
-            // Delete the OTP from Redis if email sending fails
-            redisService.delete(otpKey);
-            throw new RuntimeException("Failed to resend OTP email");
-        }
+        Context context = new Context();
+        HashMap<String, Object> variables = new HashMap<>();
+        variables.put("otp", otp);
+        variables.put("labName", labName);
+        variables.put("userName", user.getUserFullName());
+        context.setVariables(variables);
+
+        emailService.sendEmailWithHtmlTemplate(
+                email,
+                passwordResetSubject + " - Resend",
+                passwordResetHtmlTemplate,
+                context
+        );
+
+        logger.info("Forgot password OTP re-queued for: {}", email);
     }
 
     @Override
@@ -653,38 +464,14 @@ public class AuthServiceImpl implements AuthService {
             throw new GoogleAccountConflictException("This account was created with Google login. Password reset is not available for Google accounts.");
         }
         
-        // Verify OTP
-        String otpKey = "forgot-password-otp:" + email;
-        OtpValueDto otpValueDto = redisService.getObject(otpKey, OtpValueDto.class);
-        
-        if (otpValueDto == null) {
-            throw new OtpNotFoundException("OTP not found or expired");
-        }
-        
-        if (!otpValueDto.getOtpCode().equals(otp)) {
-            // Increment incorrect attempts
-            int incorrectAttempts = otpValueDto.getIncorrectAttempts() != null ? 
-                    otpValueDto.getIncorrectAttempts() + 1 : 1;
-            
-            if (incorrectAttempts >= MAX_INCORRECT_OTP_ATTEMPTS) {
-                redisService.delete(otpKey);
-                throw new MaxOtpAttemptsExceededException("Maximum OTP verification attempts exceeded. Please request a new OTP.");
-            }
-            
-            // Update incorrect attempts in Redis
-            otpValueDto.setIncorrectAttempts(incorrectAttempts);
-            redisService.set(otpKey, otpValueDto);
-            redisService.setTimeToLiveInMinutes(otpKey, OTP_EXPIRATION_TIME);
-            
-            throw new InvalidOtpException("Invalid OTP. Attempts remaining: " + (MAX_INCORRECT_OTP_ATTEMPTS - incorrectAttempts));
-        }
+        // Verify OTP, the OTP is removed from Redis once it matches
+        verifyOtpCode(FORGOT_PASSWORD_OTP_KEY_PREFIX + email, otp,
+                "OTP not found or expired",
+                "Maximum OTP verification attempts exceeded. Please request a new OTP.");
         
         // OTP verification successful - generate verification token
         String verificationToken = verificationTokenService.generateVerificationToken(email);
         
-        // Clean up OTP from Redis since it's verified
-        redisService.delete(otpKey);
-        
         logger.info("OTP verification successful for user: {}", email);
         
         return VerifyForgotPasswordOtpResponseDto.builder()
@@ -774,4 +561,24 @@ public class AuthServiceImpl implements AuthService {
 
     private void logoutAllAnotherDevices(Integer userId) {
     }
+
+    private void issueOtp(String otpKey, String otp, boolean resend) {
+        OtpIssueResult result = otpService.issue(otpKey, otp, resend);
+        if (result.getStatus() == OtpIssueResult.Status.LIMIT_REACHED) {
+            throw new MaxOtpAttemptsExceededException("Maximum OTP attempts exceeded. Please try again later.");
+        }
+        if (result.getStatus() == OtpIssueResult.Status.COOLING_DOWN) {
+            throw new MaxOtpAttemptsExceededException("Please wait " + result.getRetryAfterSeconds() + " seconds before requesting a new OTP.");
+        }
+    }
+
+    private void verifyOtpCode(String otpKey, String otp, String notFoundMessage, String maxAttemptsMessage) {
+        OtpVerifyResult result = otpService.verify(otpKey, otp);
+        switch (result.getStatus()) {
+            case NOT_FOUND -> throw new OtpNotFoundException(notFoundMessage);
+            case LOCKED -> throw new MaxOtpAttemptsExceededException(maxAttemptsMessage);
+            case INVALID -> throw new InvalidOtpException("Invalid OTP. Attempts remaining: " + result.getAttemptsRemaining());
+            case VERIFIED -> { }
+        }
+    }
 }
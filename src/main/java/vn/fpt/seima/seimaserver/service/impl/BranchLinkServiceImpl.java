@@ -5,7 +5,11 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.http.*;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import vn.fpt.seima.seimaserver.config.branch.BranchProperties;
@@ -13,20 +17,29 @@ import vn.fpt.seima.seimaserver.dto.response.group.BranchLinkResponse;
 import vn.fpt.seima.seimaserver.dto.response.group.GroupMemberResponse;
 import vn.fpt.seima.seimaserver.entity.Group;
 import vn.fpt.seima.seimaserver.service.BranchLinkService;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
  * Implementation of Branch.io Link Service
- * Uses Branch REST API to create deep links
+ * Uses Branch REST API to create deep links. Invitation deep links are cached in Redis per
+ * (groupId, invitedUserId, inviterId, actionType), so repeated page views reuse the same link.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class BranchLinkServiceImpl implements BranchLinkService {
 
+    private static final String LINK_CACHE_PREFIX = "branch:link:";
+    // Branch accepts at most 100 links per bulk call
+    private static final int BULK_BATCH_SIZE = 100;
+
     private final RestTemplate branchRestTemplate;
     private final BranchProperties branchProperties;
+    private final StringRedisTemplate stringRedisTemplate;
     private final ObjectMapper objectMapper = new ObjectMapper();
     
     @Value("${app.client.baseUrl}")
@@ -60,6 +73,14 @@ public class BranchLinkServiceImpl implements BranchLinkService {
 
     @Override
     public BranchLinkResponse createInvitationDeepLink(Integer groupId, Integer invitedUserId, Integer inviterId, String actionType) {
+        String cacheKey = buildLinkCacheKey(groupId, invitedUserId, inviterId, actionType);
+        String cachedLink = getCachedLink(cacheKey);
+        if (cachedLink != null) {
+            return BranchLinkResponse.builder()
+                    .url(cachedLink)
+                    .build();
+        }
+
         log.info("Creating invitation deep link for group: {} - inviter: {} - invited: {} - action: {}", 
                 groupId, inviterId, invitedUserId, actionType);
         
@@ -69,6 +90,7 @@ public class BranchLinkServiceImpl implements BranchLinkService {
             
             // Call Branch.io API
             String shortLink = callBranchAPI(payload);
+            cacheLinks(Map.of(cacheKey, shortLink));
             
             return BranchLinkResponse.builder()
                     .url(shortLink)
@@ -84,8 +106,85 @@ public class BranchLinkServiceImpl implements BranchLinkService {
         }
     }
 
+    @Override
+    @Async("taskExecutor")
+    public void pregenerateInvitationDeepLinks(Integer groupId, Integer inviterId, Collection<Integer> invitedUserIds, List<String> actionTypes) {
+        List<String> cacheKeys = new ArrayList<>();
+        List<Map<String, Object>> links = new ArrayList<>();
+        for (Integer invitedUserId : invitedUserIds) {
+            for (String actionType : actionTypes) {
+                cacheKeys.add(buildLinkCacheKey(groupId, invitedUserId, inviterId, actionType));
+                links.add(Map.of("data", buildInvitationLinkData(groupId, invitedUserId, inviterId, actionType)));
+            }
+        }
+
+        try {
+            // Skip links that are still cached from an earlier invitation
+            List<String> cachedLinks = stringRedisTemplate.opsForValue().multiGet(cacheKeys);
+            for (int i = cacheKeys.size() - 1; i >= 0; i--) {
+                if (cachedLinks != null && cachedLinks.get(i) != null) {
+                    cacheKeys.remove(i);
+                    links.remove(i);
+                }
+            }
+
+            Map<String, String> createdLinks = new HashMap<>();
+            for (int from = 0; from < links.size(); from += BULK_BATCH_SIZE) {
+                int to = Math.min(from + BULK_BATCH_SIZE, links.size());
+                List<String> urls = callBranchBulkAPI(links.subList(from, to));
+                for (int i = from; i < to; i++) {
+                    String url = urls.get(i - from);
+                    if (url != null) {
+                        createdLinks.put(cacheKeys.get(i), url);
+                    }
+                }
+            }
+            cacheLinks(createdLinks);
+
+            log.info("Pre-generated {} of {} invitation deep links for group: {}",
+                    createdLinks.size(), links.size(), groupId);
+
+        } catch (Exception e) {
+            // The landing page creates any missing link on demand
+            log.warn("Failed to pre-generate invitation deep links for group: {}", groupId, e);
+        }
+    }
+
     // Private helper methods
 
+    private String buildLinkCacheKey(Integer groupId, Integer invitedUserId, Integer inviterId, String actionType) {
+        return LINK_CACHE_PREFIX + groupId + ":" + (invitedUserId != null ? invitedUserId : "-")
+                + ":" + (inviterId != null ? inviterId : "-") + ":" + actionType;
+    }
+
+    private String getCachedLink(String cacheKey) {
+        try {
+            return stringRedisTemplate.opsForValue().get(cacheKey);
+        } catch (Exception e) {
+            log.warn("Failed to read cached deep link {}: {}", cacheKey, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Cache created links in one pipeline; fallback links are never cached
+     */
+    private void cacheLinks(Map<String, String> links) {
+        if (links.isEmpty()) {
+            return;
+        }
+        long ttlSeconds = branchProperties.getLinkCacheTtl().toSeconds();
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                links.forEach((cacheKey, url) -> redis.setEx(cacheKey, ttlSeconds, url));
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("Failed to cache {} deep links: {}", links.size(), e.getMessage());
+        }
+    }
+
     /**
      * Build simple Branch link payload for group invitation
      */
@@ -110,19 +209,8 @@ public class BranchLinkServiceImpl implements BranchLinkService {
      */
     private Map<String, Object> buildInvitationDeepLinkPayload(Integer groupId, Integer invitedUserId, Integer inviterId, String actionType) {
 
-        // 1. Tạo Map để chứa dữ liệu tùy chỉnh sẽ được gửi vào app
-        Map<String, Object> deepLinkData = new HashMap<>();
-        deepLinkData.put("action", actionType);
-        deepLinkData.put("groupId", groupId.toString());
-
-        // Thêm các ID vào payload
-        // Dùng if để đảm bảo không thêm giá trị null vào map
-        if (invitedUserId != null) {
-            deepLinkData.put("invitedUserId", invitedUserId.toString());
-        }
-        if (inviterId != null) {
-            deepLinkData.put("inviterId", inviterId.toString());
-        }
+        // 1. Dữ liệu tùy chỉnh sẽ được gửi vào app
+        Map<String, Object> deepLinkData = buildInvitationLinkData(groupId, invitedUserId, inviterId, actionType);
 
         // 2. Tạo payload chính để gửi đến Branch
         Map<String, Object> payload = new HashMap<>();
@@ -139,11 +227,30 @@ public class BranchLinkServiceImpl implements BranchLinkService {
         return payload;
     }
 
+    private Map<String, Object> buildInvitationLinkData(Integer groupId, Integer invitedUserId, Integer inviterId, String actionType) {
+
+        // Tạo Map để chứa dữ liệu tùy chỉnh sẽ được gửi vào app
+        Map<String, Object> deepLinkData = new HashMap<>();
+        deepLinkData.put("action", actionType);
+        deepLinkData.put("groupId", groupId.toString());
+
+        // Thêm các ID vào payload
+        // Dùng if để đảm bảo không thêm giá trị null vào map
+        if (invitedUserId != null) {
+            deepLinkData.put("invitedUserId", invitedUserId.toString());
+        }
+        if (inviterId != null) {
+            deepLinkData.put("inviterId", inviterId.toString());
+        }
+
+        return deepLinkData;
+    }
+
     /**
      * Call Branch.io REST API
      */
     private String callBranchAPI(Map<String, Object> payload) throws Exception {
-        String url = "https://api2.branch.io/v1/url";
+        String url = branchProperties.getApiUrl() + "/v1/url";
         
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
@@ -174,4 +281,42 @@ public class BranchLinkServiceImpl implements BranchLinkService {
             throw new Exception("Branch API call failed", e);
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * Call Branch.io bulk REST API, returning the created URLs in request order (null where one failed)
+     */
+    private List<String> callBranchBulkAPI(List<Map<String, Object>> links) throws Exception {
+        String url = branchProperties.getApiUrl() + "/v1/url/bulk/" + branchProperties.getBranchKey();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("Accept", "application/json");
+
+        HttpEntity<List<Map<String, Object>>> entity = new HttpEntity<>(links, headers);
+
+        try {
+            ResponseEntity<String> response = branchRestTemplate.exchange(
+                    url, HttpMethod.POST, entity, String.class);
+
+            if (response.getStatusCode() != HttpStatus.OK) {
+                throw new RuntimeException("Branch API returned status: " + response.getStatusCode());
+            }
+
+            JsonNode jsonResponse = objectMapper.readTree(response.getBody());
+            if (!jsonResponse.isArray() || jsonResponse.size() != links.size()) {
+                throw new RuntimeException("Unexpected bulk response size");
+            }
+
+            List<String> shortLinks = new ArrayList<>(links.size());
+            for (JsonNode link : jsonResponse) {
+                String shortLink = link.path("url").asText();
+                shortLinks.add(shortLink.isEmpty() ? null : shortLink);
+            }
+            return shortLinks;
+
+        } catch (Exception e) {
+            log.error("Failed to call Branch bulk API", e);
+            throw new Exception("Branch bulk API call failed", e);
+        }
+    }
+}
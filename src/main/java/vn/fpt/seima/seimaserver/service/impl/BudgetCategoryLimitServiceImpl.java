@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import vn.fpt.seima.seimaserver.dto.response.budgetCategoryLimit.BudgetCategoryLimitResponse;
 import vn.fpt.seima.seimaserver.dto.request.budgetCategory.CreateBudgetCategoryLimitRequest;
 import vn.fpt.seima.seimaserver.entity.Budget;
@@ -28,6 +29,7 @@ public class BudgetCategoryLimitServiceImpl implements BudgetCategoryLimitServic
     private final BudgetCategoryLimitMapper budgetCategoryLimitMapper;
 
     @Override
+    @Transactional(readOnly = true)
     public Page<BudgetCategoryLimitResponse> getAllBudgetCategoryLimit(Pageable pageable) {
 
         Page<BudgetCategoryLimit> budgetCategoryLimit = budgetCategoryLimitRepository.findAll(pageable);
@@ -36,6 +38,7 @@ public class BudgetCategoryLimitServiceImpl implements BudgetCategoryLimitServic
     }
 
     @Override
+    @Transactional(readOnly = true)
     public BudgetCategoryLimitResponse getBudgetCategoryLimitById(int id) {
 
         BudgetCategoryLimit budgetCategoryLimit = budgetCategoryLimitRepository.findById(id)
@@ -45,6 +48,7 @@ public class BudgetCategoryLimitServiceImpl implements BudgetCategoryLimitServic
     }
 
     @Override
+    @Transactional
     public BudgetCategoryLimitResponse saveBudgetCategoryLimit(CreateBudgetCategoryLimitRequest request) {
 
         if (request == null) {
@@ -67,6 +71,7 @@ public class BudgetCategoryLimitServiceImpl implements BudgetCategoryLimitServic
     }
 
     @Override
+    @Transactional
     public BudgetCategoryLimitResponse updateBudgetCategoryLimit(Integer id, CreateBudgetCategoryLimitRequest request) {
         BudgetCategoryLimit existingBudget = budgetCategoryLimitRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Budget Category Limit not found for this id: " + id));
@@ -86,6 +91,7 @@ public class BudgetCategoryLimitServiceImpl implements BudgetCategoryLimitServic
     }
 
     @Override
+    @Transactional
     public void deleteBudgetCategoryLimit(int id) {
         budgetCategoryLimitRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Budget not found for this id: " + id));
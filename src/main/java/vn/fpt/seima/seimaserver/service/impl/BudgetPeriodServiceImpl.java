@@ -2,106 +2,304 @@ package vn.fpt.seima.seimaserver.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cglib.core.Local;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import vn.fpt.seima.seimaserver.dto.response.budgetPeriod.BudgetPeriodResponse;
+import vn.fpt.seima.seimaserver.dto.response.budgetPeriod.DailyExpenseSum;
 import vn.fpt.seima.seimaserver.entity.*;
-import vn.fpt.seima.seimaserver.mapper.BudgetMapper;
 import vn.fpt.seima.seimaserver.mapper.BudgetPeriodMapper;
 import vn.fpt.seima.seimaserver.repository.BudgetPeriodRepository;
 import vn.fpt.seima.seimaserver.repository.BudgetRepository;
+import vn.fpt.seima.seimaserver.repository.TransactionRepository;
 import vn.fpt.seima.seimaserver.service.BudgetPeriodService;
-import vn.fpt.seima.seimaserver.util.UserUtils;
+import vn.fpt.seima.seimaserver.service.ExchangeRateService;
 
-import java.time.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+/**
+ * Budget periods are materialised lazily: bounds are computed from {@code Budget.startDate} and
+ * {@code periodType}, and a row is only stored when a transaction or read first touches the period,
+ * or when the roll-forward job creates the next few periods ahead of time.
+ */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class BudgetPeriodServiceImpl implements BudgetPeriodService {
     private final BudgetPeriodRepository budgetPeriodRepository;
     private final BudgetRepository budgetRepository;
     private final BudgetPeriodMapper budgetPeriodMapper;
+    private final TransactionRepository transactionRepository;
+    private final ExchangeRateService exchangeRateService;
+
+    @Value("${budget.period.roll-forward-ahead:3}")
+    private int rollForwardAhead;
 
     @Override
-    public List<BudgetPeriod> generateBudgetPeriods(Budget budget) {
-        List<BudgetPeriod> periods = new ArrayList<>();
-        LocalDateTime start = budget.getStartDate();
-        LocalDateTime end;
-        if (budget.getEndDate() != null) {
-            end = budget.getEndDate().toLocalDate().atTime(23, 59, 59);
-        } else {
-            end = LocalDateTime.of(LocalDate.now().getYear(), 12, 31, 23, 59, 59);
-        }
+    @Transactional(readOnly = true)
+    public Page<BudgetPeriodResponse> getListBudgetPeriods(Integer budgetId, Pageable pageable) {
 
-        int index = 1;
+        Budget budget = budgetRepository.findById(budgetId)
+                .orElseThrow(() -> new IllegalArgumentException("Budget not found with id: " + budgetId));
+        LocalDateTime todayDate = LocalDateTime.now();
 
-        while (!start.isAfter(end)) {
-            LocalDateTime expectedEnd;
-            int expectedDays = 0;
+        // Closed periods are numbered 1..closed, listed newest first; only the page is looked up
+        int closed = countClosedPeriods(budget, todayDate);
+        int offset = pageable.isPaged() ? (int) Math.min(pageable.getOffset(), closed) : 0;
+        int size = pageable.isPaged() ? pageable.getPageSize() : closed;
+        int highest = closed - offset;
+        int lowest = Math.max(1, highest - size + 1);
 
-            switch (budget.getPeriodType()) {
-                case DAILY:
-                    expectedEnd = start;
-                    expectedDays = 1;
-                    break;
-                case WEEKLY:
-                    expectedEnd = start.plusDays(6);
-                    expectedDays = 7;
-                    break;
-                case MONTHLY:
-                    expectedEnd = start.plusMonths(1).minusDays(1);
-                    expectedDays = Period.between(start.toLocalDate(), expectedEnd.toLocalDate()).getDays() + 1;
-                    break;
-                case YEARLY:
-                    expectedEnd = start.plusYears(1).minusDays(1);
-                    expectedDays = Period.between(start.toLocalDate(), expectedEnd.toLocalDate()).getDays() + 1;
-                    break;
-                default:
-                    expectedEnd = end;
-                    expectedDays = (int) ChronoUnit.DAYS.between(start.toLocalDate(), expectedEnd.toLocalDate()) + 1;
+        List<Integer> indexes = new ArrayList<>();
+        for (int index = highest; index >= lowest; index--) {
+            indexes.add(index);
+        }
+        Map<Integer, BudgetPeriod> stored = indexes.isEmpty() ? Collections.emptyMap() :
+                budgetPeriodRepository.findByBudget_BudgetIdAndPeriodIndexIn(budgetId, indexes).stream()
+                        .collect(Collectors.toMap(BudgetPeriod::getPeriodIndex, Function.identity(), (a, b) -> a));
+
+        // Untouched periods have no row yet; their values are exactly what materialising them would store
+        List<BudgetPeriodResponse> content = new ArrayList<>();
+        for (Integer index : indexes) {
+            BudgetPeriod period = stored.get(index);
+            if (period == null) {
+                period = buildPeriod(budget, index);
+            }
+            if (period.getStatus() == BudgetPeriodStatus.ACTIVE) {
+                content.add(budgetPeriodMapper.toResponse(period));
             }
+        }
 
-            if (expectedEnd.isAfter(end)) {
-                expectedEnd = end;
+        return new PageImpl<>(content, pageable, closed);
+    }
+
+    @Override
+    public Integer resolvePeriodIndex(Budget budget, LocalDateTime date) {
+        LocalDate start = budget.getStartDate().toLocalDate();
+        LocalDate day = date.toLocalDate();
+        if (day.isBefore(start)) {
+            return null;
+        }
+        if (budget.getEndDate() != null && day.isAfter(budget.getEndDate().toLocalDate())) {
+            return null;
+        }
+
+        PeriodType type = periodTypeOf(budget);
+        long offset = switch (type) {
+            case DAILY -> ChronoUnit.DAYS.between(start, day);
+            case WEEKLY -> ChronoUnit.WEEKS.between(start, day);
+            case MONTHLY -> ChronoUnit.MONTHS.between(start, day);
+            case YEARLY -> ChronoUnit.YEARS.between(start, day);
+            default -> 0;
+        };
+        int index = (int) offset + 1;
+
+        // MONTHS/YEARS.between undercount when the start day does not exist in a later month (e.g. the 31st)
+        if (isRecurring(type)) {
+            while (!periodStart(budget, index + 1).isAfter(day)) {
+                index++;
             }
-            expectedEnd = expectedEnd.toLocalDate().atTime(23, 59, 59);
-            // Tính actual days của chu kỳ hiện tại
-            int actualDays = (int) ChronoUnit.DAYS.between(start.toLocalDate(), expectedEnd.toLocalDate()) + 1;
-
-            BudgetPeriod period = new BudgetPeriod();
-            period.setBudget(budget);
-            period.setPeriodIndex(index++);
-            period.setStartDate(start);
-            period.setEndDate(expectedEnd);
-            period.setAmountLimit(budget.getOverallAmountLimit());
-            period.setRemainingAmount(budget.getOverallAmountLimit());
-
-            if (actualDays < expectedDays) {
-                period.setStatus(BudgetPeriodStatus.INACTIVE);
-            } else {
-                period.setStatus(BudgetPeriodStatus.ACTIVE);
+        }
+        return index;
+    }
+
+    @Override
+    public BudgetPeriod buildPeriod(Budget budget, int periodIndex) {
+        PeriodType type = periodTypeOf(budget);
+        LocalDate budgetEnd = (budget.getEndDate() != null ? budget.getEndDate() : OPEN_END).toLocalDate();
+
+        LocalDate start = periodStart(budget, periodIndex);
+        LocalDate expectedEnd = isRecurring(type)
+                ? periodStart(budget, periodIndex + 1).minusDays(1)
+                : budgetEnd;
+        LocalDate end = expectedEnd.isAfter(budgetEnd) ? budgetEnd : expectedEnd;
+
+        BudgetPeriod period = new BudgetPeriod();
+        period.setBudget(budget);
+        period.setPeriodIndex(periodIndex);
+        period.setStartDate(start.atStartOfDay());
+        period.setEndDate(end.atTime(23, 59, 59));
+        period.setAmountLimit(budget.getOverallAmountLimit());
+        period.setRemainingAmount(budget.getOverallAmountLimit());
+        // A period cut short by the budget end date is kept but not counted as a full period
+        period.setStatus(end.isBefore(expectedEnd) ? BudgetPeriodStatus.INACTIVE : BudgetPeriodStatus.ACTIVE);
+        return period;
+    }
+
+    @Override
+    @Transactional
+    public BudgetPeriod getOrCreatePeriod(Budget budget, LocalDateTime date) {
+        Integer index = resolvePeriodIndex(budget, date);
+        if (index == null) {
+            return null;
+        }
+        Optional<BudgetPeriod> stored = budgetPeriodRepository.findByBudget_BudgetIdAndPeriodIndex(budget.getBudgetId(), index);
+        if (stored.isPresent()) {
+            return stored.get();
+        }
+
+        // Two writers can reach the same missing period at once. The upsert makes the second one wait
+        // for the first one's row and reuse it rather than fail on uk_budget_period_budget_index.
+        BudgetPeriod period = buildPeriod(budget, index);
+        budgetPeriodRepository.insertIfAbsent(budget.getBudgetId(), index, period.getStartDate(), period.getEndDate(),
+                period.getAmountLimit(), period.getRemainingAmount(), period.getStatus().ordinal());
+        // A locking read, so the row is seen even when it was committed after this transaction's snapshot
+        return budgetPeriodRepository.findForShare(budget.getBudgetId(), index)
+                .orElseThrow(() -> new IllegalStateException("Budget period " + index + " of budget "
+                        + budget.getBudgetId() + " was not created"));
+    }
+
+    @Override
+    public List<BudgetPeriod> backfillPeriods(Budget budget, List<Integer> categoryIds, List<Integer> walletIds) {
+        List<DailyExpenseSum> days = transactionRepository.sumExpensesByDay(budget.getUser().getUserId(),
+                categoryIds, budget.getStartDate(), rangeEnd(budget), walletIds);
+
+        // Each day maps to its period arithmetically, so the work is O(days) whatever the period count
+        Map<Integer, BudgetPeriod> periods = new TreeMap<>();
+        for (DailyExpenseSum day : days) {
+            Integer index = resolvePeriodIndex(budget, day.getDay().atStartOfDay());
+            if (index == null) {
+                continue;
             }
+            BudgetPeriod period = periods.computeIfAbsent(index, i -> buildPeriod(budget, i));
+            period.setRemainingAmount(period.getRemainingAmount().subtract(inBudgetCurrency(budget, day)));
+        }
+        Integer current = resolvePeriodIndex(budget, LocalDateTime.now());
+        if (current != null) {
+            periods.computeIfAbsent(current, i -> buildPeriod(budget, i));
+        }
+        log.debug("Backfilled budget {}: {} expense days over {} periods", budget.getBudgetId(), days.size(), periods.size());
+        return new ArrayList<>(periods.values());
+    }
 
-            periods.add(period);
-            start = expectedEnd.toLocalDate().plusDays(1).atStartOfDay();
+    @Override
+    public void applyExpenses(Budget budget, List<BudgetPeriod> periods, List<Integer> categoryIds, List<Integer> walletIds) {
+        if (periods.isEmpty()) {
+            return;
+        }
+        List<BudgetPeriod> sorted = new ArrayList<>(periods);
+        sorted.sort(Comparator.comparing(BudgetPeriod::getStartDate));
+        LocalDateTime from = sorted.get(0).getStartDate();
+        LocalDateTime to = sorted.stream().map(BudgetPeriod::getEndDate).max(Comparator.naturalOrder()).orElse(from);
+
+        List<DailyExpenseSum> days = transactionRepository.sumExpensesByDay(budget.getUser().getUserId(),
+                categoryIds, from, to, walletIds);
+
+        // Both lists are sorted by date: advance the period cursor past periods that end before the day
+        int cursor = 0;
+        for (DailyExpenseSum day : days) {
+            LocalDateTime at = day.getDay().atStartOfDay();
+            while (cursor < sorted.size() && sorted.get(cursor).getEndDate().isBefore(at)) {
+                cursor++;
+            }
+            if (cursor == sorted.size()) {
+                break;
+            }
+            BudgetPeriod period = sorted.get(cursor);
+            if (!at.isBefore(period.getStartDate())) {
+                period.setRemainingAmount(period.getRemainingAmount().subtract(inBudgetCurrency(budget, day)));
+            }
         }
+    }
 
-        return periods;
+    private BigDecimal inBudgetCurrency(Budget budget, DailyExpenseSum day) {
+        String from = day.getCurrencyCode() != null ? day.getCurrencyCode() : budget.getCurrencyCode();
+        return exchangeRateService.convert(day.getAmount(), from, budget.getCurrencyCode(), day.getDay());
     }
 
+    /**
+     * Keeps the current and next {@code budget.period.roll-forward-ahead} periods materialised
+     * so that the first transaction of a new period does not pay for the insert.
+     */
     @Override
-    public Page<BudgetPeriodResponse> getListBudgetPeriods(Integer budgetId, Pageable pageable) {
+    @Transactional
+    public void rollForwardPeriods() {
+        rollForwardPeriods(1, Integer.MAX_VALUE);
+    }
 
-        Budget budget = budgetRepository.findById(budgetId)
-                .orElseThrow(() -> new IllegalArgumentException("Budget not found with id: " + budgetId));
-        LocalDateTime todayDate = LocalDateTime.now();
-        Page<BudgetPeriod> budgetPeriods = budgetPeriodRepository.getListBudgetPeriods(budget, BudgetPeriodStatus.ACTIVE,pageable, todayDate);
+    @Override
+    @Transactional
+    public void rollForwardPeriods(int fromUserId, int toUserId) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Budget> budgets = budgetRepository.findRunningBudgets(now, fromUserId, toUserId);
+        List<BudgetPeriod> created = new ArrayList<>();
+
+        for (Budget budget : budgets) {
+            Integer current = resolvePeriodIndex(budget, now);
+            if (current == null) {
+                continue;
+            }
+            List<Integer> wanted = new ArrayList<>();
+            for (int index = current; index <= current + rollForwardAhead; index++) {
+                if (!isRecurring(periodTypeOf(budget)) && index > 1) {
+                    break;
+                }
+                if (budget.getEndDate() != null
+                        && periodStart(budget, index).isAfter(budget.getEndDate().toLocalDate())) {
+                    break;
+                }
+                wanted.add(index);
+            }
+            Set<Integer> existing = budgetPeriodRepository.findByBudget_BudgetIdAndPeriodIndexIn(budget.getBudgetId(), wanted)
+                    .stream()
+                    .map(BudgetPeriod::getPeriodIndex)
+                    .collect(Collectors.toSet());
+            for (Integer index : wanted) {
+                if (!existing.contains(index)) {
+                    created.add(buildPeriod(budget, index));
+                }
+            }
+        }
+
+        budgetPeriodRepository.saveAll(created);
+        log.info("Budget period roll-forward of users {}-{}: {} budgets checked, {} periods created",
+                fromUserId, toUserId, budgets.size(), created.size());
+    }
+
+    private int countClosedPeriods(Budget budget, LocalDateTime now) {
+        Integer current = resolvePeriodIndex(budget, now);
+        if (current != null) {
+            return current - 1;
+        }
+        if (now.isBefore(budget.getStartDate())) {
+            return 0;
+        }
+        // The budget has ended; its last period only counts when it ran its full length
+        int last = resolvePeriodIndex(budget, budget.getEndDate());
+        return buildPeriod(budget, last).getStatus() == BudgetPeriodStatus.ACTIVE ? last : last - 1;
+    }
+
+    private LocalDateTime rangeEnd(Budget budget) {
+        return budget.getEndDate() != null ? budget.getEndDate() : OPEN_END;
+    }
+
+    private LocalDate periodStart(Budget budget, int periodIndex) {
+        LocalDate start = budget.getStartDate().toLocalDate();
+        int offset = periodIndex - 1;
+        return switch (periodTypeOf(budget)) {
+            case DAILY -> start.plusDays(offset);
+            case WEEKLY -> start.plusWeeks(offset);
+            case MONTHLY -> start.plusMonths(offset);
+            case YEARLY -> start.plusYears(offset);
+            default -> start;
+        };
+    }
+
+    private PeriodType periodTypeOf(Budget budget) {
+        return budget.getPeriodType() != null ? budget.getPeriodType() : PeriodType.NONE;
+    }
 
-        return budgetPeriods.map(budgetPeriodMapper::toResponse);
+    private boolean isRecurring(PeriodType type) {
+        return type == PeriodType.DAILY || type == PeriodType.WEEKLY
+                || type == PeriodType.MONTHLY || type == PeriodType.YEARLY;
     }
 }
@@ -1,34 +1,47 @@
 package vn.fpt.seima.seimaserver.service.impl;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cglib.core.Local;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import vn.fpt.seima.seimaserver.config.datasource.PrimaryReads;
 import vn.fpt.seima.seimaserver.dto.request.budget.CreateBudgetRequest;
 import vn.fpt.seima.seimaserver.dto.request.budget.UpdateBudgetRequest;
 import vn.fpt.seima.seimaserver.dto.response.budget.BudgetLastResponse;
 import vn.fpt.seima.seimaserver.dto.response.budget.BudgetResponse;
 import vn.fpt.seima.seimaserver.dto.response.category.CategoryResponse;
 import vn.fpt.seima.seimaserver.entity.*;
+import vn.fpt.seima.seimaserver.event.FinancialHealthChangedEvent;
+import vn.fpt.seima.seimaserver.event.ResourceChangedEvent;
+import vn.fpt.seima.seimaserver.event.ResourceFamily;
 import vn.fpt.seima.seimaserver.exception.ResourceNotFoundException;
 import vn.fpt.seima.seimaserver.mapper.BudgetMapper;
 import vn.fpt.seima.seimaserver.repository.*;
 import vn.fpt.seima.seimaserver.service.BudgetCategoryLimitService;
 import vn.fpt.seima.seimaserver.service.BudgetPeriodService;
 import vn.fpt.seima.seimaserver.service.BudgetService;
+import vn.fpt.seima.seimaserver.service.ExchangeRateService;
 import vn.fpt.seima.seimaserver.service.FcmService;
+import vn.fpt.seima.seimaserver.service.RedisService;
 import vn.fpt.seima.seimaserver.util.UserUtils;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 
@@ -48,8 +61,17 @@ public class BudgetServiceImpl implements BudgetService {
     private UserDeviceRepository userDeviceRepository;
     private NotificationRepository notificationRepository;
     private BudgetWalletRepository budgetWalletRepository;
+    private ApplicationEventPublisher applicationEventPublisher;
+    private RedisService redisService;
+    private ObjectMapper objectMapper;
+    private ExchangeRateService exchangeRateService;
+    private PrimaryReads primaryReads;
+
+    private static final String DASHBOARD_KEY_PREFIX = "budget:dashboard:";
+    private static final long DASHBOARD_TTL_MINUTES = 30;
 
     @Override
+    @Transactional(readOnly = true)
     public Page<BudgetResponse> getAllBudget(Pageable pageable) {
         User user = UserUtils.getCurrentUser();
         if (user == null) {
@@ -61,6 +83,7 @@ public class BudgetServiceImpl implements BudgetService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public BudgetResponse getBudgetById(int id) {
         Budget budget = budgetRepository.findById(id).orElseThrow(()
                 -> new ResourceNotFoundException("Budget not found for this id :: " + id));
@@ -131,39 +154,11 @@ public class BudgetServiceImpl implements BudgetService {
             budgetWallet.setBudget(budget);
             budgetWalletRepository.save(budgetWallet);
         });
-        log.info("userId: {}", user.getUserId());
-        log.info("categoryIds: {}", categoryIds);
-        log.info("startDate: {}", request.getStartDate());
-        log.info("endDate: {}", LocalDateTime.of(LocalDate.now().getYear(), 12, 31, 23, 59, 59));
-        log.info("walletIds: {}", walletIds);
-        List<Transaction> transactions = transactionRepository.listExpensesByCategoryAndMonth(
-                user.getUserId(),
-                categoryIds,
-                request.getStartDate(),
-                LocalDateTime.of(LocalDate.now().getYear(), 12, 31, 23, 59, 59),
-                walletIds
-        );
-        List<BudgetPeriod> periods = budgetPeriodService.generateBudgetPeriods(savedBudget);
-
-        for (Transaction transaction : transactions) {
-            for (BudgetPeriod period : periods) {
-                if (!transaction.getTransactionDate().isBefore(period.getStartDate()) &&
-                        !transaction.getTransactionDate().isAfter(period.getEndDate())) {
-                    log.info("Before subtract: period {} - remaining={} - txn amount={}",
-                            period.getBudgetPeriodId(), period.getRemainingAmount(), transaction.getAmount());
-
-                    period.setRemainingAmount(period.getRemainingAmount().subtract(transaction.getAmount()));
-
-                    log.info("After subtract: period {} - remaining={}",
-                            period.getBudgetPeriodId(), period.getRemainingAmount());
-                }
-            }
-        }
-
-        if (savedBudget.getPeriodType() == PeriodType.DAILY) {
-            periods.removeFirst();
-        }
-        budgetPeriodRepository.saveAll(periods);
+        log.debug("Backfilling budget {} for user {}: categoryIds={} walletIds={}",
+                savedBudget.getBudgetId(), user.getUserId(), categoryIds, walletIds);
+        budgetPeriodRepository.saveAll(budgetPeriodService.backfillPeriods(savedBudget, categoryIds, walletIds));
+        applicationEventPublisher.publishEvent(new FinancialHealthChangedEvent(user.getUserId()));
+        applicationEventPublisher.publishEvent(new ResourceChangedEvent(user.getUserId(), ResourceFamily.BUDGETS));
         return budgetMapper.toResponse(savedBudget);
     }
 
@@ -220,17 +215,7 @@ public class BudgetServiceImpl implements BudgetService {
                     budgetPeriod.setRemainingAmount(request.getOverallAmountLimit());
                 }
 
-                List<Transaction> transactions = transactionRepository.listExpensesByCategoryAndMonth(
-                        user.getUserId(), categoryIds, existingBudget.getStartDate(), existingBudget.getEndDate(), walletIds);
-
-                for (Transaction transaction : transactions) {
-                    for (BudgetPeriod period : budgetPeriods) {
-                        if (!transaction.getTransactionDate().isBefore(period.getStartDate())
-                                && !transaction.getTransactionDate().isAfter(period.getEndDate())) {
-                            period.setRemainingAmount(period.getRemainingAmount().subtract(transaction.getAmount()));
-                        }
-                    }
-                }
+                budgetPeriodService.applyExpenses(existingBudget, budgetPeriods, categoryIds, walletIds);
 
                 budgetPeriodRepository.saveAll(budgetPeriods);
                 existingBudget.setOverallAmountLimit(request.getOverallAmountLimit());
@@ -252,7 +237,7 @@ public class BudgetServiceImpl implements BudgetService {
                     }
                 }
 
-                budgetPeriodRepository.deleteAll(budgetPeriodRepository.findByBudget_BudgetId(existingBudget.getBudgetId()));
+                budgetPeriodRepository.deleteBudgetPeriodByBudget(existingBudget.getBudgetId());
 
                 budgetMapper.updateBudgetFromDto(request, existingBudget);
                 existingBudget.setUser(user);
@@ -263,27 +248,11 @@ public class BudgetServiceImpl implements BudgetService {
 
                 updatedBudget = budgetRepository.save(existingBudget);
 
-                List<BudgetPeriod> periods = budgetPeriodService.generateBudgetPeriods(updatedBudget);
-
-                List<Transaction> transactions = transactionRepository.listExpensesByCategoryAndMonth(
-                        user.getUserId(), categoryIds, request.getStartDate(), LocalDateTime.of(LocalDate.now().getYear(), 12, 31, 23, 59, 59), walletIds);
-
-                log.info("size:" + transactions.size());
-                for (Transaction transaction : transactions) {
-                    for (BudgetPeriod period : periods) {
-                        if (!transaction.getTransactionDate().isBefore(period.getStartDate())
-                                && !transaction.getTransactionDate().isAfter(period.getEndDate())) {
-                            period.setRemainingAmount(period.getRemainingAmount().subtract(transaction.getAmount()));
-                        }
-                    }
-                }
-                if (updatedBudget.getPeriodType() == PeriodType.DAILY) {
-                    periods.removeFirst();
-                }
-
-                budgetPeriodRepository.saveAll(periods);
+                budgetPeriodRepository.saveAll(budgetPeriodService.backfillPeriods(updatedBudget, categoryIds, walletIds));
             }
 
+            applicationEventPublisher.publishEvent(new FinancialHealthChangedEvent(user.getUserId()));
+            applicationEventPublisher.publishEvent(new ResourceChangedEvent(user.getUserId(), ResourceFamily.BUDGETS));
             return budgetMapper.toResponse(updatedBudget);
         } catch (Exception e) {
             throw new RuntimeException(e);
@@ -301,6 +270,10 @@ public class BudgetServiceImpl implements BudgetService {
         budgetWalletRepository.deleteBudgetWalletByBudget(budget.getBudgetId());
         budgetPeriodRepository.deleteAll(budgetPeriodRepository.findByBudget_BudgetId(budget.getBudgetId()));
         budgetRepository.deleteBudget(id);
+        if (budget.getUser() != null) {
+            applicationEventPublisher.publishEvent(new FinancialHealthChangedEvent(budget.getUser().getUserId()));
+            applicationEventPublisher.publishEvent(new ResourceChangedEvent(budget.getUser().getUserId(), ResourceFamily.BUDGETS));
+        }
     }
 
     @Override
@@ -318,83 +291,78 @@ public class BudgetServiceImpl implements BudgetService {
                 Collections.singletonList(user.getUserId())
         );
 
-        log.info("amount {}  | walletId: {} | type: {}", amount, walletId
+        log.debug("amount {}  | walletId: {} | type: {}", amount, walletId
                , type);
         for (Budget budget : existingBudget) {
             boolean isLimits = budgetCategoryLimitRepository.existsByBudgetIdAndCategoryId(budget.getBudgetId(), categoryId);
             boolean isWallets = budgetWalletRepository.existsBudgetWalletByWalletAndBudget(budget.getBudgetId(), walletId);
-            log.info("isLimits {}  | isWallets: {}", isLimits, isWallets
+            log.debug("isLimits {}  | isWallets: {}", isLimits, isWallets
             );
-            log.info("budget {}  | categoryId: {} | walletId: {}", budget.getBudgetId(), categoryId, walletId
+            log.debug("budget {}  | categoryId: {} | walletId: {}", budget.getBudgetId(), categoryId, walletId
             );
             if (isWallets && isLimits) {
-                List<BudgetPeriod> budgetPeriods =
-                        budgetPeriodRepository.findByBudget_BudgetId(budget.getBudgetId());
-
-                for (BudgetPeriod budgetPeriod : budgetPeriods) {
-
-                    boolean inRange = !transactionDate.isBefore(budgetPeriod.getStartDate())
-                            && !transactionDate.isAfter(budgetPeriod.getEndDate());
-                    log.info("Period {} - {} | inRange: {}",
-                            budgetPeriod.getStartDate(),
-                            budgetPeriod.getEndDate(),
-                            inRange);
-
-                    if (!inRange) continue;
-
-                    switch (type) {
-                        case "update-subtract":
-                        case "EXPENSE": {
-                            BigDecimal newAmount = budgetPeriod.getRemainingAmount().subtract(amount);
-                            budgetPeriod.setRemainingAmount(newAmount);
-                            break;
-                        }
-                        case "INCOME": {
-                            break;
-                        }
-                        case "update-add": {
-                            BigDecimal newAmount = budgetPeriod.getRemainingAmount().add(amount);
-                            budgetPeriod.setRemainingAmount(newAmount);
-                            break;
-                        }
-                        case "update-subtract-budget": {
-                            BigDecimal newAmount = budgetPeriod.getRemainingAmount().subtract(updateAmount);
-                            budgetPeriod.setRemainingAmount(newAmount);
-                            break;
-                        }
-
-                        default:
-                            break;
+                BudgetPeriod budgetPeriod = budgetPeriodService.getOrCreatePeriod(budget, transactionDate);
+                if (budgetPeriod == null) {
+                    continue;
+                }
+                log.debug("Period {} - {}", budgetPeriod.getStartDate(), budgetPeriod.getEndDate());
+                // The period is tracked in the budget's currency, at the rate of the transaction's day
+                LocalDate rateDate = transactionDate.toLocalDate();
+                BigDecimal budgetAmount = exchangeRateService.convert(amount, code, budget.getCurrencyCode(), rateDate);
+
+                switch (type) {
+                    case "update-subtract":
+                    case "EXPENSE": {
+                        BigDecimal newAmount = budgetPeriod.getRemainingAmount().subtract(budgetAmount);
+                        budgetPeriod.setRemainingAmount(newAmount);
+                        break;
+                    }
+                    case "INCOME": {
+                        break;
+                    }
+                    case "update-add": {
+                        BigDecimal newAmount = budgetPeriod.getRemainingAmount().add(budgetAmount);
+                        budgetPeriod.setRemainingAmount(newAmount);
+                        break;
+                    }
+                    case "update-subtract-budget": {
+                        BigDecimal newAmount = budgetPeriod.getRemainingAmount()
+                                .subtract(exchangeRateService.convert(updateAmount, code, budget.getCurrencyCode(), rateDate));
+                        budgetPeriod.setRemainingAmount(newAmount);
+                        break;
                     }
 
-                    BigDecimal remaining = budgetPeriod.getRemainingAmount();
-                    BigDecimal limit = budgetPeriod.getAmountLimit();
-                    if (type.equals("EXPENSE")) {
-                        if (remaining.compareTo(BigDecimal.ZERO) < 0) {
-                            // >100%
-                            title = "Budget warning";
-                            message = "Your budget has exceeded the limit for this period.";
-                            notificationType = NotificationType.BUDGET_LIMIT_EXCEEDED;
+                    default:
+                        break;
+                }
 
-                        } else if (remaining.compareTo(BigDecimal.ZERO) == 0) {
-                            // =100%
+                BigDecimal remaining = budgetPeriod.getRemainingAmount();
+                BigDecimal limit = budgetPeriod.getAmountLimit();
+                if (type.equals("EXPENSE")) {
+                    if (remaining.compareTo(BigDecimal.ZERO) < 0) {
+                        // >100%
+                        title = "Budget warning";
+                        message = "Your budget has exceeded the limit for this period.";
+                        notificationType = NotificationType.BUDGET_LIMIT_EXCEEDED;
+
+                    } else if (remaining.compareTo(BigDecimal.ZERO) == 0) {
+                        // =100%
+                        title = "Budget warning";
+                        message = "Your budget has reached the limit for this period.";
+                        notificationType = NotificationType.BUDGET_LIMIT_REACHED;
+
+                    } else {
+                        BigDecimal warningThreshold = limit.multiply(BigDecimal.valueOf(0.1));
+                        if (remaining.compareTo(warningThreshold) < 0) {
+                            // 90% < x < 100%
                             title = "Budget warning";
-                            message = "Your budget has reached the limit for this period.";
-                            notificationType = NotificationType.BUDGET_LIMIT_REACHED;
-
-                        } else {
-                            BigDecimal warningThreshold = limit.multiply(BigDecimal.valueOf(0.1));
-                            if (remaining.compareTo(warningThreshold) < 0) {
-                                // 90% < x < 100%
-                                title = "Budget warning";
-                                message = "Your budget is nearing the limit for this period.";
-                                notificationType = NotificationType.BUDGET_LIMIT_WARNING;
-                            }
+                            message = "Your budget is nearing the limit for this period.";
+                            notificationType = NotificationType.BUDGET_LIMIT_WARNING;
                         }
                     }
                 }
 
-                budgetPeriodRepository.saveAll(budgetPeriods);
+                budgetPeriodRepository.save(budgetPeriod);
 
             }
         }
@@ -419,50 +387,74 @@ public class BudgetServiceImpl implements BudgetService {
 
 
     /**
-     * @return
+     * Dashboard widget: every budget with its latest full period and categories, in three queries
+     * whatever the budget count. Cached per user until the next money change or the end of the day.
      */
     @Override
     public List<BudgetLastResponse> getLastBudget() {
         User user = UserUtils.getCurrentUser();
-        List<BudgetLastResponse> responses = new ArrayList<>();
-
         if (user == null) {
             throw new IllegalArgumentException("User must not be null");
         }
 
+        String cacheKey = DASHBOARD_KEY_PREFIX + user.getUserId();
+        Object cached = redisService.get(cacheKey);
+        if (cached != null) {
+            return objectMapper.convertValue(cached, new TypeReference<List<BudgetLastResponse>>() {});
+        }
+
+        return primaryReads.read(() -> loadLastBudget(user, cacheKey));
+    }
+
+    private List<BudgetLastResponse> loadLastBudget(User user, String cacheKey) {
+        List<BudgetLastResponse> responses = new ArrayList<>();
         List<Budget> budgets = budgetRepository.findByUserId(user.getUserId());
         if (budgets.isEmpty()) {
             return responses;
         }
 
+        LocalDateTime now = LocalDateTime.now();
+        Map<Integer, Integer> periodIndexes = new HashMap<>();
         for (Budget budget : budgets) {
-            List<BudgetPeriod> budgetPeriods = budgetPeriodRepository.findLatestByStatus(BudgetPeriodStatus.ACTIVE, budget, LocalDateTime.now());
-            if (budgetPeriods.isEmpty()) {
-                continue;
+            Integer index = latestFullPeriodIndex(budget, now);
+            if (index != null) {
+                periodIndexes.put(budget.getBudgetId(), index);
             }
+        }
 
-            BudgetPeriod lastPeriod = budgetPeriods.get(budgetPeriods.size() - 1);
-
-            List<BudgetCategoryLimit> budgetCategoryLimits = budgetCategoryLimitRepository.findByBudget(budget.getBudgetId());
-            List<CategoryResponse> categoryResponses = new ArrayList<>();
-
-            for (BudgetCategoryLimit budgetCategoryLimit : budgetCategoryLimits) {
-                List<Category> result = categoryRepository.getCategoriesByCategoryId(
-                        budgetCategoryLimit.getCategory().getCategoryId()
-                );
-
-                if (result != null) {
-                    for (Category category : result) {
-                        categoryResponses.add(CategoryResponse.builder()
+        Map<String, BudgetPeriod> storedPeriods = new HashMap<>();
+        Map<Integer, List<CategoryResponse>> categoriesByBudget = new HashMap<>();
+        if (!periodIndexes.isEmpty()) {
+            // IN x IN may return a few extra rows; the (budget, index) key filters them out
+            for (BudgetPeriod period : budgetPeriodRepository.findByBudget_BudgetIdInAndPeriodIndexIn(
+                    periodIndexes.keySet(), new HashSet<>(periodIndexes.values()))) {
+                storedPeriods.put(period.getBudget().getBudgetId() + ":" + period.getPeriodIndex(), period);
+            }
+            for (BudgetCategoryLimit limit : budgetCategoryLimitRepository.findWithCategoryByBudgetIds(periodIndexes.keySet())) {
+                Category category = limit.getCategory();
+                categoriesByBudget.computeIfAbsent(limit.getBudget().getBudgetId(), id -> new ArrayList<>())
+                        .add(CategoryResponse.builder()
                                 .categoryId(category.getCategoryId())
                                 .categoryName(category.getCategoryName())
                                 .categoryIconUrl(category.getCategoryIconUrl())
                                 .build());
-                    }
-
-                }
+            }
+        }
 
+        for (Budget budget : budgets) {
+            Integer index = periodIndexes.get(budget.getBudgetId());
+            if (index == null) {
+                continue;
+            }
+            // A period nobody has touched yet has no row; its values are what materialising it would store
+            BudgetPeriod lastPeriod = storedPeriods.get(budget.getBudgetId() + ":" + index);
+            if (lastPeriod == null) {
+                lastPeriod = budgetPeriodService.buildPeriod(budget, index);
             }
+            if (lastPeriod.getStatus() != BudgetPeriodStatus.ACTIVE) {
+                continue;
+            }
+
             BudgetLastResponse response = BudgetLastResponse.builder()
                     .budgetId(budget.getBudgetId())
                     .budgetName(budget.getBudgetName())
@@ -472,18 +464,44 @@ public class BudgetServiceImpl implements BudgetService {
                     .endDate(lastPeriod.getEndDate())
                     .periodType(budget.getPeriodType())
                     .status(lastPeriod.getStatus())
-                    .categories(categoryResponses)
+                    .categories(categoriesByBudget.getOrDefault(budget.getBudgetId(), new ArrayList<>()))
                     .build();
 
             responses.add(response);
-
         }
 
+        redisService.set(cacheKey, responses);
+        // Periods roll over at midnight, so never keep the widget past the end of the day
+        long minutesToMidnight = Duration.between(now, now.toLocalDate().plusDays(1).atStartOfDay()).toMinutes() + 1;
+        redisService.setTimeToLiveInMinutes(cacheKey, Math.min(DASHBOARD_TTL_MINUTES, minutesToMidnight));
         return responses;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void evictDashboard(FinancialHealthChangedEvent event) {
+        if (event.getUserId() != null) {
+            redisService.delete(DASHBOARD_KEY_PREFIX + event.getUserId());
+        }
+    }
 
+    /**
+     * Index of the latest full period that has started by {@code now}; computed, not queried.
+     */
+    private Integer latestFullPeriodIndex(Budget budget, LocalDateTime now) {
+        LocalDateTime probe = budget.getEndDate() != null && now.isAfter(budget.getEndDate())
+                ? budget.getEndDate() : now;
+        Integer index = budgetPeriodService.resolvePeriodIndex(budget, probe);
+        if (index == null) {
+            return null;
+        }
+        if (budgetPeriodService.buildPeriod(budget, index).getStatus() != BudgetPeriodStatus.ACTIVE) {
+            return index > 1 ? index - 1 : null;
+        }
+        return index;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<BudgetResponse> getBudgetByName(String budgetName, Pageable pageable) {
         User user = UserUtils.getCurrentUser();
         if (user == null) {
@@ -499,6 +517,7 @@ public class BudgetServiceImpl implements BudgetService {
 
 
     @Override
+    @Transactional(readOnly = true)
     public Page<BudgetResponse> getBudgetsByContainsCategories(List<Integer> categoryIds, Pageable pageable) {
         User user = UserUtils.getCurrentUser();
         if (user == null) {
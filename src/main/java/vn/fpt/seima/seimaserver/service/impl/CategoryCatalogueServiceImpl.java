@@ -0,0 +1,159 @@
+package vn.fpt.seima.seimaserver.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+import vn.fpt.seima.seimaserver.config.datasource.PrimaryReads;
+import vn.fpt.seima.seimaserver.dto.response.category.CategoryOverlay;
+import vn.fpt.seima.seimaserver.dto.response.category.CategoryResponse;
+import vn.fpt.seima.seimaserver.entity.Category;
+import vn.fpt.seima.seimaserver.entity.CategoryType;
+import vn.fpt.seima.seimaserver.event.CategoryChangedEvent;
+import vn.fpt.seima.seimaserver.mapper.CategoryMapper;
+import vn.fpt.seima.seimaserver.repository.CategoryRepository;
+import vn.fpt.seima.seimaserver.service.CategoryCatalogueService;
+import vn.fpt.seima.seimaserver.service.RedisService;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * System categories (no user, no group) are the same for everyone and rarely change, so each instance
+ * keeps them in memory and reloads them every few minutes; a re-seeded catalogue reaches every instance,
+ * and its ETag, within that time. The user- or group-owned categories are an overlay kept in
+ * Redis next to a per-scope version counter; {@link CategoryChangedEvent} bumps the counter and a read
+ * rebuilds the overlay when its stored version no longer matches.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CategoryCatalogueServiceImpl implements CategoryCatalogueService {
+    private static final String VERSION_KEY_PREFIX = "category:version:";
+    private static final String OVERLAY_KEY_PREFIX = "category:overlay:";
+    private static final long OVERLAY_TTL_MINUTES = 24 * 60;
+    private static final long SYSTEM_CATALOGUE_TTL_MILLIS = 10 * 60 * 1000;
+
+    private final CategoryRepository categoryRepository;
+    private final CategoryMapper categoryMapper;
+    private final RedisService redisService;
+    private final ObjectMapper objectMapper;
+    private final PrimaryReads primaryReads;
+
+    private volatile SystemCatalogue systemCatalogue;
+
+    @Override
+    public List<CategoryResponse> getCategories(CategoryType type, Integer userId, Integer groupId) {
+        String scope = scope(userId, groupId);
+        String overlayKey = OVERLAY_KEY_PREFIX + scope + ":" + type.name();
+        List<Object> values = redisService.multiGet(List.of(VERSION_KEY_PREFIX + scope, overlayKey));
+        long version = toVersion(values.isEmpty() ? null : values.get(0));
+        Object cached = values.size() > 1 ? values.get(1) : null;
+
+        CategoryOverlay overlay = cached != null ? objectMapper.convertValue(cached, CategoryOverlay.class) : null;
+        if (overlay == null || overlay.getVersion() != version) {
+            List<Category> owned = primaryReads.read(() -> groupId != null
+                    ? categoryRepository.findByCategoryTypeAndGroup_GroupId(type, groupId)
+                    : categoryRepository.findByCategoryTypeAndUser_UserId(type, userId));
+            overlay = new CategoryOverlay(version, owned.stream().map(categoryMapper::toResponse).toList());
+            redisService.set(overlayKey, overlay);
+            redisService.setTimeToLiveInMinutes(overlayKey, OVERLAY_TTL_MINUTES);
+        }
+
+        List<CategoryResponse> categories = new ArrayList<>(systemCatalogue().byType.getOrDefault(type, List.of()));
+        categories.addAll(overlay.getCategories());
+        categories.sort(Comparator.comparing(CategoryResponse::getCategoryId));
+        return categories;
+    }
+
+    @Override
+    public String getETag(CategoryType type, Integer userId, Integer groupId) {
+        String scope = scope(userId, groupId);
+        long version = toVersion(redisService.get(VERSION_KEY_PREFIX + scope));
+        return type.name() + "-" + scope + "-" + version + "-" + systemCatalogue().fingerprint;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        if (event.getUserId() != null) {
+            bumpVersion("user:" + event.getUserId());
+        }
+        if (event.getGroupId() != null) {
+            bumpVersion("group:" + event.getGroupId());
+        }
+    }
+
+    private void bumpVersion(String scope) {
+        String key = VERSION_KEY_PREFIX + scope;
+        try {
+            if (redisService.increment(key) == 1L) {
+                // A fresh counter (new scope or flushed Redis) starts from the clock, so it cannot
+                // land on a version a client still holds an ETag for
+                redisService.set(key, System.currentTimeMillis());
+            }
+        } catch (Exception e) {
+            log.error("Failed to bump category catalogue version for {}", scope, e);
+        }
+    }
+
+    private SystemCatalogue systemCatalogue() {
+        SystemCatalogue catalogue = systemCatalogue;
+        if (catalogue == null || catalogue.isExpired()) {
+            synchronized (this) {
+                catalogue = systemCatalogue;
+                if (catalogue == null || catalogue.isExpired()) {
+                    catalogue = loadSystemCatalogue();
+                    systemCatalogue = catalogue;
+                }
+            }
+        }
+        return catalogue;
+    }
+
+    private SystemCatalogue loadSystemCatalogue() {
+        List<CategoryResponse> categories = categoryRepository.findSystemCategories().stream()
+                .map(categoryMapper::toResponse)
+                .sorted(Comparator.comparing(CategoryResponse::getCategoryId))
+                .toList();
+        Map<CategoryType, List<CategoryResponse>> byType = categories.stream()
+                .filter(category -> category.getCategoryType() != null)
+                .collect(Collectors.groupingBy(CategoryResponse::getCategoryType,
+                        () -> new EnumMap<>(CategoryType.class), Collectors.toUnmodifiableList()));
+
+        // Content hash, so every instance agrees on it and a re-seeded catalogue changes the ETag
+        StringBuilder content = new StringBuilder();
+        for (CategoryResponse category : categories) {
+            content.append(category.getCategoryId()).append('|')
+                    .append(category.getCategoryName()).append('|')
+                    .append(category.getCategoryType()).append('|')
+                    .append(category.getCategoryIconUrl()).append('|')
+                    .append(category.getParentCategoryId()).append('\n');
+        }
+        String fingerprint = DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8)).substring(0, 12);
+        log.info("Loaded {} system categories", categories.size());
+        return new SystemCatalogue(byType, fingerprint, System.currentTimeMillis() + SYSTEM_CATALOGUE_TTL_MILLIS);
+    }
+
+    private static String scope(Integer userId, Integer groupId) {
+        return groupId != null ? "group:" + groupId : "user:" + userId;
+    }
+
+    private static long toVersion(Object value) {
+        return value instanceof Number number ? number.longValue() : 0L;
+    }
+
+    @AllArgsConstructor
+    private static class SystemCatalogue {
+        private final Map<CategoryType, List<CategoryResponse>> byType;
+        private final String fingerprint;
+        private final long expiresAt;
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAt;
+        }
+    }
+}
@@ -1,16 +1,23 @@
 package vn.fpt.seima.seimaserver.service.impl;
 
 import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import vn.fpt.seima.seimaserver.dto.request.category.CreateCategoryRequest;
 import vn.fpt.seima.seimaserver.dto.response.category.CategoryResponse;
 import vn.fpt.seima.seimaserver.entity.*;
+import vn.fpt.seima.seimaserver.event.CategoryChangedEvent;
+import vn.fpt.seima.seimaserver.event.FinancialHealthChangedEvent;
+import vn.fpt.seima.seimaserver.event.ResourceChangedEvent;
+import vn.fpt.seima.seimaserver.event.ResourceFamily;
 import vn.fpt.seima.seimaserver.exception.ResourceNotFoundException;
 import vn.fpt.seima.seimaserver.mapper.CategoryMapper;
 import vn.fpt.seima.seimaserver.repository.*;
 import vn.fpt.seima.seimaserver.service.BudgetService;
+import vn.fpt.seima.seimaserver.service.CategoryCatalogueService;
 import vn.fpt.seima.seimaserver.service.CategoryService;
+import vn.fpt.seima.seimaserver.service.GroupMembershipCacheService;
 import vn.fpt.seima.seimaserver.service.RedisService;
 import vn.fpt.seima.seimaserver.service.WalletService;
 import vn.fpt.seima.seimaserver.util.UserUtils;
@@ -30,6 +37,9 @@ public class CategoryServiceImpl implements CategoryService {
     private BudgetService budgetService;
     private WalletService walletService;
     private RedisService redisService;
+    private ApplicationEventPublisher applicationEventPublisher;
+    private GroupMembershipCacheService groupMembershipCacheService;
+    private CategoryCatalogueService categoryCatalogueService;
 
     @Override
     public List<CategoryResponse> getAllCategoryByTypeAndUser(Integer categoryType, Integer groupId) {
@@ -38,15 +48,17 @@ public class CategoryServiceImpl implements CategoryService {
             throw new ResourceNotFoundException("User not found ");
         }
         CategoryType type = CategoryType.fromCode(categoryType);
+        return categoryCatalogueService.getCategories(type, user.getUserId(), normalizeGroupId(groupId));
+    }
 
-        List<Category> categories;
-
-        if (groupId != null && groupId != 0){
-            categories = categoryRepository.findByCategoryTypeAndGroup_GroupIdOrGroupIsNull(type, groupId);
-        }else{
-            categories = categoryRepository.findByCategoryTypeAndUser_UserIdOrUserIsNull(type, user.getUserId());
+    @Override
+    public String getCategoryCatalogueETag(Integer categoryType, Integer groupId) {
+        User user = UserUtils.getCurrentUser();
+        if (user == null) {
+            throw new ResourceNotFoundException("User not found ");
         }
-        return categories.stream().map(categoryMapper::toResponse).toList();
+        CategoryType type = CategoryType.fromCode(categoryType);
+        return categoryCatalogueService.getETag(type, user.getUserId(), normalizeGroupId(groupId));
     }
 
     @Override
@@ -80,7 +92,7 @@ public class CategoryServiceImpl implements CategoryService {
             group = groupRepository.findById(request.getGroupId())
                     .orElseThrow(() -> new ResourceNotFoundException("Group not found with id: " + request.getGroupId()));
 
-            if (!groupMemberRepository.existsByUserUserIdAndGroupGroupId(user.getUserId(), group.getGroupId())) {
+            if (groupMembershipCacheService.getMembership(group.getGroupId(), user.getUserId()).isEmpty()) {
                 throw new IllegalArgumentException("You are not authorized to create this group category.");
             }
 
@@ -107,6 +119,7 @@ public class CategoryServiceImpl implements CategoryService {
         }
         category.setUser(user);
         Category savedCategory = categoryRepository.save(category);
+        publishCategoryChanged(savedCategory);
         return categoryMapper.toResponse(savedCategory);
     }
 
@@ -137,7 +150,7 @@ public class CategoryServiceImpl implements CategoryService {
 
         // Permission check: only the owner or group member can update the category
         if (group != null) {
-            if(!groupMemberRepository.existsByGroupAndUserAndRole(group.getGroupId(), user.getUserId(), GroupMemberRole.ADMIN) ) {
+            if(!isGroupAdmin(group.getGroupId(), user.getUserId()) ) {
                 throw new IllegalArgumentException("You are not authorized to update this group category.");
             };
         } else if (!user.getUserId().equals(existingCategory.getUser().getUserId())) {
@@ -162,6 +175,7 @@ public class CategoryServiceImpl implements CategoryService {
         categoryMapper.updateCategoryFromDto(request, existingCategory);
 
         Category savedCategory = categoryRepository.save(existingCategory);
+        publishCategoryChanged(savedCategory);
         return categoryMapper.toResponse(savedCategory);
     }
 
@@ -185,7 +199,7 @@ public class CategoryServiceImpl implements CategoryService {
         }
 
         if (category.getUser() == null) {
-            if(!groupMemberRepository.existsByGroupAndUserAndRole(category.getGroup().getGroupId(), currentUser.getUserId(), GroupMemberRole.ADMIN) ) {
+            if(!isGroupAdmin(category.getGroup().getGroupId(), currentUser.getUserId()) ) {
                 throw new IllegalArgumentException("You are not authorized to delete this category.");
             };
         }
@@ -203,13 +217,31 @@ public class CategoryServiceImpl implements CategoryService {
                     transaction.getCurrencyCode(), transaction.getWallet().getId(), BigDecimal.ZERO);
             walletService.reduceAmount(transaction.getWallet().getId(),
                     transaction.getAmount(),
+                    transaction.getTransactionDate(),
                     "update-add",
                     transaction.getCurrencyCode());
         }
-        String financialHealthKey = "financial_health:" + currentUser.getUserId();
-        redisService.delete(financialHealthKey);
+        applicationEventPublisher.publishEvent(new FinancialHealthChangedEvent(currentUser.getUserId()));
+        applicationEventPublisher.publishEvent(new ResourceChangedEvent(currentUser.getUserId(), ResourceFamily.TRANSACTIONS, ResourceFamily.WALLETS, ResourceFamily.BUDGETS));
         transactionRepository.deleteByCategory_CategoryId(id);
         budgetCategoryLimitRepository.deleteByCategory_CategoryId(id);
         categoryRepository.deleteById(id);
+        publishCategoryChanged(category);
+    }
+
+    private void publishCategoryChanged(Category category) {
+        applicationEventPublisher.publishEvent(new CategoryChangedEvent(
+                category.getUser() != null ? category.getUser().getUserId() : null,
+                category.getGroup() != null ? category.getGroup().getGroupId() : null));
+    }
+
+    private static Integer normalizeGroupId(Integer groupId) {
+        return groupId != null && groupId != 0 ? groupId : null;
+    }
+
+    private boolean isGroupAdmin(Integer groupId, Integer userId) {
+        return groupMembershipCacheService.getMembership(groupId, userId)
+                .map(membership -> membership.getRole() == GroupMemberRole.ADMIN)
+                .orElse(false);
     }
-}
\ No newline at end of file
+}
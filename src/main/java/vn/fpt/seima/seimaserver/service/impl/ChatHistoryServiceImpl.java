@@ -2,11 +2,16 @@ package vn.fpt.seima.seimaserver.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import vn.fpt.seima.seimaserver.config.chat.ChatHistoryProperties;
+import vn.fpt.seima.seimaserver.dto.response.chat.ChatHistorySliceResponse;
+import vn.fpt.seima.seimaserver.dto.response.chat.ChatMessageCount;
 import vn.fpt.seima.seimaserver.dto.response.chat.ChatMessageResponse;
 import vn.fpt.seima.seimaserver.entity.ChatHistory;
 import vn.fpt.seima.seimaserver.entity.User;
@@ -16,29 +21,62 @@ import vn.fpt.seima.seimaserver.repository.UserRepository;
 import vn.fpt.seima.seimaserver.service.ChatHistoryService;
 import vn.fpt.seima.seimaserver.util.UserUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
+/**
+ * Chat history is read with keyset pagination on (timestamp, chat ID), so deep pages cost the same as
+ * the first one and no COUNT query runs per page. The message count is kept in the Redis hash
+ * {@code chat:count:<userId>} and only the messages added since the last call are counted.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class ChatHistoryServiceImpl implements ChatHistoryService {
-    
+
+    private static final String COUNTER_KEY_PREFIX = "chat:count:";
+    private static final RedisScript<Long> COUNT_ADVANCE_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/chat-count-advance.lua"), Long.class);
+
     private final ChatHistoryRepository chatHistoryRepository;
     private final UserRepository userRepository;
     private final ChatHistoryMapper chatHistoryMapper;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ChatHistoryProperties properties;
     
     @Override
     @Transactional(readOnly = true)
-    public Page<ChatMessageResponse> getUserChatHistory(Pageable pageable) {
+    public ChatHistorySliceResponse getUserChatHistory(String cursor, int size) {
         User currentUser = getCurrentUser();
-        log.info("Getting complete chat history for user: {}", currentUser.getUserId());
-        
-        Page<ChatHistory> chatHistoryPage = chatHistoryRepository.findByUserIdOrderByTimestampDesc(currentUser.getUserId(), pageable);
-        
-        return chatHistoryPage.map(chatHistoryMapper::toResponse);
+        log.info("Getting chat history for user: {}", currentUser.getUserId());
+
+        int pageSize = Math.max(1, Math.min(size, properties.getMaxPageSize()));
+        // One extra row tells whether there is an older page
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<ChatHistory> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = chatHistoryRepository.findLatestByUserId(currentUser.getUserId(), limit);
+        } else {
+            Cursor position = decodeCursor(cursor);
+            rows = chatHistoryRepository.findByUserIdBefore(
+                    currentUser.getUserId(), position.timestamp(), position.chatId(), limit);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<ChatHistory> page = hasMore ? rows.subList(0, pageSize) : rows;
+        ChatHistory last = page.isEmpty() ? null : page.get(page.size() - 1);
+
+        return ChatHistorySliceResponse.builder()
+                .messages(page.stream().map(chatHistoryMapper::toResponse).filter(Objects::nonNull).collect(Collectors.toList()))
+                .nextCursor(hasMore ? encodeCursor(last) : null)
+                .hasMore(hasMore)
+                .build();
     }
     
     @Override
@@ -47,10 +85,10 @@ public class ChatHistoryServiceImpl implements ChatHistoryService {
         User currentUser = getCurrentUser();
         log.info("Getting {} recent messages for user: {}", limit, currentUser.getUserId());
         
-        Pageable pageable = PageRequest.of(0, limit);
-        Page<ChatHistory> chatHistoryPage = chatHistoryRepository.findByUserIdOrderByTimestampDesc(currentUser.getUserId(), pageable);
+        int pageSize = Math.max(1, Math.min(limit, properties.getMaxPageSize()));
+        List<ChatHistory> chatHistories = chatHistoryRepository.findLatestByUserId(currentUser.getUserId(), PageRequest.of(0, pageSize));
         
-        return chatHistoryPage.getContent().stream()
+        return chatHistories.stream()
                 .map(chatHistoryMapper::toResponse)
                 .filter(response -> response != null) // Filter out deleted records
                 .collect(Collectors.toList());
@@ -61,8 +99,11 @@ public class ChatHistoryServiceImpl implements ChatHistoryService {
         User currentUser = getCurrentUser();
         log.info("Soft deleting entire chat history for user: {}", currentUser.getUserId());
         
+        // Read before flagging: anything newer is either flagged too or counted as a new message
+        Integer maxChatId = chatHistoryRepository.findMaxChatIdByUserId(currentUser.getUserId());
         LocalDateTime deletedAt = LocalDateTime.now();
         chatHistoryRepository.softDeleteByUserId(currentUser.getUserId(), deletedAt);
+        resetCounter(currentUser.getUserId(), maxChatId == null ? 0 : maxChatId);
         
         log.info("Chat history soft deleted for user: {} at {}", currentUser.getUserId(), deletedAt);
     }
@@ -73,7 +114,71 @@ public class ChatHistoryServiceImpl implements ChatHistoryService {
         User currentUser = getCurrentUser();
         log.info("Getting total message count for user: {}", currentUser.getUserId());
         
-        return chatHistoryRepository.countByUserId(currentUser.getUserId());
+        Integer userId = currentUser.getUserId();
+        String key = COUNTER_KEY_PREFIX + userId;
+        try {
+            Object counted = stringRedisTemplate.opsForHash().get(key, "m");
+            String countedUpTo = counted == null ? "0" : counted.toString();
+            ChatMessageCount delta = chatHistoryRepository.countByUserIdAfter(userId, Integer.valueOf(countedUpTo));
+            String newCountedUpTo = delta.getMaxChatId() == null ? countedUpTo : delta.getMaxChatId().toString();
+            return stringRedisTemplate.execute(COUNT_ADVANCE_SCRIPT, List.of(key),
+                    countedUpTo, delta.getCount().toString(), newCountedUpTo,
+                    String.valueOf(properties.getCounterTtl().getSeconds()));
+        } catch (Exception e) {
+            log.warn("Message counter unavailable for user {}, counting the table: {}", userId, e.getMessage());
+            return chatHistoryRepository.countByUserId(userId);
+        }
+    }
+
+    /**
+     * Hard deletes cleared messages once they are past the grace period. Each batch is its own short
+     * transaction, so the purge never holds locks that block users writing or clearing their chats.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void purgeDeletedMessages() {
+        LocalDateTime deletedBefore = LocalDateTime.now().minus(properties.getPurgeAfter());
+        int purged = 0;
+        try {
+            for (int i = 0; i < properties.getPurgeMaxBatches(); i++) {
+                int deleted = chatHistoryRepository.purgeDeleted(deletedBefore, properties.getPurgeBatchSize());
+                purged += deleted;
+                if (deleted < properties.getPurgeBatchSize()) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Failed to purge deleted chat history: {}", e.getMessage());
+        }
+        if (purged > 0) {
+            log.info("Purged {} deleted chat messages", purged);
+        }
+    }
+
+    private void resetCounter(Integer userId, int countedUpTo) {
+        String key = COUNTER_KEY_PREFIX + userId;
+        try {
+            stringRedisTemplate.opsForHash().putAll(key, Map.of("n", "0", "m", String.valueOf(countedUpTo)));
+            stringRedisTemplate.expire(key, properties.getCounterTtl());
+        } catch (Exception e) {
+            log.warn("Failed to reset message counter for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private String encodeCursor(ChatHistory last) {
+        String position = last.getTimestamp() + "|" + last.getChatId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Cursor decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.lastIndexOf('|');
+            return new Cursor(LocalDateTime.parse(position.substring(0, separator)),
+                    Integer.valueOf(position.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid chat history cursor");
+        }
     }
     
     private User getCurrentUser() {
@@ -83,4 +188,7 @@ public class ChatHistoryServiceImpl implements ChatHistoryService {
         }
         return currentUser;
     }
-} 
\ No newline at end of file
+
+    private record Cursor(LocalDateTime timestamp, Integer chatId) {
+    }
+}
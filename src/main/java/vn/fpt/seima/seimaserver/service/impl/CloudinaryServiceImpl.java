@@ -2,30 +2,52 @@ package vn.fpt.seima.seimaserver.service.impl;
 
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
-import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
+import vn.fpt.seima.seimaserver.dto.request.upload.DirectUploadRequest;
+import vn.fpt.seima.seimaserver.dto.request.upload.UploadPurpose;
+import vn.fpt.seima.seimaserver.dto.response.upload.UploadSignatureResponse;
 import vn.fpt.seima.seimaserver.service.CloudinaryService;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
 @Service
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class CloudinaryServiceImpl implements CloudinaryService {
 
+    private static final String ROOT_FOLDER = "seima-server/";
+    // Cloudinary only accepts signed uploads whose timestamp is less than an hour old
+    private static final long SIGNATURE_LIFETIME_SECONDS = 60 * 60;
+
     private final Cloudinary cloudinary;
 
+    // Optional signed preset, e.g. to cap file size or resize on Cloudinary's side
+    @Value("${cloudinary.upload-preset:}")
+    private String uploadPreset;
+
     @Override
     public Map uploadImage(MultipartFile file, String subFolder) {
+        Path tempFile = null;
         try {
 
             if (file.getSize() > 20 * 1024 * 1024) {
                 throw new IllegalArgumentException("File size must be less than 20MB");
             }
 
-            String fullFolderPath = "seima-server/" + (subFolder != null ? subFolder.trim() : "");
+            String fullFolderPath = ROOT_FOLDER + (subFolder != null ? subFolder.trim() : "");
 
             Map<String, Object> options = ObjectUtils.asMap(
                     "folder", fullFolderPath,
@@ -34,9 +56,18 @@ public class CloudinaryServiceImpl implements CloudinaryService {
                     "overwrite", false
             );
 
-            return cloudinary.uploader().upload(file.getBytes(), options);
+            // Stream the part to disk and let the HTTP client stream it on, instead of holding it on the heap
+            tempFile = Files.createTempFile("seima-upload-", null);
+            try (InputStream in = file.getInputStream()) {
+                Files.copy(in, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return cloudinary.uploader().upload(tempFile.toFile(), options);
         } catch (IOException e) {
             throw new RuntimeException("Upload image failed", e);
+        } finally {
+            if (tempFile != null) {
+                tempFile.toFile().delete();
+            }
         }
     }
 
@@ -49,4 +80,57 @@ public class CloudinaryServiceImpl implements CloudinaryService {
             throw new RuntimeException("Delete image failed", e);
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public UploadSignatureResponse createUploadSignature(UploadPurpose purpose, Integer userId) {
+        long timestamp = Instant.now().getEpochSecond();
+        // The id is chosen here and signed, so the client cannot upload anywhere else
+        String publicId = buildPublicIdPrefix(purpose, userId) + UUID.randomUUID().toString().replace("-", "");
+        String allowedFormats = String.join(",", purpose.getAllowedFormats());
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("public_id", publicId);
+        params.put("timestamp", timestamp);
+        params.put("allowed_formats", allowedFormats);
+        if (StringUtils.hasText(uploadPreset)) {
+            params.put("upload_preset", uploadPreset);
+        }
+
+        return UploadSignatureResponse.builder()
+                .uploadUrl(cloudinary.cloudinaryApiUrl("upload", ObjectUtils.asMap("resource_type", "image")))
+                .apiKey(cloudinary.config.apiKey)
+                .publicId(publicId)
+                .timestamp(timestamp)
+                .allowedFormats(allowedFormats)
+                .uploadPreset(StringUtils.hasText(uploadPreset) ? uploadPreset : null)
+                .signature(cloudinary.apiSignRequest(params, cloudinary.config.apiSecret))
+                .expiresAt(timestamp + SIGNATURE_LIFETIME_SECONDS)
+                .build();
+    }
+
+    @Override
+    public String verifyDirectUpload(UploadPurpose purpose, Integer userId, DirectUploadRequest upload) {
+        if (upload == null || upload.getPublicId() == null || upload.getVersion() == null || upload.getSignature() == null) {
+            throw new IllegalArgumentException("Uploaded image is incomplete");
+        }
+        if (!upload.getPublicId().startsWith(buildPublicIdPrefix(purpose, userId))) {
+            throw new IllegalArgumentException("Uploaded image was not issued for this request");
+        }
+
+        // Cloudinary signs public_id and version of every upload response with our API secret
+        Map<String, Object> params = new HashMap<>();
+        params.put("public_id", upload.getPublicId());
+        params.put("version", upload.getVersion());
+        String expectedSignature = cloudinary.apiSignRequest(params, cloudinary.config.apiSecret);
+        if (!MessageDigest.isEqual(expectedSignature.getBytes(StandardCharsets.UTF_8),
+                upload.getSignature().getBytes(StandardCharsets.UTF_8))) {
+            throw new IllegalArgumentException("Invalid upload signature");
+        }
+
+        return cloudinary.url().secure(true).version(upload.getVersion()).generate(upload.getPublicId());
+    }
+
+    private String buildPublicIdPrefix(UploadPurpose purpose, Integer userId) {
+        return ROOT_FOLDER + purpose.getFolder() + "/u" + userId + "-";
+    }
+}
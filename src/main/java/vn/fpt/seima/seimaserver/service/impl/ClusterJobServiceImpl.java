@@ -0,0 +1,238 @@
+package vn.fpt.seima.seimaserver.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Service;
+import vn.fpt.seima.seimaserver.config.scheduler.SchedulerProperties;
+import vn.fpt.seima.seimaserver.dto.response.scheduler.JobRun;
+import vn.fpt.seima.seimaserver.repository.UserRepository;
+import vn.fpt.seima.seimaserver.service.ClusterJobService;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A lease is a Redis key set with NX and a TTL, holding a token unique to the run. A watchdog renews it
+ * while the run is going, so a run longer than the lease time is not taken over, and it is released by a
+ * script that only touches the key if it still holds that token, so a run that outlived its lease cannot
+ * release the next holder's. Each shard of a sharded job is also claimed once per tick
+ * ({@code job:tick:<job>:<shard>:<tick>}) until the next tick, so an instance that fires late cannot
+ * run the shard again. Each run is timed ({@code scheduler.job.duration}), skips are counted
+ * ({@code scheduler.job.skipped}) and the latest runs are kept in the list {@code job:history:<job>}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClusterJobServiceImpl implements ClusterJobService {
+    private static final String LEASE_KEY_PREFIX = "job:lease:";
+    private static final String TICK_KEY_PREFIX = "job:tick:";
+    private static final String HISTORY_KEY_PREFIX = "job:history:";
+
+    // Keeps the lease for the rest of the minimum hold time, or drops it if that is already over
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) ~= ARGV[1] then return 0 end " +
+                    "if tonumber(ARGV[2]) > 0 then return redis.call('pexpire', KEYS[1], ARGV[2]) end " +
+                    "return redis.call('del', KEYS[1])", Long.class);
+    private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) ~= ARGV[1] then return 0 end " +
+                    "return redis.call('pexpire', KEYS[1], ARGV[2])", Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final UserRepository userRepository;
+    private final SchedulerProperties properties;
+    private final String nodeId = UUID.randomUUID().toString();
+    // Own thread: the scheduler's single thread is busy running the job whose lease it would renew
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "job-lease-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PreDestroy
+    void shutdown() {
+        watchdog.shutdownNow();
+    }
+
+    @Override
+    public boolean runExclusive(String job, Runnable task) {
+        return run(job, LEASE_KEY_PREFIX + job, null, task);
+    }
+
+    @Override
+    public int runSharded(String job, CronExpression schedule, UserRangeTask task) {
+        // Named by the next fire time, which every instance firing for this tick agrees on even if
+        // their clocks are a little apart; the claim is held until then
+        ZonedDateTime now = ZonedDateTime.now();
+        ZonedDateTime nextTick = schedule.next(now);
+        Duration untilNextTick = nextTick != null ? Duration.between(now, nextTick) : properties.leaseTimeOf(job);
+        String tick = nextTick != null ? String.valueOf(nextTick.toEpochSecond()) : "last";
+
+        int shards = properties.shardsOf(job);
+        int maxUserId = userRepository.findMaxUserId().orElse(0);
+        int size = Math.max(1, (maxUserId + shards - 1) / shards);
+        int processed = 0;
+        for (int shard = 0; shard < shards; shard++) {
+            int from = shard * size + 1;
+            // The last range is open-ended so users who sign up during the run are not missed
+            int to = shard == shards - 1 ? Integer.MAX_VALUE : (shard + 1) * size;
+            String range = from + "-" + (to == Integer.MAX_VALUE ? "" : to);
+            if (!acquire(TICK_KEY_PREFIX + job + ":" + shard + ":" + tick, nodeId, untilNextTick)) {
+                skipped(job, range);
+                continue;
+            }
+            if (run(job, LEASE_KEY_PREFIX + job + ":" + shard, range, () -> task.run(from, to))) {
+                processed++;
+            }
+        }
+        return processed;
+    }
+
+    @Override
+    public List<JobRun> recentRuns(String job) {
+        List<JobRun> runs = new ArrayList<>();
+        try {
+            List<String> entries = stringRedisTemplate.opsForList().range(HISTORY_KEY_PREFIX + job, 0, -1);
+            if (entries != null) {
+                for (String entry : entries) {
+                    runs.add(objectMapper.readValue(entry, JobRun.class));
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Failed to read run history of job {}: {}", job, e.getMessage());
+        }
+        return runs;
+    }
+
+    private boolean run(String job, String leaseKey, String shard, Runnable task) {
+        String token = nodeId + ":" + UUID.randomUUID();
+        Duration leaseTime = properties.leaseTimeOf(job);
+        if (!acquire(leaseKey, token, leaseTime)) {
+            skipped(job, shard);
+            return false;
+        }
+
+        AtomicBoolean finished = new AtomicBoolean();
+        ScheduledFuture<?> renewal = startRenewing(leaseKey, token, leaseTime, finished);
+        Instant startedAt = Instant.now();
+        long started = System.nanoTime();
+        String error = null;
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            log.error("Job {} {} failed", job, shard != null ? shard : "", e);
+        } finally {
+            Duration took = Duration.ofNanos(System.nanoTime() - started);
+            // Under the renewal's lock, so a renewal already under way cannot extend the released lease
+            synchronized (finished) {
+                finished.set(true);
+            }
+            if (renewal != null) {
+                renewal.cancel(false);
+            }
+            release(leaseKey, token, properties.getMinLeaseTime().minus(took));
+            Timer.builder("scheduler.job.duration")
+                    .tag("job", job)
+                    .tag("outcome", error == null ? "success" : "failure")
+                    .register(meterRegistry)
+                    .record(took);
+            record(JobRun.builder()
+                    .job(job)
+                    .shard(shard)
+                    .node(nodeId)
+                    .startedAt(startedAt)
+                    .durationMs(took.toMillis())
+                    .succeeded(error == null)
+                    .error(error)
+                    .build());
+        }
+        return true;
+    }
+
+    private void skipped(String job, String shard) {
+        Counter.builder("scheduler.job.skipped").tag("job", job).register(meterRegistry).increment();
+        log.debug("Job {} {} is running or has run elsewhere, skipped", job, shard != null ? shard : "");
+    }
+
+    private boolean acquire(String leaseKey, String token, Duration leaseTime) {
+        if (!properties.isClusterLeases()) {
+            return true;
+        }
+        try {
+            return Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(leaseKey, token, leaseTime));
+        } catch (Exception e) {
+            // Skipping a maintenance tick is harmless; running it on every instance at once is not
+            log.warn("Failed to take lease {}, skipping this run: {}", leaseKey, e.getMessage());
+            return false;
+        }
+    }
+
+    // Extends the lease back to its full time every third of it, for as long as the run holds it
+    private ScheduledFuture<?> startRenewing(String leaseKey, String token, Duration leaseTime, AtomicBoolean finished) {
+        if (!properties.isClusterLeases()) {
+            return null;
+        }
+        long periodMillis = Math.max(1, leaseTime.toMillis() / 3);
+        return watchdog.scheduleAtFixedRate(() -> {
+            synchronized (finished) {
+                if (!finished.get()) {
+                    renew(leaseKey, token, leaseTime);
+                }
+            }
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void renew(String leaseKey, String token, Duration leaseTime) {
+        try {
+            Long renewed = stringRedisTemplate.execute(RENEW_SCRIPT, List.of(leaseKey), token,
+                    String.valueOf(leaseTime.toMillis()));
+            if (renewed == null || renewed == 0L) {
+                log.warn("Lease {} is no longer held by this run", leaseKey);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to renew lease {}: {}", leaseKey, e.getMessage());
+        }
+    }
+
+    private void release(String leaseKey, String token, Duration holdFor) {
+        if (!properties.isClusterLeases()) {
+            return;
+        }
+        try {
+            long holdMillis = Math.max(0, holdFor.toMillis());
+            stringRedisTemplate.execute(RELEASE_SCRIPT, List.of(leaseKey), token, String.valueOf(holdMillis));
+        } catch (Exception e) {
+            log.warn("Failed to release lease {}, it expires on its own: {}", leaseKey, e.getMessage());
+        }
+    }
+
+    private void record(JobRun run) {
+        String key = HISTORY_KEY_PREFIX + run.getJob();
+        try {
+            stringRedisTemplate.opsForList().leftPush(key, objectMapper.writeValueAsString(run));
+            stringRedisTemplate.opsForList().trim(key, 0, properties.getHistorySize() - 1);
+        } catch (Exception e) {
+            log.warn("Failed to record run of job {}: {}", run.getJob(), e.getMessage());
+        }
+    }
+}
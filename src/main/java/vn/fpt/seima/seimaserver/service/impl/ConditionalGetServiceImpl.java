@@ -0,0 +1,106 @@
+package vn.fpt.seima.seimaserver.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+import vn.fpt.seima.seimaserver.dto.response.group.GroupMembershipSnapshot;
+import vn.fpt.seima.seimaserver.event.CategoryChangedEvent;
+import vn.fpt.seima.seimaserver.event.GroupMembershipChangedEvent;
+import vn.fpt.seima.seimaserver.event.ResourceChangedEvent;
+import vn.fpt.seima.seimaserver.event.ResourceFamily;
+import vn.fpt.seima.seimaserver.repository.GroupMemberRepository;
+import vn.fpt.seima.seimaserver.service.ConditionalGetService;
+import vn.fpt.seima.seimaserver.service.ExchangeRateService;
+import vn.fpt.seima.seimaserver.service.RedisService;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Versions are kept per user in one Redis hash, {@code resource:version:<userId>}, with a field per
+ * {@link ResourceFamily}, so computing an ETag is a single read. Versions are only bumped after commit;
+ * bumping earlier would let a request in between cache the old payload under the new tag.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ConditionalGetServiceImpl implements ConditionalGetService {
+    private static final String VERSION_KEY_PREFIX = "resource:version:";
+    private static final long VERSION_TTL_MINUTES = 30L * 24 * 60;
+
+    private final RedisService redisService;
+    private final GroupMemberRepository groupMemberRepository;
+    private final ExchangeRateService exchangeRateService;
+
+    @Override
+    public String getETag(Integer userId, String resource, Collection<ResourceFamily> families) {
+        Map<Object, Object> versions = families.isEmpty() ? Map.of() : redisService.getField(VERSION_KEY_PREFIX + userId);
+        StringBuilder content = new StringBuilder()
+                .append(userId).append('|')
+                .append(resource).append('|')
+                // Overviews and budgets are relative to today, so a tag never outlives the day
+                .append(LocalDate.now());
+        for (ResourceFamily family : families) {
+            content.append('|').append(family.name()).append('=').append(versions.getOrDefault(family.name(), 0));
+        }
+        if (!families.isEmpty()) {
+            // Per-user resources report converted totals, which change when new rates are loaded
+            content.append("|rates=").append(exchangeRateService.ratesVersion());
+        }
+        return DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void bumpVersions(Integer userId, Collection<ResourceFamily> families) {
+        if (userId == null || families.isEmpty()) {
+            return;
+        }
+        String key = VERSION_KEY_PREFIX + userId;
+        try {
+            for (ResourceFamily family : families) {
+                if (redisService.hashIncrement(key, family.name()) == 1L) {
+                    // A fresh counter (new user or expired hash) starts from the clock, so it cannot
+                    // land on a version a client still holds an ETag for
+                    redisService.hashSet(key, family.name(), System.currentTimeMillis());
+                }
+            }
+            redisService.setTimeToLiveInMinutes(key, VERSION_TTL_MINUTES);
+        } catch (Exception e) {
+            log.error("Failed to bump resource versions {} for user {}", families, userId, e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onResourceChanged(ResourceChangedEvent event) {
+        bumpVersions(event.getUserId(), event.getFamilies());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        // Reports and budgets show category names
+        bumpVersions(event.getUserId(), List.of(ResourceFamily.TRANSACTIONS, ResourceFamily.BUDGETS));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGroupMembershipChanged(GroupMembershipChangedEvent event) {
+        // Every current or former member sees the group (or its member count) in their list
+        try {
+            Set<Integer> userIds = new LinkedHashSet<>();
+            for (GroupMembershipSnapshot snapshot : groupMemberRepository.findMembershipSnapshots(event.getGroupId())) {
+                userIds.add(snapshot.getUserId());
+            }
+            for (Integer userId : userIds) {
+                bumpVersions(userId, List.of(ResourceFamily.GROUPS));
+            }
+        } catch (Exception e) {
+            log.error("Failed to bump group versions for members of group {}", event.getGroupId(), e);
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package vn.fpt.seima.seimaserver.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import vn.fpt.seima.seimaserver.config.email.EmailDeliveryProperties;
+import vn.fpt.seima.seimaserver.dto.request.email.QueuedEmail;
+import vn.fpt.seima.seimaserver.service.EmailDeliveryService;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+/**
+ * Emails are queued in the Redis stream {@code email:queue} and read by the {@code email-workers}
+ * consumer group, so they survive restarts and are shared between nodes. Each batch is rendered with
+ * the cached templates and sent over one SMTP connection. Failed recipients wait in the sorted set
+ * {@code email:retry} until their backoff is over, and batches left unacknowledged by a dead worker
+ * are claimed by another one.
+ */
+@Slf4j
+@Service
+public class EmailDeliveryServiceImpl implements EmailDeliveryService {
+    private static final String QUEUE_KEY = "email:queue";
+    private static final String RETRY_KEY = "email:retry";
+    private static final String CONSUMER_GROUP = "email-workers";
+    private static final String PAYLOAD_FIELD = "payload";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final SpringTemplateEngine templateEngine;
+    private final JavaMailSender javaMailSender;
+    private final EmailDeliveryProperties properties;
+    private final Executor emailTaskExecutor;
+    private final String consumerName = "worker-" + UUID.randomUUID();
+
+    @Value("${app.email.sender-name}")
+    private String senderName;
+
+    @Value("${app.email.from-address}")
+    private String fromEmail;
+
+    public EmailDeliveryServiceImpl(StringRedisTemplate stringRedisTemplate,
+                                    ObjectMapper objectMapper,
+                                    SpringTemplateEngine templateEngine,
+                                    JavaMailSender javaMailSender,
+                                    EmailDeliveryProperties properties,
+                                    @Qualifier("emailTaskExecutor") Executor emailTaskExecutor) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.objectMapper = objectMapper;
+        this.templateEngine = templateEngine;
+        this.javaMailSender = javaMailSender;
+        this.properties = properties;
+        this.emailTaskExecutor = emailTaskExecutor;
+    }
+
+    @PostConstruct
+    void createConsumerGroup() {
+        try {
+            stringRedisTemplate.opsForStream().createGroup(QUEUE_KEY, ReadOffset.from("0"), CONSUMER_GROUP);
+        } catch (Exception e) {
+            // BUSYGROUP: another node (or a previous run) created it already
+            log.debug("Email consumer group not created: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void enqueue(QueuedEmail email) {
+        if (email.getId() == null) {
+            email.setId(UUID.randomUUID().toString());
+        }
+        try {
+            push(objectMapper.writeValueAsString(email));
+        } catch (Exception e) {
+            // Better an email without retries than none at all
+            log.warn("Email queue unavailable, sending '{}' directly: {}", email.getSubject(), e.getMessage());
+            emailTaskExecutor.execute(() -> send(prepare(email)));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.email.delivery.poll-interval-ms:500}")
+    public void pollQueue() {
+        try {
+            for (int i = 0; i < properties.getWorkers(); i++) {
+                List<MapRecord<String, Object, Object>> records = stringRedisTemplate.opsForStream().read(
+                        Consumer.from(CONSUMER_GROUP, consumerName),
+                        StreamReadOptions.empty().count(properties.getBatchSize()),
+                        StreamOffset.create(QUEUE_KEY, ReadOffset.lastConsumed()));
+                if (records == null || records.isEmpty()) {
+                    return;
+                }
+                emailTaskExecutor.execute(() -> deliver(records));
+            }
+        } catch (Exception e) {
+            log.warn("Failed to poll the email queue: {}", e.getMessage());
+            if (String.valueOf(e.getMessage()).contains("NOGROUP")) {
+                createConsumerGroup();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.email.delivery.retry-interval-ms:5000}")
+    public void promoteRetries() {
+        try {
+            Set<String> due = stringRedisTemplate.opsForZSet()
+                    .rangeByScore(RETRY_KEY, 0, System.currentTimeMillis(), 0, properties.getBatchSize());
+            if (due == null) {
+                return;
+            }
+            for (String payload : due) {
+                // Only the node that removes the entry requeues it
+                Long removed = stringRedisTemplate.opsForZSet().remove(RETRY_KEY, payload);
+                if (removed != null && removed > 0) {
+                    push(payload);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Failed to requeue email retries: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.email.delivery.claim-interval-ms:60000}")
+    public void reclaimStalled() {
+        try {
+            PendingMessages pending = stringRedisTemplate.opsForStream()
+                    .pending(QUEUE_KEY, CONSUMER_GROUP, Range.unbounded(), properties.getBatchSize());
+            RecordId[] stalled = pending.stream()
+                    .filter(message -> message.getElapsedTimeSinceLastDelivery().compareTo(properties.getClaimIdleTimeout()) >= 0)
+                    .map(PendingMessage::getId)
+                    .toArray(RecordId[]::new);
+            if (stalled.length == 0) {
+                return;
+            }
+            List<MapRecord<String, Object, Object>> claimed = stringRedisTemplate.opsForStream()
+                    .claim(QUEUE_KEY, CONSUMER_GROUP, consumerName, properties.getClaimIdleTimeout(), stalled);
+            if (!claimed.isEmpty()) {
+                log.info("Claimed {} stalled emails", claimed.size());
+                emailTaskExecutor.execute(() -> deliver(claimed));
+            }
+        } catch (Exception e) {
+            log.warn("Failed to claim stalled emails: {}", e.getMessage());
+        }
+    }
+
+    private void deliver(List<MapRecord<String, Object, Object>> records) {
+        List<Delivery> deliveries = new ArrayList<>();
+        for (MapRecord<String, Object, Object> record : records) {
+            try {
+                QueuedEmail email = objectMapper.readValue((String) record.getValue().get(PAYLOAD_FIELD), QueuedEmail.class);
+                deliveries.addAll(prepare(email));
+            } catch (Exception e) {
+                log.error("Dropping unreadable queued email {}", record.getId(), e);
+            }
+        }
+        send(deliveries);
+
+        RecordId[] ids = records.stream().map(MapRecord::getId).toArray(RecordId[]::new);
+        try {
+            stringRedisTemplate.opsForStream().acknowledge(QUEUE_KEY, CONSUMER_GROUP, ids);
+            stringRedisTemplate.opsForStream().delete(QUEUE_KEY, ids);
+        } catch (Exception e) {
+            log.warn("Failed to acknowledge {} sent emails: {}", ids.length, e.getMessage());
+        }
+    }
+
+    private List<Delivery> prepare(QueuedEmail email) {
+        List<Delivery> deliveries = new ArrayList<>();
+        try {
+            Context context = new Context();
+            if (email.getVariables() != null) {
+                context.setVariables(email.getVariables());
+            }
+            // Rendered once for all recipients; the parsed template is cached by the engine
+            String htmlContent = templateEngine.process(email.getTemplateName(), context);
+            for (String recipient : email.getRecipients()) {
+                deliveries.add(new Delivery(email, recipient, createMessage(recipient, email.getSubject(), htmlContent)));
+            }
+        } catch (Exception e) {
+            // A template that fails to render will fail on every retry too
+            log.error("Error rendering template email '{}' ({})", email.getSubject(), email.getTemplateName(), e);
+        }
+        return deliveries;
+    }
+
+    private MimeMessage createMessage(String to, String subject, String htmlContent) throws MessagingException {
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED, StandardCharsets.UTF_8.name());
+        helper.setTo(to);
+        helper.setFrom(senderName + " <" + fromEmail + ">");
+        helper.setSubject(subject);
+        helper.setText(htmlContent, true);
+        return mimeMessage;
+    }
+
+    private void send(List<Delivery> deliveries) {
+        if (deliveries.isEmpty()) {
+            return;
+        }
+        // Development mode: log email instead of sending if credentials are not configured
+        if (fromEmail == null || fromEmail.contains("${") || fromEmail.isEmpty()) {
+            for (Delivery delivery : deliveries) {
+                log.info("=== EMAIL WOULD BE SENT === To: {}, Subject: {}, Template: {}",
+                        delivery.recipient(), delivery.email().getSubject(), delivery.email().getTemplateName());
+            }
+            return;
+        }
+
+        try {
+            // One call, one SMTP connection for the whole batch
+            javaMailSender.send(deliveries.stream().map(Delivery::message).toArray(MimeMessage[]::new));
+            log.info("Sent {} template emails", deliveries.size());
+        } catch (MailSendException e) {
+            Map<Object, Exception> failedMessages = e.getFailedMessages();
+            for (Delivery delivery : deliveries) {
+                if (failedMessages.isEmpty() || failedMessages.containsKey(delivery.message())) {
+                    scheduleRetry(delivery, e);
+                }
+            }
+        } catch (MailException e) {
+            deliveries.forEach(delivery -> scheduleRetry(delivery, e));
+        }
+    }
+
+    private void scheduleRetry(Delivery delivery, Exception cause) {
+        QueuedEmail email = delivery.email();
+        int attempt = email.getAttempt() + 1;
+        if (attempt >= properties.getMaxAttempts()) {
+            log.error("Giving up on email '{}' to {} after {} attempts: {}",
+                    email.getSubject(), delivery.recipient(), attempt, cause.getMessage());
+            return;
+        }
+        QueuedEmail retry = QueuedEmail.builder()
+                .id(UUID.randomUUID().toString())
+                .recipients(List.of(delivery.recipient()))
+                .subject(email.getSubject())
+                .templateName(email.getTemplateName())
+                .variables(email.getVariables())
+                .attempt(attempt)
+                .build();
+        long dueAt = System.currentTimeMillis() + (properties.getRetryBackoff().toMillis() << (attempt - 1));
+        try {
+            stringRedisTemplate.opsForZSet().add(RETRY_KEY, objectMapper.writeValueAsString(retry), dueAt);
+            log.warn("Email '{}' to {} failed, retry {} scheduled: {}",
+                    email.getSubject(), delivery.recipient(), attempt, cause.getMessage());
+        } catch (Exception e) {
+            log.error("Failed to schedule retry of email '{}' to {}", email.getSubject(), delivery.recipient(), e);
+        }
+    }
+
+    private void push(String payload) {
+        stringRedisTemplate.opsForStream().add(
+                StreamRecords.newRecord().in(QUEUE_KEY).ofMap(Map.of(PAYLOAD_FIELD, payload)));
+    }
+
+    private record Delivery(QueuedEmail email, String recipient, MimeMessage message) {
+    }
+}
@@ -7,21 +7,26 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.context.Context;
-import org.thymeleaf.spring6.SpringTemplateEngine;
+import vn.fpt.seima.seimaserver.dto.request.email.QueuedEmail;
+import vn.fpt.seima.seimaserver.service.EmailDeliveryService;
 import vn.fpt.seima.seimaserver.service.EmailService;
 
 import java.io.File;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 @Service
 public class EmailServiceImpl implements EmailService {
     private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(EmailServiceImpl.class);
 
     @Autowired
-    private SpringTemplateEngine templateEngine;
+    private EmailDeliveryService emailDeliveryService;
 
     @Autowired
     private JavaMailSender javaMailSender;
@@ -89,53 +94,28 @@ public class EmailServiceImpl implements EmailService {
     }
 
     // Send with html Template having data in template
+    // Only queued here, rendering and sending happen on the delivery workers
     @Override
-    @Async("taskExecutor")
     public void sendEmailWithHtmlTemplate(String to, String subject, String templateName, Context context) {
-        if (templateEngine == null) {
-            logger.error("TemplateEngine not configured. Cannot send email with template.");
-            sendSimpleMessage(to, subject, "Please configure TemplateEngine to view this email properly. Context: " + context.getVariableNames());
-            return;
-        }
-        
-        // Development mode: log email instead of sending if credentials are not configured
-        if (fromEmail == null || fromEmail.contains("${") || fromEmail.isEmpty()) {
-            logger.warn("Email credentials not configured. Logging email instead of sending:");
-            logger.info("=== EMAIL WOULD BE SENT ===");
-            logger.info("To: {}", to);
-            logger.info("Subject: {}", subject);
-            logger.info("Template: {}", templateName);
-            logger.info("Context variables: {}", context.getVariableNames());
-            
-            try {
-                String htmlContent = templateEngine.process(templateName, context);
-                logger.info("HTML Content: {}", htmlContent);
-            } catch (Exception e) {
-                logger.error("Error processing template: {}", e.getMessage());
-            }
-            
-            logger.info("=== END EMAIL LOG ===");
+        sendBulkEmailWithHtmlTemplate(List.of(to), subject, templateName, context);
+    }
+
+    // Same template and data for every recipient, each one still gets a separate message
+    @Override
+    public void sendBulkEmailWithHtmlTemplate(Collection<String> recipients, String subject, String templateName, Context context) {
+        if (recipients.isEmpty()) {
             return;
         }
-
-        try {
-            MimeMessage mimeMessage = javaMailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED, StandardCharsets.UTF_8.name());
-
-            String htmlContent = templateEngine.process(templateName, context);
-
-            helper.setTo(to);
-            // SỬ DỤNG CÁC BIẾN MỚI, ĐÃ ĐƯỢC TÁCH BẠCH
-            helper.setFrom(senderName + " <" + fromEmail + ">");
-            helper.setSubject(subject);
-            helper.setText(htmlContent, true);
-
-            javaMailSender.send(mimeMessage);
-            logger.info("Template Email sent successfully to {}", to);
-        } catch (Exception e) { // Bắt Exception chung để an toàn hơn
-            // Log lỗi chi tiết hơn
-            logger.error("Error sending template email to {}: {}", to, e.getMessage());
-            logger.debug("Exception stacktrace: ", e); // Log stacktrace ở level DEBUG
+        Map<String, Object> variables = new HashMap<>();
+        for (String name : context.getVariableNames()) {
+            variables.put(name, context.getVariable(name));
         }
+        emailDeliveryService.enqueue(QueuedEmail.builder()
+                .recipients(new ArrayList<>(recipients))
+                .subject(subject)
+                .templateName(templateName)
+                .variables(variables)
+                .build());
+        logger.info("Template email '{}' queued for {} recipient(s)", subject, recipients.size());
     }
 }
@@ -0,0 +1,168 @@
+package vn.fpt.seima.seimaserver.service.impl;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import vn.fpt.seima.seimaserver.config.currency.CurrencyProperties;
+import vn.fpt.seima.seimaserver.dto.response.currency.CurrencyAmount;
+import vn.fpt.seima.seimaserver.entity.ExchangeRate;
+import vn.fpt.seima.seimaserver.entity.User;
+import vn.fpt.seima.seimaserver.repository.ExchangeRateRepository;
+import vn.fpt.seima.seimaserver.repository.UserRepository;
+import vn.fpt.seima.seimaserver.service.ExchangeRateService;
+import vn.fpt.seima.seimaserver.util.FxRateTable;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rates are loaded into an {@link FxRateTable} and swapped in whole on every refresh, so conversions
+ * never touch the database and never see a half-loaded table. If a refresh fails the previous table
+ * stays in use.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExchangeRateServiceImpl implements ExchangeRateService {
+    private final ExchangeRateRepository exchangeRateRepository;
+    private final UserRepository userRepository;
+    private final CurrencyProperties properties;
+
+    private volatile FxRateTable table;
+
+    // Currencies already reported as missing, so a report over many rows logs once
+    private final Set<String> missingCurrencies = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void load() {
+        table = FxRateTable.empty(properties.getBaseCurrency());
+        refreshRates();
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.currency.refresh-interval-ms:3600000}",
+            initialDelayString = "${app.currency.refresh-interval-ms:3600000}")
+    public void refreshRates() {
+        try {
+            List<FxRateTable.Rate> rates = new ArrayList<>();
+            LocalDate from = LocalDate.now().minusDays(properties.getHistory().toDays());
+            for (ExchangeRate rate : exchangeRateRepository.findByRateDateGreaterThanEqual(from)) {
+                rates.add(new FxRateTable.Rate(rate.getCurrencyCode(), rate.getRateDate(), rate.getRate()));
+            }
+            if (StringUtils.hasText(properties.getRatesFile())) {
+                rates.addAll(readRatesFile(Path.of(properties.getRatesFile())));
+            }
+            table = FxRateTable.of(properties.getBaseCurrency(), rates);
+            missingCurrencies.clear();
+            log.info("Loaded {} exchange rates for {} currencies", rates.size(), table.size());
+        } catch (Exception e) {
+            log.warn("Failed to refresh exchange rates, keeping the previous ones: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public String baseCurrencyOf(User user) {
+        return user != null && StringUtils.hasText(user.getBaseCurrencyCode())
+                ? user.getBaseCurrencyCode()
+                : properties.getBaseCurrency();
+    }
+
+    @Override
+    public String baseCurrencyOf(Integer userId) {
+        return userRepository.findBaseCurrencyCode(userId)
+                .filter(StringUtils::hasText)
+                .orElse(properties.getBaseCurrency());
+    }
+
+    @Override
+    public BigDecimal convert(BigDecimal amount, String from, String to, LocalDate day) {
+        BigDecimal converted = tryConvert(amount, from, to, day);
+        if (converted == null && amount != null) {
+            throw new IllegalArgumentException("No exchange rate from " + codeOrBase(from) + " to " + codeOrBase(to));
+        }
+        return converted;
+    }
+
+    @Override
+    public BigDecimal convertForReport(BigDecimal amount, String from, String to, LocalDate day,
+                                       Set<String> unconverted) {
+        BigDecimal converted = tryConvert(amount, from, to, day);
+        if (converted != null || amount == null) {
+            return converted;
+        }
+        String source = codeOrBase(from);
+        String target = codeOrBase(to);
+        unconverted.add(source);
+        if (missingCurrencies.add(source + "/" + target)) {
+            log.warn("No exchange rates between {} and {}, adding amounts unconverted", source, target);
+        }
+        return amount;
+    }
+
+    @Override
+    public BigDecimal total(Collection<CurrencyAmount> amounts, String to, Set<String> unconverted) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (CurrencyAmount amount : amounts) {
+            if (amount.getAmount() != null) {
+                total = total.add(convertForReport(amount.getAmount(), amount.getCurrencyCode(), to,
+                        amount.getDay(), unconverted));
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public boolean supports(String currencyCode) {
+        return table.supports(currencyCode);
+    }
+
+    @Override
+    public String ratesVersion() {
+        return table.version();
+    }
+
+    // Null when there is no rate between the two currencies
+    private BigDecimal tryConvert(BigDecimal amount, String from, String to, LocalDate day) {
+        if (amount == null || amount.signum() == 0) {
+            return amount;
+        }
+        String source = codeOrBase(from);
+        String target = codeOrBase(to);
+        if (source.equalsIgnoreCase(target)) {
+            return amount;
+        }
+        return table.convert(amount, source, target, day);
+    }
+
+    private String codeOrBase(String currencyCode) {
+        return StringUtils.hasText(currencyCode) ? currencyCode : properties.getBaseCurrency();
+    }
+
+    // currency_code,rate_date,rate; blank lines, # comments and a header line are skipped
+    private static List<FxRateTable.Rate> readRatesFile(Path file) throws IOException {
+        List<FxRateTable.Rate> rates = new ArrayList<>();
+        for (String line : Files.readAllLines(file)) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#") || trimmed.startsWith("currency_code")) {
+                continue;
+            }
+            String[] cells = trimmed.split(",");
+            if (cells.length != 3) {
+                throw new IllegalArgumentException("Malformed rates file line: " + line);
+            }
+            rates.add(new FxRateTable.Rate(cells[0].trim(), LocalDate.parse(cells[1].trim()), new BigDecimal(cells[2].trim())));
+        }
+        return rates;
+    }
+}
@@ -1,11 +1,17 @@
 package vn.fpt.seima.seimaserver.service.impl;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import vn.fpt.seima.seimaserver.config.datasource.PrimaryReads;
 import vn.fpt.seima.seimaserver.dto.response.budget.FinancialHealthResponse;
+import vn.fpt.seima.seimaserver.dto.response.currency.CurrencyAmount;
 import vn.fpt.seima.seimaserver.entity.*;
+import vn.fpt.seima.seimaserver.event.FinancialHealthChangedEvent;
 import vn.fpt.seima.seimaserver.repository.*;
 import vn.fpt.seima.seimaserver.service.*;
 import vn.fpt.seima.seimaserver.util.UserUtils;
@@ -16,7 +22,15 @@ import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * The score is kept as a materialised per-user record under {@code financial_health:<userId>}.
+ * Changes publish {@link FinancialHealthChangedEvent}; the user is marked dirty after commit and
+ * recomputed once no further change has arrived for the debounce window, so a burst of edits costs
+ * one recompute and reads are a single key lookup. The record is scored on the current month, so it
+ * expires when the month ends and the first read of the next month computes it afresh.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -29,56 +43,105 @@ public class FinancialHealthServiceImpl implements FinancialHealthService {
     private final RedisService redisService;
     private static final String TITLE = "Financial Health Notification";
     private static final String MESSAGE = "Your financial health is currently low. Consider reviewing your expenses.";
-    private final ObjectMapper objectMapper;
+    private static final String KEY_PREFIX = "financial_health:";
     private final BudgetPeriodRepository budgetPeriodRepository;
     private final WalletRepository walletRepository;
+    private final UserRepository userRepository;
+    private final ExchangeRateService exchangeRateService;
+    private final PrimaryReads primaryReads;
+
+    /**
+     * userId -> time of the last change, in epoch millis. This is per node: the change event is handled on
+     * the node that committed it, so that node also does the refresh. A node that stops before its debounce
+     * window ends drops those refreshes; the stored score then stays stale until the end of the month or
+     * the user's next change.
+     */
+    private final Map<Integer, Long> dirtyUsers = new ConcurrentHashMap<>();
+
+    @Value("${financial-health.debounce-ms:5000}")
+    private long debounceMillis;
 
     /**
      * @return FinancialHealthResponse
      */
     @Override
+    @Transactional(readOnly = true)
     public FinancialHealthResponse calculateScore() {
-        int finalScore = 0;
         User currentUser = UserUtils.getCurrentUser();
         if (currentUser == null) {
             throw new IllegalArgumentException("User must not be null");
         }
 
-        String redisKey = "financial_health:" + currentUser.getUserId();
-        Object cached = redisService.get(redisKey);
-
+        FinancialHealthResponse cached = redisService.getObject(KEY_PREFIX + currentUser.getUserId(), FinancialHealthResponse.class);
         if (cached != null) {
-            FinancialHealthResponse cachedResponse = objectMapper.convertValue(cached, FinancialHealthResponse.class);
-            log.info(" Get FinancialHealthResponse from Redis: {}", cachedResponse);
-            return cachedResponse;
+            return cached;
         }
+        // First score for this user: there is no level to compare with, so nothing to notify or write here
+        FinancialHealthResponse response = primaryReads.read(() -> computeScore(currentUser.getUserId()));
+        cacheScore(currentUser.getUserId(), response);
+        return response;
+    }
 
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFinancialHealthChanged(FinancialHealthChangedEvent event) {
+        if (event.getUserId() != null) {
+            dirtyUsers.put(event.getUserId(), System.currentTimeMillis());
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${financial-health.refresh-interval-ms:1000}")
+    public void refreshDirtyScores() {
+        long cutoff = System.currentTimeMillis() - debounceMillis;
+        for (Map.Entry<Integer, Long> entry : dirtyUsers.entrySet()) {
+            if (entry.getValue() > cutoff) {
+                continue;
+            }
+            // Only remove the timestamp we saw; a change arriving meanwhile keeps the user dirty
+            if (!dirtyUsers.remove(entry.getKey(), entry.getValue())) {
+                continue;
+            }
+            try {
+                refreshScore(entry.getKey());
+            } catch (Exception e) {
+                log.error("Failed to refresh financial health for user {}", entry.getKey(), e);
+            }
+        }
+    }
+
+    @Override
+    public FinancialHealthResponse refreshScore(Integer userId) {
+        FinancialHealthResponse response = primaryReads.read(() -> computeScore(userId));
+        saveAndNotifyIfChanged(userId, response);
+        return response;
+    }
+
+    private FinancialHealthResponse computeScore(Integer userId) {
+        int finalScore;
         LocalDate dateFrom = LocalDate.now().withDayOfMonth(1);
-        LocalDate dateFromPast = LocalDate.now()
-                .minusMonths(1)
-                .withDayOfMonth(1);
         LocalDate dateTo = LocalDate.now().withDayOfMonth(LocalDate.now().lengthOfMonth());
+        LocalDate prevMonthStart = dateFrom.minusMonths(1);
+        LocalDate prevMonthEnd = prevMonthStart.withDayOfMonth(prevMonthStart.lengthOfMonth());
 
-        boolean exists = transactionRepository.existsExpensesByUserAndDateRange(
-                currentUser.getUserId(),
-                dateFromPast.atStartOfDay(),
-                dateTo.atTime(23, 59, 59));
+        // Summed per currency and day by the database, then converted into the user's currency
+        String currency = exchangeRateService.baseCurrencyOf(userId);
+        Set<String> unconverted = new HashSet<>();
+        FinancialHealthResponse.IncomeExpenseSummary incomeExpense = sumIncomeAndExpense(userId, currency,
+                dateFrom.atStartOfDay(), dateTo.atTime(23, 59, 59), unconverted);
+        FinancialHealthResponse.IncomeExpenseSummary incomeExpensePrev = sumIncomeAndExpense(userId, currency,
+                prevMonthStart.atStartOfDay(), prevMonthEnd.atTime(23, 59, 59), unconverted);
 
-        if (!exists) {
-            finalScore = 100;
-        }
-        else{
+        BigDecimal totalIncome = incomeExpense.getIncome();
+        BigDecimal totalExpense = incomeExpense.getExpense();
+        BigDecimal prevIncome = incomeExpensePrev.getIncome();
+        BigDecimal prevExpense = incomeExpensePrev.getExpense();
 
-            FinancialHealthResponse.IncomeExpenseSummary incomeExpense =
-                    transactionRepository.findIncomeAndExpense(currentUser.getUserId(),
-                            dateFrom.atStartOfDay(),
-                            dateTo.atTime(23, 59, 59));
-
-            BigDecimal totalIncome = incomeExpense != null && incomeExpense.getIncome() != null
-                    ? incomeExpense.getIncome() : BigDecimal.ZERO;
-            BigDecimal totalExpense = incomeExpense != null && incomeExpense.getExpense() != null
-                    ? incomeExpense.getExpense() : BigDecimal.ZERO;
+        // Amounts are always positive, so non-zero sums mean there were transactions in the two months
+        boolean exists = totalIncome.add(totalExpense).add(prevIncome).add(prevExpense).signum() > 0;
 
+        if (!exists) {
+            finalScore = 100;
+        } else {
             int savingScore = 0;
             if (totalIncome.compareTo(BigDecimal.ZERO) > 0) {
                 BigDecimal savingRate = (totalIncome.subtract(totalExpense))
@@ -91,40 +154,23 @@ public class FinancialHealthServiceImpl implements FinancialHealthService {
                     savingScore = 0;
                 }
             }
-            log.info("savingScore : {}", savingScore);
-            List<Budget> budgets = budgetRepository.findByUserId(currentUser.getUserId());
-            int budgetScore = 0;
-
-            for (Budget budget : budgets) {
-                int count = budgetPeriodRepository.countNegativeRemaining(budget, BudgetPeriodStatus.ACTIVE, LocalDateTime.now());
-                if (count > 0) {
-                    budgetScore++;
-                }
-            }
+            log.debug("savingScore : {}", savingScore);
 
-            budgetScore = 30 - (int) (((double) budgetScore / budgets.size()) * 30);
+            long budgetCount = budgetRepository.countByUserId(userId);
+            long overspent = budgetPeriodRepository.countBudgetsWithNegativeRemaining(userId,
+                    BudgetPeriodStatus.ACTIVE, LocalDateTime.now());
+            int budgetScore = 30;
+            if (budgetCount > 0) {
+                budgetScore = 30 - (int) (((double) overspent / budgetCount) * 30);
+            }
             if (budgetScore > 30) {
                 budgetScore = 30;
             } else if (budgetScore < 0) {
                 budgetScore = 0;
             }
-            log.info("budgetScore : {}", budgetScore);
+            log.debug("budgetScore : {}", budgetScore);
 
             // 3. So sánh với tháng trước
-            LocalDate prevMonthStart = dateFrom.minusMonths(1);
-            LocalDate prevMonthEnd = prevMonthStart.withDayOfMonth(prevMonthStart.lengthOfMonth());
-
-
-            FinancialHealthResponse.IncomeExpenseSummary incomeExpensePrev =
-                    transactionRepository.findIncomeAndExpense(currentUser.getUserId(),
-                            prevMonthStart.atStartOfDay(),
-                            prevMonthEnd.atTime(23, 59, 59));
-
-            BigDecimal prevIncome = incomeExpensePrev != null && incomeExpensePrev.getIncome() != null
-                    ? incomeExpensePrev.getIncome() : BigDecimal.ZERO;
-            BigDecimal prevExpense = incomeExpensePrev != null && incomeExpensePrev.getExpense() != null
-                    ? incomeExpensePrev.getExpense() : BigDecimal.ZERO;
-
             BigDecimal actual = totalIncome.subtract(totalExpense);
             BigDecimal expected = prevIncome.subtract(prevExpense);
 
@@ -155,13 +201,10 @@ public class FinancialHealthServiceImpl implements FinancialHealthService {
             } else if (diffPercent.compareTo(BigDecimal.ZERO) > 0) {
                 assetScore = 10; // tăng < 50%
             }
-            log.info("assetScore : {}", assetScore);
+            log.debug("assetScore : {}", assetScore);
             finalScore = savingScore + budgetScore + assetScore;
-
         }
 
-        List<Integer> userIds = Collections.singletonList(currentUser.getUserId());
-        List<String> fcmTokens = userDeviceRepository.findFcmTokensByUserIds(userIds);
         String level;
         if (finalScore >= 75) {
             level = "Very Good";
@@ -172,63 +215,71 @@ public class FinancialHealthServiceImpl implements FinancialHealthService {
         } else {
             level = "Low";
         }
-        LocalDateTime updateAt = LocalDateTime.now();
-        BigDecimal balance = walletRepository.sumBalanceByUserId(currentUser.getUserId());
 
-//        saveToRedisAndNotifyIfChanged(currentUser, finalScore,balance ,level, fcmTokens, updateAt);
-        return  FinancialHealthResponse.builder()
+        return FinancialHealthResponse.builder()
                 .score(finalScore)
                 .level(level)
-                .updatedAt(updateAt)
-                .balance(balance)
+                .updatedAt(LocalDateTime.now())
+                .balance(exchangeRateService.total(walletRepository.sumBalanceByCurrency(userId), currency, unconverted))
+                .unconverted(!unconverted.isEmpty())
                 .build();
     }
-    private void saveToRedisAndNotifyIfChanged(User currentUser,
-                                               int finalScore,
-                                               BigDecimal balance,
-                                               String level,
-                                               List<String> fcmTokens,
-                                               LocalDateTime updateAt) {
-        String redisKey = "financial_health:" + currentUser.getUserId();
-        Object rawData = redisService.get(redisKey);
-
-        FinancialHealthResponse oldData = null;
-        if (rawData != null) {
-            oldData = objectMapper.convertValue(rawData, FinancialHealthResponse.class);
+
+    private FinancialHealthResponse.IncomeExpenseSummary sumIncomeAndExpense(Integer userId, String currency,
+                                                                             LocalDateTime start, LocalDateTime end,
+                                                                             Set<String> unconverted) {
+        List<CurrencyAmount> amounts = transactionRepository.sumIncomeAndExpenseByCurrency(userId, start, end);
+        return new FinancialHealthResponse.IncomeExpenseSummary(
+                exchangeRateService.total(ofType(amounts, TransactionType.INCOME), currency, unconverted),
+                exchangeRateService.total(ofType(amounts, TransactionType.EXPENSE), currency, unconverted));
+    }
+
+    private static List<CurrencyAmount> ofType(List<CurrencyAmount> amounts, TransactionType type) {
+        return amounts.stream().filter(amount -> amount.getTransactionType() == type).toList();
+    }
+
+    private void cacheScore(Integer userId, FinancialHealthResponse response) {
+        String redisKey = KEY_PREFIX + userId;
+        redisService.set(redisKey, response);
+        redisService.setTimeToLive(redisKey, secondsUntilNextMonth());
+    }
+
+    private static long secondsUntilNextMonth() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime nextMonth = now.toLocalDate().withDayOfMonth(1).plusMonths(1).atStartOfDay();
+        // setTimeToLive takes seconds
+        return Math.max(1, Duration.between(now, nextMonth).toSeconds());
+    }
+
+    private void saveAndNotifyIfChanged(Integer userId, FinancialHealthResponse response) {
+        FinancialHealthResponse oldData = redisService.getObject(KEY_PREFIX + userId, FinancialHealthResponse.class);
+        cacheScore(userId, response);
+
+        if (oldData == null || oldData.getLevel() == null || oldData.getLevel().equals(response.getLevel())) {
+            return;
         }
-        boolean levelChanged = false;
-        String prevLevel = null;
-        if (oldData != null ) {
-            prevLevel =  oldData.getLevel();
-            if (!prevLevel.equals(level)) {
-                levelChanged = true;
-            }
+        User user = userRepository.findById(userId).orElse(null);
+        if (user == null) {
+            return;
         }
+        log.info("Financial health level of user {} changed from {} to {}", userId, oldData.getLevel(), response.getLevel());
 
-        if (levelChanged) {
+        List<String> fcmTokens = userDeviceRepository.findFcmTokensByUserIds(Collections.singletonList(userId));
+        if (!fcmTokens.isEmpty()) {
             Map<String, String> data = Map.of(
                     "type", "financial_health_notification",
-                    "senderUserId", currentUser.getUserId().toString(),
-                    "senderName", currentUser.getUserFullName()
+                    "senderUserId", userId.toString(),
+                    "senderName", user.getUserFullName() != null ? user.getUserFullName() : ""
             );
-
             fcmService.sendMulticastNotification(fcmTokens, TITLE, MESSAGE, data);
-
-            Notification notification = new Notification();
-            notification.setMessage(MESSAGE);
-            notification.setReceiver(currentUser);
-            notification.setNotificationType(NotificationType.FINANCIAL_HEALTH_LOW);
-            notification.setTitle(TITLE);
-            notification.setSender(currentUser);
-            notificationRepository.save(notification);
         }
-        Map<String, String> redisData = new HashMap<>();
-        redisData.put("score", String.valueOf(finalScore));
-        redisData.put("level", level);
-        redisData.put("updatedAt", updateAt.toString());
-        redisData.put("balance", String.valueOf(balance));
-        redisService.set(redisKey, redisData);
-        redisService.setTimeToLive(redisKey, Duration.ofDays(3600*24).toDays());
-    }
 
+        Notification notification = new Notification();
+        notification.setMessage(MESSAGE);
+        notification.setReceiver(user);
+        notification.setNotificationType(NotificationType.FINANCIAL_HEALTH_LOW);
+        notification.setTitle(TITLE);
+        notification.setSender(user);
+        notificationRepository.save(notification);
+    }
 }
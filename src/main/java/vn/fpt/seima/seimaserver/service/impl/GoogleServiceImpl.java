@@ -2,10 +2,12 @@ package vn.fpt.seima.seimaserver.service.impl;
 
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
 import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import vn.fpt.seima.seimaserver.dto.response.user.UserInGoogleReponseDto;
 import vn.fpt.seima.seimaserver.dto.response.auth.GoogleLoginResponseDto;
 import vn.fpt.seima.seimaserver.entity.User;
+import vn.fpt.seima.seimaserver.event.UserProfileChangedEvent;
 import vn.fpt.seima.seimaserver.repository.UserRepository;
 import vn.fpt.seima.seimaserver.service.GoogleIdTokenVerifierService;
 import vn.fpt.seima.seimaserver.service.GoogleService;
@@ -24,6 +26,7 @@ public class GoogleServiceImpl implements GoogleService {
 
     private UserRepository userRepository;
 
+    private ApplicationEventPublisher applicationEventPublisher;
 
 
     @Override
@@ -88,6 +91,7 @@ public class GoogleServiceImpl implements GoogleService {
             }
             if (needsUpdate) {
                 userEntity = userRepository.save(userEntity);
+                applicationEventPublisher.publishEvent(new UserProfileChangedEvent(userEntity.getUserId()));
             }
         }
 
@@ -3,15 +3,18 @@ package vn.fpt.seima.seimaserver.service.impl;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 import org.thymeleaf.context.Context;
 import vn.fpt.seima.seimaserver.config.base.AppProperties;
+import vn.fpt.seima.seimaserver.dto.request.group.BulkEmailInvitationRequest;
 import vn.fpt.seima.seimaserver.dto.request.group.EmailInvitationRequest;
 import vn.fpt.seima.seimaserver.dto.request.group.InvitationTokenData;
 import vn.fpt.seima.seimaserver.dto.response.group.*;
 import vn.fpt.seima.seimaserver.entity.*;
+import vn.fpt.seima.seimaserver.event.GroupMembershipChangedEvent;
 import vn.fpt.seima.seimaserver.exception.GroupException;
 import vn.fpt.seima.seimaserver.repository.GroupMemberRepository;
 import vn.fpt.seima.seimaserver.repository.GroupRepository;
@@ -20,8 +23,14 @@ import vn.fpt.seima.seimaserver.service.*;
 import vn.fpt.seima.seimaserver.util.UserUtils;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Implementation of GroupInvitationService
@@ -32,6 +41,9 @@ import java.util.Optional;
 public class GroupInvitationServiceImpl implements GroupInvitationService {
 
     private static final Logger logger = LoggerFactory.getLogger(GroupInvitationServiceImpl.class);
+    private static final int MAX_BULK_INVITATIONS = 50;
+    // Deep links shown on the landing page of a pending invitation
+    private static final List<String> INVITATION_LINK_ACTIONS = List.of("VIEW_GROUP", "RECHECK_PENDING_STATUS");
 
     private final GroupRepository groupRepository;
     private final GroupMemberRepository groupMemberRepository;
@@ -43,6 +55,8 @@ public class GroupInvitationServiceImpl implements GroupInvitationService {
     private final AppProperties appProperties;
     private final InvitationTokenService invitationTokenService;
     private final NotificationService notificationService;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final GroupMembershipCacheService groupMembershipCacheService;
 
 
 
@@ -56,6 +70,7 @@ public class GroupInvitationServiceImpl implements GroupInvitationService {
         groupMember.setJoinDate(LocalDateTime.now());
 
         GroupMember savedMember = groupMemberRepository.save(groupMember);
+        applicationEventPublisher.publishEvent(new GroupMembershipChangedEvent(group.getGroupId()));
         logger.info("Created invitation record with INVITED status for user {} in group {}",
                 user.getUserId(), group.getGroupId());
 
@@ -68,15 +83,7 @@ public class GroupInvitationServiceImpl implements GroupInvitationService {
      */
     private String createInvitationToken(Group group, User inviter, User invitedUser) {
         try {
-            InvitationTokenData tokenData = InvitationTokenData.builder()
-                    .groupId(group.getGroupId())
-                    .inviterId(inviter.getUserId())
-                    .invitedUserId(invitedUser.getUserId())
-                    .invitedUserEmail(invitedUser.getUserEmail())
-                    .status("INVITED")
-                    .groupName(group.getGroupName())
-                    .inviterName(inviter.getUserFullName())
-                    .build();
+            InvitationTokenData tokenData = buildInvitationTokenData(group, inviter, invitedUser);
 
             String token = invitationTokenService.createInvitationToken(tokenData);
             logger.info("Successfully created invitation token for user {} to join group {}",
@@ -94,6 +101,18 @@ public class GroupInvitationServiceImpl implements GroupInvitationService {
     }
     
 
+    private InvitationTokenData buildInvitationTokenData(Group group, User inviter, User invitedUser) {
+        return InvitationTokenData.builder()
+                .groupId(group.getGroupId())
+                .inviterId(inviter.getUserId())
+                .invitedUserId(invitedUser.getUserId())
+                .invitedUserEmail(invitedUser.getUserEmail())
+                .status("INVITED")
+                .groupName(group.getGroupName())
+                .inviterName(inviter.getUserFullName())
+                .build();
+    }
+
     private String buildInviteLinkWithToken(String invitationToken) {
         if (invitationToken == null) {
             return null;
@@ -155,6 +174,10 @@ public class GroupInvitationServiceImpl implements GroupInvitationService {
         logger.info("Created invitation token in Redis for user {} to join group {}",
                 targetUser.getUserId(), group.getGroupId());
         
+        if (invitationToken != null) {
+            pregenerateInvitationDeepLinks(group, currentUser, List.of(targetUser.getUserId()));
+        }
+
         // Send email invitation
         boolean emailSent = sendInvitationEmail(request, group, currentUser, targetUser, invitationToken);
         
@@ -177,6 +200,146 @@ public class GroupInvitationServiceImpl implements GroupInvitationService {
         return response;
     }
     
+    @Override
+    @Transactional
+    public BulkEmailInvitationResponse sendBulkEmailInvitation(BulkEmailInvitationRequest request) {
+        if (request == null || request.getGroupId() == null) {
+            throw new GroupException("Group ID is required");
+        }
+        if (request.getEmails() == null || request.getEmails().isEmpty()) {
+            throw new GroupException("At least one email is required");
+        }
+
+        // Normalize and drop duplicates, keeping the request order
+        Set<String> emails = new LinkedHashSet<>();
+        for (String email : request.getEmails()) {
+            if (StringUtils.hasText(email)) {
+                emails.add(email.trim().toLowerCase());
+            }
+        }
+        if (emails.size() > MAX_BULK_INVITATIONS) {
+            throw new GroupException(String.format("Cannot invite more than %d emails at once", MAX_BULK_INVITATIONS));
+        }
+
+        logger.info("Processing bulk email invitation for group: {} to {} emails", request.getGroupId(), emails.size());
+
+        User currentUser = UserUtils.getCurrentUser();
+
+        // Group, permissions and capacity are checked once for the whole batch
+        Group group = validateGroupAndInviterPermissions(request.getGroupId(), currentUser);
+        groupValidationService.validateGroupCanAcceptMoreMembers(group.getGroupId());
+
+        Map<String, User> usersByEmail = userRepository.findByUserEmailInAndUserIsActiveTrue(emails).stream()
+                .collect(Collectors.toMap(user -> user.getUserEmail().toLowerCase(), Function.identity(), (a, b) -> a));
+
+        List<EmailInvitationResponse> results = new ArrayList<>();
+        List<User> invitedUsers = new ArrayList<>();
+        for (String email : emails) {
+            EmailInvitationResponse.EmailInvitationResponseBuilder result = EmailInvitationResponse.builder()
+                    .groupId(group.getGroupId())
+                    .groupName(group.getGroupName())
+                    .invitedEmail(email)
+                    .emailSent(false);
+
+            if (!email.matches("^[A-Za-z0-9+_.-]+@([A-Za-z0-9.-]+\\.[A-Za-z]{2,})$")) {
+                results.add(result.userExists(false).message("Invalid email format").build());
+                continue;
+            }
+            User targetUser = usersByEmail.get(email);
+            if (targetUser == null) {
+                results.add(result.userExists(false)
+                        .message("User account does not exist. User needs to register an account before joining the group.")
+                        .build());
+                continue;
+            }
+            try {
+                validateTargetUserMembership(targetUser.getUserId(), group.getGroupId());
+                groupValidationService.validateUserCanJoinMoreGroups(targetUser.getUserId());
+            } catch (GroupException e) {
+                results.add(result.userExists(true).message(e.getMessage()).build());
+                continue;
+            }
+            invitedUsers.add(targetUser);
+            results.add(result.userExists(true).build());
+        }
+
+        if (!invitedUsers.isEmpty()) {
+            createInvitedGroupMemberships(group, invitedUsers);
+            List<String> tokens = createInvitationTokens(group, currentUser, invitedUsers);
+            pregenerateInvitationDeepLinks(group, currentUser,
+                    invitedUsers.stream().map(User::getUserId).collect(Collectors.toList()));
+
+            Long memberCount = groupMemberRepository.countActiveGroupMembers(group.getGroupId(), GroupMemberStatus.ACTIVE);
+            Map<String, EmailInvitationResponse> resultsByEmail = results.stream()
+                    .collect(Collectors.toMap(EmailInvitationResponse::getInvitedEmail, Function.identity()));
+            for (int i = 0; i < invitedUsers.size(); i++) {
+                User targetUser = invitedUsers.get(i);
+                String invitationToken = tokens.get(i);
+                boolean emailSent = sendInvitationEmail(group, currentUser, targetUser, invitationToken, memberCount);
+
+                EmailInvitationResponse result = resultsByEmail.get(targetUser.getUserEmail().toLowerCase());
+                result.setInviteLink(buildInviteLinkWithToken(invitationToken));
+                result.setEmailSent(emailSent);
+                result.setMessage(buildInvitationResponseMessage(emailSent, invitationToken));
+            }
+        }
+
+        logger.info("Bulk email invitation processed for group: {} - {} of {} emails invited",
+                group.getGroupId(), invitedUsers.size(), emails.size());
+
+        return BulkEmailInvitationResponse.builder()
+                .groupId(group.getGroupId())
+                .groupName(group.getGroupName())
+                .invitedCount(invitedUsers.size())
+                .results(results)
+                .build();
+    }
+
+    /**
+     * Create INVITED memberships for a batch of users with one saveAll and one change event
+     */
+    private void createInvitedGroupMemberships(Group group, List<User> users) {
+        LocalDateTime now = LocalDateTime.now();
+        List<GroupMember> members = new ArrayList<>(users.size());
+        for (User user : users) {
+            GroupMember groupMember = new GroupMember();
+            groupMember.setGroup(group);
+            groupMember.setUser(user);
+            groupMember.setRole(GroupMemberRole.MEMBER);
+            groupMember.setStatus(GroupMemberStatus.INVITED);
+            groupMember.setJoinDate(now);
+            members.add(groupMember);
+        }
+
+        groupMemberRepository.saveAll(members);
+        applicationEventPublisher.publishEvent(new GroupMembershipChangedEvent(group.getGroupId()));
+        logger.info("Created {} invitation records with INVITED status in group {}", members.size(), group.getGroupId());
+    }
+
+    /**
+     * Create invitation tokens for a batch of users in one Redis round trip.
+     * Unlike single invitations the batch fails as a whole, so no member is left without a link.
+     */
+    private List<String> createInvitationTokens(Group group, User inviter, List<User> invitedUsers) {
+        List<InvitationTokenData> tokenData = new ArrayList<>(invitedUsers.size());
+        for (User invitedUser : invitedUsers) {
+            tokenData.add(buildInvitationTokenData(group, inviter, invitedUser));
+        }
+        return invitationTokenService.createInvitationTokens(tokenData);
+    }
+
+    /**
+     * Have the landing page deep links created in the background, so opening the invite does not wait on Branch
+     */
+    private void pregenerateInvitationDeepLinks(Group group, User inviter, List<Integer> invitedUserIds) {
+        try {
+            branchLinkService.pregenerateInvitationDeepLinks(
+                    group.getGroupId(), inviter.getUserId(), invitedUserIds, INVITATION_LINK_ACTIONS);
+        } catch (Exception e) {
+            logger.warn("Failed to schedule deep link creation for group {}", group.getGroupId(), e);
+        }
+    }
+
     /**
      * Validate email invitation request
      */
@@ -214,11 +377,10 @@ public class GroupInvitationServiceImpl implements GroupInvitationService {
         }
         
         // Check current user's membership and role
-        Optional<GroupMember> currentUserMembership = groupMemberRepository.findMostRecentMembershipByUserIdAndGroupId(
-                currentUser.getUserId(), groupId);
+        Optional<GroupMembershipSnapshot> currentUserMembership = groupMembershipCacheService.getMembership(
+                groupId, currentUser.getUserId());
         
-        if (currentUserMembership.isEmpty() || 
-            currentUserMembership.get().getStatus() != GroupMemberStatus.ACTIVE) {
+        if (currentUserMembership.isEmpty() || !currentUserMembership.get().isActive()) {
             throw new GroupException("You are not an active member of this group");
         }
         
@@ -236,18 +398,16 @@ public class GroupInvitationServiceImpl implements GroupInvitationService {
      * Validate target user is not already a member
      */
     private void validateTargetUserMembership(Integer targetUserId, Integer groupId) {
-        // Check if user is already an active member
-        if (groupMemberRepository.existsByUserAndGroupAndStatus(targetUserId, groupId, GroupMemberStatus.ACTIVE)) {
-            throw new GroupException("User is already a member of this group");
-        }
-        
         // Check if user was previously a member and handle gracefully
-        // Use the method that returns the most recent membership to handle multiple records
-        Optional<GroupMember> mostRecentMembership = groupMemberRepository.findMostRecentMembershipByUserIdAndGroupId(targetUserId, groupId);
+        // The cache holds the most recent membership, which handles multiple records
+        Optional<GroupMembershipSnapshot> mostRecentMembership = groupMembershipCacheService.getMembership(groupId, targetUserId);
 
         if (mostRecentMembership.isPresent()) {
             GroupMemberStatus status = mostRecentMembership.get().getStatus();
 
+            if (status == GroupMemberStatus.ACTIVE) {
+                throw new GroupException("User is already a member of this group");
+            }
             if (status == GroupMemberStatus.PENDING_APPROVAL) {
                 throw new GroupException("User already has a pending invitation to this group");
             }
@@ -267,6 +427,17 @@ public class GroupInvitationServiceImpl implements GroupInvitationService {
             Long memberCount = groupMemberRepository.countActiveGroupMembers(
                     group.getGroupId(), GroupMemberStatus.ACTIVE);
 
+            return sendInvitationEmail(group, inviter, targetUser, invitationToken, memberCount);
+
+        } catch (Exception e) {
+            logger.error("Failed to send invitation email to: {} for group: {}",
+                    targetUser.getUserEmail(), group.getGroupId(), e);
+            return false;
+        }
+    }
+
+    private boolean sendInvitationEmail(Group group, User inviter, User targetUser, String invitationToken, Long memberCount) {
+        try {
             // Build invite link using invitation token instead of invite code
             String inviteLink = buildInviteLinkWithToken(invitationToken);
             
@@ -415,6 +586,7 @@ public class GroupInvitationServiceImpl implements GroupInvitationService {
             // Update status from INVITED to PENDING_APPROVAL
             invitation.setStatus(GroupMemberStatus.PENDING_APPROVAL);
             groupMemberRepository.save(invitation);
+            applicationEventPublisher.publishEvent(new GroupMembershipChangedEvent(invitation.getGroup().getGroupId()));
 
             // Update token status in Redis
             boolean tokenUpdated = invitationTokenService.updateInvitationTokenStatus(invitationToken, "PENDING_APPROVAL");
@@ -527,8 +699,8 @@ public class GroupInvitationServiceImpl implements GroupInvitationService {
             }
             
             // Check if user is an active member of the group
-            Optional<GroupMember> groupMemberOpt = groupMemberRepository.findByUserAndGroupAndStatus(
-                    userId.intValue(), groupId.intValue(), GroupMemberStatus.ACTIVE);
+            Optional<GroupMembershipSnapshot> groupMemberOpt = groupMembershipCacheService.getMembership(
+                    groupId.intValue(), userId.intValue()).filter(GroupMembershipSnapshot::isActive);
             
             if (groupMemberOpt.isEmpty()) {
                 logger.warn("User {} is not an active member of group {}", userId, groupId);
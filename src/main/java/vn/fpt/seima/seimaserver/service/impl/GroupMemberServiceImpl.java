@@ -3,6 +3,7 @@ package vn.fpt.seima.seimaserver.service.impl;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.thymeleaf.context.Context;
@@ -13,6 +14,7 @@ import vn.fpt.seima.seimaserver.dto.request.group.TransferOwnershipRequest;
 import vn.fpt.seima.seimaserver.dto.request.group.UpdateMemberRoleRequest;
 import vn.fpt.seima.seimaserver.dto.response.group.*;
 import vn.fpt.seima.seimaserver.entity.*;
+import vn.fpt.seima.seimaserver.event.GroupMembershipChangedEvent;
 import vn.fpt.seima.seimaserver.exception.GroupException;
 import vn.fpt.seima.seimaserver.repository.GroupMemberRepository;
 import vn.fpt.seima.seimaserver.repository.GroupRepository;
@@ -44,6 +46,10 @@ public class GroupMemberServiceImpl implements GroupMemberService {
     private  EmailService emailService;
     @Autowired
     private  AppProperties appProperties;
+    @Autowired
+    private  ApplicationEventPublisher applicationEventPublisher;
+    @Autowired
+    private  GroupMembershipCacheService groupMembershipCacheService;
 
     @Value("${app.client.baseUrl}")
     private String appBaseUrl;
@@ -95,8 +101,7 @@ public class GroupMemberServiceImpl implements GroupMemberService {
         }
 
         // Check if current user is an active member
-        if (!groupMemberRepository.existsByUserAndGroupAndStatus(
-                currentUser.getUserId(), groupId, GroupMemberStatus.ACTIVE)) {
+        if (getActiveRole(groupId, currentUser.getUserId()) == null) {
             throw new GroupException("You don't have permission to view this group's members");
         }
 
@@ -169,12 +174,13 @@ public class GroupMemberServiceImpl implements GroupMemberService {
         }
 
         // Get current user's membership and role
-        GroupMember currentMember = groupMemberRepository.findByUserAndGroupAndStatus(
-                        currentUser.getUserId(), groupId, GroupMemberStatus.ACTIVE)
-                .orElseThrow(() -> new GroupException("You are not a member of this group"));
+        GroupMemberRole currentUserRole = getActiveRole(groupId, currentUser.getUserId());
+        if (currentUserRole == null) {
+            throw new GroupException("You are not a member of this group");
+        }
 
         // Check if current user has permission to view pending requests (only OWNER and ADMIN)
-        if (!groupPermissionService.canViewPendingRequests(currentMember.getRole())) {
+        if (!groupPermissionService.canViewPendingRequests(currentUserRole)) {
             throw new GroupException("You don't have permission to view pending member requests. Only admins and owners can view pending requests.");
         }
 
@@ -220,12 +226,13 @@ public class GroupMemberServiceImpl implements GroupMemberService {
         }
 
         // Get current user's membership and validate permission
-        GroupMember currentMember = groupMemberRepository.findByUserAndGroupAndStatus(
-                        currentUser.getUserId(), groupId, GroupMemberStatus.ACTIVE)
-                .orElseThrow(() -> new GroupException("You are not a member of this group"));
+        GroupMemberRole currentUserRole = getActiveRole(groupId, currentUser.getUserId());
+        if (currentUserRole == null) {
+            throw new GroupException("You are not a member of this group");
+        }
 
         // Check permission
-        if (!groupPermissionService.canAcceptGroupMemberRequests(currentMember.getRole())) {
+        if (!groupPermissionService.canAcceptGroupMemberRequests(currentUserRole)) {
             throw new GroupException("You don't have permission to accept member requests. Only admins and owners can accept requests.");
         }
 
@@ -246,6 +253,7 @@ public class GroupMemberServiceImpl implements GroupMemberService {
         pendingMember.setStatus(GroupMemberStatus.ACTIVE);
         pendingMember.setRole(GroupMemberRole.MEMBER); // Ensure role is set to MEMBER
         groupMemberRepository.save(pendingMember);
+        applicationEventPublisher.publishEvent(new GroupMembershipChangedEvent(groupId));
 
         // Remove invitation token from Redis after successful acceptance
         try {
@@ -292,12 +300,13 @@ public class GroupMemberServiceImpl implements GroupMemberService {
         }
 
         // Get current user's membership and validate permission
-        GroupMember currentMember = groupMemberRepository.findByUserAndGroupAndStatus(
-                        currentUser.getUserId(), groupId, GroupMemberStatus.ACTIVE)
-                .orElseThrow(() -> new GroupException("You are not a member of this group"));
+        GroupMemberRole currentUserRole = getActiveRole(groupId, currentUser.getUserId());
+        if (currentUserRole == null) {
+            throw new GroupException("You are not a member of this group");
+        }
 
         // Check permission
-        if (!groupPermissionService.canRejectGroupMemberRequests(currentMember.getRole())) {
+        if (!groupPermissionService.canRejectGroupMemberRequests(currentUserRole)) {
             throw new GroupException("You don't have permission to reject member requests. Only admins and owners can reject requests.");
         }
 
@@ -312,6 +321,7 @@ public class GroupMemberServiceImpl implements GroupMemberService {
         // Reject the request: change status to REJECTED
         pendingMember.setStatus(GroupMemberStatus.REJECTED);
         groupMemberRepository.save(pendingMember);
+        applicationEventPublisher.publishEvent(new GroupMembershipChangedEvent(groupId));
 
         // Remove invitation token from Redis after successful rejection
         try {
@@ -405,6 +415,16 @@ public class GroupMemberServiceImpl implements GroupMemberService {
         return currentUser;
     }
 
+    /**
+     * Role of the user's membership if it is currently active, otherwise null
+     */
+    private GroupMemberRole getActiveRole(Integer groupId, Integer userId) {
+        return groupMembershipCacheService.getMembership(groupId, userId)
+                .filter(GroupMembershipSnapshot::isActive)
+                .map(GroupMembershipSnapshot::getRole)
+                .orElse(null);
+    }
+
 
     @Override
     @Transactional
@@ -429,6 +449,7 @@ public class GroupMemberServiceImpl implements GroupMemberService {
         // Remove the member by setting status to LEFT
         memberToRemove.setStatus(GroupMemberStatus.LEFT);
         groupMemberRepository.save(memberToRemove);
+        applicationEventPublisher.publishEvent(new GroupMembershipChangedEvent(groupId));
 
         // Gửi email cho user bị xóa
         try {
@@ -493,17 +514,15 @@ public class GroupMemberServiceImpl implements GroupMemberService {
         context.setVariable("groupAvatarUrl", group.getGroupAvatarUrl());
         context.setVariable("appName", appProperties.getLabName());
         String subject = String.format("Member removed from '%s' group on %s", group.getGroupName(), appProperties.getLabName());
-        for (GroupMember member : groupMembers) {
-            try {
-                emailService.sendEmailWithHtmlTemplate(
-                    member.getUser().getUserEmail(),
-                    subject,
-                    "group-member-removed-notification",
-                    context
-                );
-            } catch (Exception e) {
-                log.error("Failed to send member removed notification email to: {} for group: {}", member.getUser().getUserEmail(), group.getGroupId(), e);
-            }
+        try {
+            emailService.sendBulkEmailWithHtmlTemplate(
+                groupMembers.stream().map(member -> member.getUser().getUserEmail()).toList(),
+                subject,
+                "group-member-removed-notification",
+                context
+            );
+        } catch (Exception e) {
+            log.error("Failed to send member removed notification emails for group: {}", group.getGroupId(), e);
         }
     }
 
@@ -516,13 +535,14 @@ public class GroupMemberServiceImpl implements GroupMemberService {
         // Validate input parameters
         validateUpdateRoleInput(groupId, memberUserId, request);
 
-        Integer currentUserId = getCurrentUser().getUserId();
+        User currentUser = getCurrentUser();
+        Integer currentUserId = currentUser.getUserId();
 
         // Validate group
         Group group = validateGroupForRoleUpdate(groupId);
 
         // Validate owner permission
-        GroupMember currentUserMember = validateOwnerPermission(currentUserId, group);
+        validateOwnerPermission(currentUserId, group);
 
         // Find target member
         GroupMember targetMember = findActiveMemberForRoleUpdate(memberUserId, group);
@@ -536,10 +556,11 @@ public class GroupMemberServiceImpl implements GroupMemberService {
         // Update role
         targetMember.setRole(request.getNewRole());
         groupMemberRepository.save(targetMember);
+        applicationEventPublisher.publishEvent(new GroupMembershipChangedEvent(groupId));
 
         // Send role update email to the updated member
         try {
-            sendRoleUpdateEmail(targetMember.getUser(), group, currentUserMember.getUser(), previousRole, request.getNewRole());
+            sendRoleUpdateEmail(targetMember.getUser(), group, currentUser, previousRole, request.getNewRole());
         } catch (Exception e) {
             log.error("Failed to send role update email to user {} for group {}", 
                     memberUserId, groupId, e);
@@ -552,7 +573,7 @@ public class GroupMemberServiceImpl implements GroupMemberService {
                 groupId,
                 memberUserId,
                 group.getGroupName(),
-                currentUserMember.getUser().getUserFullName(),
+                currentUser.getUserFullName(),
                 previousRole,
                 request.getNewRole()
             );
@@ -568,7 +589,7 @@ public class GroupMemberServiceImpl implements GroupMemberService {
                 groupId,
                 memberUserId,
                 targetMember.getUser().getUserFullName(),
-                currentUserMember.getUser().getUserFullName(),
+                currentUser.getUserFullName(),
                 previousRole,
                 request.getNewRole()
             );
@@ -580,7 +601,7 @@ public class GroupMemberServiceImpl implements GroupMemberService {
 
         // Send role update email to all group members
         try {
-            sendRoleUpdateEmailToGroup(group, targetMember.getUser(), currentUserMember.getUser(), previousRole, request.getNewRole());
+            sendRoleUpdateEmailToGroup(group, targetMember.getUser(), currentUser, previousRole, request.getNewRole());
         } catch (Exception e) {
             log.error("Failed to send role update email to group {} for user {}", 
                     groupId, memberUserId, e);
@@ -629,22 +650,15 @@ public class GroupMemberServiceImpl implements GroupMemberService {
     /**
      * Validate current user is owner of the group
      */
-    private GroupMember validateOwnerPermission(Integer currentUserId, Group group) {
-        Optional<GroupMember> currentUserMembership = groupMemberRepository.findMostRecentMembershipByUserIdAndGroupId(
-                currentUserId, group.getGroupId());
-
-        if (currentUserMembership.isEmpty() || 
-            currentUserMembership.get().getStatus() != GroupMemberStatus.ACTIVE) {
+    private void validateOwnerPermission(Integer currentUserId, Group group) {
+        GroupMemberRole currentUserRole = getActiveRole(group.getGroupId(), currentUserId);
+        if (currentUserRole == null) {
             throw new GroupException("You are not an active member of this group");
         }
 
-        GroupMember currentUserMember = currentUserMembership.get();
-        GroupMemberRole currentUserRole = currentUserMember.getRole();
         if (currentUserRole != GroupMemberRole.OWNER && currentUserRole != GroupMemberRole.ADMIN) {
             throw new GroupException("Only group owner can update member roles");
         }
-
-        return currentUserMember;
     }
 
     /**
@@ -724,13 +738,9 @@ public class GroupMemberServiceImpl implements GroupMemberService {
         }
 
         // Check if current user is admin or owner of the group
-        Optional<GroupMember> currentUserMembership = groupMemberRepository.findMostRecentMembershipByUserIdAndGroupId(
-                currentUser.getUserId(), groupId);
+        GroupMemberRole currentUserRole = getActiveRole(groupId, currentUser.getUserId());
         
-        if (currentUserMembership.isEmpty() || 
-            currentUserMembership.get().getStatus() != GroupMemberStatus.ACTIVE ||
-            (currentUserMembership.get().getRole() != GroupMemberRole.ADMIN && 
-             currentUserMembership.get().getRole() != GroupMemberRole.OWNER)) {
+        if (currentUserRole != GroupMemberRole.ADMIN && currentUserRole != GroupMemberRole.OWNER) {
             throw new GroupException("Only group administrators and owners can remove members");
         }
 
@@ -778,9 +788,8 @@ public class GroupMemberServiceImpl implements GroupMemberService {
         GroupMemberRole memberRole = memberToRemove.getRole();
         
         // Get current user's role
-        GroupMemberRole currentUserRole = groupMemberRepository.findMostRecentMembershipByUserIdAndGroupId(
-                currentUser.getUserId(), groupId)
-                .map(GroupMember::getRole)
+        GroupMemberRole currentUserRole = groupMembershipCacheService.getMembership(groupId, currentUser.getUserId())
+                .map(GroupMembershipSnapshot::getRole)
                 .orElseThrow(() -> new GroupException("Current user membership not found"));
 
         log.info("Permission check: {} (role: {}) attempting to remove {} (role: {})", 
@@ -845,6 +854,7 @@ public class GroupMemberServiceImpl implements GroupMemberService {
         // For ADMIN and MEMBER, proceed with normal exit
         currentMember.setStatus(GroupMemberStatus.LEFT);
         groupMemberRepository.save(currentMember);
+        applicationEventPublisher.publishEvent(new GroupMembershipChangedEvent(groupId));
 
         log.info("User {} successfully exited group {}", currentUser.getUserId(), groupId);
     }
@@ -862,7 +872,10 @@ public class GroupMemberServiceImpl implements GroupMemberService {
 
         // Validate group and current user's ownership
         Group group = validateGroupForOwnershipTransfer(groupId);
-        GroupMember currentOwner = validateCurrentUserIsOwner(currentUser.getUserId(), groupId);
+        validateCurrentUserIsOwner(currentUser.getUserId(), groupId);
+        GroupMember currentOwner = groupMemberRepository.findMostRecentMembershipByUserIdAndGroupId(
+                        currentUser.getUserId(), groupId)
+                .orElseThrow(() -> new GroupException("You are not a member of this group"));
 
         // Find and validate new owner
         GroupMember newOwner = validateNewOwnerEligibility(request.getNewOwnerUserId(), groupId);
@@ -874,6 +887,7 @@ public class GroupMemberServiceImpl implements GroupMemberService {
         // Save changes
         groupMemberRepository.save(currentOwner);
         groupMemberRepository.save(newOwner);
+        applicationEventPublisher.publishEvent(new GroupMembershipChangedEvent(groupId));
 
         log.info("Successfully transferred ownership of group {} from user {} to user {}", 
                 groupId, currentUser.getUserId(), request.getNewOwnerUserId());
@@ -996,24 +1010,20 @@ public class GroupMemberServiceImpl implements GroupMemberService {
         return group;
     }
 
-    private GroupMember validateCurrentUserIsOwner(Integer userId, Integer groupId) {
-        Optional<GroupMember> memberOptional = groupMemberRepository.findMostRecentMembershipByUserIdAndGroupId(userId, groupId);
+    private void validateCurrentUserIsOwner(Integer userId, Integer groupId) {
+        Optional<GroupMembershipSnapshot> membership = groupMembershipCacheService.getMembership(groupId, userId);
 
-        if (memberOptional.isEmpty()) {
+        if (membership.isEmpty()) {
             throw new GroupException("You are not a member of this group");
         }
 
-        GroupMember member = memberOptional.get();
-
-        if (member.getStatus() != GroupMemberStatus.ACTIVE) {
+        if (!membership.get().isActive()) {
             throw new GroupException("You are not currently active in this group");
         }
 
-        if (member.getRole() != GroupMemberRole.OWNER) {
+        if (membership.get().getRole() != GroupMemberRole.OWNER) {
             throw new GroupException("Only group owner can transfer ownership");
         }
-
-        return member;
     }
 
     private GroupMember validateNewOwnerEligibility(Integer newOwnerUserId, Integer groupId) {
@@ -1251,23 +1261,14 @@ public class GroupMemberServiceImpl implements GroupMemberService {
             String subject = String.format("Group member role update in '%s' group on %s", 
                     group.getGroupName(), appProperties.getLabName());
             
-            for (GroupMember member : groupMembers) {
-                try {
-                    emailService.sendEmailWithHtmlTemplate(
-                            member.getUser().getUserEmail(),
-                            subject,
-                            groupRoleUpdateNotificationHtmlTemplate,
-                            context
-                    );
-                    log.debug("Role update notification email sent successfully to: {}", member.getUser().getUserEmail());
-                } catch (Exception e) {
-                    log.error("Failed to send role update notification email to: {} for group: {}", 
-                            member.getUser().getUserEmail(), group.getGroupId(), e);
-                    // Continue with other members even if one fails
-                }
-            }
+            emailService.sendBulkEmailWithHtmlTemplate(
+                    groupMembers.stream().map(member -> member.getUser().getUserEmail()).toList(),
+                    subject,
+                    groupRoleUpdateNotificationHtmlTemplate,
+                    context
+            );
 
-            log.info("Role update email sent to {} members in group: {}", groupMembers.size(), group.getGroupId());
+            log.info("Role update email queued for {} members in group: {}", groupMembers.size(), group.getGroupId());
             
         } catch (Exception e) {
             log.error("Failed to send role update email to group: {} for user: {}", 
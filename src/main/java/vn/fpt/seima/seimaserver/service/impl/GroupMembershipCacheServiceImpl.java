@@ -0,0 +1,124 @@
+package vn.fpt.seima.seimaserver.service.impl;
+
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import vn.fpt.seima.seimaserver.config.datasource.PrimaryReads;
+import vn.fpt.seima.seimaserver.dto.response.group.GroupMembershipSnapshot;
+import vn.fpt.seima.seimaserver.event.GroupMembershipChangedEvent;
+import vn.fpt.seima.seimaserver.repository.GroupMemberRepository;
+import vn.fpt.seima.seimaserver.service.GroupMembershipCacheService;
+import vn.fpt.seima.seimaserver.service.RedisService;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Memberships are loaded a whole group at a time (groups are small) and kept in memory. Every membership
+ * mutation publishes {@link GroupMembershipChangedEvent}; after commit the group is evicted here and the
+ * group id is broadcast on a Redis channel so the other instances evict it too. The TTL only bounds how
+ * long a lost broadcast can leave an instance stale.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GroupMembershipCacheServiceImpl implements GroupMembershipCacheService, MessageListener {
+    static final String EVICTION_CHANNEL = "group:membership:evict";
+
+    private final GroupMemberRepository groupMemberRepository;
+    private final RedisService redisService;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+    private final PrimaryReads primaryReads;
+
+    private final Map<Integer, CachedGroup> groups = new ConcurrentHashMap<>();
+
+    /**
+     * Bumped on every eviction; a load that raced with one is returned but not cached.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    @Value("${group.membership-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @PostConstruct
+    void subscribe() {
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(EVICTION_CHANNEL));
+    }
+
+    @Override
+    public Optional<GroupMembershipSnapshot> getMembership(Integer groupId, Integer userId) {
+        if (groupId == null || userId == null) {
+            return Optional.empty();
+        }
+        CachedGroup cached = groups.get(groupId);
+        if (cached == null || cached.expiresAt < System.currentTimeMillis()) {
+            cached = load(groupId);
+        }
+        return Optional.ofNullable(cached.members.get(userId));
+    }
+
+    @Override
+    public void evictGroup(Integer groupId) {
+        if (groupId == null) {
+            return;
+        }
+        evictLocally(groupId);
+        try {
+            redisService.publish(EVICTION_CHANNEL, groupId);
+        } catch (Exception e) {
+            log.error("Failed to broadcast membership cache eviction for group {}", groupId, e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGroupMembershipChanged(GroupMembershipChangedEvent event) {
+        evictGroup(event.getGroupId());
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8).replace("\"", "").trim();
+        try {
+            evictLocally(Integer.valueOf(body));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed membership cache eviction message: {}", body);
+        }
+    }
+
+    private void evictLocally(Integer groupId) {
+        generation.incrementAndGet();
+        groups.remove(groupId);
+    }
+
+    private CachedGroup load(Integer groupId) {
+        long loadGeneration = generation.get();
+        Map<Integer, GroupMembershipSnapshot> members = new HashMap<>();
+        // Oldest first, so later rows overwrite earlier ones and the most recent membership wins
+        for (GroupMembershipSnapshot snapshot : primaryReads.read(() -> groupMemberRepository.findMembershipSnapshots(groupId))) {
+            members.put(snapshot.getUserId(), snapshot);
+        }
+        CachedGroup loaded = new CachedGroup(members, System.currentTimeMillis() + ttlSeconds * 1000);
+        if (generation.get() == loadGeneration) {
+            groups.put(groupId, loaded);
+        }
+        return loaded;
+    }
+
+    @AllArgsConstructor
+    private static class CachedGroup {
+        private final Map<Integer, GroupMembershipSnapshot> members;
+        private final long expiresAt;
+    }
+}
@@ -2,6 +2,7 @@ package vn.fpt.seima.seimaserver.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
@@ -10,16 +11,21 @@ import vn.fpt.seima.seimaserver.config.base.AppProperties;
 import vn.fpt.seima.seimaserver.dto.request.group.CancelJoinGroupRequest;
 import vn.fpt.seima.seimaserver.dto.request.group.CreateGroupRequest;
 import vn.fpt.seima.seimaserver.dto.request.group.UpdateGroupRequest;
+import vn.fpt.seima.seimaserver.dto.request.upload.DirectUploadRequest;
+import vn.fpt.seima.seimaserver.dto.request.upload.UploadPurpose;
 import vn.fpt.seima.seimaserver.dto.response.group.*;
 import vn.fpt.seima.seimaserver.dto.response.group.InvitedGroupMemberResponse;
 import vn.fpt.seima.seimaserver.entity.*;
+import vn.fpt.seima.seimaserver.event.GroupMembershipChangedEvent;
 import vn.fpt.seima.seimaserver.exception.GroupException;
 import vn.fpt.seima.seimaserver.mapper.GroupMapper;
 import vn.fpt.seima.seimaserver.repository.GroupMemberRepository;
 import vn.fpt.seima.seimaserver.repository.GroupRepository;
 import vn.fpt.seima.seimaserver.service.CloudinaryService;
+import vn.fpt.seima.seimaserver.service.GroupMembershipCacheService;
 import vn.fpt.seima.seimaserver.service.GroupService;
 import vn.fpt.seima.seimaserver.service.GroupPermissionService;
+import vn.fpt.seima.seimaserver.service.GroupSummaryService;
 import vn.fpt.seima.seimaserver.service.GroupValidationService;
 import vn.fpt.seima.seimaserver.util.UserUtils;
 
@@ -38,6 +44,9 @@ public class GroupServiceImpl implements GroupService {
     private final AppProperties appProperties;
     private final GroupPermissionService groupPermissionService;
     private final GroupValidationService groupValidationService;
+    private final GroupSummaryService groupSummaryService;
+    private final GroupMembershipCacheService groupMembershipCacheService;
+    private final ApplicationEventPublisher applicationEventPublisher;
     
     // Constants for image validation
     private static final long MAX_FILE_SIZE = 10 * 1024 * 1024; // 10MB
@@ -59,7 +68,13 @@ public class GroupServiceImpl implements GroupService {
         
         // Handle avatar upload (optional)
         String avatarUrl;
-        if (request.getImage() != null && !request.getImage().isEmpty()) {
+        if (request.getUploadedImage() != null) {
+            if (request.getImage() != null && !request.getImage().isEmpty()) {
+                throw new GroupException("Cannot provide an image file and an uploaded image at the same time");
+            }
+            avatarUrl = verifyUploadedImage(request.getUploadedImage(), currentUser);
+            log.info("Group avatar uploaded directly: {}", avatarUrl);
+        } else if (request.getImage() != null && !request.getImage().isEmpty()) {
             log.info("Processing image upload for group");
             validateImageFile(request.getImage());
             avatarUrl = uploadImageToCloudinary(request.getImage());
@@ -109,8 +124,7 @@ public class GroupServiceImpl implements GroupService {
         }
         
         // Get current user's membership and role
-        Optional<GroupMember> currentUserMembership = groupMemberRepository.findByUserAndGroupAndStatus(
-                currentUser.getUserId(), groupId, GroupMemberStatus.ACTIVE);
+        Optional<GroupMembershipSnapshot> currentUserMembership = getActiveMembership(groupId, currentUser.getUserId());
         
         if (currentUserMembership.isEmpty()) {
             throw new GroupException("You don't have permission to view this group");
@@ -207,11 +221,12 @@ public class GroupServiceImpl implements GroupService {
         boolean nameUpdated = updateGroupName(group, request.getGroupName());
 
         // Process avatar update
-        boolean avatarUpdated = updateGroupAvatar(group, request);
+        boolean avatarUpdated = updateGroupAvatar(group, request, currentUser);
 
         // Save group if any changes were made
         if (nameUpdated || avatarUpdated) {
             group = groupRepository.save(group);
+            applicationEventPublisher.publishEvent(new GroupMembershipChangedEvent(group.getGroupId()));
             log.info("Group information updated successfully for group ID: {}", groupId);
         } else {
             log.info("No changes detected for group ID: {}", groupId);
@@ -283,6 +298,18 @@ public class GroupServiceImpl implements GroupService {
         return filename.substring(lastDotIndex + 1);
     }
     
+    /**
+     * Check an image the client uploaded straight to Cloudinary and return its URL
+     */
+    private String verifyUploadedImage(DirectUploadRequest uploadedImage, User currentUser) {
+        try {
+            return cloudinaryService.verifyDirectUpload(UploadPurpose.GROUP_AVATAR, currentUser.getUserId(), uploadedImage);
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected uploaded group image: {}", e.getMessage());
+            throw new GroupException("Invalid uploaded image: " + e.getMessage());
+        }
+    }
+
     private String uploadImageToCloudinary(MultipartFile image) {
         try {
             Map uploadResult = cloudinaryService.uploadImage(image, "groups");
@@ -330,6 +357,7 @@ public class GroupServiceImpl implements GroupService {
         groupMember.setStatus(GroupMemberStatus.ACTIVE);
         
         GroupMember savedMember = groupMemberRepository.save(groupMember);
+        applicationEventPublisher.publishEvent(new GroupMembershipChangedEvent(group.getGroupId()));
         log.info("Owner membership created for user ID: {} in group ID: {}", 
                 user.getUserId(), group.getGroupId());
     }
@@ -389,15 +417,21 @@ public class GroupServiceImpl implements GroupService {
         }
 
         // Validate remove avatar flag
-        if (request.getImage() != null && !request.getImage().isEmpty() &&
-                Boolean.TRUE.equals(request.getRemoveCurrentAvatar())) {
+        boolean hasNewImage = (request.getImage() != null && !request.getImage().isEmpty())
+                || request.getUploadedImage() != null;
+        if (hasNewImage && Boolean.TRUE.equals(request.getRemoveCurrentAvatar())) {
             throw new GroupException("Cannot provide new image and remove current avatar at the same time");
         }
+
+        if (request.getImage() != null && !request.getImage().isEmpty() && request.getUploadedImage() != null) {
+            throw new GroupException("Cannot provide an image file and an uploaded image at the same time");
+        }
     }
 
     private boolean hasUpdateData(UpdateGroupRequest request) {
         return (request.getGroupName() != null && !request.getGroupName().trim().isEmpty()) ||
                 (request.getImage() != null && !request.getImage().isEmpty()) ||
+                request.getUploadedImage() != null ||
                 Boolean.TRUE.equals(request.getRemoveCurrentAvatar());
     }
 
@@ -421,8 +455,7 @@ public class GroupServiceImpl implements GroupService {
      * @return the user's role in the group
      */
     private GroupMemberRole getCurrentUserRole(Integer groupId, User currentUser) {
-        Optional<GroupMember> membership = groupMemberRepository.findByUserAndGroupAndStatus(
-                currentUser.getUserId(), groupId, GroupMemberStatus.ACTIVE);
+        Optional<GroupMembershipSnapshot> membership = getActiveMembership(groupId, currentUser.getUserId());
         
         if (membership.isEmpty()) {
             throw new GroupException("You are not a member of this group");
@@ -431,6 +464,14 @@ public class GroupServiceImpl implements GroupService {
         return membership.get().getRole();
     }
 
+    /**
+     * The user's membership in the group from the membership cache, if it is currently active
+     */
+    private Optional<GroupMembershipSnapshot> getActiveMembership(Integer groupId, Integer userId) {
+        return groupMembershipCacheService.getMembership(groupId, userId)
+                .filter(GroupMembershipSnapshot::isActive);
+    }
+
     /**
      * Validate admin or owner permission for group operations
      * Uses GroupPermissionService to check manage group settings permission
@@ -465,10 +506,10 @@ public class GroupServiceImpl implements GroupService {
         return true;
     }
 
-    private boolean updateGroupAvatar(Group group, UpdateGroupRequest request) {
+    private boolean updateGroupAvatar(Group group, UpdateGroupRequest request, User currentUser) {
         // Handle remove current avatar case
         if (Boolean.TRUE.equals(request.getRemoveCurrentAvatar()) &&
-                (request.getImage() == null || request.getImage().isEmpty())) {
+                (request.getImage() == null || request.getImage().isEmpty()) && request.getUploadedImage() == null) {
             if (group.getGroupAvatarUrl() != null) {
                 String oldAvatarUrl = group.getGroupAvatarUrl();
                 group.setGroupAvatarUrl(null);
@@ -478,6 +519,15 @@ public class GroupServiceImpl implements GroupService {
             return false; // No avatar to remove
         }
 
+        // Handle image uploaded directly by the client
+        if (request.getUploadedImage() != null) {
+            String oldAvatarUrl = group.getGroupAvatarUrl();
+            String newAvatarUrl = verifyUploadedImage(request.getUploadedImage(), currentUser);
+            group.setGroupAvatarUrl(newAvatarUrl);
+            log.info("Group avatar updated. Old URL: {}, New URL: {}", oldAvatarUrl, newAvatarUrl);
+            return true;
+        }
+
         // Handle new image upload case
         if (request.getImage() != null && !request.getImage().isEmpty()) {
             String oldAvatarUrl = group.getGroupAvatarUrl();
@@ -505,39 +555,21 @@ public class GroupServiceImpl implements GroupService {
                 true
         );
 
+        Map<Integer, GroupSummaryResponse> summaries = groupSummaryService.getSummaries(
+                userGroupMemberships.stream().map(member -> member.getGroup().getGroupId()).toList());
+
         // Convert to response DTOs
         List<UserJoinedGroupResponse> responses = userGroupMemberships.stream()
-                .map(this::mapToUserJoinedGroupResponse)
+                .map(member -> mapToUserJoinedGroupResponse(member, summaries.get(member.getGroup().getGroupId())))
                 .collect(Collectors.toList());
 
         log.info("Found {} joined groups for user ID: {}", responses.size(), currentUser.getUserId());
         return responses;
     }
 
-    private UserJoinedGroupResponse mapToUserJoinedGroupResponse(GroupMember groupMember) {
+    private UserJoinedGroupResponse mapToUserJoinedGroupResponse(GroupMember groupMember, GroupSummaryResponse summary) {
         Group group = groupMember.getGroup();
 
-        // Get group leader (owner)
-        Optional<GroupMember> leaderOptional = groupMemberRepository.findGroupOwner(
-                group.getGroupId(), GroupMemberStatus.ACTIVE);
-
-        GroupMemberResponse leaderResponse = null;
-        if (leaderOptional.isPresent()) {
-            GroupMember leaderMember = leaderOptional.get();
-            // Only include leader if their account is active
-            if (Boolean.TRUE.equals(leaderMember.getUser().getUserIsActive())) {
-                leaderResponse = mapToGroupMemberResponse(leaderMember);
-            }
-        }
-
-        // Get total member count (only active users)
-        List<GroupMember> allActiveMembers = groupMemberRepository.findActiveGroupMembers(
-                group.getGroupId(), GroupMemberStatus.ACTIVE);
-        
-        Long totalActiveCount = allActiveMembers.stream()
-                .filter(member -> Boolean.TRUE.equals(member.getUser().getUserIsActive()))
-                .count();
-
         return UserJoinedGroupResponse.builder()
                 .groupId(group.getGroupId())
                 .groupName(group.getGroupName())
@@ -545,8 +577,8 @@ public class GroupServiceImpl implements GroupService {
                 .groupCreatedDate(group.getGroupCreatedDate())
                 .joinedDate(groupMember.getJoinDate())
                 .userRole(groupMember.getRole())
-                .totalMembersCount(totalActiveCount.intValue())
-                .groupLeader(leaderResponse)
+                .totalMembersCount(summary != null ? summary.getActiveMemberCount() : 0)
+                .groupLeader(summary != null ? summary.getGroupLeader() : null)
                 .build();
     }
 
@@ -579,6 +611,7 @@ public class GroupServiceImpl implements GroupService {
         // Archive the group
         group.setGroupIsActive(false);
         Group savedGroup = groupRepository.save(group);
+        applicationEventPublisher.publishEvent(new GroupMembershipChangedEvent(groupId));
 
         log.info("Group successfully archived with ID: {}", groupId);
 
@@ -639,8 +672,8 @@ public class GroupServiceImpl implements GroupService {
         }
         
         // Find user's membership in this group
-        Optional<GroupMember> membershipOpt = groupMemberRepository.findMostRecentMembershipByUserIdAndGroupId(
-                currentUser.getUserId(), groupId);
+        Optional<GroupMembershipSnapshot> membershipOpt = groupMembershipCacheService.getMembership(
+                groupId, currentUser.getUserId());
         
         if (membershipOpt.isEmpty()) {
             // User is not a member
@@ -652,7 +685,7 @@ public class GroupServiceImpl implements GroupService {
                     .build();
         }
         
-        GroupMember membership = membershipOpt.get();
+        GroupMembershipSnapshot membership = membershipOpt.get();
         
         // Return user's current status
         GroupMemberStatusResponse response = GroupMemberStatusResponse.builder()
@@ -708,6 +741,7 @@ public class GroupServiceImpl implements GroupService {
             member.setStatus(GroupMemberStatus.LEFT);
             groupMemberRepository.save(member);
         }
+        applicationEventPublisher.publishEvent(new GroupMembershipChangedEvent(groupId));
 
         log.info("Successfully deleted group {} and set all {} members to LEFT status", 
                 groupId, activeMembers.size());
@@ -725,9 +759,12 @@ public class GroupServiceImpl implements GroupService {
         List<GroupMember> pendingMemberships = groupMemberRepository.findUserPendingGroups(
                 currentUser.getUserId(), GroupMemberStatus.PENDING_APPROVAL);
         
+        Map<Integer, GroupSummaryResponse> summaries = groupSummaryService.getSummaries(
+                pendingMemberships.stream().map(member -> member.getGroup().getGroupId()).toList());
+        
         // Map to response DTOs
         List<UserPendingGroupResponse> pendingGroups = pendingMemberships.stream()
-                .map(this::mapToUserPendingGroupResponse)
+                .map(member -> mapToUserPendingGroupResponse(member, summaries.get(member.getGroup().getGroupId())))
                 .collect(Collectors.toList());
         
         log.info("Found {} pending groups for user {}", pendingGroups.size(), currentUser.getUserId());
@@ -738,20 +775,16 @@ public class GroupServiceImpl implements GroupService {
     /**
      * Map GroupMember entity to UserPendingGroupResponse DTO
      */
-    private UserPendingGroupResponse mapToUserPendingGroupResponse(GroupMember groupMember) {
+    private UserPendingGroupResponse mapToUserPendingGroupResponse(GroupMember groupMember, GroupSummaryResponse summary) {
         Group group = groupMember.getGroup();
         
-        // Count active members in the group
-        Long activeMemberCount = groupMemberRepository.countActiveGroupMembers(
-                group.getGroupId(), GroupMemberStatus.ACTIVE);
-        
         return UserPendingGroupResponse.builder()
                 .groupId(group.getGroupId())
                 .groupName(group.getGroupName())
                 .groupAvatarUrl(group.getGroupAvatarUrl())
                 .groupIsActive(group.getGroupIsActive())
                 .requestedAt(groupMember.getJoinDate())
-                .activeMemberCount(activeMemberCount.intValue())
+                .activeMemberCount(summary != null ? summary.getActiveMembershipCount() : 0)
                 .build();
     }
 
@@ -788,6 +821,7 @@ public class GroupServiceImpl implements GroupService {
         // Cancel the request by setting status to LEFT
         pendingMembership.setStatus(GroupMemberStatus.LEFT);
         groupMemberRepository.save(pendingMembership);
+        applicationEventPublisher.publishEvent(new GroupMembershipChangedEvent(request.getGroupId()));
         
         log.info("Successfully canceled join request for user {} in group {}", 
                 currentUser.getUserId(), request.getGroupId());
@@ -858,8 +892,7 @@ public class GroupServiceImpl implements GroupService {
      */
     private void validateUserPermissionToViewInvitedMembers(Integer groupId, User currentUser) {
         // Check if user is an active member of the group
-        Optional<GroupMember> currentUserMembership = groupMemberRepository.findByUserAndGroupAndStatus(
-                currentUser.getUserId(), groupId, GroupMemberStatus.ACTIVE);
+        Optional<GroupMembershipSnapshot> currentUserMembership = getActiveMembership(groupId, currentUser.getUserId());
         
         if (currentUserMembership.isEmpty()) {
             throw new GroupException("You are not a member of this group");
@@ -0,0 +1,141 @@
+package vn.fpt.seima.seimaserver.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import vn.fpt.seima.seimaserver.config.datasource.PrimaryReads;
+import vn.fpt.seima.seimaserver.dto.response.group.GroupMemberCount;
+import vn.fpt.seima.seimaserver.dto.response.group.GroupMemberResponse;
+import vn.fpt.seima.seimaserver.dto.response.group.GroupSummaryResponse;
+import vn.fpt.seima.seimaserver.entity.Group;
+import vn.fpt.seima.seimaserver.entity.GroupMember;
+import vn.fpt.seima.seimaserver.entity.GroupMemberStatus;
+import vn.fpt.seima.seimaserver.event.GroupMembershipChangedEvent;
+import vn.fpt.seima.seimaserver.event.UserProfileChangedEvent;
+import vn.fpt.seima.seimaserver.repository.GroupMemberRepository;
+import vn.fpt.seima.seimaserver.repository.GroupRepository;
+import vn.fpt.seima.seimaserver.service.GroupSummaryService;
+import vn.fpt.seima.seimaserver.service.RedisService;
+
+import java.util.*;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GroupSummaryServiceImpl implements GroupSummaryService {
+    // v2: summaries also carry activeMembershipCount
+    private static final String KEY_PREFIX = "group:summary:v2:";
+    private static final long SUMMARY_TTL_MINUTES = 24 * 60;
+
+    private final GroupRepository groupRepository;
+    private final GroupMemberRepository groupMemberRepository;
+    private final RedisService redisService;
+    private final ObjectMapper objectMapper;
+    private final PrimaryReads primaryReads;
+
+    @Override
+    public Map<Integer, GroupSummaryResponse> getSummaries(Collection<Integer> groupIds) {
+        Map<Integer, GroupSummaryResponse> summaries = new HashMap<>();
+        if (groupIds == null || groupIds.isEmpty()) {
+            return summaries;
+        }
+
+        List<Integer> ids = new ArrayList<>(new LinkedHashSet<>(groupIds));
+        List<Object> keys = new ArrayList<>();
+        for (Integer id : ids) {
+            keys.add(KEY_PREFIX + id);
+        }
+        List<Object> cached = redisService.multiGet(keys);
+
+        List<Integer> missing = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Object value = i < cached.size() ? cached.get(i) : null;
+            if (value != null) {
+                summaries.put(ids.get(i), objectMapper.convertValue(value, GroupSummaryResponse.class));
+            } else {
+                missing.add(ids.get(i));
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            for (GroupSummaryResponse summary : primaryReads.read(() -> buildSummaries(missing))) {
+                String key = KEY_PREFIX + summary.getGroupId();
+                redisService.set(key, summary);
+                redisService.setTimeToLiveInMinutes(key, SUMMARY_TTL_MINUTES);
+                summaries.put(summary.getGroupId(), summary);
+            }
+            log.debug("Group summaries: {} cached, {} rebuilt", ids.size() - missing.size(), missing.size());
+        }
+        return summaries;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGroupMembershipChanged(GroupMembershipChangedEvent event) {
+        if (event.getGroupId() != null) {
+            redisService.delete(KEY_PREFIX + event.getGroupId());
+        }
+    }
+
+    /**
+     * Summaries embed the owner's name and avatar, and their counts depend on every member's active flag,
+     * so each group the user belongs to is rebuilt on the next read.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserProfileChanged(UserProfileChangedEvent event) {
+        if (event.getUserId() == null) {
+            return;
+        }
+        for (Integer groupId : groupMemberRepository.findGroupIdsByUserId(event.getUserId())) {
+            redisService.delete(KEY_PREFIX + groupId);
+        }
+    }
+
+    private List<GroupSummaryResponse> buildSummaries(List<Integer> groupIds) {
+        Map<Integer, GroupMember> owners = new HashMap<>();
+        for (GroupMember owner : groupMemberRepository.findGroupOwners(groupIds, GroupMemberStatus.ACTIVE)) {
+            owners.put(owner.getGroup().getGroupId(), owner);
+        }
+        Map<Integer, Map<GroupMemberStatus, Long>> counts = new HashMap<>();
+        Map<Integer, Long> activeMemberships = new HashMap<>();
+        for (GroupMemberCount count : groupMemberRepository.countMembersByGroupIds(groupIds)) {
+            counts.computeIfAbsent(count.getGroupId(), id -> new EnumMap<>(GroupMemberStatus.class))
+                    .put(count.getStatus(), count.getActiveUserCount());
+            if (count.getStatus() == GroupMemberStatus.ACTIVE) {
+                activeMemberships.put(count.getGroupId(), count.getCount());
+            }
+        }
+
+        List<GroupSummaryResponse> summaries = new ArrayList<>();
+        for (Group group : groupRepository.findAllById(groupIds)) {
+            Map<GroupMemberStatus, Long> groupCounts = counts.getOrDefault(group.getGroupId(), Collections.emptyMap());
+            GroupMember owner = owners.get(group.getGroupId());
+
+            GroupMemberResponse leader = null;
+            // Only include leader if their account is active
+            if (owner != null && Boolean.TRUE.equals(owner.getUser().getUserIsActive())) {
+                leader = GroupMemberResponse.builder()
+                        .userId(owner.getUser().getUserId())
+                        .userFullName(owner.getUser().getUserFullName())
+                        .userAvatarUrl(owner.getUser().getUserAvatarUrl())
+                        .role(owner.getRole())
+                        .build();
+            }
+
+            summaries.add(GroupSummaryResponse.builder()
+                    .groupId(group.getGroupId())
+                    .groupName(group.getGroupName())
+                    .groupAvatarUrl(group.getGroupAvatarUrl())
+                    .groupIsActive(group.getGroupIsActive())
+                    .groupCreatedDate(group.getGroupCreatedDate())
+                    .groupLeader(leader)
+                    .activeMemberCount(groupCounts.getOrDefault(GroupMemberStatus.ACTIVE, 0L).intValue())
+                    .activeMembershipCount(activeMemberships.getOrDefault(group.getGroupId(), 0L).intValue())
+                    .pendingMemberCount(groupCounts.getOrDefault(GroupMemberStatus.PENDING_APPROVAL, 0L).intValue())
+                    .invitedMemberCount(groupCounts.getOrDefault(GroupMemberStatus.INVITED, 0L).intValue())
+                    .build());
+        }
+        return summaries;
+    }
+}
@@ -3,9 +3,11 @@ package vn.fpt.seima.seimaserver.service.impl;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import vn.fpt.seima.seimaserver.dto.response.group.GroupMembershipSnapshot;
 import vn.fpt.seima.seimaserver.entity.GroupMemberStatus;
 import vn.fpt.seima.seimaserver.exception.GroupException;
 import vn.fpt.seima.seimaserver.repository.GroupMemberRepository;
+import vn.fpt.seima.seimaserver.service.GroupMembershipCacheService;
 import vn.fpt.seima.seimaserver.service.GroupValidationService;
 
 /**
@@ -21,6 +23,7 @@ public class GroupValidationServiceImpl implements GroupValidationService {
     private static final int MAX_MEMBERS_PER_GROUP = 20;
     
     private final GroupMemberRepository groupMemberRepository;
+    private final GroupMembershipCacheService groupMembershipCacheService;
     
     @Override
     public void validateUserCanJoinMoreGroups(Integer userId) {
@@ -70,8 +73,9 @@ public class GroupValidationServiceImpl implements GroupValidationService {
         }
         
         // Check if user is already a member of this group
-        boolean isAlreadyMember = groupMemberRepository.existsByUserAndGroupAndStatus(
-            userId, groupId, GroupMemberStatus.ACTIVE);
+        boolean isAlreadyMember = groupMembershipCacheService.getMembership(groupId, userId)
+            .filter(GroupMembershipSnapshot::isActive)
+            .isPresent();
         
         if (isAlreadyMember) {
             throw new GroupException("User is already an active member of this group");
@@ -1,222 +1,313 @@
 package vn.fpt.seima.seimaserver.service.impl;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 import vn.fpt.seima.seimaserver.dto.request.group.InvitationTokenData;
 import vn.fpt.seima.seimaserver.service.InvitationTokenService;
 import vn.fpt.seima.seimaserver.service.RedisService;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 /**
- * Implementation of InvitationTokenService using Redis for token storage
- * Uses userId:groupId as key pattern for efficient lookups
+ * Implementation of InvitationTokenService using Redis for token storage.
+ * Each token is a small hash of plain strings under {@code invitation:t:<token>}, with a
+ * {@code invitation:ug:<userId>:<groupId>} index pointing at it for accept/reject lookups.
+ * Creating is one pipeline (for any number of tokens), reading is one HGETALL and
+ * status updates and revokes are single Lua scripts.
  */
 @Service
+@RequiredArgsConstructor
 public class InvitationTokenServiceImpl implements InvitationTokenService {
-    
+
     private static final Logger logger = LoggerFactory.getLogger(InvitationTokenServiceImpl.class);
-    
-    @Autowired
-    private RedisService redisService;
-    
-    @Autowired
-    private ObjectMapper objectMapper;
-    
-    // Token expiration: 30 days (in minutes)
-    private static final long TOKEN_EXPIRATION_MINUTES = 30 * 24 * 60; // 30 days
-    private static final String TOKEN_PREFIX = "invitation:token:";
-    private static final String USER_GROUP_PREFIX = "invitation:user_group:";
-    
+
+    // Token expiration: 30 days
+    private static final Duration TOKEN_EXPIRATION = Duration.ofDays(30);
+    private static final String TOKEN_PREFIX = "invitation:t:";
+    private static final String USER_GROUP_PREFIX = "invitation:ug:";
+
+    // Tokens created before the hash layout; read once, moved over and deleted
+    private static final String LEGACY_TOKEN_PREFIX = "invitation:token:";
+    private static final String LEGACY_USER_GROUP_PREFIX = "invitation:user_group:";
+
+    // Hash fields, kept short since every pending invitation holds a copy
+    private static final String GROUP_ID = "g";
+    private static final String INVITER_ID = "i";
+    private static final String INVITED_USER_ID = "u";
+    private static final String INVITED_USER_EMAIL = "e";
+    private static final String STATUS = "s";
+    private static final String CREATED_AT = "c";
+    private static final String EXPIRES_AT = "x";
+    private static final String GROUP_NAME = "gn";
+    private static final String INVITER_NAME = "in";
+
+    private static final RedisScript<Long> UPDATE_STATUS_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/invitation-update-status.lua"), Long.class);
+    private static final RedisScript<Long> REVOKE_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/invitation-revoke.lua"), Long.class);
+    private static final RedisScript<Long> REVOKE_BY_USER_GROUP_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/invitation-revoke-by-user-group.lua"), Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisService redisService;
+    private final ObjectMapper objectMapper;
+
     @Override
     public String createInvitationToken(InvitationTokenData tokenData) {
+        return createInvitationTokens(List.of(tokenData)).get(0);
+    }
+
+    @Override
+    public List<String> createInvitationTokens(List<InvitationTokenData> tokenDataList) {
         try {
-            // Generate unique token
-            String token = generateUniqueToken();
-            
             // Set creation and expiration times
             LocalDateTime now = LocalDateTime.now();
-            tokenData.setCreatedAt(now);
-            tokenData.setExpiresAt(now.plusDays(30));
-            
-            // Serialize token data to JSON
-            String tokenDataJson = objectMapper.writeValueAsString(tokenData);
-            
-            // Store in Redis with both key patterns:
-            // 1. Traditional token key for web link access
-            String tokenKey = generateTokenKey(token);
-            redisService.set(tokenKey, tokenDataJson);
-            redisService.setTimeToLiveInMinutes(tokenKey, TOKEN_EXPIRATION_MINUTES);
-            
-            // 2. User-Group key for direct lookup during accept/reject
-            String userGroupKey = generateTokenKeyByUserAndGroup(tokenData.getInvitedUserId(), tokenData.getGroupId());
-            redisService.set(userGroupKey, token); // Store the token as value
-            redisService.setTimeToLiveInMinutes(userGroupKey, TOKEN_EXPIRATION_MINUTES);
-            
-            logger.info("Created invitation token for user {} to join group {} (expires in 30 days)", 
-                    tokenData.getInvitedUserId(), tokenData.getGroupId());
-            
-            return token;
-            
+            List<String> tokens = new ArrayList<>(tokenDataList.size());
+            for (InvitationTokenData tokenData : tokenDataList) {
+                tokenData.setCreatedAt(now);
+                tokenData.setExpiresAt(now.plus(TOKEN_EXPIRATION));
+                tokens.add(generateUniqueToken());
+            }
+
+            stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                    RedisOperations<String, String> redis = (RedisOperations<String, String>) operations;
+                    for (int i = 0; i < tokens.size(); i++) {
+                        write(redis, tokens.get(i), tokenDataList.get(i), TOKEN_EXPIRATION);
+                    }
+                    return null;
+                }
+            });
+
+            logger.info("Created {} invitation token(s) for group {} (expire in 30 days)",
+                    tokens.size(), tokenDataList.get(0).getGroupId());
+
+            return tokens;
+
         } catch (Exception e) {
-            logger.error("Failed to create invitation token for user {} to group {}", 
-                    tokenData.getInvitedUserId(), tokenData.getGroupId(), e);
+            logger.error("Failed to create {} invitation token(s)", tokenDataList.size(), e);
             throw new RuntimeException("Failed to create invitation token", e);
         }
     }
-    
+
     @Override
     public Optional<InvitationTokenData> getInvitationTokenData(String token) {
         try {
-            String redisKey = generateTokenKey(token);
-            String tokenDataJson = redisService.getObject(redisKey, String.class);
-            
-            if (tokenDataJson == null) {
-                logger.debug("Invitation token not found or expired: {}", token);
-                return Optional.empty();
+            Map<String, String> hash = stringRedisTemplate.<String, String>opsForHash().entries(generateTokenKey(token));
+
+            if (hash.isEmpty()) {
+                return migrateLegacyToken(token);
             }
-            
-            // Deserialize token data from JSON
-            InvitationTokenData tokenData = objectMapper.readValue(tokenDataJson, InvitationTokenData.class);
-            
+
+            InvitationTokenData tokenData = fromHash(hash);
+
             // Check if token is expired
-            if (tokenData.getExpiresAt().isBefore(LocalDateTime.now())) {
+            if (tokenData.getExpiresAt() == null || tokenData.getExpiresAt().isBefore(LocalDateTime.now())) {
                 logger.debug("Invitation token expired: {}", token);
                 // Remove expired token
                 removeInvitationToken(token);
                 return Optional.empty();
             }
-            
+
             return Optional.of(tokenData);
-            
+
         } catch (Exception e) {
             logger.error("Failed to retrieve invitation token data: {}", token, e);
             return Optional.empty();
         }
     }
-    
+
     @Override
     public boolean updateInvitationTokenStatus(String token, String newStatus) {
         try {
-            Optional<InvitationTokenData> tokenDataOpt = getInvitationTokenData(token);
-            
-            if (tokenDataOpt.isEmpty()) {
-                logger.debug("Cannot update status - token not found: {}", token);
-                return false;
-            }
-            
-            InvitationTokenData tokenData = tokenDataOpt.get();
-            tokenData.setStatus(newStatus);
-            
-            // Check if token is not expired
-            if (tokenData.getExpiresAt().isBefore(LocalDateTime.now())) {
-                logger.debug("Cannot update status - token expired: {}", token);
-                return false;
+            // The hash keeps its own TTL, so only the status field is written
+            if (!updateStatus(token, newStatus)) {
+                if (migrateLegacyToken(token).isEmpty() || !updateStatus(token, newStatus)) {
+                    logger.debug("Cannot update status - token not found: {}", token);
+                    return false;
+                }
             }
-            
-            // Update in Redis - maintain original expiration
-            String tokenDataJson = objectMapper.writeValueAsString(tokenData);
-            String redisKey = generateTokenKey(token);
-            
-            // Calculate remaining time until expiration in minutes
-            LocalDateTime now = LocalDateTime.now();
-            LocalDateTime expiresAt = tokenData.getExpiresAt();
-            long remainingMinutes = java.time.Duration.between(now, expiresAt).toMinutes();
-            
-            if (remainingMinutes <= 0) {
-                logger.debug("Cannot update status - token expired: {}", token);
-                return false;
-            }
-            
-            // Set value with remaining TTL
-            redisService.set(redisKey, tokenDataJson);
-            redisService.setTimeToLiveInMinutes(redisKey, remainingMinutes);
-            
+
             logger.info("Updated invitation token status to {} for token: {}", newStatus, token);
             return true;
-            
+
         } catch (Exception e) {
             logger.error("Failed to update invitation token status: {}", token, e);
             return false;
         }
     }
-    
+
     @Override
     public boolean removeInvitationToken(String token) {
         try {
-            String redisKey = generateTokenKey(token);
-            
-            // Check if token exists and get token data to find user-group key
-            String tokenDataJson = redisService.getObject(redisKey, String.class);
-            if (tokenDataJson == null) {
+            Long removed = stringRedisTemplate.execute(REVOKE_SCRIPT, List.of(generateTokenKey(token)),
+                    USER_GROUP_PREFIX, token);
+            if (removed == null || removed == 0) {
                 logger.debug("Invitation token not found for removal: {}", token);
                 return false;
             }
-            
-            // Parse token data to get userId and groupId for cleanup
-            try {
-                InvitationTokenData tokenData = objectMapper.readValue(tokenDataJson, InvitationTokenData.class);
-                String userGroupKey = generateTokenKeyByUserAndGroup(tokenData.getInvitedUserId(), tokenData.getGroupId());
-                redisService.delete(userGroupKey);
-            } catch (Exception e) {
-                logger.warn("Failed to cleanup user-group key for token: {}", token, e);
-            }
-            
-            // Delete the main token
-            redisService.delete(redisKey);
+
             logger.info("Removed invitation token: {}", token);
             return true;
-            
+
         } catch (Exception e) {
             logger.error("Failed to remove invitation token: {}", token, e);
             return false;
         }
     }
-    
+
     @Override
     public boolean removeInvitationTokenByUserAndGroup(Integer userId, Integer groupId) {
         try {
-            String userGroupKey = generateTokenKeyByUserAndGroup(userId, groupId);
-            
-            // Get the token from user-group key
-            String token = redisService.getObject(userGroupKey, String.class);
-            if (token == null) {
+            Long removed = stringRedisTemplate.execute(REVOKE_BY_USER_GROUP_SCRIPT,
+                    List.of(generateTokenKeyByUserAndGroup(userId, groupId)), TOKEN_PREFIX);
+            if ((removed == null || removed == 0) && !removeLegacyTokenByUserAndGroup(userId, groupId)) {
                 logger.debug("No invitation token found for user {} in group {}", userId, groupId);
                 return false;
             }
-            
-            // Delete both keys
-            redisService.delete(userGroupKey);
-            String tokenKey = generateTokenKey(token);
-            redisService.delete(tokenKey);
-            
+
             logger.info("Removed invitation token for user {} in group {}", userId, groupId);
             return true;
-            
+
         } catch (Exception e) {
             logger.error("Failed to remove invitation token for user {} in group {}", userId, groupId, e);
             return false;
         }
     }
 
-    
+
     @Override
     public String generateTokenKey(String token) {
         return TOKEN_PREFIX + token;
     }
-    
+
     @Override
     public String generateTokenKeyByUserAndGroup(Integer userId, Integer groupId) {
         return USER_GROUP_PREFIX + userId + ":" + groupId;
     }
-    
+
 
     private String generateUniqueToken() {
         return UUID.randomUUID().toString().replace("-", "");
     }
-} 
\ No newline at end of file
+
+    private boolean updateStatus(String token, String newStatus) {
+        Long updated = stringRedisTemplate.execute(UPDATE_STATUS_SCRIPT, List.of(generateTokenKey(token)), newStatus);
+        return updated != null && updated > 0;
+    }
+
+    private void write(RedisOperations<String, String> redis, String token, InvitationTokenData tokenData, Duration ttl) {
+        String tokenKey = generateTokenKey(token);
+        redis.opsForHash().putAll(tokenKey, toHash(tokenData));
+        redis.expire(tokenKey, ttl);
+        redis.opsForValue().set(generateTokenKeyByUserAndGroup(tokenData.getInvitedUserId(), tokenData.getGroupId()),
+                token, ttl);
+    }
+
+    private Map<String, String> toHash(InvitationTokenData tokenData) {
+        Map<String, String> hash = new HashMap<>();
+        putIfPresent(hash, GROUP_ID, tokenData.getGroupId());
+        putIfPresent(hash, INVITER_ID, tokenData.getInviterId());
+        putIfPresent(hash, INVITED_USER_ID, tokenData.getInvitedUserId());
+        putIfPresent(hash, INVITED_USER_EMAIL, tokenData.getInvitedUserEmail());
+        putIfPresent(hash, STATUS, tokenData.getStatus());
+        putIfPresent(hash, CREATED_AT, tokenData.getCreatedAt());
+        putIfPresent(hash, EXPIRES_AT, tokenData.getExpiresAt());
+        putIfPresent(hash, GROUP_NAME, tokenData.getGroupName());
+        putIfPresent(hash, INVITER_NAME, tokenData.getInviterName());
+        return hash;
+    }
+
+    private static void putIfPresent(Map<String, String> hash, String field, Object value) {
+        if (value != null) {
+            hash.put(field, value.toString());
+        }
+    }
+
+    private InvitationTokenData fromHash(Map<String, String> hash) {
+        return InvitationTokenData.builder()
+                .groupId(parseInteger(hash.get(GROUP_ID)))
+                .inviterId(parseInteger(hash.get(INVITER_ID)))
+                .invitedUserId(parseInteger(hash.get(INVITED_USER_ID)))
+                .invitedUserEmail(hash.get(INVITED_USER_EMAIL))
+                .status(hash.get(STATUS))
+                .createdAt(parseDateTime(hash.get(CREATED_AT)))
+                .expiresAt(parseDateTime(hash.get(EXPIRES_AT)))
+                .groupName(hash.get(GROUP_NAME))
+                .inviterName(hash.get(INVITER_NAME))
+                .build();
+    }
+
+    private static Integer parseInteger(String value) {
+        return value != null ? Integer.valueOf(value) : null;
+    }
+
+    private static LocalDateTime parseDateTime(String value) {
+        return value != null ? LocalDateTime.parse(value) : null;
+    }
+
+    /**
+     * Moves a token stored as a JSON string by earlier versions into the hash layout,
+     * keeping its original expiry. Returns empty when there is no live legacy token.
+     */
+    private Optional<InvitationTokenData> migrateLegacyToken(String token) {
+        String legacyKey = LEGACY_TOKEN_PREFIX + token;
+        String tokenDataJson = redisService.getObject(legacyKey, String.class);
+        if (tokenDataJson == null) {
+            logger.debug("Invitation token not found or expired: {}", token);
+            return Optional.empty();
+        }
+
+        try {
+            InvitationTokenData tokenData = objectMapper.readValue(tokenDataJson, InvitationTokenData.class);
+            Duration remaining = Duration.between(LocalDateTime.now(), tokenData.getExpiresAt());
+            if (!remaining.isNegative() && !remaining.isZero()) {
+                stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                        write((RedisOperations<String, String>) operations, token, tokenData, remaining);
+                        return null;
+                    }
+                });
+                logger.info("Migrated legacy invitation token for user {} in group {}",
+                        tokenData.getInvitedUserId(), tokenData.getGroupId());
+            }
+            redisService.delete(LEGACY_USER_GROUP_PREFIX + tokenData.getInvitedUserId() + ":" + tokenData.getGroupId());
+            redisService.delete(legacyKey);
+            return remaining.isNegative() || remaining.isZero() ? Optional.empty() : Optional.of(tokenData);
+        } catch (Exception e) {
+            logger.warn("Failed to migrate legacy invitation token: {}", token, e);
+            return Optional.empty();
+        }
+    }
+
+    private boolean removeLegacyTokenByUserAndGroup(Integer userId, Integer groupId) {
+        String legacyUserGroupKey = LEGACY_USER_GROUP_PREFIX + userId + ":" + groupId;
+        String token = redisService.getObject(legacyUserGroupKey, String.class);
+        if (token == null) {
+            return false;
+        }
+        redisService.delete(legacyUserGroupKey);
+        redisService.delete(LEGACY_TOKEN_PREFIX + token);
+        return true;
+    }
+}
@@ -0,0 +1,235 @@
+package vn.fpt.seima.seimaserver.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import vn.fpt.seima.seimaserver.config.notification.NotificationRetentionProperties;
+import vn.fpt.seima.seimaserver.config.notification.NotificationRetentionProperties.Action;
+import vn.fpt.seima.seimaserver.config.notification.NotificationRetentionProperties.Policy;
+import vn.fpt.seima.seimaserver.entity.NotificationType;
+import vn.fpt.seima.seimaserver.service.NotificationCacheService;
+import vn.fpt.seima.seimaserver.service.NotificationRetentionService;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Keeps the {@code notification} table small so per-user listing, unread counts and mark-all-read stay
+ * fast. Expired rows are handled in batches by primary key, each batch in its own short transaction,
+ * so no run locks more than a few hundred rows at a time.
+ * <p>
+ * Archived rows go to {@code notification_archive}, range-partitioned by {@code archive_month}
+ * (yyyymm of {@code created_at}); an old month can be dropped with {@code ALTER TABLE ... DROP PARTITION}
+ * instead of a slow DELETE.
+ */
+@Slf4j
+@Service
+public class NotificationRetentionServiceImpl implements NotificationRetentionService {
+
+    private static final String SELECT_EXPIRED_SQL = "SELECT notification_id, receiver_id, " +
+            "EXTRACT(YEAR_MONTH FROM created_at) AS created_month FROM notification " +
+            "WHERE notification_type = ? AND is_read = ? AND created_at < ? ORDER BY created_at LIMIT ?";
+
+    private static final String DIGEST_SQL = "INSERT INTO notification_digest (receiver_id, notification_type, " +
+            "digest_month, notification_count, unread_count, first_created_at, last_created_at) " +
+            "SELECT receiver_id, notification_type, EXTRACT(YEAR_MONTH FROM created_at), COUNT(*), " +
+            "SUM(CASE WHEN is_read THEN 0 ELSE 1 END), MIN(created_at), MAX(created_at) " +
+            "FROM notification WHERE notification_id IN (%s) " +
+            "GROUP BY receiver_id, notification_type, EXTRACT(YEAR_MONTH FROM created_at) " +
+            "ON DUPLICATE KEY UPDATE notification_count = notification_count + VALUES(notification_count), " +
+            "unread_count = unread_count + VALUES(unread_count), " +
+            "first_created_at = LEAST(first_created_at, VALUES(first_created_at)), " +
+            "last_created_at = GREATEST(last_created_at, VALUES(last_created_at))";
+
+    private static final String ARCHIVE_SQL = "INSERT IGNORE INTO notification_archive (notification_id, " +
+            "archive_month, sender_id, receiver_id, notification_type, title, message, link_to_entity, is_read, " +
+            "created_at, sent_at, archived_at) " +
+            "SELECT notification_id, EXTRACT(YEAR_MONTH FROM created_at), sender_id, receiver_id, notification_type, " +
+            "title, message, link_to_entity, is_read, created_at, sent_at, NOW() " +
+            "FROM notification WHERE notification_id IN (%s)";
+
+    private static final String DELETE_SQL = "DELETE FROM notification WHERE notification_id IN (%s)";
+
+    private static final String CREATE_ARCHIVE_SQL = "CREATE TABLE IF NOT EXISTS notification_archive (" +
+            "notification_id INT NOT NULL, " +
+            "archive_month INT NOT NULL, " +
+            "sender_id INT NULL, " +
+            "receiver_id INT NOT NULL, " +
+            "notification_type VARCHAR(50) NOT NULL, " +
+            "title VARCHAR(255) NOT NULL, " +
+            "message TEXT NULL, " +
+            "link_to_entity VARCHAR(255) NULL, " +
+            "is_read BIT(1) NOT NULL, " +
+            "created_at DATETIME(6) NOT NULL, " +
+            "sent_at DATETIME(6) NULL, " +
+            "archived_at DATETIME(6) NOT NULL, " +
+            "PRIMARY KEY (notification_id, archive_month), " +
+            "KEY idx_notification_archive_receiver_created (receiver_id, created_at)) " +
+            "PARTITION BY RANGE (archive_month) (PARTITION p_future VALUES LESS THAN MAXVALUE)";
+
+    private static final String CREATE_DIGEST_SQL = "CREATE TABLE IF NOT EXISTS notification_digest (" +
+            "receiver_id INT NOT NULL, " +
+            "notification_type VARCHAR(50) NOT NULL, " +
+            "digest_month INT NOT NULL, " +
+            "notification_count INT NOT NULL, " +
+            "unread_count INT NOT NULL, " +
+            "first_created_at DATETIME(6) NOT NULL, " +
+            "last_created_at DATETIME(6) NOT NULL, " +
+            "PRIMARY KEY (receiver_id, notification_type, digest_month))";
+
+    private static final String HIGHEST_PARTITION_SQL = "SELECT MAX(CAST(PARTITION_DESCRIPTION AS UNSIGNED)) " +
+            "FROM information_schema.PARTITIONS WHERE TABLE_SCHEMA = DATABASE() " +
+            "AND TABLE_NAME = 'notification_archive' AND PARTITION_DESCRIPTION <> 'MAXVALUE'";
+
+    private static final String ADD_PARTITION_SQL = "ALTER TABLE notification_archive REORGANIZE PARTITION p_future " +
+            "INTO (PARTITION p%d VALUES LESS THAN (%d), PARTITION p_future VALUES LESS THAN MAXVALUE)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final NotificationCacheService notificationCacheService;
+    private final NotificationRetentionProperties properties;
+
+    // Exclusive upper bound (yyyymm) of the newest monthly archive partition
+    private int archivedUpTo = -1;
+    private boolean tablesReady;
+
+    public NotificationRetentionServiceImpl(JdbcTemplate jdbcTemplate,
+                                            PlatformTransactionManager transactionManager,
+                                            NotificationCacheService notificationCacheService,
+                                            NotificationRetentionProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.notificationCacheService = notificationCacheService;
+        this.properties = properties;
+    }
+
+    @Override
+    public synchronized void applyRetention() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int removed = 0;
+        try {
+            ensureTables();
+            for (NotificationType type : NotificationType.values()) {
+                Policy policy = properties.policyFor(type);
+                removed += expire(type, true, policy.getReadAfter(), policy, now);
+                removed += expire(type, false, policy.getUnreadAfter(), policy, now);
+            }
+        } catch (Exception e) {
+            log.error("Notification retention stopped after {} rows", removed, e);
+            return;
+        }
+        if (removed > 0) {
+            log.info("Notification retention removed {} rows", removed);
+        }
+    }
+
+    private int expire(NotificationType type, boolean isRead, Duration retainFor, Policy policy, LocalDateTime now) {
+        if (retainFor == null) {
+            return 0;
+        }
+        Timestamp cutoff = Timestamp.valueOf(now.minus(retainFor));
+        int removed = 0;
+        for (int i = 0; i < properties.getMaxBatches(); i++) {
+            List<ExpiredNotification> batch = jdbcTemplate.query(SELECT_EXPIRED_SQL,
+                    (rs, rowNum) -> new ExpiredNotification(rs.getInt("notification_id"),
+                            rs.getInt("receiver_id"), rs.getInt("created_month")),
+                    type.name(), isRead, cutoff, properties.getBatchSize());
+            if (batch.isEmpty()) {
+                break;
+            }
+            removed += removeBatch(batch, policy);
+            if (!isRead) {
+                // The cached unread counts still include the removed rows
+                batch.stream().map(ExpiredNotification::receiverId).distinct()
+                        .forEach(notificationCacheService::removeUnreadCountFromCache);
+            }
+            if (batch.size() < properties.getBatchSize()) {
+                break;
+            }
+        }
+        return removed;
+    }
+
+    private int removeBatch(List<ExpiredNotification> batch, Policy policy) {
+        if (policy.getAction() == Action.ARCHIVE) {
+            Set<Integer> months = new TreeSet<>();
+            batch.forEach(notification -> months.add(notification.createdMonth()));
+            ensurePartitions(months);
+        }
+        List<Object> ids = new ArrayList<>(batch.size());
+        batch.forEach(notification -> ids.add(notification.notificationId()));
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        Object[] args = ids.toArray();
+
+        Integer deleted = transactionTemplate.execute(status -> {
+            if (policy.isDigest()) {
+                jdbcTemplate.update(String.format(DIGEST_SQL, placeholders), args);
+            }
+            if (policy.getAction() == Action.ARCHIVE) {
+                jdbcTemplate.update(String.format(ARCHIVE_SQL, placeholders), args);
+            }
+            return jdbcTemplate.update(String.format(DELETE_SQL, placeholders), args);
+        });
+        return deleted == null ? 0 : deleted;
+    }
+
+    private void ensureTables() {
+        if (tablesReady) {
+            return;
+        }
+        Set<Action> actions = new HashSet<>();
+        boolean digest = properties.getDefaultPolicy().isDigest();
+        actions.add(properties.getDefaultPolicy().getAction());
+        for (Policy policy : properties.getPolicies().values()) {
+            actions.add(policy.getAction());
+            digest |= policy.isDigest();
+        }
+        if (actions.contains(Action.ARCHIVE)) {
+            jdbcTemplate.execute(CREATE_ARCHIVE_SQL);
+        }
+        if (digest) {
+            jdbcTemplate.execute(CREATE_DIGEST_SQL);
+        }
+        tablesReady = true;
+    }
+
+    /**
+     * Splits a month off the catch-all partition when it is newer than every existing one. Older months
+     * simply land in the lowest partition.
+     */
+    private void ensurePartitions(Set<Integer> months) {
+        for (Integer month : months) {
+            if (archivedUpTo < 0) {
+                Integer highest = jdbcTemplate.queryForObject(HIGHEST_PARTITION_SQL, Integer.class);
+                archivedUpTo = highest == null ? 0 : highest;
+            }
+            if (month < archivedUpTo) {
+                continue;
+            }
+            int next = month % 100 == 12 ? month + 89 : month + 1;
+            try {
+                jdbcTemplate.execute(String.format(ADD_PARTITION_SQL, month, next));
+                archivedUpTo = next;
+            } catch (Exception e) {
+                // Another node split it first; read the bound again
+                log.debug("Archive partition p{} not added: {}", month, e.getMessage());
+                archivedUpTo = -1;
+            }
+        }
+    }
+
+    private record ExpiredNotification(Integer notificationId, Integer receiverId, Integer createdMonth) {
+    }
+}
@@ -9,6 +9,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
 import vn.fpt.seima.seimaserver.config.ocr.AzureFormRecognizerConfig;
+import vn.fpt.seima.seimaserver.dto.request.upload.DirectUploadRequest;
+import vn.fpt.seima.seimaserver.dto.request.upload.UploadPurpose;
 import vn.fpt.seima.seimaserver.dto.response.transaction.TransactionOcrResponse;
 import vn.fpt.seima.seimaserver.exception.GroupException;
 import vn.fpt.seima.seimaserver.service.CloudinaryService;
@@ -31,7 +33,6 @@ public class OcrServiceImpl implements OcrService {
     private final GeminiService geminiService;
     private final AzureFormRecognizerConfig config;
     private final RestTemplate restTemplate = new RestTemplate();
-    private final HttpHeaders headers = new HttpHeaders();
     private final static String endPointUrl = "formrecognizer/documentModels/prebuilt-invoice:analyze?api-version=2023-07-31";
     private static final long MAX_FILE_SIZE = 5 * 1024 * 1024; // 5MB
     private static final List<String> SUPPORTED_FORMATS = Arrays.asList("jpg", "jpeg", "png");
@@ -39,40 +40,13 @@ public class OcrServiceImpl implements OcrService {
     public TransactionOcrResponse extractTextFromFile(MultipartFile file) throws Exception {
         try {
             validateImageFile(file);
-            String analyzeUrl = config.getEndpoint() +endPointUrl;
-
-            headers.set("Ocp-Apim-Subscription-Key", config.getApiKey());
-            headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-
-            HttpEntity<byte[]> request = new HttpEntity<>(file.getBytes(), headers);
-            ResponseEntity<Void> response = restTemplate.exchange(analyzeUrl, HttpMethod.POST, request, Void.class);
 
+            // Fallback for clients that cannot upload directly: the file is streamed to Cloudinary
+            // and Azure reads it from there, so its bytes are never held on our heap
             Map uploadResult = cloudinaryService.uploadImage(
-                    file, "transaction/receipt"
-            );
-            String imageUrl = ((String) uploadResult.get("secure_url"));
-
-            String operationLocation = response.getHeaders().getFirst("Operation-Location");
-            if (operationLocation == null) throw new IllegalStateException("Missing Operation-Location header");
-
-            Thread.sleep(2000);
-
-            HttpHeaders resultHeaders = new HttpHeaders();
-            resultHeaders.set("Ocp-Apim-Subscription-Key", config.getApiKey());
-
-            HttpEntity<Void> resultRequest = new HttpEntity<>(resultHeaders);
-            ResponseEntity<String> resultResponse = restTemplate.exchange(
-                    operationLocation,
-                    HttpMethod.GET,
-                    resultRequest,
-                    String.class
+                    file, UploadPurpose.RECEIPT.getFolder()
             );
-            TransactionOcrResponse ocrResponse =  geminiService.analyzeInvoiceFromOcrText(resultResponse.getBody(), imageUrl);
-            log.info("reponse ocr:" + ocrResponse);
-            if (ocrResponse.getAmount() == null || (ocrResponse.getAmount().compareTo(BigDecimal.ZERO) == 0 )) {
-                throw new Exception("Scan Invoice Unsuccessful");
-            }
-            return ocrResponse;
+            return analyzeInvoice((String) uploadResult.get("secure_url"));
         }
         catch (Exception e) {
             throw new Exception(e.getMessage());
@@ -81,6 +55,46 @@ public class OcrServiceImpl implements OcrService {
 
     }
 
+    @Override
+    public TransactionOcrResponse extractTextFromUpload(Integer userId, DirectUploadRequest upload) throws Exception {
+        // A forged or foreign upload surfaces as IllegalArgumentException, which the controller reports as 400
+        String imageUrl = cloudinaryService.verifyDirectUpload(UploadPurpose.RECEIPT, userId, upload);
+        return analyzeInvoice(imageUrl);
+    }
+
+    private TransactionOcrResponse analyzeInvoice(String imageUrl) throws Exception {
+        String analyzeUrl = config.getEndpoint() +endPointUrl;
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Ocp-Apim-Subscription-Key", config.getApiKey());
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        HttpEntity<Map<String, String>> request = new HttpEntity<>(Map.of("urlSource", imageUrl), headers);
+        ResponseEntity<Void> response = restTemplate.exchange(analyzeUrl, HttpMethod.POST, request, Void.class);
+
+        String operationLocation = response.getHeaders().getFirst("Operation-Location");
+        if (operationLocation == null) throw new IllegalStateException("Missing Operation-Location header");
+
+        Thread.sleep(2000);
+
+        HttpHeaders resultHeaders = new HttpHeaders();
+        resultHeaders.set("Ocp-Apim-Subscription-Key", config.getApiKey());
+
+        HttpEntity<Void> resultRequest = new HttpEntity<>(resultHeaders);
+        ResponseEntity<String> resultResponse = restTemplate.exchange(
+                operationLocation,
+                HttpMethod.GET,
+                resultRequest,
+                String.class
+        );
+        TransactionOcrResponse ocrResponse =  geminiService.analyzeInvoiceFromOcrText(resultResponse.getBody(), imageUrl);
+        log.info("reponse ocr:" + ocrResponse);
+        if (ocrResponse.getAmount() == null || (ocrResponse.getAmount().compareTo(BigDecimal.ZERO) == 0 )) {
+            throw new Exception("Scan Invoice Unsuccessful");
+        }
+        return ocrResponse;
+    }
+
     private void validateImageFile(MultipartFile file) {
         if (file == null || file.isEmpty()) {
             throw new GroupException("Image file cannot be null or empty");
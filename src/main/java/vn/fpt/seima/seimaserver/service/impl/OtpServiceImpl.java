@@ -0,0 +1,77 @@
+package vn.fpt.seima.seimaserver.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import vn.fpt.seima.seimaserver.dto.response.auth.OtpIssueResult;
+import vn.fpt.seima.seimaserver.dto.response.auth.OtpVerifyResult;
+import vn.fpt.seima.seimaserver.service.OtpService;
+
+import java.util.List;
+
+/**
+ * Each OTP is a small Redis hash and every operation on it is a single Lua script, so the
+ * read-check-write of the attempt counters happens atomically on the server and concurrent
+ * requests cannot slip past the limits. Scripts are sent once and then run by their SHA.
+ */
+@Service
+@RequiredArgsConstructor
+public class OtpServiceImpl implements OtpService {
+    private static final int MAX_OTP_ATTEMPTS = 5;
+    private static final long OTP_EXPIRATION_SECONDS = 3 * 60;
+    private static final int MAX_INCORRECT_OTP_ATTEMPTS = 3;
+
+    private static final RedisScript<Long> ISSUE_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/otp-issue.lua"), Long.class);
+    private static final RedisScript<Long> VERIFY_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/otp-verify.lua"), Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Value("${otp.resend-cooldown:30}")
+    private long resendCooldownSeconds;
+
+    @Override
+    public OtpIssueResult issue(String key, String otpCode, boolean resend) {
+        Long result = stringRedisTemplate.execute(ISSUE_SCRIPT, List.of(key),
+                otpCode,
+                String.valueOf(MAX_OTP_ATTEMPTS),
+                String.valueOf(OTP_EXPIRATION_SECONDS),
+                String.valueOf(resend ? resendCooldownSeconds : 0));
+        long code = result != null ? result : 0;
+        if (code > 0) {
+            return new OtpIssueResult(OtpIssueResult.Status.ISSUED, 0);
+        }
+        if (code < 0) {
+            return new OtpIssueResult(OtpIssueResult.Status.COOLING_DOWN, -code);
+        }
+        return new OtpIssueResult(OtpIssueResult.Status.LIMIT_REACHED, 0);
+    }
+
+    @Override
+    public OtpVerifyResult verify(String key, String otpCode) {
+        Long result = stringRedisTemplate.execute(VERIFY_SCRIPT, List.of(key),
+                otpCode,
+                String.valueOf(MAX_INCORRECT_OTP_ATTEMPTS));
+        long code = result != null ? result : -1;
+        if (code == 0) {
+            return new OtpVerifyResult(OtpVerifyResult.Status.VERIFIED, 0);
+        }
+        if (code == -1) {
+            return new OtpVerifyResult(OtpVerifyResult.Status.NOT_FOUND, 0);
+        }
+        if (code == -2) {
+            return new OtpVerifyResult(OtpVerifyResult.Status.LOCKED, 0);
+        }
+        return new OtpVerifyResult(OtpVerifyResult.Status.INVALID, (int) (MAX_INCORRECT_OTP_ATTEMPTS - code));
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Boolean.TRUE.equals(stringRedisTemplate.hasKey(key));
+    }
+}
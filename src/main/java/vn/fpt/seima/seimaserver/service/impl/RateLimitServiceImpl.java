@@ -0,0 +1,104 @@
+package vn.fpt.seima.seimaserver.service.impl;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.Refill;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.distributed.proxy.RemoteBucketBuilder;
+import io.github.bucket4j.distributed.proxy.optimization.DelayParameters;
+import io.github.bucket4j.distributed.proxy.optimization.Optimizations;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.AntPathMatcher;
+import vn.fpt.seima.seimaserver.config.ratelimit.RateLimitProperties;
+import vn.fpt.seima.seimaserver.config.ratelimit.RateLimitProperties.Policy;
+import vn.fpt.seima.seimaserver.service.RateLimitService;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bucket state is shared through Redis. Each node keeps the bucket proxies it has used recently, and a
+ * proxy with a large enough capacity batches its consumption locally and synchronises with Redis every
+ * few tokens or every timeout, so a busy client does not cost a Redis round trip per request.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RateLimitServiceImpl implements RateLimitService {
+    private static final String KEY_PREFIX = "rate-limit:";
+
+    private final ProxyManager<byte[]> rateLimitProxyManager;
+    private final RateLimitProperties rateLimitProperties;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<String, LocalBucket> buckets = new ConcurrentHashMap<>();
+
+    @Override
+    public ConsumptionProbe tryConsume(String method, String path, String clientId) {
+        Policy policy = resolvePolicy(method, path);
+        String key = KEY_PREFIX + policy.getName() + ":" + clientId;
+
+        LocalBucket local = buckets.get(key);
+        if (local == null) {
+            if (buckets.size() >= rateLimitProperties.getMaxLocalBuckets()) {
+                // Too many clients to remember locally; still enforce the limit, straight against Redis
+                return newBucket(key, policy, false).tryConsumeAndReturnRemaining(1);
+            }
+            local = buckets.computeIfAbsent(key, k -> new LocalBucket(newBucket(k, policy, true)));
+        }
+        local.lastAccess = System.currentTimeMillis();
+        return local.bucket.tryConsumeAndReturnRemaining(1);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${rate-limit.eviction-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        long cutoff = System.currentTimeMillis() - rateLimitProperties.getIdleTimeout().toMillis();
+        int before = buckets.size();
+        buckets.values().removeIf(local -> local.lastAccess < cutoff);
+        if (before != buckets.size()) {
+            log.debug("Evicted {} idle rate-limit buckets", before - buckets.size());
+        }
+    }
+
+    private Policy resolvePolicy(String method, String path) {
+        for (Policy policy : rateLimitProperties.getPolicies()) {
+            if ((policy.getMethod() == null || policy.getMethod().equalsIgnoreCase(method))
+                    && pathMatcher.match(policy.getPattern(), path)) {
+                return policy;
+            }
+        }
+        return rateLimitProperties.getDefaultPolicy();
+    }
+
+    private Bucket newBucket(String key, Policy policy, boolean allowLocalSync) {
+        BucketConfiguration configuration = BucketConfiguration.builder()
+                .addLimit(Bandwidth.classic(policy.getCapacity(),
+                        Refill.greedy(policy.getCapacity(), policy.getPeriod())))
+                .build();
+
+        RemoteBucketBuilder<byte[]> builder = rateLimitProxyManager.builder();
+        long unsyncedTokens = Math.min(rateLimitProperties.getLocalSyncTokens(), policy.getCapacity() / 10);
+        if (allowLocalSync && unsyncedTokens > 1) {
+            builder = builder.withOptimization(Optimizations.delaying(
+                    new DelayParameters(unsyncedTokens, rateLimitProperties.getLocalSyncTimeout())));
+        }
+        return builder.build(key.getBytes(StandardCharsets.UTF_8), () -> configuration);
+    }
+
+    private static class LocalBucket {
+        private final Bucket bucket;
+        private volatile long lastAccess;
+
+        private LocalBucket(Bucket bucket) {
+            this.bucket = bucket;
+            this.lastAccess = System.currentTimeMillis();
+        }
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.stereotype.Service;
 import vn.fpt.seima.seimaserver.service.RedisService;
 import lombok.RequiredArgsConstructor;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -52,9 +53,23 @@ public class RedisServiceImpl implements RedisService {
         return redisTemplate.opsForValue().get(key);
     }
 
+    @Override
+    public List<Object> multiGet(Collection<Object> keys) {
+        List<Object> values = redisTemplate.opsForValue().multiGet(keys);
+        return values != null ? values : new ArrayList<>();
+    }
+
     @Override
     public <T> T getObject(Object key, Class<T> clazz) {
-        Object value = redisTemplate.opsForValue().get(key);
+        return convert(redisTemplate.opsForValue().get(key), clazz);
+    }
+
+    @Override
+    public <T> T hashGetObject(Object key, String field, Class<T> clazz) {
+        return convert(hashOperations.get(key, field), clazz);
+    }
+
+    private <T> T convert(Object value, Class<T> clazz) {
         if (value == null) {
             return null;
         }
@@ -131,4 +146,21 @@ public class RedisServiceImpl implements RedisService {
         hashOperations.putAll(key, map);
     }
 
+    @Override
+    public void publish(String channel, Object message) {
+        redisTemplate.convertAndSend(channel, message);
+    }
+
+    @Override
+    public long increment(Object key) {
+        Long value = redisTemplate.opsForValue().increment(key);
+        return value != null ? value : 0L;
+    }
+
+    @Override
+    public long hashIncrement(Object key, String field) {
+        Long value = hashOperations.increment(key, field, 1L);
+        return value != null ? value : 0L;
+    }
+
 }
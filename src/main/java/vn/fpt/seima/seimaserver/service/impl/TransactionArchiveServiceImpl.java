@@ -0,0 +1,124 @@
+package vn.fpt.seima.seimaserver.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import vn.fpt.seima.seimaserver.config.transaction.TransactionArchiveProperties;
+import vn.fpt.seima.seimaserver.repository.TransactionTiers;
+import vn.fpt.seima.seimaserver.service.TransactionArchiveService;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Online mover from {@code transaction} to {@code transaction_archive}. Rows are copied and deleted in
+ * small batches by primary key, each batch in its own transaction with a pause in between, so live
+ * writes never wait long on its locks. Reads stay correct throughout: see {@link TransactionTiers}.
+ */
+@Slf4j
+@Service
+public class TransactionArchiveServiceImpl implements TransactionArchiveService {
+
+    private static final String COLD_CONDITION = "transaction_date < ?";
+
+    private static final String INACTIVE_CONDITION = "transaction_type = 'INACTIVE' AND updated_at < ?";
+
+    private static final String SELECT_COLD_SQL = "SELECT transaction_id FROM `transaction` " +
+            "WHERE " + COLD_CONDITION + " ORDER BY transaction_date LIMIT ?";
+
+    private static final String SELECT_INACTIVE_SQL = "SELECT transaction_id FROM `transaction` " +
+            "WHERE " + INACTIVE_CONDITION + " ORDER BY updated_at LIMIT ?";
+
+    // Re-checks the condition under a row lock: a row edited since it was selected may no longer qualify
+    private static final String LOCK_SQL = "SELECT transaction_id FROM `transaction` " +
+            "WHERE transaction_id IN (%s) AND %s FOR UPDATE";
+
+    // No IGNORE: an id already in the archive must fail the batch, not get deleted from the hot table unarchived
+    private static final String ARCHIVE_SQL = "INSERT INTO transaction_archive (transaction_id, user_id, " +
+            "wallet_id, category_id, group_id, transaction_type, amount, currency_code, transaction_date, " +
+            "description, receipt_image_url, payee_payer_name, created_at, updated_at, archived_at) " +
+            "SELECT transaction_id, user_id, wallet_id, category_id, group_id, transaction_type, amount, " +
+            "currency_code, transaction_date, description, receipt_image_url, payee_payer_name, created_at, " +
+            "updated_at, NOW() FROM `transaction` WHERE transaction_id IN (%s)";
+
+    private static final String DELETE_SQL = "DELETE FROM `transaction` WHERE transaction_id IN (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTiers transactionTiers;
+    private final TransactionArchiveProperties properties;
+
+    public TransactionArchiveServiceImpl(JdbcTemplate jdbcTemplate,
+                                         PlatformTransactionManager transactionManager,
+                                         TransactionTiers transactionTiers,
+                                         TransactionArchiveProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTiers = transactionTiers;
+        this.properties = properties;
+    }
+
+    @Override
+    public synchronized void archiveTransactions() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        LocalDateTime hotFrom = transactionTiers.hotFrom();
+        try {
+            int cold = moveAll(SELECT_COLD_SQL, COLD_CONDITION, Timestamp.valueOf(hotFrom));
+            int inactive = moveAll(SELECT_INACTIVE_SQL, INACTIVE_CONDITION,
+                    Timestamp.valueOf(LocalDateTime.now().minus(properties.getInactiveGrace())));
+            if (cold + inactive > 0) {
+                log.info("Archived {} transactions before {} and {} deleted ones", cold, hotFrom, inactive);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Transaction archiving failed", e);
+        }
+    }
+
+    private int moveAll(String selectSql, String condition, Timestamp cutoff) throws InterruptedException {
+        int moved = 0;
+        for (int i = 0; i < properties.getMaxBatches(); i++) {
+            List<Integer> ids = jdbcTemplate.queryForList(selectSql, Integer.class, cutoff, properties.getBatchSize());
+            if (ids.isEmpty()) {
+                break;
+            }
+            Integer batch = transactionTemplate.execute(status -> moveBatch(ids, condition, cutoff));
+            moved += batch == null ? 0 : batch;
+            if (ids.size() < properties.getBatchSize()) {
+                break;
+            }
+            Thread.sleep(properties.getBatchPause().toMillis());
+        }
+        return moved;
+    }
+
+    private int moveBatch(List<Integer> candidates, String condition, Timestamp cutoff) {
+        Object[] lockArgs = new Object[candidates.size() + 1];
+        candidates.toArray(lockArgs);
+        lockArgs[candidates.size()] = cutoff;
+        List<Integer> ids = jdbcTemplate.queryForList(
+                String.format(LOCK_SQL, placeholders(candidates.size()), condition), Integer.class, lockArgs);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        Object[] args = ids.toArray();
+        int archived = jdbcTemplate.update(String.format(ARCHIVE_SQL, placeholders(ids.size())), args);
+        if (archived != ids.size()) {
+            // Rolls the batch back, so nothing leaves the hot table without its archived copy
+            throw new IllegalStateException("Archived " + archived + " of " + ids.size() + " locked transactions");
+        }
+        return jdbcTemplate.update(String.format(DELETE_SQL, placeholders(ids.size())), args);
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
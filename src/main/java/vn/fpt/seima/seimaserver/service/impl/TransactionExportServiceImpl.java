@@ -0,0 +1,128 @@
+package vn.fpt.seima.seimaserver.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import vn.fpt.seima.seimaserver.dto.response.transaction.TransactionExportRow;
+import vn.fpt.seima.seimaserver.repository.TransactionRepository;
+import vn.fpt.seima.seimaserver.service.TransactionExportService;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionExportServiceImpl implements TransactionExportService {
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String CSV_HEADER = "transaction_id,transaction_date,transaction_type,amount,currency_code," +
+            "category_name,wallet_name,description,payee_payer_name";
+
+    private final TransactionRepository transactionRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportTransactions(Integer userId,
+                                   LocalDate from,
+                                   LocalDate to,
+                                   Integer walletId,
+                                   Integer categoryId,
+                                   ExportFormat format,
+                                   OutputStream out) throws IOException {
+        if (userId == null) {
+            throw new IllegalArgumentException("User must not be null");
+        }
+        LocalDateTime start = from != null ? from.atStartOfDay() : EARLIEST;
+        LocalDateTime end = to != null ? to.atTime(23, 59, 59) : LATEST;
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("Start date must be before end date");
+        }
+
+        long rows;
+        try (Stream<TransactionExportRow> stream =
+                     transactionRepository.streamForExport(userId, start, end, walletId, categoryId)) {
+            rows = format == ExportFormat.JSON ? writeJson(stream, out) : writeCsv(stream, out);
+        } catch (UncheckedIOException e) {
+            // Usually the client went away mid-download; nothing left to send it
+            throw e.getCause();
+        }
+        log.info("Exported {} transactions for user {} as {}", rows, userId, format);
+    }
+
+    private long writeCsv(Stream<TransactionExportRow> stream, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write("\r\n");
+        long[] count = {0};
+        stream.forEach(row -> {
+            try {
+                writer.write(row.getTransactionId().toString());
+                writer.write(',');
+                writer.write(row.getTransactionDate() != null ? DATE_FORMAT.format(row.getTransactionDate()) : "");
+                writer.write(',');
+                writer.write(row.getTransactionType() != null ? row.getTransactionType().name() : "");
+                writer.write(',');
+                writer.write(row.getAmount().toPlainString());
+                writer.write(',');
+                writer.write(csv(row.getCurrencyCode()));
+                writer.write(',');
+                writer.write(csv(row.getCategoryName()));
+                writer.write(',');
+                writer.write(csv(row.getWalletName()));
+                writer.write(',');
+                writer.write(csv(row.getDescription()));
+                writer.write(',');
+                writer.write(csv(row.getPayeePayerName()));
+                writer.write("\r\n");
+                count[0]++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+        return count[0];
+    }
+
+    private long writeJson(Stream<TransactionExportRow> stream, OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.writeStartArray();
+        long[] count = {0};
+        stream.forEach(row -> {
+            try {
+                generator.writeObject(row);
+                count[0]++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        generator.writeEndArray();
+        generator.close();
+        return count[0];
+    }
+
+    private String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,479 @@
+package vn.fpt.seima.seimaserver.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import vn.fpt.seima.seimaserver.dto.response.transaction.TransactionImportResponse;
+import vn.fpt.seima.seimaserver.dto.response.transaction.TransactionImportResponse.ImportStatus;
+import vn.fpt.seima.seimaserver.entity.*;
+import vn.fpt.seima.seimaserver.event.FinancialHealthChangedEvent;
+import vn.fpt.seima.seimaserver.event.ResourceChangedEvent;
+import vn.fpt.seima.seimaserver.event.ResourceFamily;
+import vn.fpt.seima.seimaserver.repository.*;
+import vn.fpt.seima.seimaserver.service.BudgetPeriodService;
+import vn.fpt.seima.seimaserver.service.ExchangeRateService;
+import vn.fpt.seima.seimaserver.service.RedisService;
+import vn.fpt.seima.seimaserver.service.TransactionImportService;
+import vn.fpt.seima.seimaserver.util.UserUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Imports a CSV bank statement as personal transactions.
+ * <p>
+ * The upload is spooled to a temp file and read line by line on a worker thread. Valid rows are inserted
+ * with JDBC batches; wallet balances and budget periods are adjusted once per (wallet) and (budget, period)
+ * aggregate at the end, and the overview/financial-health caches are invalidated once.
+ * <p>
+ * Expected header (any order, case-insensitive):
+ * {@code date,type,amount,category_id,wallet_id[,currency_code,description,payee_payer_name]}
+ */
+@Slf4j
+@Service
+public class TransactionImportServiceImpl implements TransactionImportService {
+    private static final String JOB_KEY_PREFIX = "tx:import:";
+    private static final long JOB_TTL_MINUTES = 60 * 24;
+    private static final int BATCH_SIZE = 500;
+    private static final int MAX_REPORTED_ERRORS = 50;
+    private static final List<DateTimeFormatter> DATE_TIME_FORMATS = List.of(
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"),
+            DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    private static final String INSERT_SQL = "INSERT INTO `transaction` (user_id, wallet_id, category_id, " +
+            "transaction_type, amount, currency_code, transaction_date, description, payee_payer_name, " +
+            "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor taskExecutor;
+    private final RedisService redisService;
+    private final WalletRepository walletRepository;
+    private final CategoryRepository categoryRepository;
+    private final BudgetRepository budgetRepository;
+    private final BudgetCategoryLimitRepository budgetCategoryLimitRepository;
+    private final BudgetWalletRepository budgetWalletRepository;
+    private final BudgetPeriodRepository budgetPeriodRepository;
+    private final BudgetPeriodService budgetPeriodService;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final ExchangeRateService exchangeRateService;
+
+    public TransactionImportServiceImpl(JdbcTemplate jdbcTemplate,
+                                        PlatformTransactionManager transactionManager,
+                                        @Qualifier("taskExecutor") Executor taskExecutor,
+                                        RedisService redisService,
+                                        WalletRepository walletRepository,
+                                        CategoryRepository categoryRepository,
+                                        BudgetRepository budgetRepository,
+                                        BudgetCategoryLimitRepository budgetCategoryLimitRepository,
+                                        BudgetWalletRepository budgetWalletRepository,
+                                        BudgetPeriodRepository budgetPeriodRepository,
+                                        BudgetPeriodService budgetPeriodService,
+                                        ApplicationEventPublisher applicationEventPublisher,
+                                        ExchangeRateService exchangeRateService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.taskExecutor = taskExecutor;
+        this.redisService = redisService;
+        this.walletRepository = walletRepository;
+        this.categoryRepository = categoryRepository;
+        this.budgetRepository = budgetRepository;
+        this.budgetCategoryLimitRepository = budgetCategoryLimitRepository;
+        this.budgetWalletRepository = budgetWalletRepository;
+        this.budgetPeriodRepository = budgetPeriodRepository;
+        this.budgetPeriodService = budgetPeriodService;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.exchangeRateService = exchangeRateService;
+    }
+
+    @Override
+    public TransactionImportResponse startImport(MultipartFile file) {
+        User user = UserUtils.getCurrentUser();
+        if (user == null) {
+            throw new IllegalArgumentException("User must not be null");
+        }
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("File must not be empty");
+        }
+
+        // The multipart temp file is removed when the request ends, so spool to our own file (disk, not heap)
+        Path spooled;
+        try {
+            spooled = Files.createTempFile("seima-import-", ".csv");
+            file.transferTo(spooled);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read import file: " + e.getMessage(), e);
+        }
+
+        TransactionImportResponse job = TransactionImportResponse.builder()
+                .jobId(UUID.randomUUID().toString())
+                .userId(user.getUserId())
+                .status(ImportStatus.QUEUED)
+                .startedAt(LocalDateTime.now())
+                .build();
+        saveJob(job);
+
+        Integer userId = user.getUserId();
+        try {
+            taskExecutor.execute(() -> runImport(job, userId, spooled));
+        } catch (RejectedExecutionException e) {
+            // The worker queue is full: fail the job now rather than leave it queued with nothing to run it
+            log.warn("Transaction import {} rejected for user {}: worker queue is full", job.getJobId(), userId);
+            job.setStatus(ImportStatus.FAILED);
+            job.setMessage("The import queue is full, please try again later");
+            job.setFinishedAt(LocalDateTime.now());
+            saveJob(job);
+            deleteSpoolFile(spooled);
+        }
+        return job;
+    }
+
+    @Override
+    public TransactionImportResponse getImportStatus(String jobId) {
+        User user = UserUtils.getCurrentUser();
+        if (user == null) {
+            throw new IllegalArgumentException("User must not be null");
+        }
+        TransactionImportResponse job = redisService.getObject(JOB_KEY_PREFIX + jobId, TransactionImportResponse.class);
+        if (job == null || !user.getUserId().equals(job.getUserId())) {
+            throw new IllegalArgumentException("Import job not found: " + jobId);
+        }
+        return job;
+    }
+
+    private void runImport(TransactionImportResponse job, Integer userId, Path file) {
+        job.setStatus(ImportStatus.RUNNING);
+        saveJob(job);
+        try {
+            ImportTotals totals = transactionTemplate.execute(status -> importRows(job, userId, file));
+            invalidateCaches(userId, totals.months);
+            job.setStatus(ImportStatus.COMPLETED);
+            job.setMessage("Imported " + job.getImportedRows() + " of " + job.getProcessedRows() + " rows");
+        } catch (Exception e) {
+            log.error("Transaction import {} failed for user {}: {}", job.getJobId(), userId, e.getMessage(), e);
+            job.setStatus(ImportStatus.FAILED);
+            job.setImportedRows(0);
+            job.setMessage("Import failed, no rows were saved: " + e.getMessage());
+        } finally {
+            job.setFinishedAt(LocalDateTime.now());
+            saveJob(job);
+            deleteSpoolFile(file);
+        }
+    }
+
+    private void deleteSpoolFile(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete import spool file {}", file, e);
+        }
+    }
+
+    private ImportTotals importRows(TransactionImportResponse job, Integer userId, Path file) {
+        Map<Integer, Wallet> wallets = walletRepository.findAllActiveByUserId(userId).stream()
+                .collect(Collectors.toMap(Wallet::getId, Function.identity()));
+        Map<Integer, Category> expenseCategories = categoriesById(CategoryType.EXPENSE, userId);
+        Map<Integer, Category> incomeCategories = categoriesById(CategoryType.INCOME, userId);
+
+        ImportTotals totals = new ImportTotals();
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String headerLine = reader.readLine();
+            if (headerLine == null) {
+                throw new IllegalArgumentException("File is empty");
+            }
+            Map<String, Integer> header = parseHeader(headerLine);
+
+            String line;
+            int lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                job.setProcessedRows(job.getProcessedRows() + 1);
+                try {
+                    ImportRow row = parseRow(splitCsvLine(line), header, wallets, expenseCategories, incomeCategories);
+                    batch.add(new Object[]{userId, row.wallet.getId(), row.categoryId, row.type.name(), row.amount,
+                            row.currencyCode, Timestamp.valueOf(row.date), row.description, row.payee, now, now});
+                    totals.add(row);
+                    job.setImportedRows(job.getImportedRows() + 1);
+                } catch (IllegalArgumentException e) {
+                    job.setRejectedRows(job.getRejectedRows() + 1);
+                    if (job.getErrors().size() < MAX_REPORTED_ERRORS) {
+                        job.getErrors().add("Line " + lineNumber + ": " + e.getMessage());
+                    }
+                }
+
+                if (batch.size() == BATCH_SIZE) {
+                    jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+                    batch.clear();
+                    saveJob(job);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read import file: " + e.getMessage(), e);
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+        }
+
+        applyWalletDeltas(totals.walletDeltas);
+        applyBudgetDeltas(userId, totals.expenseByDay);
+        return totals;
+    }
+
+    /**
+     * The wallets were loaded when the import started; transactions added meanwhile have moved their
+     * balances, so each delta is added in the database rather than written over a stale balance.
+     */
+    private void applyWalletDeltas(Map<Integer, BigDecimal> deltas) {
+        // In id order, so two imports touching the same wallets lock them in the same order
+        new TreeMap<>(deltas).forEach(walletRepository::addToBalance);
+    }
+
+    /**
+     * Folds the per-(category, wallet, day) expense totals into each matching budget's periods,
+     * then touches every affected period exactly once. Like a single expense, each day's total is
+     * converted to the budget's currency at that day's rate; a missing rate fails the import.
+     */
+    private void applyBudgetDeltas(Integer userId, Map<ExpenseKey, BigDecimal> expenseByDay) {
+        if (expenseByDay.isEmpty()) {
+            return;
+        }
+        for (Budget budget : budgetRepository.findByUserId(userId)) {
+            Set<Integer> categoryIds = budgetCategoryLimitRepository.findByBudget(budget.getBudgetId()).stream()
+                    .map(limit -> limit.getCategory().getCategoryId())
+                    .collect(Collectors.toSet());
+            Set<Integer> walletIds = new HashSet<>(budgetWalletRepository.findWalletIdsByBudgetId(budget.getBudgetId()));
+
+            Map<Integer, BigDecimal> spentByPeriod = new TreeMap<>();
+            expenseByDay.forEach((key, amount) -> {
+                if (!categoryIds.contains(key.categoryId) || !walletIds.contains(key.walletId)) {
+                    return;
+                }
+                Integer index = budgetPeriodService.resolvePeriodIndex(budget, key.day.atStartOfDay());
+                if (index != null) {
+                    spentByPeriod.merge(index, exchangeRateService.convert(amount, key.currencyCode,
+                            budget.getCurrencyCode(), key.day), BigDecimal::add);
+                }
+            });
+
+            List<BudgetPeriod> periods = new ArrayList<>();
+            spentByPeriod.forEach((index, spent) -> {
+                BudgetPeriod period = budgetPeriodService.getOrCreatePeriod(budget,
+                        budgetPeriodService.buildPeriod(budget, index).getStartDate());
+                period.setRemainingAmount(period.getRemainingAmount().subtract(spent));
+                periods.add(period);
+            });
+            budgetPeriodRepository.saveAll(periods);
+        }
+    }
+
+    private void invalidateCaches(Integer userId, Set<YearMonth> months) {
+        for (YearMonth month : months) {
+            redisService.delete(String.format("tx:overviews:%d:%s", userId, month));
+        }
+        applicationEventPublisher.publishEvent(new FinancialHealthChangedEvent(userId));
+        applicationEventPublisher.publishEvent(new ResourceChangedEvent(userId, ResourceFamily.TRANSACTIONS, ResourceFamily.WALLETS, ResourceFamily.BUDGETS));
+    }
+
+    private ImportRow parseRow(List<String> cells,
+                               Map<String, Integer> header,
+                               Map<Integer, Wallet> wallets,
+                               Map<Integer, Category> expenseCategories,
+                               Map<Integer, Category> incomeCategories) {
+        ImportRow row = new ImportRow();
+
+        String type = cell(cells, header, "type");
+        try {
+            row.type = TransactionType.valueOf(type.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Type must be EXPENSE or INCOME");
+        }
+        if (row.type != TransactionType.EXPENSE && row.type != TransactionType.INCOME) {
+            throw new IllegalArgumentException("Type must be EXPENSE or INCOME");
+        }
+
+        try {
+            row.amount = new BigDecimal(cell(cells, header, "amount"));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Amount is not a number");
+        }
+        if (row.amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Amount must greater than zero");
+        }
+
+        row.date = parseDate(cell(cells, header, "date"));
+
+        row.wallet = wallets.get(parseId(cell(cells, header, "wallet_id"), "wallet_id"));
+        if (row.wallet == null) {
+            throw new IllegalArgumentException("Wallet not found");
+        }
+        row.categoryId = parseId(cell(cells, header, "category_id"), "category_id");
+        Map<Integer, Category> categories = row.type == TransactionType.EXPENSE ? expenseCategories : incomeCategories;
+        if (!categories.containsKey(row.categoryId)) {
+            throw new IllegalArgumentException("Category not found for type " + row.type);
+        }
+
+        String currencyCode = optionalCell(cells, header, "currency_code");
+        row.currencyCode = currencyCode != null ? currencyCode.toUpperCase(Locale.ROOT) : row.wallet.getCurrencyCode();
+        if (!Objects.equals(row.currencyCode, row.wallet.getCurrencyCode())) {
+            throw new IllegalArgumentException("Currency " + row.currencyCode + " does not match the wallet currency");
+        }
+        row.description = optionalCell(cells, header, "description");
+        row.payee = optionalCell(cells, header, "payee_payer_name");
+        return row;
+    }
+
+    private Map<Integer, Category> categoriesById(CategoryType type, Integer userId) {
+        return categoryRepository.findByCategoryTypeAndUser_UserIdOrUserIsNull(type, userId).stream()
+                .collect(Collectors.toMap(Category::getCategoryId, Function.identity()));
+    }
+
+    private Map<String, Integer> parseHeader(String headerLine) {
+        List<String> names = splitCsvLine(headerLine.replace("\uFEFF", ""));
+        Map<String, Integer> header = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            header.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of("date", "type", "amount", "category_id", "wallet_id")) {
+            if (!header.containsKey(required)) {
+                throw new IllegalArgumentException("Missing column: " + required);
+            }
+        }
+        return header;
+    }
+
+    private String cell(List<String> cells, Map<String, Integer> header, String column) {
+        String value = optionalCell(cells, header, column);
+        if (value == null) {
+            throw new IllegalArgumentException(column + " must not be empty");
+        }
+        return value;
+    }
+
+    private String optionalCell(List<String> cells, Map<String, Integer> header, String column) {
+        Integer index = header.get(column);
+        if (index == null || index >= cells.size()) {
+            return null;
+        }
+        String value = cells.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private Integer parseId(String value, String column) {
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " is not a number");
+        }
+    }
+
+    private LocalDateTime parseDate(String value) {
+        for (DateTimeFormatter format : DATE_TIME_FORMATS) {
+            try {
+                return LocalDateTime.parse(value, format);
+            } catch (DateTimeParseException ignored) {
+                // try the next format
+            }
+        }
+        try {
+            return LocalDate.parse(value).atStartOfDay();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Date must be yyyy-MM-dd or yyyy-MM-dd HH:mm:ss");
+        }
+    }
+
+    /**
+     * Splits one CSV record, honouring double-quoted fields and "" escapes.
+     */
+    static List<String> splitCsvLine(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        cells.add(current.toString());
+        return cells;
+    }
+
+    private void saveJob(TransactionImportResponse job) {
+        String key = JOB_KEY_PREFIX + job.getJobId();
+        redisService.set(key, job);
+        redisService.setTimeToLiveInMinutes(key, JOB_TTL_MINUTES);
+    }
+
+    private static class ImportRow {
+        private TransactionType type;
+        private BigDecimal amount;
+        private LocalDateTime date;
+        private Wallet wallet;
+        private Integer categoryId;
+        private String currencyCode;
+        private String description;
+        private String payee;
+    }
+
+    private record ExpenseKey(Integer categoryId, Integer walletId, String currencyCode, LocalDate day) {
+    }
+
+    /**
+     * Side effects accumulated while streaming, applied once after the last batch.
+     */
+    private static class ImportTotals {
+        private final Map<Integer, BigDecimal> walletDeltas = new HashMap<>();
+        private final Map<ExpenseKey, BigDecimal> expenseByDay = new HashMap<>();
+        private final Set<YearMonth> months = new HashSet<>();
+
+        private void add(ImportRow row) {
+            BigDecimal signed = row.type == TransactionType.EXPENSE ? row.amount.negate() : row.amount;
+            walletDeltas.merge(row.wallet.getId(), signed, BigDecimal::add);
+            if (row.type == TransactionType.EXPENSE) {
+                ExpenseKey key = new ExpenseKey(row.categoryId, row.wallet.getId(), row.currencyCode,
+                        row.date.toLocalDate());
+                expenseByDay.merge(key, row.amount, BigDecimal::add);
+            }
+            months.add(YearMonth.from(row.date));
+        }
+    }
+}
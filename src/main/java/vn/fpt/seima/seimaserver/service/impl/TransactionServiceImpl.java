@@ -5,18 +5,25 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import vn.fpt.seima.seimaserver.config.datasource.PrimaryReads;
 import vn.fpt.seima.seimaserver.dto.request.transaction.CreateTransactionRequest;
 import vn.fpt.seima.seimaserver.dto.response.transaction.*;
 import vn.fpt.seima.seimaserver.entity.*;
 import vn.fpt.seima.seimaserver.entity.GroupMemberStatus;
 import vn.fpt.seima.seimaserver.entity.NotificationType;
+import vn.fpt.seima.seimaserver.event.FinancialHealthChangedEvent;
+import vn.fpt.seima.seimaserver.event.ResourceChangedEvent;
+import vn.fpt.seima.seimaserver.event.ResourceFamily;
 import vn.fpt.seima.seimaserver.mapper.TransactionMapper;
 import vn.fpt.seima.seimaserver.repository.*;
 import vn.fpt.seima.seimaserver.service.BudgetService;
+import vn.fpt.seima.seimaserver.service.ExchangeRateService;
+import vn.fpt.seima.seimaserver.service.GroupMembershipCacheService;
 import vn.fpt.seima.seimaserver.service.NotificationService;
 import vn.fpt.seima.seimaserver.service.RedisService;
 import vn.fpt.seima.seimaserver.service.TransactionService;
@@ -49,6 +56,10 @@ public class TransactionServiceImpl implements TransactionService {
     private final BudgetPeriodRepository budgetPeriodRepository;
     private final RedisService redisService;
     private final NotificationService notificationService;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final GroupMembershipCacheService groupMembershipCacheService;
+    private final ExchangeRateService exchangeRateService;
+    private final PrimaryReads primaryReads;
 
     @Override
     public Page<TransactionResponse> getAllTransaction( Pageable pageable) {
@@ -56,14 +67,15 @@ public class TransactionServiceImpl implements TransactionService {
         if (user == null) {
             throw new IllegalArgumentException("User must not be null");
         }
-        Page<Transaction> transactions = transactionRepository.findByType(TransactionType.INACTIVE,user.getUserId(),pageable);
+        Page<TransactionListRow> transactions = transactionRepository.findByType(TransactionType.INACTIVE,user.getUserId(),pageable);
 
         return transactions.map(transactionMapper::toResponse);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public TransactionResponse getTransactionById(int id) {
-        Transaction transaction = transactionRepository.findById(id)
+        Transaction transaction = transactionRepository.findInAnyTier(id)
                 .orElseThrow(() -> new IllegalArgumentException("Transaction not found with ID: " + id));
 
         return transactionMapper.toResponse(transaction);
@@ -96,7 +108,7 @@ public class TransactionServiceImpl implements TransactionService {
                 Group group = groupRepository.findById(request.getGroupId())
                         .orElseThrow(() -> new IllegalArgumentException("Group not found with id: " + request.getGroupId()));
 
-                if (!groupMemberRepository.existsByUserUserIdAndGroupGroupId(user.getUserId(), group.getGroupId())) {
+                if (groupMembershipCacheService.getMembership(group.getGroupId(), user.getUserId()).isEmpty()) {
                     throw new IllegalArgumentException("You are not authorized to create this group category.");
                 }
                 transaction.setGroup(group);
@@ -114,19 +126,20 @@ public class TransactionServiceImpl implements TransactionService {
                             "EXPENSE", request.getCurrencyCode(),
                             transaction.getWallet().getId(), BigDecimal.ZERO);
                     walletService.reduceAmount(request.getWalletId(), transaction.getAmount(),
-                            "EXPENSE", request.getCurrencyCode()
+                            transaction.getTransactionDate(), "EXPENSE", request.getCurrencyCode()
                             );
                 }
 
                 if (type == TransactionType.INCOME) {
                     budgetService.reduceAmount(user.getUserId(), request.getCategoryId(), transaction.getAmount(), transaction.getTransactionDate(), "INCOME", request.getCurrencyCode(), transaction.getWallet().getId(), BigDecimal.ZERO);
-                    walletService.reduceAmount(request.getWalletId(), transaction.getAmount(), "INCOME", request.getCurrencyCode());
+                    walletService.reduceAmount(request.getWalletId(), transaction.getAmount(), transaction.getTransactionDate(), "INCOME", request.getCurrencyCode());
                 }
                 YearMonth month = YearMonth.from(transaction.getTransactionDate());
                 String cacheKey = buildOverviewKey(transaction.getUser().getUserId(), month);
-                String financialHealthKey = "financial_health:" + user.getUserId();
                 redisService.delete(cacheKey);
-                redisService.delete(financialHealthKey);            }
+                applicationEventPublisher.publishEvent(new FinancialHealthChangedEvent(user.getUserId()));
+                applicationEventPublisher.publishEvent(new ResourceChangedEvent(user.getUserId(), ResourceFamily.TRANSACTIONS, ResourceFamily.WALLETS, ResourceFamily.BUDGETS));
+            }
             Transaction savedTransaction = transactionRepository.save(transaction);
 
             // Send notification to all group members except current user if transaction is group-related
@@ -147,6 +160,18 @@ public class TransactionServiceImpl implements TransactionService {
 
     }
 
+    /**
+     * Loads a transaction to change it. An archived one is moved back to the hot table first, within the
+     * caller's transaction, so wallet and budget adjustments work on a managed entity as for any other.
+     */
+    private Optional<Transaction> findForChange(Integer id) {
+        Optional<Transaction> transaction = transactionRepository.findById(id);
+        if (transaction.isEmpty() && transactionRepository.restoreFromArchive(id)) {
+            transaction = transactionRepository.findById(id);
+        }
+        return transaction;
+    }
+
     @Override
     @Transactional
     public TransactionResponse updateTransaction(Integer id, CreateTransactionRequest request) {
@@ -155,7 +180,7 @@ public class TransactionServiceImpl implements TransactionService {
                 throw new IllegalArgumentException("Request must not be null");
             }
 
-            Transaction transaction = transactionRepository.findById(id)
+            Transaction transaction = findForChange(id)
                     .orElseThrow(() -> new IllegalArgumentException("Transaction not found"));
 
             User user = UserUtils.getCurrentUser();
@@ -177,7 +202,7 @@ public class TransactionServiceImpl implements TransactionService {
                 Group  group = groupRepository.findById(request.getGroupId())
                         .orElseThrow(() -> new IllegalArgumentException("Group not found with id: " + request.getGroupId()));
 
-                if (!groupMemberRepository.existsByUserUserIdAndGroupGroupId(user.getUserId(), group.getGroupId())) {
+                if (groupMembershipCacheService.getMembership(group.getGroupId(), user.getUserId()).isEmpty()) {
                     throw new IllegalArgumentException("You are not authorized to create this group category.");
                 }
                 transaction.setGroup(group);
@@ -190,12 +215,12 @@ public class TransactionServiceImpl implements TransactionService {
                         .orElseThrow(() -> new IllegalArgumentException("Wallet not found"));
                 if (!request.getWalletId().equals(transaction.getWallet().getId())) {
                     if (transaction.getTransactionType().equals(TransactionType.EXPENSE)) {
-                        walletService.reduceAmount(transaction.getWallet().getId(),transaction.getAmount(), "update-add", request.getCurrencyCode());
-                        walletService.reduceAmount(request.getWalletId(),request.getAmount(), "update-subtract", request.getCurrencyCode());
+                        walletService.reduceAmount(transaction.getWallet().getId(),transaction.getAmount(), transaction.getTransactionDate(), "update-add", transaction.getCurrencyCode());
+                        walletService.reduceAmount(request.getWalletId(),request.getAmount(), request.getTransactionDate(), "update-subtract", request.getCurrencyCode());
                     }
                     else {
-                        walletService.reduceAmount(transaction.getWallet().getId(),transaction.getAmount(), "update-subtract", request.getCurrencyCode());
-                        walletService.reduceAmount(request.getWalletId(),request.getAmount(), "update-add", request.getCurrencyCode());
+                        walletService.reduceAmount(transaction.getWallet().getId(),transaction.getAmount(), transaction.getTransactionDate(), "update-subtract", transaction.getCurrencyCode());
+                        walletService.reduceAmount(request.getWalletId(),request.getAmount(), request.getTransactionDate(), "update-add", request.getCurrencyCode());
                     }
                 }
                 BigDecimal newAmount = BigDecimal.ZERO;
@@ -208,18 +233,18 @@ public class TransactionServiceImpl implements TransactionService {
                         type = "update-subtract";
                         newAmount = request.getAmount().subtract(transaction.getAmount());
                         budgetService.reduceAmount(user.getUserId(), request.getCategoryId(), newAmount, transaction.getTransactionDate(),type , request.getCurrencyCode(), transaction.getWallet().getId(), BigDecimal.ZERO);
-                        walletService.reduceAmount(request.getWalletId(),newAmount, type, request.getCurrencyCode());
+                        walletService.reduceAmount(request.getWalletId(),newAmount, transaction.getTransactionDate(), type, request.getCurrencyCode());
 
                     } else if (transaction.getAmount().compareTo(request.getAmount()) > 0) {
                         type = "update-add";
                         newAmount = transaction.getAmount().subtract(request.getAmount());
                         budgetService.reduceAmount(user.getUserId(), request.getCategoryId(), newAmount, transaction.getTransactionDate(),type, request.getCurrencyCode(), transaction.getWallet().getId(), BigDecimal.ZERO );
-                        walletService.reduceAmount(request.getWalletId(),newAmount, type, request.getCurrencyCode());
+                        walletService.reduceAmount(request.getWalletId(),newAmount, transaction.getTransactionDate(), type, request.getCurrencyCode());
                     }
                     else{
                         type = "no-update";
                         budgetService.reduceAmount(user.getUserId(), request.getCategoryId(),newAmount, transaction.getTransactionDate(),type, request.getCurrencyCode(), transaction.getWallet().getId(), BigDecimal.ZERO );
-                        walletService.reduceAmount(request.getWalletId(),newAmount, type, request.getCurrencyCode());
+                        walletService.reduceAmount(request.getWalletId(),newAmount, transaction.getTransactionDate(), type, request.getCurrencyCode());
                     }
                 } else {
 
@@ -227,32 +252,32 @@ public class TransactionServiceImpl implements TransactionService {
                         type = "update-subtract";
                         newAmount = request.getAmount().subtract(transaction.getAmount());
                         budgetService.reduceAmount(user.getUserId(), request.getCategoryId(), transaction.getAmount(), transaction.getTransactionDate(),"update-subtract-budget" , request.getCurrencyCode(), request.getWalletId(), request.getAmount());
-                        budgetService.reduceAmount(user.getUserId(), transaction.getCategory().getCategoryId(), transaction.getAmount(), transaction.getTransactionDate(),"update-add" , request.getCurrencyCode(), transaction.getWallet().getId(), request.getAmount());
+                        budgetService.reduceAmount(user.getUserId(), transaction.getCategory().getCategoryId(), transaction.getAmount(), transaction.getTransactionDate(),"update-add" , transaction.getCurrencyCode(), transaction.getWallet().getId(), request.getAmount());
 
-                        walletService.reduceAmount(request.getWalletId(),newAmount, type, request.getCurrencyCode());
+                        walletService.reduceAmount(request.getWalletId(),newAmount, transaction.getTransactionDate(), type, request.getCurrencyCode());
 
                     } else if (transaction.getAmount().compareTo(request.getAmount()) > 0) {
                         type = "update-add";
                         newAmount = transaction.getAmount().subtract(request.getAmount());
                         budgetService.reduceAmount(user.getUserId(), request.getCategoryId(), transaction.getAmount(), transaction.getTransactionDate(),"update-subtract-budget", request.getCurrencyCode(),request.getWalletId(), request.getAmount());
-                        budgetService.reduceAmount(user.getUserId(), transaction.getCategory().getCategoryId(), transaction.getAmount(), transaction.getTransactionDate(),"update-add" , request.getCurrencyCode(), transaction.getWallet().getId(), request.getAmount());
+                        budgetService.reduceAmount(user.getUserId(), transaction.getCategory().getCategoryId(), transaction.getAmount(), transaction.getTransactionDate(),"update-add" , transaction.getCurrencyCode(), transaction.getWallet().getId(), request.getAmount());
 
-                        walletService.reduceAmount(request.getWalletId(),newAmount, type, request.getCurrencyCode());
+                        walletService.reduceAmount(request.getWalletId(),newAmount, transaction.getTransactionDate(), type, request.getCurrencyCode());
                     }
                     else{
                         type = "no-update";
                         budgetService.reduceAmount(user.getUserId(), request.getCategoryId(),transaction.getAmount(), transaction.getTransactionDate(),"update-subtract-budget", request.getCurrencyCode(), request.getWalletId(), request.getAmount());
-                        budgetService.reduceAmount(user.getUserId(), transaction.getCategory().getCategoryId(), transaction.getAmount(), transaction.getTransactionDate(),"update-add" , request.getCurrencyCode(), transaction.getWallet().getId(), request.getAmount());
+                        budgetService.reduceAmount(user.getUserId(), transaction.getCategory().getCategoryId(), transaction.getAmount(), transaction.getTransactionDate(),"update-add" , transaction.getCurrencyCode(), transaction.getWallet().getId(), request.getAmount());
 
-                        walletService.reduceAmount(request.getWalletId(),newAmount, type, request.getCurrencyCode());
+                        walletService.reduceAmount(request.getWalletId(),newAmount, transaction.getTransactionDate(), type, request.getCurrencyCode());
                     }
                 }
 
                 YearMonth month = YearMonth.from(transaction.getTransactionDate());
                 String cacheKey = buildOverviewKey(transaction.getUser().getUserId(), month);
-                String financialHealthKey = "financial_health:" + user.getUserId();
                 redisService.delete(cacheKey);
-                redisService.delete(financialHealthKey);
+                applicationEventPublisher.publishEvent(new FinancialHealthChangedEvent(user.getUserId()));
+                applicationEventPublisher.publishEvent(new ResourceChangedEvent(user.getUserId(), ResourceFamily.TRANSACTIONS, ResourceFamily.WALLETS, ResourceFamily.BUDGETS));
                 transaction.setCategory(category);
                 transaction.setWallet(wallet);
             }
@@ -280,14 +305,14 @@ public class TransactionServiceImpl implements TransactionService {
     @Override
     @Transactional
     public void deleteTransaction(int id) {
-        Transaction transaction = transactionRepository.findById(id)
+        Transaction transaction = findForChange(id)
                 .orElseThrow(() -> new IllegalArgumentException("Transaction not found with ID: " + id));
 
         if (transaction.getGroup() != null) {
             Group group = groupRepository.findById(transaction.getGroup().getGroupId())
                     .orElseThrow(() -> new IllegalArgumentException("Group not found with id: " + transaction.getGroup().getGroupId()));
 
-            if (!groupMemberRepository.existsByUserUserIdAndGroupGroupId(transaction.getUser().getUserId(), group.getGroupId())) {
+            if (groupMembershipCacheService.getMembership(group.getGroupId(), transaction.getUser().getUserId()).isEmpty()) {
                 throw new IllegalArgumentException("You are not authorized to create this group category.");
             }
             transaction.setGroup(group);
@@ -296,9 +321,9 @@ public class TransactionServiceImpl implements TransactionService {
             YearMonth month = YearMonth.from(transaction.getTransactionDate());
 
             String cacheKey = buildOverviewKey(transaction.getUser().getUserId(), month);
-            String financialHealthKey = "financial_health:" + transaction.getUser().getUserId();
             redisService.delete(cacheKey);
-            redisService.delete(financialHealthKey);
+            applicationEventPublisher.publishEvent(new FinancialHealthChangedEvent(transaction.getUser().getUserId()));
+            applicationEventPublisher.publishEvent(new ResourceChangedEvent(transaction.getUser().getUserId(), ResourceFamily.TRANSACTIONS, ResourceFamily.WALLETS, ResourceFamily.BUDGETS));
             Wallet wallet = transaction.getWallet();
             if (transaction.getTransactionType() == TransactionType.EXPENSE) {
                 wallet.setCurrentBalance(wallet.getCurrentBalance().add(transaction.getAmount()));
@@ -391,9 +416,12 @@ public class TransactionServiceImpl implements TransactionService {
         if ((month.getMonthValue() < 0 || month.getMonthValue() > 12)) {
             throw new IllegalArgumentException("Month is not in range [0, 12]");
         }
-        final String key = String.format("tx:overview:%d:%s", userId, month);
+        // One hash per user and month, so a write evicts the overview in every currency and rates version
+        final String key = buildOverviewKey(userId, month);
+        String currency = exchangeRateService.baseCurrencyOf(currentUser);
+        final String field = currency + ":" + exchangeRateService.ratesVersion();
 
-        TransactionOverviewResponse cached = redisService.getObject(key, TransactionOverviewResponse.class);
+        TransactionOverviewResponse cached = redisService.hashGetObject(key, field, TransactionOverviewResponse.class);
         if (cached != null) {
             return cached;
         }
@@ -401,8 +429,9 @@ public class TransactionServiceImpl implements TransactionService {
         LocalDateTime start = month.atDay(1).atStartOfDay();
         LocalDateTime end = month.atEndOfMonth().atTime(23, 59, 59);
 
-        List<Transaction> transactions = transactionRepository
-                .findAllByUserAndTransactionDateBetween(userId,TransactionType.INACTIVE ,start, end);
+        List<TransactionListRow> transactions = primaryReads.read(() -> transactionRepository
+                .findAllByUserAndTransactionDateBetween(userId,TransactionType.INACTIVE ,start, end));
+        Set<String> unconverted = new HashSet<>();
 
         BigDecimal totalIncome = BigDecimal.ZERO;
         BigDecimal totalExpense = BigDecimal.ZERO;
@@ -410,14 +439,15 @@ public class TransactionServiceImpl implements TransactionService {
         Map<LocalDate, List<TransactionOverviewResponse.TransactionItem>> grouped =
                 new TreeMap<>(Comparator.reverseOrder());
 
-        for (Transaction transaction : transactions) {
+        for (TransactionListRow transaction : transactions) {
+            LocalDate date = transaction.getTransactionDate().toLocalDate();
+            BigDecimal amount = exchangeRateService.convertForReport(transaction.getAmount(), transaction.getCurrencyCode(), currency, date, unconverted);
             if (transaction.getTransactionType() == TransactionType.INCOME) {
-                totalIncome = totalIncome.add(transaction.getAmount());
+                totalIncome = totalIncome.add(amount);
             } else if (transaction.getTransactionType() == TransactionType.EXPENSE) {
-                totalExpense = totalExpense.add(transaction.getAmount());
+                totalExpense = totalExpense.add(amount);
             }
 
-            LocalDate date = transaction.getTransactionDate().toLocalDate();
             grouped.computeIfAbsent(date, k -> new ArrayList<>())
                     .add(transactionMapper.toTransactionItem(transaction));
         }
@@ -432,6 +462,7 @@ public class TransactionServiceImpl implements TransactionService {
                 .totalIncome(totalIncome)
                 .totalExpense(totalExpense)
                 .balance(totalIncome.subtract(totalExpense))
+                .unconverted(!unconverted.isEmpty())
                 .build();
 
         TransactionOverviewResponse result = TransactionOverviewResponse.builder()
@@ -439,7 +470,7 @@ public class TransactionServiceImpl implements TransactionService {
                 .byDate(byDate)
                 .build();
 
-        redisService.set(key, result);
+        redisService.hashSet(key, field, result);
         redisService.setTimeToLiveInMinutes(key, 60*12);
 
         return result;
@@ -447,7 +478,7 @@ public class TransactionServiceImpl implements TransactionService {
 
     @Override
     public Page<TransactionResponse> viewHistoryTransactionsGroup(Pageable pageable, Integer groupId) {
-        Page<Transaction> transactions = transactionRepository.findByTypeGroup(TransactionType.INACTIVE,groupId,pageable);
+        Page<TransactionListRow> transactions = transactionRepository.findByTypeGroup(TransactionType.INACTIVE,groupId,pageable);
 
         return transactions.map(transactionMapper::toResponse);
     }
@@ -463,12 +494,13 @@ public class TransactionServiceImpl implements TransactionService {
         LocalDateTime startDateTime = startDate.atStartOfDay();
         LocalDateTime endDateTime = endDate.atTime(23, 59, 59);
 
-        Page<Transaction> transactions = transactionRepository.findByDate(TransactionType.INACTIVE,startDateTime, endDateTime, groupId,currentUser.getUserId(), pageable);
+        Page<TransactionListRow> transactions = transactionRepository.findByDate(TransactionType.INACTIVE,startDateTime, endDateTime, groupId,currentUser.getUserId(), pageable);
 
         return transactions.map(transactionMapper::toResponse);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public TransactionReportResponse getTransactionReport(Integer categoryId,LocalDate startDate, LocalDate endDate, Integer groupId) {
         List<User> listUser = new ArrayList<>();
         User currentUser = UserUtils.getCurrentUser();
@@ -488,6 +520,8 @@ public class TransactionServiceImpl implements TransactionService {
         }
         List<Transaction> transactions =
                 transactionRepository.listReportByUserAndCategoryAndTransactionDateBetween(listUser,categoryId, startDateTime, endDateTime, groupId );
+        String currency = exchangeRateService.baseCurrencyOf(currentUser);
+        Set<String> unconverted = new HashSet<>();
 
         BigDecimal totalIncome = BigDecimal.ZERO;
         BigDecimal totalExpense = BigDecimal.ZERO;
@@ -498,7 +532,8 @@ public class TransactionServiceImpl implements TransactionService {
 
         for (Transaction t : transactions) {
             String typeKey = t.getTransactionType().name().toLowerCase();
-            BigDecimal amount = t.getAmount();
+            BigDecimal amount = exchangeRateService.convertForReport(t.getAmount(), t.getCurrencyCode(), currency,
+                    t.getTransactionDate().toLocalDate(), unconverted);
             Integer categoryIdKey = t.getCategory().getCategoryId();
 
             if (t.getTransactionType() == TransactionType.EXPENSE) {
@@ -542,6 +577,7 @@ public class TransactionServiceImpl implements TransactionService {
                 .totalIncome(totalIncome)
                 .totalExpense(totalExpense)
                 .balance(totalIncome.subtract(totalExpense))
+                .unconverted(!unconverted.isEmpty())
                 .build();
 
         return TransactionReportResponse.builder()
@@ -561,6 +597,7 @@ public class TransactionServiceImpl implements TransactionService {
      */
 
     @Override
+    @Transactional(readOnly = true)
     public TransactionCategoryReportResponse getCategoryReport(PeriodType type, Integer categoryId, LocalDate dateFrom, LocalDate dateTo, Integer groupId) {
         List<User> listUser = new ArrayList<>();
         User currentUser = UserUtils.getCurrentUser();
@@ -615,6 +652,8 @@ public class TransactionServiceImpl implements TransactionService {
         }
         List<Transaction> transactions = transactionRepository.findExpensesByUserAndDateRange(
                 categoryId, listUser, dateFrom.atStartOfDay(), dateTo.plusDays(1).atStartOfDay(), groupId);
+        String currency = exchangeRateService.baseCurrencyOf(currentUser);
+        Set<String> unconverted = new HashSet<>();
 
         Map<String, TransactionCategoryReportResponse.GroupAmount> result = new LinkedHashMap<>();
         Map<String, LocalDate> keyDateMap = new HashMap<>();
@@ -675,10 +714,11 @@ public class TransactionServiceImpl implements TransactionService {
             keyDateMap.put(key, sortDate);
             var item = result.getOrDefault(key, new
                     TransactionCategoryReportResponse.GroupAmount());
+            BigDecimal amount = exchangeRateService.convertForReport(tx.getAmount(), tx.getCurrencyCode(), currency, date, unconverted);
             if (tx.getTransactionType() == TransactionType.EXPENSE)
-                item.setExpense(item.getExpense().add(tx.getAmount()));
+                item.setExpense(item.getExpense().add(amount));
             else if (tx.getTransactionType() == TransactionType.INCOME)
-                item.setIncome(item.getIncome().add(tx.getAmount()));
+                item.setIncome(item.getIncome().add(amount));
             result.put(key, item);
         }
 
@@ -697,7 +737,7 @@ public class TransactionServiceImpl implements TransactionService {
                         LinkedHashMap::new
                 ));
         return new TransactionCategoryReportResponse(
-                totalExpense, avgExpense, totalIncome, avgIncome, sortedResult, categoryId
+                totalExpense, avgExpense, totalIncome, avgIncome, sortedResult, categoryId, !unconverted.isEmpty()
         );
     }
 
@@ -708,6 +748,7 @@ public class TransactionServiceImpl implements TransactionService {
      * @return
      */
     @Override
+    @Transactional(readOnly = true)
     public TransactionDetailReportResponse getCategoryReportDetail(Integer categoryId, LocalDate dateFrom, LocalDate dateTo, Integer groupId) {
         List<User> listUser = new ArrayList<>();
         User currentUser = UserUtils.getCurrentUser();
@@ -732,6 +773,8 @@ public class TransactionServiceImpl implements TransactionService {
         }
         List<Transaction> transactions = transactionRepository.findExpensesByUserAndDateRange(
                 categoryId, listUser, dateFrom.atStartOfDay(), dateTo.atTime(23, 59, 59), groupId);
+        String currency = exchangeRateService.baseCurrencyOf(currentUser);
+        Set<String> unconverted = new HashSet<>();
 
         Map<String, TransactionDetailReportResponse.GroupDetail> result = new LinkedHashMap<>();
         BigDecimal totalExpense = BigDecimal.ZERO;
@@ -742,12 +785,14 @@ public class TransactionServiceImpl implements TransactionService {
             String key = txDate.toString();
 
             TransactionDetailReportResponse.GroupDetail group = result.getOrDefault(key, new TransactionDetailReportResponse.GroupDetail());
+            // Totals are in the user's currency; each listed transaction keeps its own amount and currency
+            BigDecimal amount = exchangeRateService.convertForReport(tx.getAmount(), tx.getCurrencyCode(), currency, txDate, unconverted);
             if (tx.getTransactionType() == TransactionType.EXPENSE) {
-                group.setExpense(group.getExpense().add(tx.getAmount()));
-                totalExpense = totalExpense.add(tx.getAmount());
+                group.setExpense(group.getExpense().add(amount));
+                totalExpense = totalExpense.add(amount);
             } else if (tx.getTransactionType() == TransactionType.INCOME) {
-                group.setIncome(group.getIncome().add(tx.getAmount()));
-                totalIncome = totalIncome.add(tx.getAmount());
+                group.setIncome(group.getIncome().add(amount));
+                totalIncome = totalIncome.add(amount);
             }
 
             if (group.getCategoryId() == null) {
@@ -760,7 +805,7 @@ public class TransactionServiceImpl implements TransactionService {
             result.put(key, group);
         }
 
-        return new TransactionDetailReportResponse(totalExpense, totalIncome, result);
+        return new TransactionDetailReportResponse(totalExpense, totalIncome, result, !unconverted.isEmpty());
     }
 
     /**
@@ -769,6 +814,7 @@ public class TransactionServiceImpl implements TransactionService {
      * @return transaction response
      */
     @Override
+    @Transactional(readOnly = true)
     public Page<TransactionResponse> getTransactionByBudget(Integer budgetId, Pageable pageable, LocalDate startDate, LocalDate endDate) {
         User currentUser = UserUtils.getCurrentUser();
         if (currentUser == null) {
@@ -801,6 +847,7 @@ public class TransactionServiceImpl implements TransactionService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public TransactionWalletResponse getTransactionWallet(Integer id, LocalDate dateFrom, LocalDate dateTo, String type) {
         User currentUser = UserUtils.getCurrentUser();
         if (currentUser == null) {
@@ -815,21 +862,21 @@ public class TransactionServiceImpl implements TransactionService {
 
         LocalDateTime startDateTime = dateFrom.atStartOfDay();
         LocalDateTime endDateTime = dateTo.atTime(23, 59, 59);
-        List<Transaction> transactions = new ArrayList<>();
+        List<TransactionListRow> transactions = new ArrayList<>();
 
         if (type == null) {
              transactions = transactionRepository.listTransactionByWallet(id, currentUser.getUserId(), startDateTime, endDateTime);
 
         }
         else {
-            transactions = transactionRepository.listTransactionByAllWallet(id, currentUser.getUserId());
+            transactions = transactionRepository.listRowsByWallet(id, currentUser.getUserId());
         }
 
         BigDecimal totalIncome = BigDecimal.ZERO;
         BigDecimal totalExpense = BigDecimal.ZERO;
         Map<String, List<TransactionWalletResponse.ReportByWallet>> reportByWallet = new TreeMap<>(Comparator.reverseOrder());
 
-        for (Transaction transaction : transactions) {
+        for (TransactionListRow transaction : transactions) {
             if (transaction.getTransactionType() == TransactionType.INCOME) {
                 totalIncome = totalIncome.add(transaction.getAmount());
             } else if (transaction.getTransactionType() == TransactionType.EXPENSE) {
@@ -838,9 +885,9 @@ public class TransactionServiceImpl implements TransactionService {
 
             String dateKey = transaction.getTransactionDate().toLocalDate().toString();
             TransactionWalletResponse.ReportByWallet reportItem = TransactionWalletResponse.ReportByWallet.builder()
-                    .categoryId(transaction.getCategory().getCategoryId())
-                    .categoryName(transaction.getCategory().getCategoryName())
-                    .categoryIconUrl(transaction.getCategory().getCategoryIconUrl())
+                    .categoryId(transaction.getCategoryId())
+                    .categoryName(transaction.getCategoryName())
+                    .categoryIconUrl(transaction.getCategoryIconUrl())
                     .amount(transaction.getAmount())
                     .balance(wallet.getCurrentBalance())
                     .transactionDate(transaction.getTransactionDate())
@@ -850,8 +897,6 @@ public class TransactionServiceImpl implements TransactionService {
 
             reportByWallet.computeIfAbsent(dateKey, k -> new ArrayList<>()).add(reportItem);
         }
-        wallet.setCurrentBalance(wallet.getInitialBalance().add(totalIncome).subtract(totalExpense));
-        walletRepository.save(wallet);
         TransactionWalletResponse.Summary summary = TransactionWalletResponse.Summary.builder()
                 .totalIncome(totalIncome)
                 .totalExpense(totalExpense)
@@ -875,7 +920,7 @@ public class TransactionServiceImpl implements TransactionService {
         }
         LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
         LocalDateTime endOfDay = LocalDate.now().atTime(LocalTime.MAX);
-        List<Transaction> transactions = transactionRepository.listTransactionToday(TransactionType.INACTIVE,currentUser.getUserId(),startOfDay,endOfDay);
+        List<TransactionListRow> transactions = transactionRepository.listTransactionToday(TransactionType.INACTIVE,currentUser.getUserId(),startOfDay,endOfDay);
 
         return transactions.stream()
                 .map(transaction -> transactionMapper.transactionToday(transaction))
@@ -888,6 +933,7 @@ public class TransactionServiceImpl implements TransactionService {
      * @return TransactionReportResponse
      */
     @Override
+    @Transactional(readOnly = true)
     public TransactionReportResponse getTransactionChart(LocalDate startDate, LocalDate endDate) {
         User currentUser = UserUtils.getCurrentUser();
         if (currentUser == null) {
@@ -898,12 +944,15 @@ public class TransactionServiceImpl implements TransactionService {
         LocalDateTime endDateTime = endDate.atTime(23, 59, 59);
         List<Transaction> transactions =
                 transactionRepository.listTransactionsChart(currentUser, startDateTime, endDateTime);
+        String currency = exchangeRateService.baseCurrencyOf(currentUser);
+        Set<String> unconverted = new HashSet<>();
 
         BigDecimal totalIncome = BigDecimal.ZERO;
         BigDecimal totalExpense = BigDecimal.ZERO;
 
         for (Transaction t : transactions) {
-            BigDecimal amount = t.getAmount();
+            BigDecimal amount = exchangeRateService.convertForReport(t.getAmount(), t.getCurrencyCode(), currency,
+                    t.getTransactionDate().toLocalDate(), unconverted);
 
             if (t.getTransactionType() == TransactionType.EXPENSE) {
                 totalExpense = totalExpense.add(amount);
@@ -918,6 +967,7 @@ public class TransactionServiceImpl implements TransactionService {
                 .totalIncome(totalIncome)
                 .totalExpense(totalExpense)
                 .balance(balance)
+                .unconverted(!unconverted.isEmpty())
                 .build();
 
         return TransactionReportResponse.builder()
@@ -1037,7 +1087,7 @@ public class TransactionServiceImpl implements TransactionService {
     }
 
     private String buildOverviewKey(Integer userId, YearMonth month) {
-        return String.format("tx:overview:%d:%s", userId, month);
+        return String.format("tx:overviews:%d:%s", userId, month);
     }
 
 }
\ No newline at end of file
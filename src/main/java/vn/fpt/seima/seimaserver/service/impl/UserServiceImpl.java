@@ -3,25 +3,33 @@ package vn.fpt.seima.seimaserver.service.impl;
 import lombok.AllArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
+import vn.fpt.seima.seimaserver.dto.request.upload.UploadPurpose;
 import vn.fpt.seima.seimaserver.dto.request.user.UserCreationRequestDto;
 import vn.fpt.seima.seimaserver.dto.request.user.UserUpdateRequestDto;
 import vn.fpt.seima.seimaserver.entity.User;
 import vn.fpt.seima.seimaserver.entity.UserDevice;
+import vn.fpt.seima.seimaserver.event.FinancialHealthChangedEvent;
+import vn.fpt.seima.seimaserver.event.ResourceChangedEvent;
+import vn.fpt.seima.seimaserver.event.ResourceFamily;
+import vn.fpt.seima.seimaserver.event.UserProfileChangedEvent;
 import vn.fpt.seima.seimaserver.exception.NotMatchCurrentGmailException;
 import vn.fpt.seima.seimaserver.exception.ResourceNotFoundException;
 import vn.fpt.seima.seimaserver.repository.UserDeviceRepository;
 import vn.fpt.seima.seimaserver.repository.UserRepository;
 import vn.fpt.seima.seimaserver.service.CloudinaryService;
+import vn.fpt.seima.seimaserver.service.ExchangeRateService;
 import vn.fpt.seima.seimaserver.service.UserDeviceService;
 import vn.fpt.seima.seimaserver.service.UserService;
 import vn.fpt.seima.seimaserver.util.UserUtils;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 // import java.util.Optional; // Có thể cần
@@ -34,15 +42,21 @@ public class UserServiceImpl implements UserService {
     private final CloudinaryService cloudinaryService;
     private final UserDeviceRepository userDeviceRepository;
     private final UserDeviceService userDeviceService;
+    private final ExchangeRateService exchangeRateService;
+    private final ApplicationEventPublisher applicationEventPublisher;
     
     public UserServiceImpl(UserRepository userRepository, 
                           CloudinaryService cloudinaryService,
                           UserDeviceRepository userDeviceRepository,
-                          @Lazy UserDeviceService userDeviceService) {
+                          @Lazy UserDeviceService userDeviceService,
+                          ExchangeRateService exchangeRateService,
+                          ApplicationEventPublisher applicationEventPublisher) {
         this.userRepository = userRepository;
         this.cloudinaryService = cloudinaryService;
         this.userDeviceRepository = userDeviceRepository;
+        this.exchangeRateService = exchangeRateService;
         this.userDeviceService = userDeviceService;
+        this.applicationEventPublisher = applicationEventPublisher;
     }
     
     // Constants for image validation
@@ -93,6 +107,7 @@ public class UserServiceImpl implements UserService {
         // Lưu lại currentUser. Vì currentUser là một managed entity (nếu UserUtils trả về đúng),
         // lệnh save này sẽ tương ứng với một SQL UPDATE.
         userRepository.save(currentUser);
+        applicationEventPublisher.publishEvent(new UserProfileChangedEvent(currentUser.getUserId()));
 
         // Lưu data vào bảng user_device với logic đúng
         if(userDeviceRepository.existsByDeviceId(userCreationRequestDto.getDeviceId())){
@@ -134,6 +149,7 @@ public class UserServiceImpl implements UserService {
         userToUpdate.setUserIsActive(true);
 
         User savedUser = userRepository.save(userToUpdate);
+        applicationEventPublisher.publishEvent(new UserProfileChangedEvent(userId));
         logger.info("User profile updated successfully with image support for userId: {}, avatarUpdated: {}", 
                 userId, avatarUpdated);
         return savedUser;
@@ -149,10 +165,13 @@ public class UserServiceImpl implements UserService {
         }
 
         // Validate conflicting requests
-        if (dto.getImage() != null && !dto.getImage().isEmpty() &&
-                Boolean.TRUE.equals(dto.getRemoveCurrentAvatar())) {
+        boolean hasNewImage = (dto.getImage() != null && !dto.getImage().isEmpty()) || dto.getUploadedImage() != null;
+        if (hasNewImage && Boolean.TRUE.equals(dto.getRemoveCurrentAvatar())) {
             throw new IllegalArgumentException("Cannot provide new image and remove current avatar at the same time");
         }
+        if (dto.getImage() != null && !dto.getImage().isEmpty() && dto.getUploadedImage() != null) {
+            throw new IllegalArgumentException("Cannot provide an image file and an uploaded image at the same time");
+        }
     }
 
     /**
@@ -171,6 +190,20 @@ public class UserServiceImpl implements UserService {
         if (dto.getGender() != null) {
             userToUpdate.setUserGender(dto.getGender());
         }
+        if (dto.getBaseCurrencyCode() != null) {
+            String currencyCode = dto.getBaseCurrencyCode().trim().toUpperCase(Locale.ROOT);
+            if (!exchangeRateService.supports(currencyCode)) {
+                throw new IllegalArgumentException("No exchange rates are available for " + currencyCode);
+            }
+            if (!currencyCode.equals(userToUpdate.getBaseCurrencyCode())) {
+                userToUpdate.setBaseCurrencyCode(currencyCode);
+                // Every converted total changes: refresh ETags and the health score, which is cached per user
+                Integer userId = userToUpdate.getUserId();
+                applicationEventPublisher.publishEvent(new ResourceChangedEvent(userId,
+                        ResourceFamily.TRANSACTIONS, ResourceFamily.WALLETS, ResourceFamily.BUDGETS));
+                applicationEventPublisher.publishEvent(new FinancialHealthChangedEvent(userId));
+            }
+        }
     }
 
     /**
@@ -179,7 +212,7 @@ public class UserServiceImpl implements UserService {
     private boolean updateUserAvatar(User user, UserUpdateRequestDto dto) {
         // Handle remove current avatar case
         if (Boolean.TRUE.equals(dto.getRemoveCurrentAvatar()) &&
-                (dto.getImage() == null || dto.getImage().isEmpty())) {
+                (dto.getImage() == null || dto.getImage().isEmpty()) && dto.getUploadedImage() == null) {
             if (user.getUserAvatarUrl() != null) {
                 String oldAvatarUrl = user.getUserAvatarUrl();
                 user.setUserAvatarUrl(null);
@@ -189,6 +222,17 @@ public class UserServiceImpl implements UserService {
             return false; // No avatar to remove
         }
 
+        // Handle image uploaded directly by the client
+        if (dto.getUploadedImage() != null) {
+            String oldAvatarUrl = user.getUserAvatarUrl();
+            String newAvatarUrl = cloudinaryService.verifyDirectUpload(
+                    UploadPurpose.USER_AVATAR, user.getUserId(), dto.getUploadedImage());
+            user.setUserAvatarUrl(newAvatarUrl);
+            logger.info("User avatar updated from direct upload. UserId: {}, Old URL: {}, New URL: {}",
+                    user.getUserId(), oldAvatarUrl, newAvatarUrl);
+            return true;
+        }
+
         // Handle new image upload case
         if (dto.getImage() != null && !dto.getImage().isEmpty()) {
             String oldAvatarUrl = user.getUserAvatarUrl();
@@ -2,20 +2,27 @@ package vn.fpt.seima.seimaserver.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import vn.fpt.seima.seimaserver.dto.request.wallet.CreateWalletRequest;
 import vn.fpt.seima.seimaserver.dto.response.wallet.WalletResponse;
 import vn.fpt.seima.seimaserver.entity.*;
+import vn.fpt.seima.seimaserver.event.FinancialHealthChangedEvent;
+import vn.fpt.seima.seimaserver.event.ResourceChangedEvent;
+import vn.fpt.seima.seimaserver.event.ResourceFamily;
 import vn.fpt.seima.seimaserver.exception.WalletException;
 import vn.fpt.seima.seimaserver.mapper.WalletMapper;
 import vn.fpt.seima.seimaserver.repository.*;
+import vn.fpt.seima.seimaserver.service.ExchangeRateService;
 import vn.fpt.seima.seimaserver.service.RedisService;
 import vn.fpt.seima.seimaserver.service.WalletService;
 import vn.fpt.seima.seimaserver.util.UserUtils;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.List;
@@ -37,6 +44,8 @@ public class WalletServiceImpl implements WalletService {
     private final RedisService redisService;
     private final BudgetCategoryLimitRepository budgetCategoryLimitRepository;
     private final BudgetPeriodRepository budgetPeriodRepository;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final ExchangeRateService exchangeRateService;
 
     @Override
     public WalletResponse createWallet(CreateWalletRequest request) {
@@ -78,13 +87,14 @@ public class WalletServiceImpl implements WalletService {
         } else {
             wallet.setCurrencyCode("VND"); // Default currency
         }
-        String financialHealthKey = "financial_health:" + currentUser.getUserId();
-        redisService.delete(financialHealthKey);
+        applicationEventPublisher.publishEvent(new FinancialHealthChangedEvent(currentUser.getUserId()));
+        applicationEventPublisher.publishEvent(new ResourceChangedEvent(currentUser.getUserId(), ResourceFamily.WALLETS));
         wallet = walletRepository.save(wallet);
         return walletMapper.toResponse(wallet);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public WalletResponse getWallet(Integer id) {
         User currentUser = getCurrentUser();
         
@@ -95,6 +105,7 @@ public class WalletServiceImpl implements WalletService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<WalletResponse> getAllWallets() {
         User currentUser = getCurrentUser();
         
@@ -104,6 +115,7 @@ public class WalletServiceImpl implements WalletService {
     }
 
     @Override
+    @Transactional
     public WalletResponse updateWallet(Integer id, CreateWalletRequest request) {
         User currentUser = getCurrentUser();
         Wallet existingWallet = walletRepository.findByIdAndNotDeleted(id)
@@ -148,8 +160,8 @@ public class WalletServiceImpl implements WalletService {
         }
 
 
-        String financialHealthKey = "financial_health:" + currentUser.getUserId();
-        redisService.delete(financialHealthKey);
+        applicationEventPublisher.publishEvent(new FinancialHealthChangedEvent(currentUser.getUserId()));
+        applicationEventPublisher.publishEvent(new ResourceChangedEvent(currentUser.getUserId(), ResourceFamily.TRANSACTIONS, ResourceFamily.WALLETS, ResourceFamily.BUDGETS));
 
         if (request.getCurrencyCode() != null && !request.getCurrencyCode().trim().isEmpty()) {
             existingWallet.setCurrencyCode(request.getCurrencyCode());
@@ -213,9 +225,11 @@ public class WalletServiceImpl implements WalletService {
             };
         }
 
-        String financialHealthKey = "financial_health:" + currentUser.getUserId();
-        redisService.delete(financialHealthKey);
+        applicationEventPublisher.publishEvent(new FinancialHealthChangedEvent(currentUser.getUserId()));
+        applicationEventPublisher.publishEvent(new ResourceChangedEvent(currentUser.getUserId(), ResourceFamily.TRANSACTIONS, ResourceFamily.WALLETS, ResourceFamily.BUDGETS));
         transactionRepository.saveAll(transactions);
+        // Archived transactions are outside the budget periods adjusted above; they only need the flag
+        transactionRepository.deactivateArchivedByWallet(id, currentUser.getUserId());
         walletRepository.save(wallet);
         
         // If deleted wallet was default, automatically set another wallet as default
@@ -260,32 +274,34 @@ public class WalletServiceImpl implements WalletService {
     }
 
     @Override
-    public void reduceAmount(Integer id, BigDecimal amount, String type, String code) {
+    public void reduceAmount(Integer id, BigDecimal amount, LocalDateTime transactionDate, String type, String code) {
         Wallet existingWallet =  walletRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Wallet not found for this id: " + id));
         BigDecimal newAmount;
-        if (existingWallet.getCurrencyCode().equals(code)) {
-            if (type.equals("EXPENSE")){
-                newAmount = existingWallet.getCurrentBalance().subtract(amount);
-            }
-            else if (type.equals("INCOME")){
-                newAmount = existingWallet.getCurrentBalance().add(amount);
-            }
-            else if (type.equals("update-subtract")){
-                newAmount = existingWallet.getCurrentBalance().subtract(amount);
-            }
-            else if (type.equals("update-add")) {
-                newAmount = existingWallet.getCurrentBalance().add(amount);
-            }
-            else{
-                newAmount = existingWallet.getCurrentBalance();
-            }
-            existingWallet.setCurrentBalance(newAmount);
-
-            walletRepository.save(existingWallet);
+        // Transactions in another currency move the balance by their value in the wallet's currency,
+        // at the rate of the transaction's day
+        LocalDate rateDate = transactionDate != null ? transactionDate.toLocalDate() : null;
+        amount = exchangeRateService.convert(amount, code, existingWallet.getCurrencyCode(), rateDate);
+        if (type.equals("EXPENSE")){
+            newAmount = existingWallet.getCurrentBalance().subtract(amount);
+        }
+        else if (type.equals("INCOME")){
+            newAmount = existingWallet.getCurrentBalance().add(amount);
+        }
+        else if (type.equals("update-subtract")){
+            newAmount = existingWallet.getCurrentBalance().subtract(amount);
         }
+        else if (type.equals("update-add")) {
+            newAmount = existingWallet.getCurrentBalance().add(amount);
+        }
+        else{
+            newAmount = existingWallet.getCurrentBalance();
+        }
+        existingWallet.setCurrentBalance(newAmount);
+
+        walletRepository.save(existingWallet);
     }
     private String buildOverviewKey(Integer userId, YearMonth month) {
-        return String.format("tx:overview:%d:%s", userId, month);
+        return String.format("tx:overviews:%d:%s", userId, month);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,164 @@
+package vn.fpt.seima.seimaserver.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * Immutable currency x day table of rates against one base currency, stored as a single
+ * {@code double[]} so a lookup is an array read. Days without a published rate (weekends, holidays)
+ * carry the previous day's rate; days outside the loaded range use the nearest loaded one.
+ */
+public final class FxRateTable {
+
+    public record Rate(String currencyCode, LocalDate day, BigDecimal rate) {
+    }
+
+    private final String baseCurrency;
+    private final Map<String, Integer> rows;
+    private final LocalDate firstDay;
+    private final int days;
+    private final double[] rates;
+    private final String version;
+
+    private FxRateTable(String baseCurrency, Map<String, Integer> rows, LocalDate firstDay, int days, double[] rates) {
+        this.baseCurrency = baseCurrency;
+        this.rows = rows;
+        this.firstDay = firstDay;
+        this.days = days;
+        this.rates = rates;
+        this.version = fingerprint();
+    }
+
+    public static FxRateTable empty(String baseCurrency) {
+        return new FxRateTable(normalize(baseCurrency), Map.of(), LocalDate.now(), 1, new double[0]);
+    }
+
+    /**
+     * Later rates for the same currency and day replace earlier ones.
+     */
+    public static FxRateTable of(String baseCurrency, Collection<Rate> source) {
+        String base = normalize(baseCurrency);
+        Map<String, Integer> rows = new HashMap<>();
+        LocalDate first = null;
+        LocalDate last = null;
+        for (Rate rate : source) {
+            String currency = normalize(rate.currencyCode());
+            if (currency.equals(base) || rate.rate() == null || rate.rate().signum() <= 0) {
+                continue;
+            }
+            rows.putIfAbsent(currency, rows.size());
+            first = first == null || rate.day().isBefore(first) ? rate.day() : first;
+            last = last == null || rate.day().isAfter(last) ? rate.day() : last;
+        }
+        if (rows.isEmpty()) {
+            return empty(base);
+        }
+
+        int days = (int) ChronoUnit.DAYS.between(first, last) + 1;
+        double[] rates = new double[rows.size() * days];
+        Arrays.fill(rates, Double.NaN);
+        for (Rate rate : source) {
+            Integer row = rows.get(normalize(rate.currencyCode()));
+            if (row != null && rate.rate() != null && rate.rate().signum() > 0) {
+                rates[row * days + (int) ChronoUnit.DAYS.between(first, rate.day())] = rate.rate().doubleValue();
+            }
+        }
+        for (int row = 0; row < rows.size(); row++) {
+            fill(rates, row * days, days);
+        }
+        return new FxRateTable(base, Map.copyOf(rows), first, days, rates);
+    }
+
+    public String getBaseCurrency() {
+        return baseCurrency;
+    }
+
+    public boolean supports(String currencyCode) {
+        String currency = normalize(currencyCode);
+        return currency.equals(baseCurrency) || rows.containsKey(currency);
+    }
+
+    /**
+     * Units of the base currency one unit of {@code currencyCode} is worth on {@code day}, or NaN when
+     * the currency has no rates.
+     */
+    public double rate(String currencyCode, LocalDate day) {
+        String currency = normalize(currencyCode);
+        if (currency.equals(baseCurrency)) {
+            return 1d;
+        }
+        Integer row = rows.get(currency);
+        if (row == null) {
+            return Double.NaN;
+        }
+        long offset = day == null ? days - 1 : ChronoUnit.DAYS.between(firstDay, day);
+        return rates[row * days + (int) Math.max(0, Math.min(days - 1, offset))];
+    }
+
+    /**
+     * @return the amount in {@code to}, rounded to two decimals, or null when either currency has no rates
+     */
+    public BigDecimal convert(BigDecimal amount, String from, String to, LocalDate day) {
+        double fromRate = rate(from, day);
+        double toRate = rate(to, day);
+        if (Double.isNaN(fromRate) || Double.isNaN(toRate)) {
+            return null;
+        }
+        return amount.multiply(BigDecimal.valueOf(fromRate))
+                .divide(BigDecimal.valueOf(toRate), 2, RoundingMode.HALF_UP);
+    }
+
+    public int size() {
+        return rows.size();
+    }
+
+    /**
+     * Fingerprint of the loaded rates. Two tables built from the same rates have the same version
+     * whatever order the rates were read in, so every instance agrees on it.
+     */
+    public String version() {
+        return version;
+    }
+
+    private String fingerprint() {
+        int hash = Objects.hash(baseCurrency, firstDay, days);
+        for (String currency : new TreeSet<>(rows.keySet())) {
+            int start = rows.get(currency) * days;
+            hash = 31 * hash + currency.hashCode();
+            hash = 31 * hash + Arrays.hashCode(Arrays.copyOfRange(rates, start, start + days));
+        }
+        return Integer.toHexString(hash);
+    }
+
+    // Carry each rate forward over the gaps after it, then the first rate back over the gap before it
+    private static void fill(double[] rates, int start, int length) {
+        double last = Double.NaN;
+        for (int i = start; i < start + length; i++) {
+            if (Double.isNaN(rates[i])) {
+                rates[i] = last;
+            } else {
+                last = rates[i];
+            }
+        }
+        double first = Double.NaN;
+        for (int i = start; i < start + length && Double.isNaN(first); i++) {
+            first = rates[i];
+        }
+        for (int i = start; i < start + length && Double.isNaN(rates[i]); i++) {
+            rates[i] = first;
+        }
+    }
+
+    private static String normalize(String currencyCode) {
+        return currencyCode == null ? "" : currencyCode.trim().toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,11 @@
+-- Per-user message counter kept as a hash: n = messages counted, m = highest chat id counted.
+-- KEYS[1] = counter key; ARGV = m the delta was counted from, messages found after it, new m, ttl seconds.
+-- Only advances when nobody else has moved m in the meantime. Returns the current count.
+local counted = redis.call('HGET', KEYS[1], 'm') or '0'
+if counted ~= ARGV[1] then
+    return tonumber(redis.call('HGET', KEYS[1], 'n') or '0')
+end
+local total = tonumber(redis.call('HGET', KEYS[1], 'n') or '0') + tonumber(ARGV[2])
+redis.call('HSET', KEYS[1], 'n', total, 'm', ARGV[3])
+redis.call('EXPIRE', KEYS[1], ARGV[4])
+return total
@@ -0,0 +1,7 @@
+-- KEYS[1] user-group index, ARGV[1] invitation hash prefix
+local token = redis.call('GET', KEYS[1])
+if not token then
+    return 0
+end
+redis.call('DEL', KEYS[1], ARGV[1] .. token)
+return 1
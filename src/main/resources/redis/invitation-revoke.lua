@@ -0,0 +1,12 @@
+-- KEYS[1] invitation hash, ARGV[1] user-group index prefix, ARGV[2] token
+local fields = redis.call('HMGET', KEYS[1], 'u', 'g')
+if not fields[1] then
+    return 0
+end
+local index = ARGV[1] .. fields[1] .. ':' .. fields[2]
+-- A newer invitation for the same user and group keeps its index entry
+if redis.call('GET', index) == ARGV[2] then
+    redis.call('DEL', index)
+end
+redis.call('DEL', KEYS[1])
+return 1
@@ -0,0 +1,7 @@
+-- KEYS[1] invitation hash, ARGV[1] new status
+-- Only touches live invitations, so an expired one is not brought back without a TTL
+if redis.call('EXISTS', KEYS[1]) == 0 then
+    return 0
+end
+redis.call('HSET', KEYS[1], 's', ARGV[1])
+return 1
@@ -0,0 +1,15 @@
+-- Stores a fresh OTP in a compact hash: c = code, s = codes sent, f = incorrect attempts, t = last sent (epoch seconds).
+-- KEYS[1] = otp key; ARGV = code, max sends, ttl seconds, resend cooldown seconds.
+-- Returns the new send count, 0 once the send limit is reached, or -(seconds to wait) during the cooldown.
+local now = tonumber(redis.call('TIME')[1])
+local sent = tonumber(redis.call('HGET', KEYS[1], 's') or '0')
+if sent >= tonumber(ARGV[2]) then
+    return 0
+end
+local wait = tonumber(redis.call('HGET', KEYS[1], 't') or '0') + tonumber(ARGV[4]) - now
+if wait > 0 then
+    return -wait
+end
+redis.call('HSET', KEYS[1], 'c', ARGV[1], 's', sent + 1, 'f', 0, 't', now)
+redis.call('EXPIRE', KEYS[1], ARGV[3])
+return sent + 1
@@ -0,0 +1,18 @@
+-- Checks a submitted OTP against the hash written by otp-issue.lua and counts the miss in the same step.
+-- KEYS[1] = otp key; ARGV = submitted code, max incorrect attempts.
+-- Returns 0 when verified (the OTP is consumed), -1 when there is no OTP, -2 when this miss used up the
+-- last attempt (the OTP is discarded), otherwise the number of incorrect attempts so far.
+local code = redis.call('HGET', KEYS[1], 'c')
+if not code then
+    return -1
+end
+if code == ARGV[1] then
+    redis.call('DEL', KEYS[1])
+    return 0
+end
+local failed = redis.call('HINCRBY', KEYS[1], 'f', 1)
+if failed >= tonumber(ARGV[2]) then
+    redis.call('DEL', KEYS[1])
+    return -2
+end
+return failed
@@ -0,0 +1,86 @@
+package vn.fpt.seima.seimaserver.config.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SecondLevelCacheInvalidatorTest {
+    private static final String CATEGORY = "vn.fpt.seima.seimaserver.entity.Category";
+
+    @Mock private EntityManagerFactory entityManagerFactory;
+    @Mock private SessionFactoryImplementor sessionFactory;
+    @Mock private CacheImplementor cache;
+    @Mock private StringRedisTemplate stringRedisTemplate;
+    @Mock private RedisMessageListenerContainer redisMessageListenerContainer;
+
+    @InjectMocks
+    private SecondLevelCacheInvalidator invalidator;
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(SecondLevelCacheInvalidator.EVICTION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String broadcastCategoryUpdate() {
+        EntityPersister persister = mock(EntityPersister.class);
+        PostUpdateEvent event = mock(PostUpdateEvent.class);
+        when(persister.getEntityName()).thenReturn(CATEGORY);
+        when(event.getPersister()).thenReturn(persister);
+
+        invalidator.onPostUpdate(event);
+
+        ArgumentCaptor<String> body = ArgumentCaptor.forClass(String.class);
+        verify(stringRedisTemplate).convertAndSend(eq(SecondLevelCacheInvalidator.EVICTION_CHANNEL), body.capture());
+        return body.getValue();
+    }
+
+    @Test
+    void onPostUpdate_ShouldBroadcastTheEntityName() {
+        assertTrue(broadcastCategoryUpdate().endsWith(" " + CATEGORY));
+    }
+
+    @Test
+    void onMessage_ShouldEvictTheEntityAndQueryRegionsForAnotherInstance() {
+        when(entityManagerFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getCache()).thenReturn(cache);
+
+        invalidator.onMessage(message("other-node " + CATEGORY), null);
+
+        verify(cache).evictEntityData(CATEGORY);
+        verify(cache).evictQueryRegions();
+    }
+
+    @Test
+    void onMessage_ShouldIgnoreItsOwnBroadcast() {
+        String own = broadcastCategoryUpdate();
+
+        invalidator.onMessage(message(own), null);
+
+        verifyNoInteractions(entityManagerFactory, cache);
+    }
+
+    @Test
+    void onMessage_ShouldIgnoreMalformedMessages() {
+        invalidator.onMessage(message("garbage"), null);
+
+        verifyNoInteractions(entityManagerFactory, cache);
+    }
+}
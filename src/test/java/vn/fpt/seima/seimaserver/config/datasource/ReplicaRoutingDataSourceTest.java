@@ -0,0 +1,164 @@
+package vn.fpt.seima.seimaserver.config.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+    private static final String USER = "a@seima.vn";
+
+    @Mock private DataSource primary;
+    @Mock private ReadYourWritesWindow readYourWritesWindow;
+
+    private final Map<String, DataSource> replicas = new LinkedHashMap<>();
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() {
+        routingDataSource = new ReplicaRoutingDataSource(primary, replicas, readYourWritesWindow, Duration.ofSeconds(2));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(USER, null, List.of()));
+    }
+
+    // After the lag check, which runs on the scheduler thread outside any transaction
+    private void beginTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clear();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(ReplicaRoutingDataSource.class.getName() + ".WRITE_TRACKED");
+        SecurityContextHolder.clearContext();
+    }
+
+    private DataSource replica(String name, Long secondsBehind) throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery("SHOW REPLICA STATUS")).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getLong("Seconds_Behind_Source")).thenReturn(secondsBehind == null ? 0 : secondsBehind);
+        when(resultSet.wasNull()).thenReturn(secondsBehind == null);
+        replicas.put(name, dataSource);
+        return dataSource;
+    }
+
+    @Test
+    void determineTarget_ShouldSendReadWriteTransactionsToThePrimaryAndOpenTheWindowOnCommit() throws SQLException {
+        replica("replica-1", 0L);
+        routingDataSource.checkReplicaLag();
+        beginTransaction(false);
+
+        assertEquals("primary", routingDataSource.determineTarget());
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        assertEquals(1, synchronizations.size());
+        verify(readYourWritesWindow, never()).wrote(USER);
+        synchronizations.get(0).afterCommit();
+        verify(readYourWritesWindow).wrote(USER);
+    }
+
+    @Test
+    void determineTarget_ShouldRoundRobinReadOnlyTransactionsOverHealthyReplicas() throws SQLException {
+        replica("replica-1", 0L);
+        replica("replica-2", 1L);
+        routingDataSource.checkReplicaLag();
+        beginTransaction(true);
+
+        assertEquals("replica-1", routingDataSource.determineTarget());
+        assertEquals("replica-2", routingDataSource.determineTarget());
+        assertEquals("replica-1", routingDataSource.determineTarget());
+        assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty());
+    }
+
+    @Test
+    void determineTarget_ShouldSkipReplicasThatLagOrDoNotReplicate() throws SQLException {
+        replica("replica-1", 30L);
+        replica("replica-2", null);
+        replica("replica-3", 0L);
+        routingDataSource.checkReplicaLag();
+        beginTransaction(true);
+
+        assertEquals("replica-3", routingDataSource.determineTarget());
+        assertEquals("replica-3", routingDataSource.determineTarget());
+    }
+
+    @Test
+    void determineTarget_ShouldUseThePrimaryBeforeTheFirstLagCheck() {
+        replicas.put("replica-1", mock(DataSource.class));
+        beginTransaction(true);
+
+        assertEquals("primary", routingDataSource.determineTarget());
+    }
+
+    @Test
+    void determineTarget_ShouldKeepAUserWhoJustWroteOnThePrimary() throws SQLException {
+        replica("replica-1", 0L);
+        routingDataSource.checkReplicaLag();
+        beginTransaction(true);
+        when(readYourWritesWindow.isOpen(USER)).thenReturn(true);
+
+        assertEquals("primary", routingDataSource.determineTarget());
+    }
+
+    @Test
+    void determineTarget_ShouldSendCacheRefillsToThePrimary() throws SQLException {
+        replica("replica-1", 0L);
+        routingDataSource.checkReplicaLag();
+        DataSourceRoutingProperties properties = new DataSourceRoutingProperties();
+        properties.setEnabled(true);
+        PrimaryReads primaryReads = new PrimaryReads(mock(PlatformTransactionManager.class), properties);
+
+        String target = primaryReads.read(() -> {
+            beginTransaction(true);
+            return routingDataSource.determineTarget();
+        });
+
+        assertEquals("primary", target);
+        assertEquals("replica-1", routingDataSource.determineTarget());
+    }
+
+    @Test
+    void getConnection_ShouldFallBackToThePrimaryWhenTheReplicaIsDown() throws SQLException {
+        DataSource replica = replica("replica-1", 0L);
+        routingDataSource.checkReplicaLag();
+        beginTransaction(true);
+        Connection primaryConnection = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        assertSame(primaryConnection, routingDataSource.getConnection());
+        // Taken out of rotation until the next lag check
+        assertEquals("primary", routingDataSource.determineTarget());
+    }
+}
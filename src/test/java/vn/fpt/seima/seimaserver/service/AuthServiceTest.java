@@ -9,14 +9,18 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.thymeleaf.context.Context;
 import vn.fpt.seima.seimaserver.dto.request.auth.*;
 import vn.fpt.seima.seimaserver.dto.response.auth.LoginResponseDto;
 import vn.fpt.seima.seimaserver.dto.response.auth.NormalRegisterResponseDto;
+import vn.fpt.seima.seimaserver.dto.response.auth.OtpIssueResult;
+import vn.fpt.seima.seimaserver.dto.response.auth.OtpVerifyResult;
 import vn.fpt.seima.seimaserver.dto.response.auth.VerifyForgotPasswordOtpResponseDto;
 import vn.fpt.seima.seimaserver.entity.User;
+import vn.fpt.seima.seimaserver.event.UserProfileChangedEvent;
 import vn.fpt.seima.seimaserver.exception.*;
 import vn.fpt.seima.seimaserver.repository.UserDeviceRepository;
 import vn.fpt.seima.seimaserver.repository.UserRepository;
@@ -41,7 +45,7 @@ public class AuthServiceTest {
     @Mock
     private EmailService emailService;
     @Mock
-    private RedisService redisService;
+    private OtpService otpService;
     @Mock
     private PasswordEncoder passwordEncoder;
     @Mock
@@ -54,6 +58,8 @@ public class AuthServiceTest {
     private VerificationTokenService verificationTokenService;
     @Mock
     private PasswordValidationService passwordValidationService;
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
 
     @InjectMocks
     private AuthServiceImpl authService;
@@ -61,6 +67,10 @@ public class AuthServiceTest {
     private NormalRegisterRequestDto.NormalRegisterRequestDtoBuilder requestDtoBuilder;
     private final String TEST_EMAIL = "test.user@example.com";
     private final String TEST_PASSWORD = "Password@123";
+    private final String REGISTER_OTP_KEY = "otp:register:" + TEST_EMAIL;
+    private final String FORGOT_PASSWORD_OTP_KEY = "otp:forgot-password:" + TEST_EMAIL;
+    private static final OtpIssueResult OTP_ISSUED = new OtpIssueResult(OtpIssueResult.Status.ISSUED, 0);
+    private static final OtpIssueResult OTP_LIMIT_REACHED = new OtpIssueResult(OtpIssueResult.Status.LIMIT_REACHED, 0);
 
     @BeforeEach
     void setUp() {
@@ -92,7 +102,7 @@ public class AuthServiceTest {
             when(userRepository.findByUserEmail(requestDto.getEmail())).thenReturn(Optional.empty());
             when(passwordEncoder.encode(requestDto.getPassword())).thenReturn("encodedPassword123");
             doNothing().when(emailService).sendEmailWithHtmlTemplate(anyString(), anyString(), anyString(), any(Context.class));
-            when(redisService.getObject(anyString(), eq(OtpValueDto.class))).thenReturn(null);
+            when(otpService.issue(eq(REGISTER_OTP_KEY), anyString(), eq(false))).thenReturn(OTP_ISSUED);
 
             NormalRegisterResponseDto response = authService.processRegister(requestDto);
 
@@ -107,11 +117,7 @@ public class AuthServiceTest {
             assertEquals("encodedPassword123", savedUser.getUserPassword());
             assertFalse(savedUser.getUserIsActive());
             verify(emailService).sendEmailWithHtmlTemplate(eq(requestDto.getEmail()), anyString(), anyString(), any(Context.class));
-            ArgumentCaptor<String> redisKeyCaptor = ArgumentCaptor.forClass(String.class);
-            ArgumentCaptor<OtpValueDto> otpValueCaptor = ArgumentCaptor.forClass(OtpValueDto.class);
-            verify(redisService).set(redisKeyCaptor.capture(), otpValueCaptor.capture());
-            assertEquals("otp-:" + TEST_EMAIL, redisKeyCaptor.getValue());
-            assertEquals(1, otpValueCaptor.getValue().getAttemptCount());
+            verify(otpService).issue(REGISTER_OTP_KEY, response.getOtpCode(), false);
         }
 
         // Normal Case
@@ -123,6 +129,7 @@ public class AuthServiceTest {
             User existingInactiveUser = User.builder().userEmail(requestDto.getEmail()).userIsActive(false).isLogByGoogle(false).build();
             when(userRepository.findByUserEmail(requestDto.getEmail())).thenReturn(Optional.of(existingInactiveUser));
             when(passwordEncoder.encode(requestDto.getPassword())).thenReturn("newEncodedPassword456");
+            when(otpService.issue(eq(REGISTER_OTP_KEY), anyString(), eq(false))).thenReturn(OTP_ISSUED);
 
             authService.processRegister(requestDto);
 
@@ -186,9 +193,8 @@ public class AuthServiceTest {
         void processRegister_ThrowsMaxOtpAttemptsExceededException_WhenMaxAttemptsReached() {
             NormalRegisterRequestDto requestDto = requestDtoBuilder.build();
             User existingInactiveUser = User.builder().userEmail(requestDto.getEmail()).userIsActive(false).isLogByGoogle(false).build();
-            OtpValueDto existingOtp = OtpValueDto.builder().otpCode("123456").attemptCount(5).build();
             when(userRepository.findByUserEmail(requestDto.getEmail())).thenReturn(Optional.of(existingInactiveUser));
-            when(redisService.getObject(anyString(), eq(OtpValueDto.class))).thenReturn(existingOtp);
+            when(otpService.issue(eq(REGISTER_OTP_KEY), anyString(), eq(false))).thenReturn(OTP_LIMIT_REACHED);
             // FIX: Mock the encode call because it happens before the exception is thrown in the current implementation
             when(passwordEncoder.encode(requestDto.getPassword())).thenReturn("encodedPassword123");
 
@@ -199,6 +205,8 @@ public class AuthServiceTest {
             // The test is updated to reflect this actual behavior. Ideally, the service logic should be refactored.
             verify(passwordEncoder, times(1)).encode(anyString());
             verify(userRepository, times(1)).save(any(User.class));
+            // No mail goes out once the limit is reached
+            verify(emailService, never()).sendEmailWithHtmlTemplate(anyString(), anyString(), anyString(), any(Context.class));
         }
 
         // Boundary Case
@@ -208,18 +216,16 @@ public class AuthServiceTest {
             NormalRegisterRequestDto requestDto = requestDtoBuilder.build();
             // FIX: Set isLogByGoogle to prevent NPE
             User existingInactiveUser = User.builder().userEmail(requestDto.getEmail()).userIsActive(false).isLogByGoogle(false).build();
-            OtpValueDto existingOtp = OtpValueDto.builder().otpCode("123456").attemptCount(4).build();
             when(userRepository.findByUserEmail(requestDto.getEmail())).thenReturn(Optional.of(existingInactiveUser));
-            when(redisService.getObject(anyString(), eq(OtpValueDto.class))).thenReturn(existingOtp);
+            when(otpService.issue(eq(REGISTER_OTP_KEY), anyString(), eq(false))).thenReturn(OTP_ISSUED);
             when(passwordEncoder.encode(requestDto.getPassword())).thenReturn("encodedPassword123");
 
-            authService.processRegister(requestDto);
+            NormalRegisterResponseDto response = authService.processRegister(requestDto);
 
-            ArgumentCaptor<OtpValueDto> otpValueCaptor = ArgumentCaptor.forClass(OtpValueDto.class);
-            verify(redisService).set(anyString(), otpValueCaptor.capture());
-            assertEquals(5, otpValueCaptor.getValue().getAttemptCount());
+            ArgumentCaptor<Context> contextCaptor = ArgumentCaptor.forClass(Context.class);
             verify(userRepository).save(any(User.class));
-            verify(emailService).sendEmailWithHtmlTemplate(anyString(), anyString(), anyString(), any(Context.class));
+            verify(emailService).sendEmailWithHtmlTemplate(anyString(), anyString(), anyString(), contextCaptor.capture());
+            assertEquals(response.getOtpCode(), contextCaptor.getValue().getVariable("otpRegister"));
         }
     }
 
@@ -240,19 +246,18 @@ public class AuthServiceTest {
                     .phoneNumber("123")
                     .gender(true)
                     .build();
-            OtpValueDto otpValueDto = OtpValueDto.builder().otpCode(VALID_OTP).build();
             User user = new User();
             user.setUserIsActive(false);
 
-            when(redisService.getObject("otp-:" + TEST_EMAIL, OtpValueDto.class)).thenReturn(otpValueDto);
+            when(otpService.verify(REGISTER_OTP_KEY, VALID_OTP)).thenReturn(new OtpVerifyResult(OtpVerifyResult.Status.VERIFIED, 0));
             when(userRepository.findByUserEmail(TEST_EMAIL)).thenReturn(Optional.of(user));
 
             boolean result = authService.verifyOtp(requestDto);
 
             assertTrue(result);
             assertTrue(user.getUserIsActive());
-            verify(redisService).delete("otp-:" + TEST_EMAIL);
             verify(userRepository).save(user);
+            verify(applicationEventPublisher).publishEvent(any(UserProfileChangedEvent.class));
         }
 
         // Abnormal Case
@@ -260,7 +265,7 @@ public class AuthServiceTest {
         @DisplayName("verifyOtp_ThrowsOtpNotFoundException_WhenOtpIsExpired")
         void verifyOtp_ThrowsOtpNotFoundException_WhenOtpIsExpired() {
             VerifyOtpRequestDto requestDto = VerifyOtpRequestDto.builder().email(TEST_EMAIL).otp(VALID_OTP).build();
-            when(redisService.getObject("otp-:" + TEST_EMAIL, OtpValueDto.class)).thenReturn(null);
+            when(otpService.verify(REGISTER_OTP_KEY, VALID_OTP)).thenReturn(new OtpVerifyResult(OtpVerifyResult.Status.NOT_FOUND, 0));
 
             assertThrows(OtpNotFoundException.class, () -> authService.verifyOtp(requestDto));
         }
@@ -270,12 +275,11 @@ public class AuthServiceTest {
         @DisplayName("verifyOtp_ThrowsInvalidOtpException_WhenOtpIsIncorrect")
         void verifyOtp_ThrowsInvalidOtpException_WhenOtpIsIncorrect() {
             VerifyOtpRequestDto requestDto = VerifyOtpRequestDto.builder().email(TEST_EMAIL).otp("654321").build();
-            OtpValueDto otpValueDto = OtpValueDto.builder().otpCode(VALID_OTP).incorrectAttempts(0).build();
-
-            when(redisService.getObject("otp-:" + TEST_EMAIL, OtpValueDto.class)).thenReturn(otpValueDto);
+            when(otpService.verify(REGISTER_OTP_KEY, "654321")).thenReturn(new OtpVerifyResult(OtpVerifyResult.Status.INVALID, 2));
 
-            assertThrows(InvalidOtpException.class, () -> authService.verifyOtp(requestDto));
-            verify(redisService).set(eq("otp-:" + TEST_EMAIL), any(OtpValueDto.class));
+            InvalidOtpException exception = assertThrows(InvalidOtpException.class, () -> authService.verifyOtp(requestDto));
+            assertEquals("Invalid OTP. Attempts remaining: 2", exception.getMessage());
+            verify(userRepository, never()).save(any(User.class));
         }
 
         // Boundary Case
@@ -283,12 +287,10 @@ public class AuthServiceTest {
         @DisplayName("verifyOtp_ThrowsMaxOtpAttemptsExceededException_WhenMaxIncorrectAttemptsReached")
         void verifyOtp_ThrowsMaxOtpAttemptsExceededException_WhenMaxIncorrectAttemptsReached() {
             VerifyOtpRequestDto requestDto = VerifyOtpRequestDto.builder().email(TEST_EMAIL).otp("654321").build();
-            OtpValueDto otpValueDto = OtpValueDto.builder().otpCode(VALID_OTP).incorrectAttempts(2).build();
-
-            when(redisService.getObject("otp-:" + TEST_EMAIL, OtpValueDto.class)).thenReturn(otpValueDto);
+            when(otpService.verify(REGISTER_OTP_KEY, "654321")).thenReturn(new OtpVerifyResult(OtpVerifyResult.Status.LOCKED, 0));
 
             assertThrows(MaxOtpAttemptsExceededException.class, () -> authService.verifyOtp(requestDto));
-            verify(redisService).delete("otp-:" + TEST_EMAIL);
+            verify(userRepository, never()).save(any(User.class));
         }
     }
 
@@ -302,14 +304,12 @@ public class AuthServiceTest {
         void resendOtp_Success_WhenUserIsInactive() {
             User inactiveUser = User.builder().userEmail(TEST_EMAIL).userIsActive(false).isLogByGoogle(false).build();
             when(userRepository.findByUserEmail(TEST_EMAIL)).thenReturn(Optional.of(inactiveUser));
-            when(redisService.getObject("otp-:" + TEST_EMAIL, OtpValueDto.class)).thenReturn(null);
+            when(otpService.issue(eq(REGISTER_OTP_KEY), anyString(), eq(true))).thenReturn(OTP_ISSUED);
 
             authService.resendOtp(TEST_EMAIL);
 
             verify(emailService).sendEmailWithHtmlTemplate(eq(TEST_EMAIL), anyString(), anyString(), any(Context.class));
-            ArgumentCaptor<OtpValueDto> otpCaptor = ArgumentCaptor.forClass(OtpValueDto.class);
-            verify(redisService).set(eq("otp-:" + TEST_EMAIL), otpCaptor.capture());
-            assertEquals(1, otpCaptor.getValue().getAttemptCount());
+            verify(otpService).issue(eq(REGISTER_OTP_KEY), anyString(), eq(true));
         }
 
         // Abnormal Case
@@ -336,11 +336,25 @@ public class AuthServiceTest {
         @DisplayName("resendOtp_ThrowsMaxOtpAttemptsExceededException_WhenMaxAttemptsReached")
         void resendOtp_ThrowsMaxOtpAttemptsExceededException_WhenMaxAttemptsReached() {
             User inactiveUser = User.builder().userEmail(TEST_EMAIL).userIsActive(false).isLogByGoogle(false).build();
-            OtpValueDto existingOtp = OtpValueDto.builder().attemptCount(5).build();
             when(userRepository.findByUserEmail(TEST_EMAIL)).thenReturn(Optional.of(inactiveUser));
-            when(redisService.getObject("otp-:" + TEST_EMAIL, OtpValueDto.class)).thenReturn(existingOtp);
+            when(otpService.issue(eq(REGISTER_OTP_KEY), anyString(), eq(true))).thenReturn(OTP_LIMIT_REACHED);
 
             assertThrows(MaxOtpAttemptsExceededException.class, () -> authService.resendOtp(TEST_EMAIL));
+            verify(emailService, never()).sendEmailWithHtmlTemplate(anyString(), anyString(), anyString(), any(Context.class));
+        }
+
+        // Boundary Case
+        @Test
+        @DisplayName("resendOtp_ThrowsMaxOtpAttemptsExceededException_WhenCoolingDown")
+        void resendOtp_ThrowsMaxOtpAttemptsExceededException_WhenCoolingDown() {
+            User inactiveUser = User.builder().userEmail(TEST_EMAIL).userIsActive(false).isLogByGoogle(false).build();
+            when(userRepository.findByUserEmail(TEST_EMAIL)).thenReturn(Optional.of(inactiveUser));
+            when(otpService.issue(eq(REGISTER_OTP_KEY), anyString(), eq(true)))
+                    .thenReturn(new OtpIssueResult(OtpIssueResult.Status.COOLING_DOWN, 12));
+
+            MaxOtpAttemptsExceededException exception = assertThrows(MaxOtpAttemptsExceededException.class, () -> authService.resendOtp(TEST_EMAIL));
+            assertEquals("Please wait 12 seconds before requesting a new OTP.", exception.getMessage());
+            verify(emailService, never()).sendEmailWithHtmlTemplate(anyString(), anyString(), anyString(), any(Context.class));
         }
     }
 
@@ -408,7 +422,7 @@ public class AuthServiceTest {
         void login_ThrowsAccountNotVerifiedException_WhenUserIsInactiveWithExistingOtp() {
             User inactiveUser = User.builder().userIsActive(false).build();
             when(userRepository.findByUserEmail(TEST_EMAIL)).thenReturn(Optional.of(inactiveUser));
-            when(redisService.getObject("otp-:" + TEST_EMAIL, OtpValueDto.class)).thenReturn(OtpValueDto.builder().build());
+            when(otpService.exists(REGISTER_OTP_KEY)).thenReturn(true);
 
             assertThrows(AccountNotVerifiedException.class, () -> authService.login(loginRequestDto));
         }
@@ -419,7 +433,7 @@ public class AuthServiceTest {
         void login_ThrowsInvalidOtpException_WhenUserIsInactiveAndOtpExpired() {
             User inactiveUser = User.builder().userIsActive(false).build();
             when(userRepository.findByUserEmail(TEST_EMAIL)).thenReturn(Optional.of(inactiveUser));
-            when(redisService.getObject("otp-:" + TEST_EMAIL, OtpValueDto.class)).thenReturn(null);
+            when(otpService.exists(REGISTER_OTP_KEY)).thenReturn(false);
 
             assertThrows(InvalidOtpException.class, () -> authService.login(loginRequestDto));
         }
@@ -446,11 +460,11 @@ public class AuthServiceTest {
             ForgotPasswordRequestDto requestDto = ForgotPasswordRequestDto.builder().email(TEST_EMAIL).build();
             User user = User.builder().userEmail(TEST_EMAIL).isLogByGoogle(false).userPassword("some-password").build();
             when(userRepository.findByUserEmail(TEST_EMAIL)).thenReturn(Optional.of(user));
+            when(otpService.issue(eq(FORGOT_PASSWORD_OTP_KEY), anyString(), eq(true))).thenReturn(OTP_ISSUED);
 
             authService.forgotPassword(requestDto);
 
             verify(emailService).sendEmailWithHtmlTemplate(eq(TEST_EMAIL), anyString(), anyString(), any(Context.class));
-            verify(redisService).set(eq("forgot-password-otp:" + TEST_EMAIL), any(OtpValueDto.class));
         }
 
         // Abnormal Case
@@ -485,14 +499,12 @@ public class AuthServiceTest {
         void resendForgotPasswordOtp_Success_WhenUserIsValid() {
             User validUser = User.builder().userEmail(TEST_EMAIL).isLogByGoogle(false).userPassword("some-password").build();
             when(userRepository.findByUserEmail(TEST_EMAIL)).thenReturn(Optional.of(validUser));
-            when(redisService.getObject(anyString(), any())).thenReturn(null);
+            when(otpService.issue(eq(FORGOT_PASSWORD_OTP_KEY), anyString(), eq(true))).thenReturn(OTP_ISSUED);
 
             authService.resendForgotPasswordOtp(TEST_EMAIL);
 
             verify(emailService).sendEmailWithHtmlTemplate(eq(TEST_EMAIL), anyString(), anyString(), any(Context.class));
-            ArgumentCaptor<OtpValueDto> otpCaptor = ArgumentCaptor.forClass(OtpValueDto.class);
-            verify(redisService).set(eq("forgot-password-otp:" + TEST_EMAIL), otpCaptor.capture());
-            assertEquals(1, otpCaptor.getValue().getAttemptCount());
+            verify(otpService).issue(eq(FORGOT_PASSWORD_OTP_KEY), anyString(), eq(true));
         }
 
         // Abnormal Case
@@ -517,9 +529,8 @@ public class AuthServiceTest {
         @DisplayName("resendForgotPasswordOtp_ThrowsMaxOtpAttemptsExceededException_WhenMaxAttemptsReached")
         void resendForgotPasswordOtp_ThrowsMaxOtpAttemptsExceededException_WhenMaxAttemptsReached() {
             User validUser = User.builder().userEmail(TEST_EMAIL).isLogByGoogle(false).userPassword("some-password").build();
-            OtpValueDto existingOtp = OtpValueDto.builder().attemptCount(5).build();
             when(userRepository.findByUserEmail(TEST_EMAIL)).thenReturn(Optional.of(validUser));
-            when(redisService.getObject("forgot-password-otp:" + TEST_EMAIL, OtpValueDto.class)).thenReturn(existingOtp);
+            when(otpService.issue(eq(FORGOT_PASSWORD_OTP_KEY), anyString(), eq(true))).thenReturn(OTP_LIMIT_REACHED);
 
             assertThrows(MaxOtpAttemptsExceededException.class, () -> authService.resendForgotPasswordOtp(TEST_EMAIL));
         }
@@ -536,11 +547,10 @@ public class AuthServiceTest {
         void verifyForgotPasswordOtp_Success_WhenOtpIsValid() {
             VerifyForgotPasswordOtpRequestDto requestDto = VerifyForgotPasswordOtpRequestDto.builder().email(TEST_EMAIL).otp(VALID_OTP).build();
             User user = User.builder().userEmail(TEST_EMAIL).isLogByGoogle(false).build();
-            OtpValueDto otpValueDto = OtpValueDto.builder().otpCode(VALID_OTP).build();
             String verificationToken = "verification-token-123";
 
             when(userRepository.findByUserEmail(TEST_EMAIL)).thenReturn(Optional.of(user));
-            when(redisService.getObject("forgot-password-otp:" + TEST_EMAIL, OtpValueDto.class)).thenReturn(otpValueDto);
+            when(otpService.verify(FORGOT_PASSWORD_OTP_KEY, VALID_OTP)).thenReturn(new OtpVerifyResult(OtpVerifyResult.Status.VERIFIED, 0));
             when(verificationTokenService.generateVerificationToken(TEST_EMAIL)).thenReturn(verificationToken);
 
             VerifyForgotPasswordOtpResponseDto response = authService.verifyForgotPasswordOtp(requestDto);
@@ -548,7 +558,6 @@ public class AuthServiceTest {
             assertNotNull(response);
             assertTrue(response.isVerified());
             assertEquals(verificationToken, response.getVerificationToken());
-            verify(redisService).delete("forgot-password-otp:" + TEST_EMAIL);
         }
 
         // Abnormal Case
@@ -558,7 +567,7 @@ public class AuthServiceTest {
             VerifyForgotPasswordOtpRequestDto requestDto = VerifyForgotPasswordOtpRequestDto.builder().email(TEST_EMAIL).otp(VALID_OTP).build();
             User user = User.builder().userEmail(TEST_EMAIL).isLogByGoogle(false).build();
             when(userRepository.findByUserEmail(TEST_EMAIL)).thenReturn(Optional.of(user));
-            when(redisService.getObject("forgot-password-otp:" + TEST_EMAIL, OtpValueDto.class)).thenReturn(null);
+            when(otpService.verify(FORGOT_PASSWORD_OTP_KEY, VALID_OTP)).thenReturn(new OtpVerifyResult(OtpVerifyResult.Status.NOT_FOUND, 0));
 
             assertThrows(OtpNotFoundException.class, () -> authService.verifyForgotPasswordOtp(requestDto));
         }
@@ -0,0 +1,102 @@
+package vn.fpt.seima.seimaserver.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+import vn.fpt.seima.seimaserver.config.branch.BranchProperties;
+import vn.fpt.seima.seimaserver.dto.response.group.BranchLinkResponse;
+import vn.fpt.seima.seimaserver.service.impl.BranchLinkServiceImpl;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BranchLinkServiceTest {
+    private static final String LINK_KEY = "branch:link:7:2:1:VIEW_GROUP";
+    private static final long THIRTY_DAYS = 30L * 24 * 60 * 60;
+
+    @Mock private StringRedisTemplate stringRedisTemplate;
+    @Mock private ValueOperations<String, String> valueOperations;
+    @Mock private StringRedisConnection redisConnection;
+
+    private BranchStandInServer branchServer;
+    private BranchProperties branchProperties;
+    private BranchLinkServiceImpl branchLinkService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        branchServer = new BranchStandInServer();
+        branchProperties = new BranchProperties();
+        branchProperties.setBranchKey("key_test_seima");
+        branchProperties.setApiUrl(branchServer.baseUrl());
+        branchLinkService = new BranchLinkServiceImpl(new RestTemplate(), branchProperties, stringRedisTemplate);
+        ReflectionTestUtils.setField(branchLinkService, "appBaseUrl", "https://seima.vn");
+
+        lenient().when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        lenient().when(stringRedisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            RedisCallback<Object> callback = invocation.getArgument(0);
+            callback.doInRedis(redisConnection);
+            return List.of();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        branchServer.close();
+    }
+
+    @Test
+    void createInvitationDeepLink_ShouldCreateOnceAndServeRepeatsFromCache() {
+        when(valueOperations.get(LINK_KEY)).thenReturn(null, "https://seima.test.app.link/1");
+
+        BranchLinkResponse first = branchLinkService.createInvitationDeepLink(7, 2, 1, "VIEW_GROUP");
+        BranchLinkResponse second = branchLinkService.createInvitationDeepLink(7, 2, 1, "VIEW_GROUP");
+
+        assertEquals("https://seima.test.app.link/1", first.getUrl());
+        assertEquals(first.getUrl(), second.getUrl());
+        assertEquals(1, branchServer.singleCalls());
+        verify(redisConnection).setEx(LINK_KEY, THIRTY_DAYS, "https://seima.test.app.link/1");
+    }
+
+    @Test
+    void createInvitationDeepLink_WhenBranchIsDown_ShouldFallBackWithoutCaching() {
+        branchServer.close();
+
+        BranchLinkResponse response = branchLinkService.createInvitationDeepLink(7, 2, 1, "VIEW_GROUP");
+
+        assertEquals("https://seima.vn/groups/7", response.getUrl());
+        verifyNoInteractions(redisConnection);
+    }
+
+    @Test
+    void pregenerateInvitationDeepLinks_ShouldUseOneBulkCallForUncachedLinks() {
+        when(valueOperations.multiGet(anyList())).thenReturn(Arrays.asList(
+                null, null, "https://seima.test.app.link/cached", null, null, null));
+
+        branchLinkService.pregenerateInvitationDeepLinks(7, 1, List.of(2, 3, 4),
+                List.of("VIEW_GROUP", "RECHECK_PENDING_STATUS"));
+
+        assertEquals(0, branchServer.singleCalls());
+        assertEquals(1, branchServer.bulkRequests().size());
+        JsonNode bulkRequest = branchServer.bulkRequests().get(0);
+        assertEquals(5, bulkRequest.size());
+        assertEquals("RECHECK_PENDING_STATUS", bulkRequest.get(1).path("data").path("action").asText());
+        verify(redisConnection, times(5)).setEx(anyString(), eq(THIRTY_DAYS), anyString());
+        verify(redisConnection, never()).setEx(eq("branch:link:7:3:1:VIEW_GROUP"), anyLong(), anyString());
+    }
+}
@@ -0,0 +1,81 @@
+package vn.fpt.seima.seimaserver.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for the Branch link API: answers {@code POST /v1/url} and
+ * {@code POST /v1/url/bulk/<key>} with made-up short links and records the calls.
+ */
+class BranchStandInServer implements AutoCloseable {
+    private final HttpServer server;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger linkCounter = new AtomicInteger();
+    private final AtomicInteger singleCalls = new AtomicInteger();
+    private final List<JsonNode> bulkRequests = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean stopped = new AtomicBoolean();
+
+    BranchStandInServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v1/url", this::handle);
+        server.start();
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    int singleCalls() {
+        return singleCalls.get();
+    }
+
+    List<JsonNode> bulkRequests() {
+        return bulkRequests;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        JsonNode body = objectMapper.readTree(exchange.getRequestBody());
+        String response;
+        if (exchange.getRequestURI().getPath().startsWith("/v1/url/bulk/")) {
+            bulkRequests.add(body);
+            ArrayNode links = objectMapper.createArrayNode();
+            for (int i = 0; i < body.size(); i++) {
+                links.addObject().put("url", nextLink());
+            }
+            response = links.toString();
+        } else {
+            singleCalls.incrementAndGet();
+            response = objectMapper.createObjectNode().put("url", nextLink()).toString();
+        }
+
+        byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private String nextLink() {
+        return "https://seima.test.app.link/" + linkCounter.incrementAndGet();
+    }
+
+    @Override
+    public void close() {
+        if (stopped.compareAndSet(false, true)) {
+            server.stop(0);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package vn.fpt.seima.seimaserver.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import vn.fpt.seima.seimaserver.dto.response.budgetPeriod.DailyExpenseSum;
+import vn.fpt.seima.seimaserver.entity.*;
+import vn.fpt.seima.seimaserver.mapper.BudgetPeriodMapper;
+import vn.fpt.seima.seimaserver.repository.BudgetPeriodRepository;
+import vn.fpt.seima.seimaserver.repository.BudgetRepository;
+import vn.fpt.seima.seimaserver.repository.TransactionRepository;
+import vn.fpt.seima.seimaserver.service.impl.BudgetPeriodServiceImpl;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BudgetPeriodServiceTest {
+
+    @Mock private BudgetPeriodRepository budgetPeriodRepository;
+    @Mock private BudgetRepository budgetRepository;
+    @Mock private BudgetPeriodMapper budgetPeriodMapper;
+    @Mock private TransactionRepository transactionRepository;
+    @Mock private ExchangeRateService exchangeRateService;
+    @InjectMocks private BudgetPeriodServiceImpl budgetPeriodService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(exchangeRateService.convert(any(), any(), any(), any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    private Budget budget(PeriodType type, LocalDateTime start, LocalDateTime end) {
+        User user = new User();
+        user.setUserId(7);
+        Budget budget = new Budget();
+        budget.setBudgetId(1);
+        budget.setUser(user);
+        budget.setPeriodType(type);
+        budget.setStartDate(start);
+        budget.setEndDate(end);
+        budget.setOverallAmountLimit(BigDecimal.valueOf(1000));
+        return budget;
+    }
+
+    @Test
+    void resolvePeriodIndex_Daily_ShouldCountDaysFromStart() {
+        Budget budget = budget(PeriodType.DAILY, LocalDateTime.of(2025, 1, 1, 0, 0), null);
+
+        assertEquals(1, budgetPeriodService.resolvePeriodIndex(budget, LocalDateTime.of(2025, 1, 1, 23, 59, 59)));
+        assertEquals(32, budgetPeriodService.resolvePeriodIndex(budget, LocalDateTime.of(2025, 2, 1, 8, 0)));
+        assertNull(budgetPeriodService.resolvePeriodIndex(budget, LocalDateTime.of(2024, 12, 31, 12, 0)));
+    }
+
+    @Test
+    void resolvePeriodIndex_MonthlyFromMonthEnd_ShouldNotDrift() {
+        Budget budget = budget(PeriodType.MONTHLY, LocalDateTime.of(2025, 1, 31, 0, 0), null);
+
+        // Periods: Jan 31 - Feb 27, Feb 28 - Mar 30, Mar 31 - Apr 29
+        assertEquals(1, budgetPeriodService.resolvePeriodIndex(budget, LocalDateTime.of(2025, 2, 27, 10, 0)));
+        assertEquals(2, budgetPeriodService.resolvePeriodIndex(budget, LocalDateTime.of(2025, 2, 28, 10, 0)));
+        assertEquals(2, budgetPeriodService.resolvePeriodIndex(budget, LocalDateTime.of(2025, 3, 30, 10, 0)));
+        assertEquals(3, budgetPeriodService.resolvePeriodIndex(budget, LocalDateTime.of(2025, 3, 31, 10, 0)));
+    }
+
+    @Test
+    void resolvePeriodIndex_AfterEndDate_ShouldReturnNull() {
+        Budget budget = budget(PeriodType.WEEKLY, LocalDateTime.of(2025, 1, 1, 0, 0),
+                LocalDateTime.of(2025, 1, 31, 23, 59, 59));
+
+        assertEquals(5, budgetPeriodService.resolvePeriodIndex(budget, LocalDateTime.of(2025, 1, 31, 12, 0)));
+        assertNull(budgetPeriodService.resolvePeriodIndex(budget, LocalDateTime.of(2025, 2, 1, 0, 0)));
+    }
+
+    @Test
+    void buildPeriod_TruncatedByEndDate_ShouldBeInactive() {
+        Budget budget = budget(PeriodType.WEEKLY, LocalDateTime.of(2025, 1, 1, 0, 0),
+                LocalDateTime.of(2025, 1, 31, 23, 59, 59));
+
+        BudgetPeriod full = budgetPeriodService.buildPeriod(budget, 4);
+        BudgetPeriod truncated = budgetPeriodService.buildPeriod(budget, 5);
+
+        assertEquals(LocalDateTime.of(2025, 1, 22, 0, 0), full.getStartDate());
+        assertEquals(LocalDateTime.of(2025, 1, 28, 23, 59, 59), full.getEndDate());
+        assertEquals(BudgetPeriodStatus.ACTIVE, full.getStatus());
+        assertEquals(LocalDateTime.of(2025, 1, 31, 23, 59, 59), truncated.getEndDate());
+        assertEquals(BudgetPeriodStatus.INACTIVE, truncated.getStatus());
+        assertEquals(BigDecimal.valueOf(1000), truncated.getRemainingAmount());
+    }
+
+    @Test
+    void getOrCreatePeriod_WhenNotStored_ShouldUpsertAndReadBack() {
+        Budget budget = budget(PeriodType.MONTHLY, LocalDateTime.of(2025, 1, 1, 0, 0), null);
+        BudgetPeriod created = new BudgetPeriod();
+        created.setPeriodIndex(3);
+        when(budgetPeriodRepository.findByBudget_BudgetIdAndPeriodIndex(1, 3)).thenReturn(Optional.empty());
+        when(budgetPeriodRepository.findForShare(1, 3)).thenReturn(Optional.of(created));
+
+        BudgetPeriod period = budgetPeriodService.getOrCreatePeriod(budget, LocalDateTime.of(2025, 3, 15, 9, 0));
+
+        assertSame(created, period);
+        verify(budgetPeriodRepository).insertIfAbsent(1, 3, LocalDateTime.of(2025, 3, 1, 0, 0),
+                LocalDateTime.of(2025, 3, 31, 23, 59, 59), BigDecimal.valueOf(1000), BigDecimal.valueOf(1000),
+                BudgetPeriodStatus.ACTIVE.ordinal());
+        verify(budgetPeriodRepository, never()).save(any());
+    }
+
+    @Test
+    void getOrCreatePeriod_WhenCreatedConcurrently_ShouldReuseOtherRow() {
+        Budget budget = budget(PeriodType.MONTHLY, LocalDateTime.of(2025, 1, 1, 0, 0), null);
+        BudgetPeriod winner = new BudgetPeriod();
+        winner.setBudgetPeriodId(42);
+        winner.setPeriodIndex(3);
+        when(budgetPeriodRepository.findByBudget_BudgetIdAndPeriodIndex(1, 3)).thenReturn(Optional.empty());
+        // The other transaction's insert won: ours is a no-op on the duplicate key
+        when(budgetPeriodRepository.insertIfAbsent(anyInt(), anyInt(), any(), any(), any(), any(), anyInt())).thenReturn(0);
+        when(budgetPeriodRepository.findForShare(1, 3)).thenReturn(Optional.of(winner));
+
+        assertSame(winner, budgetPeriodService.getOrCreatePeriod(budget, LocalDateTime.of(2025, 3, 15, 9, 0)));
+    }
+
+    @Test
+    void getOrCreatePeriod_WhenStored_ShouldNotSave() {
+        Budget budget = budget(PeriodType.MONTHLY, LocalDateTime.of(2025, 1, 1, 0, 0), null);
+        BudgetPeriod stored = new BudgetPeriod();
+        stored.setPeriodIndex(1);
+        when(budgetPeriodRepository.findByBudget_BudgetIdAndPeriodIndex(1, 1)).thenReturn(Optional.of(stored));
+
+        assertSame(stored, budgetPeriodService.getOrCreatePeriod(budget, LocalDateTime.of(2025, 1, 10, 9, 0)));
+        verify(budgetPeriodRepository, never()).save(any());
+    }
+
+    @Test
+    void backfillPeriods_ShouldOnlyBuildTouchedPeriods() {
+        Budget budget = budget(PeriodType.DAILY, LocalDateTime.of(2024, 1, 1, 0, 0),
+                LocalDateTime.of(2024, 12, 31, 23, 59, 59));
+        when(transactionRepository.sumExpensesByDay(eq(7), anyList(), any(), any(), anyList())).thenReturn(List.of(
+                new DailyExpenseSum(LocalDate.of(2024, 1, 3), BigDecimal.valueOf(200)),
+                new DailyExpenseSum(LocalDate.of(2024, 3, 1), BigDecimal.valueOf(1500))));
+
+        List<BudgetPeriod> periods = budgetPeriodService.backfillPeriods(budget, List.of(1), List.of(2));
+
+        assertEquals(2, periods.size());
+        assertEquals(3, periods.get(0).getPeriodIndex());
+        assertEquals(BigDecimal.valueOf(800), periods.get(0).getRemainingAmount());
+        assertEquals(61, periods.get(1).getPeriodIndex());
+        assertEquals(BigDecimal.valueOf(-500), periods.get(1).getRemainingAmount());
+    }
+
+    @Test
+    void applyExpenses_ShouldSweepDaysIntoMatchingPeriods() {
+        Budget budget = budget(PeriodType.WEEKLY, LocalDateTime.of(2025, 1, 1, 0, 0), null);
+        BudgetPeriod first = budgetPeriodService.buildPeriod(budget, 1);
+        BudgetPeriod third = budgetPeriodService.buildPeriod(budget, 3);
+        when(transactionRepository.sumExpensesByDay(eq(7), anyList(), eq(first.getStartDate()), eq(third.getEndDate()), anyList()))
+                .thenReturn(List.of(
+                        new DailyExpenseSum(LocalDate.of(2025, 1, 2), BigDecimal.valueOf(100)),
+                        new DailyExpenseSum(LocalDate.of(2025, 1, 10), BigDecimal.valueOf(300)),
+                        new DailyExpenseSum(LocalDate.of(2025, 1, 15), BigDecimal.valueOf(50))));
+
+        budgetPeriodService.applyExpenses(budget, List.of(third, first), List.of(1), List.of(2));
+
+        assertEquals(BigDecimal.valueOf(900), first.getRemainingAmount());
+        assertEquals(BigDecimal.valueOf(950), third.getRemainingAmount());
+    }
+}
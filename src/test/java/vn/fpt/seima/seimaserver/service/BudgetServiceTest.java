@@ -6,10 +6,16 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import vn.fpt.seima.seimaserver.config.datasource.DataSourceRoutingProperties;
+import vn.fpt.seima.seimaserver.config.datasource.PrimaryReads;
 import vn.fpt.seima.seimaserver.dto.request.budget.CreateBudgetRequest;
+import vn.fpt.seima.seimaserver.dto.response.budget.BudgetLastResponse;
 import vn.fpt.seima.seimaserver.dto.response.budget.BudgetResponse;
 import vn.fpt.seima.seimaserver.entity.*;
 import vn.fpt.seima.seimaserver.mapper.BudgetMapper;
@@ -17,6 +23,7 @@ import vn.fpt.seima.seimaserver.repository.*;
 import vn.fpt.seima.seimaserver.service.impl.BudgetServiceImpl;
 import vn.fpt.seima.seimaserver.util.UserUtils;
 
+import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.*;
@@ -38,6 +45,10 @@ class BudgetServiceTest {
     private User mockUser;
     @Mock
     private NotificationRepository notificationRepository;
+    @Mock private ApplicationEventPublisher applicationEventPublisher;
+    @Mock private BudgetPeriodService budgetPeriodService;
+    @Mock private RedisService redisService;
+    @Spy private PrimaryReads primaryReads = new PrimaryReads(mock(PlatformTransactionManager.class), new DataSourceRoutingProperties());
     @InjectMocks private BudgetServiceImpl budgetService;
 
     private User user;
@@ -82,6 +93,47 @@ class BudgetServiceTest {
         assertEquals(1, result.getBudgetId());
     }
 
+    @Test
+    void getBudgetById_ShouldMapCategoriesAndWallets() {
+        Category category = new Category();
+        category.setCategoryId(20);
+        category.setCategoryName("Food");
+        BudgetCategoryLimit limit = new BudgetCategoryLimit();
+        limit.setCategory(category);
+        Wallet wallet = new Wallet();
+        wallet.setId(10);
+        wallet.setWalletName("Cash");
+        BudgetWallet budgetWallet = new BudgetWallet();
+        budgetWallet.setWallet(wallet);
+        Budget budget = new Budget();
+        budget.setBudgetId(1);
+        budget.setBudgetCategoryLimits(Set.of(limit));
+        budget.setBudgetWallets(Set.of(budgetWallet));
+
+        when(budgetRepository.findById(1)).thenReturn(Optional.of(budget));
+
+        BudgetResponse result = budgetService.getBudgetById(1);
+
+        assertEquals("Food", result.getCategories().get(0).getCategoryName());
+        assertEquals("Cash", result.getWallets().get(0).getWalletName());
+    }
+
+    @Test
+    void budgetReads_ShouldRunInReadOnlyTransactions() throws NoSuchMethodException {
+        // The mapper walks the lazy limits and wallets, which needs the session open with open-in-view off
+        List<Method> reads = List.of(
+                BudgetServiceImpl.class.getMethod("getAllBudget", Pageable.class),
+                BudgetServiceImpl.class.getMethod("getBudgetById", int.class),
+                BudgetServiceImpl.class.getMethod("getBudgetByName", String.class, Pageable.class),
+                BudgetServiceImpl.class.getMethod("getBudgetsByContainsCategories", List.class, Pageable.class));
+
+        for (Method read : reads) {
+            Transactional transactional = read.getAnnotation(Transactional.class);
+            assertNotNull(transactional, read.getName());
+            assertTrue(transactional.readOnly(), read.getName());
+        }
+    }
+
     @Test
     void deleteBudget_BudgetNotFound_ShouldThrowException() {
         when(budgetRepository.findById(999)).thenReturn(Optional.empty());
@@ -90,5 +142,52 @@ class BudgetServiceTest {
                 budgetService.deleteBudget(999));
     }
 
+    @Test
+    void getLastBudget_ShouldBatchPeriodsAndCategories() {
+        Budget first = new Budget();
+        first.setBudgetId(1);
+        first.setBudgetName("Food");
+        first.setStartDate(LocalDateTime.now().minusDays(3));
+        Budget second = new Budget();
+        second.setBudgetId(2);
+        second.setBudgetName("Travel");
+        second.setStartDate(LocalDateTime.now().minusDays(3));
+
+        BudgetPeriod stored = new BudgetPeriod();
+        stored.setBudget(first);
+        stored.setPeriodIndex(1);
+        stored.setStatus(BudgetPeriodStatus.ACTIVE);
+        stored.setRemainingAmount(BigDecimal.valueOf(40));
+        BudgetPeriod virtual = new BudgetPeriod();
+        virtual.setPeriodIndex(1);
+        virtual.setStatus(BudgetPeriodStatus.ACTIVE);
+        virtual.setRemainingAmount(BigDecimal.valueOf(100));
+
+        Category category = new Category();
+        category.setCategoryId(5);
+        category.setCategoryName("Groceries");
+        BudgetCategoryLimit limit = new BudgetCategoryLimit();
+        limit.setBudget(first);
+        limit.setCategory(category);
+
+        when(budgetRepository.findByUserId(1)).thenReturn(List.of(first, second));
+        when(budgetPeriodService.resolvePeriodIndex(any(Budget.class), any(LocalDateTime.class))).thenReturn(1);
+        when(budgetPeriodService.buildPeriod(any(Budget.class), eq(1))).thenReturn(virtual);
+        when(budgetPeriodRepository.findByBudget_BudgetIdInAndPeriodIndexIn(anyCollection(), anyCollection()))
+                .thenReturn(List.of(stored));
+        when(budgetCategoryLimitRepository.findWithCategoryByBudgetIds(anyCollection())).thenReturn(List.of(limit));
+
+        List<BudgetLastResponse> result = budgetService.getLastBudget();
+
+        assertEquals(2, result.size());
+        assertEquals(BigDecimal.valueOf(40), result.get(0).getBudgetRemainingAmount());
+        assertEquals(1, result.get(0).getCategories().size());
+        assertEquals(BigDecimal.valueOf(100), result.get(1).getBudgetRemainingAmount());
+        assertTrue(result.get(1).getCategories().isEmpty());
+        verify(budgetPeriodRepository, times(1)).findByBudget_BudgetIdInAndPeriodIndexIn(anyCollection(), anyCollection());
+        verify(budgetCategoryLimitRepository, never()).findByBudget(anyInt());
+        verify(redisService).set(eq("budget:dashboard:1"), eq(result));
+    }
+
 
 }
\ No newline at end of file
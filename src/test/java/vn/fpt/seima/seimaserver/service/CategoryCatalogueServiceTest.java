@@ -0,0 +1,114 @@
+package vn.fpt.seima.seimaserver.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import vn.fpt.seima.seimaserver.config.datasource.DataSourceRoutingProperties;
+import vn.fpt.seima.seimaserver.config.datasource.PrimaryReads;
+import vn.fpt.seima.seimaserver.dto.response.category.CategoryOverlay;
+import vn.fpt.seima.seimaserver.dto.response.category.CategoryResponse;
+import vn.fpt.seima.seimaserver.entity.Category;
+import vn.fpt.seima.seimaserver.entity.CategoryType;
+import vn.fpt.seima.seimaserver.event.CategoryChangedEvent;
+import vn.fpt.seima.seimaserver.mapper.CategoryMapper;
+import vn.fpt.seima.seimaserver.repository.CategoryRepository;
+import vn.fpt.seima.seimaserver.service.impl.CategoryCatalogueServiceImpl;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CategoryCatalogueServiceTest {
+
+    @Mock private CategoryRepository categoryRepository;
+    @Mock private CategoryMapper categoryMapper;
+    @Mock private RedisService redisService;
+    @Spy private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    @Spy private PrimaryReads primaryReads = new PrimaryReads(mock(PlatformTransactionManager.class), new DataSourceRoutingProperties());
+    @InjectMocks private CategoryCatalogueServiceImpl categoryCatalogueService;
+
+    private CategoryResponse categoryResponse(Integer id) {
+        return CategoryResponse.builder().categoryId(id).categoryName("Category " + id)
+                .categoryType(CategoryType.EXPENSE).build();
+    }
+
+    private void givenSystemCategory(Integer id) {
+        Category system = new Category();
+        system.setCategoryId(id);
+        when(categoryRepository.findSystemCategories()).thenReturn(List.of(system));
+        when(categoryMapper.toResponse(system)).thenReturn(categoryResponse(id));
+    }
+
+    @Test
+    void getCategories_OverlayAtCurrentVersion_ShouldNotQueryOwnedCategories() {
+        givenSystemCategory(1);
+        CategoryOverlay overlay = new CategoryOverlay(7L, List.of(categoryResponse(5)));
+        when(redisService.multiGet(List.of("category:version:user:3", "category:overlay:user:3:EXPENSE")))
+                .thenReturn(Arrays.<Object>asList(7, overlay));
+
+        List<CategoryResponse> categories = categoryCatalogueService.getCategories(CategoryType.EXPENSE, 3, null);
+        categoryCatalogueService.getCategories(CategoryType.EXPENSE, 3, null);
+
+        assertEquals(List.of(1, 5), categories.stream().map(CategoryResponse::getCategoryId).toList());
+        verify(categoryRepository, times(1)).findSystemCategories();
+        verify(categoryRepository, never()).findByCategoryTypeAndUser_UserId(any(), any());
+        verify(redisService, never()).set(any(), any());
+    }
+
+    @Test
+    void getCategories_StaleOverlay_ShouldRebuildAtCurrentVersion() {
+        givenSystemCategory(1);
+        Category owned = new Category();
+        owned.setCategoryId(9);
+        when(redisService.multiGet(List.of("category:version:group:4", "category:overlay:group:4:EXPENSE")))
+                .thenReturn(Arrays.<Object>asList(8, new CategoryOverlay(7L, List.of())));
+        when(categoryRepository.findByCategoryTypeAndGroup_GroupId(CategoryType.EXPENSE, 4)).thenReturn(List.of(owned));
+        when(categoryMapper.toResponse(owned)).thenReturn(categoryResponse(9));
+
+        List<CategoryResponse> categories = categoryCatalogueService.getCategories(CategoryType.EXPENSE, 3, 4);
+
+        assertEquals(List.of(1, 9), categories.stream().map(CategoryResponse::getCategoryId).toList());
+        verify(redisService).set("category:overlay:group:4:EXPENSE", new CategoryOverlay(8L, List.of(categoryResponse(9))));
+    }
+
+    @Test
+    void onCategoryChanged_ShouldChangeETagOfUserAndGroup() {
+        givenSystemCategory(1);
+        when(redisService.get("category:version:user:3")).thenReturn(2, 3);
+        String before = categoryCatalogueService.getETag(CategoryType.EXPENSE, 3, null);
+
+        categoryCatalogueService.onCategoryChanged(new CategoryChangedEvent(3, 4));
+        String after = categoryCatalogueService.getETag(CategoryType.EXPENSE, 3, null);
+
+        assertNotEquals(before, after);
+        verify(redisService).increment("category:version:user:3");
+        verify(redisService).increment("category:version:group:4");
+    }
+
+    @Test
+    void getETag_SystemCatalogueExpired_ShouldReloadIt() {
+        Category system = new Category();
+        system.setCategoryId(1);
+        when(categoryRepository.findSystemCategories()).thenReturn(List.of(system));
+        when(categoryMapper.toResponse(system)).thenReturn(categoryResponse(1),
+                CategoryResponse.builder().categoryId(1).categoryName("Renamed").categoryType(CategoryType.EXPENSE).build());
+        String before = categoryCatalogueService.getETag(CategoryType.EXPENSE, 3, null);
+
+        ReflectionTestUtils.setField(ReflectionTestUtils.getField(categoryCatalogueService, "systemCatalogue"),
+                "expiresAt", 0L);
+        String after = categoryCatalogueService.getETag(CategoryType.EXPENSE, 3, null);
+
+        assertNotEquals(before, after);
+        verify(categoryRepository, times(2)).findSystemCategories();
+    }
+}
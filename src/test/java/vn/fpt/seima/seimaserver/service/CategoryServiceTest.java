@@ -4,9 +4,12 @@ import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import vn.fpt.seima.seimaserver.dto.request.category.CreateCategoryRequest;
 import vn.fpt.seima.seimaserver.dto.response.category.CategoryResponse;
+import vn.fpt.seima.seimaserver.dto.response.group.GroupMembershipSnapshot;
 import vn.fpt.seima.seimaserver.entity.*;
+import vn.fpt.seima.seimaserver.event.CategoryChangedEvent;
 import vn.fpt.seima.seimaserver.exception.ResourceNotFoundException;
 import vn.fpt.seima.seimaserver.mapper.CategoryMapper;
 import vn.fpt.seima.seimaserver.repository.*;
@@ -34,6 +37,9 @@ class CategoryServiceTest {
     @Mock private BudgetService budgetService;
     @Mock private WalletService walletService;
     @Mock private RedisService redisService;
+    @Mock private ApplicationEventPublisher applicationEventPublisher;
+    @Mock private GroupMembershipCacheService groupMembershipCacheService;
+    @Mock private CategoryCatalogueService categoryCatalogueService;
     @Mock private BudgetCategoryLimitRepository budgetCategoryLimitRepository;
     @InjectMocks
     private CategoryServiceImpl categoryService;
@@ -70,6 +76,23 @@ class CategoryServiceTest {
         userUtilsMockedStatic.close();
     }
 
+    @Test
+    void getAllCategoryByTypeAndUser_WhenNoGroup_ShouldReadUserCatalogue() {
+        given(categoryCatalogueService.getCategories(CategoryType.EXPENSE, 1, null)).willReturn(List.of(response));
+
+        List<CategoryResponse> result = categoryService.getAllCategoryByTypeAndUser(1, 0);
+
+        assertEquals(List.of(response), result);
+        verifyNoInteractions(categoryRepository);
+    }
+
+    @Test
+    void getCategoryCatalogueETag_WhenGroup_ShouldUseGroupScope() {
+        given(categoryCatalogueService.getETag(CategoryType.INCOME, 1, 1)).willReturn("INCOME-group:1-3-abc");
+
+        assertEquals("INCOME-group:1-3-abc", categoryService.getCategoryCatalogueETag(0, 1));
+    }
+
     @Test
     void getCategoryById_WhenExists_ReturnsCategoryResponse() {
         given(categoryRepository.findById(1)).willReturn(Optional.of(category));
@@ -102,6 +125,7 @@ class CategoryServiceTest {
         CategoryResponse result = categoryService.saveCategory(request);
 
         assertEquals(1, result.getCategoryId());
+        then(applicationEventPublisher).should().publishEvent(any(CategoryChangedEvent.class));
     }
 
     @Test
@@ -112,7 +136,8 @@ class CategoryServiceTest {
         request.setGroupId(1);
 
         given(groupRepository.findById(1)).willReturn(Optional.of(group));
-        given(groupMemberRepository.existsByUserUserIdAndGroupGroupId(1, 1)).willReturn(true);
+        given(groupMembershipCacheService.getMembership(1, 1))
+                .willReturn(Optional.of(new GroupMembershipSnapshot(1, GroupMemberRole.MEMBER, GroupMemberStatus.ACTIVE)));
         given(categoryRepository.existsByCategoryNameAndTypeAndGroup_GroupId(any(), any(), eq(1))).willReturn(false);
         given(categoryMapper.toEntity(request)).willReturn(category);
         given(categoryRepository.save(category)).willReturn(category);
@@ -169,6 +194,7 @@ class CategoryServiceTest {
         verify(walletService).reduceAmount(
                 eq(wallet.getId()),
                 eq(transaction.getAmount()),
+                eq(transaction.getTransactionDate()),
                 eq("update-add"),
                 eq(transaction.getCurrencyCode())
         );
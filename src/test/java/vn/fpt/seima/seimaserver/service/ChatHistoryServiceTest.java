@@ -0,0 +1,133 @@
+package vn.fpt.seima.seimaserver.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import vn.fpt.seima.seimaserver.config.chat.ChatHistoryProperties;
+import vn.fpt.seima.seimaserver.dto.response.chat.ChatHistorySliceResponse;
+import vn.fpt.seima.seimaserver.dto.response.chat.ChatMessageCount;
+import vn.fpt.seima.seimaserver.entity.ChatHistory;
+import vn.fpt.seima.seimaserver.entity.SenderType;
+import vn.fpt.seima.seimaserver.entity.User;
+import vn.fpt.seima.seimaserver.mapper.ChatHistoryMapper;
+import vn.fpt.seima.seimaserver.repository.ChatHistoryRepository;
+import vn.fpt.seima.seimaserver.repository.UserRepository;
+import vn.fpt.seima.seimaserver.service.impl.ChatHistoryServiceImpl;
+import vn.fpt.seima.seimaserver.util.UserUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChatHistoryServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 1, 10, 30, 15, 123000000);
+
+    @Mock private ChatHistoryRepository chatHistoryRepository;
+    @Mock private UserRepository userRepository;
+    @Mock private StringRedisTemplate stringRedisTemplate;
+    @Mock private HashOperations<String, Object, Object> hashOperations;
+
+    private final ChatHistoryProperties properties = new ChatHistoryProperties();
+    private ChatHistoryServiceImpl chatHistoryService;
+    private MockedStatic<UserUtils> userUtilsMockedStatic;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        chatHistoryService = new ChatHistoryServiceImpl(chatHistoryRepository, userRepository,
+                new ChatHistoryMapper(), stringRedisTemplate, properties);
+        user = new User();
+        user.setUserId(7);
+        userUtilsMockedStatic = Mockito.mockStatic(UserUtils.class);
+        userUtilsMockedStatic.when(UserUtils::getCurrentUser).thenReturn(user);
+        lenient().when(stringRedisTemplate.opsForHash()).thenReturn(hashOperations);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userUtilsMockedStatic.close();
+    }
+
+    private static RedisScript<Long> anyScript() {
+        return any();
+    }
+
+    private ChatHistory message(int chatId, LocalDateTime timestamp) {
+        return ChatHistory.builder()
+                .chatId(chatId)
+                .user(user)
+                .senderType(SenderType.USER)
+                .messageContent("message " + chatId)
+                .timestamp(timestamp)
+                .build();
+    }
+
+    @Test
+    void getUserChatHistory_ShouldContinueFromTheLastMessageOfThePreviousPage() {
+        when(chatHistoryRepository.findLatestByUserId(eq(7), any(Pageable.class)))
+                .thenReturn(List.of(message(30, NOW), message(29, NOW), message(28, NOW.minusMinutes(1))));
+
+        ChatHistorySliceResponse first = chatHistoryService.getUserChatHistory(null, 2);
+
+        assertEquals(2, first.getMessages().size());
+        assertTrue(first.isHasMore());
+        assertNotNull(first.getNextCursor());
+
+        when(chatHistoryRepository.findByUserIdBefore(eq(7), eq(NOW), eq(29), any(Pageable.class)))
+                .thenReturn(List.of(message(28, NOW.minusMinutes(1))));
+
+        ChatHistorySliceResponse second = chatHistoryService.getUserChatHistory(first.getNextCursor(), 2);
+
+        assertEquals(28, second.getMessages().get(0).getChatId());
+        assertFalse(second.isHasMore());
+        assertNull(second.getNextCursor());
+        verify(chatHistoryRepository, never()).countByUserId(anyInt());
+    }
+
+    @Test
+    void getUserChatHistory_ShouldRejectAMalformedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> chatHistoryService.getUserChatHistory("not-a-cursor", 10));
+    }
+
+    @Test
+    void getUserTotalMessageCount_ShouldOnlyCountMessagesAfterTheLastCountedOne() {
+        when(hashOperations.get("chat:count:7", "m")).thenReturn("120");
+        when(chatHistoryRepository.countByUserIdAfter(7, 120)).thenReturn(new ChatMessageCount(3L, 125));
+        when(stringRedisTemplate.execute(anyScript(), eq(List.of("chat:count:7")), eq("120"), eq("3"), eq("125"), anyString()))
+                .thenReturn(43L);
+
+        assertEquals(43L, chatHistoryService.getUserTotalMessageCount());
+        verify(chatHistoryRepository, never()).countByUserId(anyInt());
+    }
+
+    @Test
+    void getUserTotalMessageCount_ShouldCountTheTableWhenRedisIsDown() {
+        when(hashOperations.get("chat:count:7", "m")).thenThrow(new RuntimeException("Connection refused"));
+        when(chatHistoryRepository.countByUserId(7)).thenReturn(40L);
+
+        assertEquals(40L, chatHistoryService.getUserTotalMessageCount());
+    }
+
+    @Test
+    void purgeDeletedMessages_ShouldStopAfterAPartialBatch() {
+        when(chatHistoryRepository.purgeDeleted(any(LocalDateTime.class), eq(500))).thenReturn(500, 500, 12);
+
+        chatHistoryService.purgeDeletedMessages();
+
+        verify(chatHistoryRepository, times(3)).purgeDeleted(any(LocalDateTime.class), eq(500));
+    }
+}
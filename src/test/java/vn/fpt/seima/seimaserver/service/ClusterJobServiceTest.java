@@ -0,0 +1,199 @@
+package vn.fpt.seima.seimaserver.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ListOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.support.CronExpression;
+import vn.fpt.seima.seimaserver.config.scheduler.SchedulerProperties;
+import vn.fpt.seima.seimaserver.dto.response.scheduler.JobRun;
+import vn.fpt.seima.seimaserver.repository.UserRepository;
+import vn.fpt.seima.seimaserver.service.impl.ClusterJobServiceImpl;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClusterJobServiceTest {
+
+    @Mock private StringRedisTemplate stringRedisTemplate;
+    @Mock private ValueOperations<String, String> valueOperations;
+    @Mock private ListOperations<String, String> listOperations;
+    @Mock private UserRepository userRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private static final CronExpression DAILY = CronExpression.parse("0 5 0 * * *");
+
+    private final SchedulerProperties properties = new SchedulerProperties();
+    private ClusterJobServiceImpl clusterJobService;
+
+    @BeforeEach
+    void setUp() {
+        clusterJobService = new ClusterJobServiceImpl(stringRedisTemplate, objectMapper, meterRegistry,
+                userRepository, properties);
+        lenient().when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        lenient().when(stringRedisTemplate.opsForList()).thenReturn(listOperations);
+    }
+
+    private void givenShards(String job, int shards) {
+        SchedulerProperties.Job settings = new SchedulerProperties.Job();
+        settings.setShards(shards);
+        properties.getJobs().put(job, settings);
+    }
+
+    private void givenLeaseFree(String key) {
+        when(valueOperations.setIfAbsent(eq(key), anyString(), eq(Duration.ofMinutes(30)))).thenReturn(true);
+    }
+
+    private JobRun recordedRun() throws Exception {
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(listOperations).leftPush(eq("job:history:cleanup"), captor.capture());
+        return objectMapper.readValue(captor.getValue(), JobRun.class);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void runExclusive_LeaseFree_ShouldRunReleaseAndRecord() throws Exception {
+        givenLeaseFree("job:lease:cleanup");
+        List<String> ran = new ArrayList<>();
+
+        assertTrue(clusterJobService.runExclusive("cleanup", () -> ran.add("ran")));
+
+        assertEquals(List.of("ran"), ran);
+        verify(stringRedisTemplate).execute(any(RedisScript.class), eq(List.of("job:lease:cleanup")), anyString(), anyString());
+        assertTrue(recordedRun().isSucceeded());
+        verify(listOperations).trim("job:history:cleanup", 0, 49);
+        assertEquals(1, meterRegistry.get("scheduler.job.duration").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void runExclusive_LeaseHeldElsewhere_ShouldSkip() {
+        when(valueOperations.setIfAbsent(eq("job:lease:cleanup"), anyString(), any(Duration.class))).thenReturn(false);
+
+        assertFalse(clusterJobService.runExclusive("cleanup", () -> fail("must not run")));
+
+        verifyNoInteractions(listOperations);
+        assertEquals(1, meterRegistry.get("scheduler.job.skipped").counter().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void runExclusive_TaskFails_ShouldStillReleaseAndRecordFailure() throws Exception {
+        givenLeaseFree("job:lease:cleanup");
+
+        assertTrue(clusterJobService.runExclusive("cleanup", () -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        verify(stringRedisTemplate).execute(any(RedisScript.class), anyList(), anyString(), anyString());
+        JobRun run = recordedRun();
+        assertFalse(run.isSucceeded());
+        assertEquals("boom", run.getError());
+    }
+
+    @Test
+    void runExclusive_RedisDown_ShouldSkipRatherThanRunEverywhere() {
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+                .thenThrow(new IllegalStateException("connection refused"));
+
+        assertFalse(clusterJobService.runExclusive("cleanup", () -> fail("must not run")));
+    }
+
+    @Test
+    void runSharded_ShouldCoverAllUsersInRangesAndSkipHeldOnes() {
+        givenShards("roll", 4);
+        when(userRepository.findMaxUserId()).thenReturn(Optional.of(10));
+        when(valueOperations.setIfAbsent(startsWith("job:tick:roll:"), anyString(), any(Duration.class))).thenReturn(true);
+        when(valueOperations.setIfAbsent(startsWith("job:lease:roll:"), anyString(), any(Duration.class)))
+                .thenReturn(true, false, true, true);
+        List<String> ranges = new ArrayList<>();
+
+        int processed = clusterJobService.runSharded("roll", DAILY, (from, to) -> ranges.add(from + "-" + to));
+
+        assertEquals(3, processed);
+        assertEquals(List.of("1-3", "7-9", "10-" + Integer.MAX_VALUE), ranges);
+    }
+
+    @Test
+    void runSharded_ShouldClaimEachShardUntilTheNextTick() {
+        givenShards("roll", 2);
+        when(userRepository.findMaxUserId()).thenReturn(Optional.of(10));
+        ArgumentCaptor<String> keys = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Duration> holds = ArgumentCaptor.forClass(Duration.class);
+        when(valueOperations.setIfAbsent(startsWith("job:tick:roll:"), anyString(), any(Duration.class))).thenReturn(true);
+        when(valueOperations.setIfAbsent(startsWith("job:lease:roll:"), anyString(), any(Duration.class))).thenReturn(true);
+
+        clusterJobService.runSharded("roll", DAILY, (from, to) -> { });
+
+        verify(valueOperations, times(4)).setIfAbsent(keys.capture(), anyString(), holds.capture());
+        String tick = String.valueOf(DAILY.next(ZonedDateTime.now()).toEpochSecond());
+        assertEquals(List.of("job:tick:roll:0:" + tick, "job:lease:roll:0", "job:tick:roll:1:" + tick, "job:lease:roll:1"),
+                keys.getAllValues());
+        // Tick claims last until the next fire time, leases for the lease time
+        assertTrue(holds.getAllValues().get(0).compareTo(Duration.ofDays(1)) <= 0);
+        assertEquals(Duration.ofMinutes(30), holds.getAllValues().get(1));
+    }
+
+    @Test
+    void runSharded_TickAlreadyRun_ShouldNotRunTheShardAgain() {
+        givenShards("roll", 2);
+        when(userRepository.findMaxUserId()).thenReturn(Optional.of(10));
+        // A slow instance firing after the first one finished and dropped its lease
+        when(valueOperations.setIfAbsent(startsWith("job:tick:roll:"), anyString(), any(Duration.class))).thenReturn(false);
+
+        int processed = clusterJobService.runSharded("roll", DAILY, (from, to) -> fail("must not run"));
+
+        assertEquals(0, processed);
+        verify(valueOperations, never()).setIfAbsent(startsWith("job:lease:roll:"), anyString(), any(Duration.class));
+        assertEquals(2, meterRegistry.get("scheduler.job.skipped").counter().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void runExclusive_LongRun_ShouldKeepRenewingItsLease() {
+        SchedulerProperties.Job job = new SchedulerProperties.Job();
+        job.setLeaseTime(Duration.ofMillis(300));
+        properties.getJobs().put("cleanup", job);
+        when(valueOperations.setIfAbsent(eq("job:lease:cleanup"), anyString(), eq(Duration.ofMillis(300)))).thenReturn(true);
+
+        assertTrue(clusterJobService.runExclusive("cleanup", () -> {
+            try {
+                Thread.sleep(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+
+        verify(stringRedisTemplate, atLeastOnce()).execute(any(RedisScript.class), eq(List.of("job:lease:cleanup")),
+                anyString(), eq("300"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void runExclusive_LeasesDisabled_ShouldRunWithoutRedis() {
+        properties.setClusterLeases(false);
+        List<String> ran = new ArrayList<>();
+
+        assertTrue(clusterJobService.runExclusive("cleanup", () -> ran.add("ran")));
+
+        assertEquals(1, ran.size());
+        verifyNoInteractions(valueOperations);
+        verify(stringRedisTemplate, never()).execute(any(RedisScript.class), anyList(), anyString(), anyString());
+    }
+}
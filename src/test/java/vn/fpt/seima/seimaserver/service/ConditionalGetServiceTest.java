@@ -0,0 +1,96 @@
+package vn.fpt.seima.seimaserver.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import vn.fpt.seima.seimaserver.dto.response.group.GroupMembershipSnapshot;
+import vn.fpt.seima.seimaserver.entity.GroupMemberRole;
+import vn.fpt.seima.seimaserver.entity.GroupMemberStatus;
+import vn.fpt.seima.seimaserver.event.GroupMembershipChangedEvent;
+import vn.fpt.seima.seimaserver.event.ResourceChangedEvent;
+import vn.fpt.seima.seimaserver.event.ResourceFamily;
+import vn.fpt.seima.seimaserver.repository.GroupMemberRepository;
+import vn.fpt.seima.seimaserver.service.impl.ConditionalGetServiceImpl;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConditionalGetServiceTest {
+
+    @Mock private RedisService redisService;
+    @Mock private GroupMemberRepository groupMemberRepository;
+    @Mock private ExchangeRateService exchangeRateService;
+    @InjectMocks private ConditionalGetServiceImpl conditionalGetService;
+
+    @Test
+    void getETag_ShouldOnlyChangeWithListedFamilies() {
+        when(redisService.getField("resource:version:1")).thenReturn(
+                Map.<Object, Object>of("WALLETS", 3),
+                Map.<Object, Object>of("WALLETS", 3, "BUDGETS", 8),
+                Map.<Object, Object>of("WALLETS", 4, "BUDGETS", 8));
+
+        String initial = conditionalGetService.getETag(1, "/api/v1/wallets", List.of(ResourceFamily.WALLETS));
+        String afterBudgetChange = conditionalGetService.getETag(1, "/api/v1/wallets", List.of(ResourceFamily.WALLETS));
+        String afterWalletChange = conditionalGetService.getETag(1, "/api/v1/wallets", List.of(ResourceFamily.WALLETS));
+
+        assertEquals(initial, afterBudgetChange);
+        assertNotEquals(initial, afterWalletChange);
+    }
+
+    @Test
+    void getETag_ShouldChangeWhenNewRatesAreLoaded() {
+        when(redisService.getField("resource:version:1")).thenReturn(Map.<Object, Object>of("TRANSACTIONS", 2));
+        when(exchangeRateService.ratesVersion()).thenReturn("a1", "a1", "b2");
+
+        String initial = conditionalGetService.getETag(1, "/api/v1/transactions/overview", List.of(ResourceFamily.TRANSACTIONS));
+        String sameRates = conditionalGetService.getETag(1, "/api/v1/transactions/overview", List.of(ResourceFamily.TRANSACTIONS));
+        String newRates = conditionalGetService.getETag(1, "/api/v1/transactions/overview", List.of(ResourceFamily.TRANSACTIONS));
+
+        assertEquals(initial, sameRates);
+        assertNotEquals(initial, newRates);
+    }
+
+    @Test
+    void getETag_ShouldDifferPerUserAndResource() {
+        String banks = conditionalGetService.getETag(1, "/api/v1/banks", List.of());
+
+        assertNotEquals(banks, conditionalGetService.getETag(2, "/api/v1/banks", List.of()));
+        assertNotEquals(banks, conditionalGetService.getETag(1, "/api/v1/banks?page=1", List.of()));
+        verifyNoInteractions(redisService);
+    }
+
+    @Test
+    void onResourceChanged_ShouldBumpEachFamily() {
+        when(redisService.hashIncrement(eq("resource:version:1"), anyString())).thenReturn(5L);
+
+        conditionalGetService.onResourceChanged(
+                new ResourceChangedEvent(1, ResourceFamily.TRANSACTIONS, ResourceFamily.WALLETS));
+
+        verify(redisService).hashIncrement("resource:version:1", "TRANSACTIONS");
+        verify(redisService).hashIncrement("resource:version:1", "WALLETS");
+        verify(redisService, never()).hashSet(any(), anyString(), any());
+    }
+
+    @Test
+    void onGroupMembershipChanged_ShouldBumpGroupsForEveryMember() {
+        when(groupMemberRepository.findMembershipSnapshots(7)).thenReturn(List.of(
+                new GroupMembershipSnapshot(1, GroupMemberRole.OWNER, GroupMemberStatus.ACTIVE),
+                new GroupMembershipSnapshot(2, GroupMemberRole.MEMBER, GroupMemberStatus.LEFT),
+                new GroupMembershipSnapshot(2, GroupMemberRole.MEMBER, GroupMemberStatus.ACTIVE)));
+        when(redisService.hashIncrement(anyString(), eq("GROUPS"))).thenReturn(1L);
+
+        conditionalGetService.onGroupMembershipChanged(new GroupMembershipChangedEvent(7));
+
+        verify(redisService).hashIncrement("resource:version:1", "GROUPS");
+        verify(redisService).hashIncrement("resource:version:2", "GROUPS");
+        // Fresh counters are seeded from the clock
+        verify(redisService).hashSet(eq("resource:version:1"), eq("GROUPS"), anyLong());
+    }
+}
@@ -0,0 +1,132 @@
+package vn.fpt.seima.seimaserver.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thymeleaf.context.IContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import vn.fpt.seima.seimaserver.config.email.EmailDeliveryProperties;
+import vn.fpt.seima.seimaserver.dto.request.email.QueuedEmail;
+import vn.fpt.seima.seimaserver.service.impl.EmailDeliveryServiceImpl;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailDeliveryServiceTest {
+    private static final String TEMPLATE = "group-member-removed-notification";
+
+    @Mock private StringRedisTemplate stringRedisTemplate;
+    @Mock private StreamOperations<String, Object, Object> streamOperations;
+    @Mock private ZSetOperations<String, String> zSetOperations;
+    @Mock private SpringTemplateEngine templateEngine;
+    @Mock private JavaMailSender javaMailSender;
+    @Captor private ArgumentCaptor<MapRecord<String, String, String>> recordCaptor;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private EmailDeliveryServiceImpl emailDeliveryService;
+
+    @BeforeEach
+    void setUp() {
+        emailDeliveryService = new EmailDeliveryServiceImpl(stringRedisTemplate, objectMapper, templateEngine,
+                javaMailSender, new EmailDeliveryProperties(), Runnable::run);
+        ReflectionTestUtils.setField(emailDeliveryService, "senderName", "Seima Lab");
+        ReflectionTestUtils.setField(emailDeliveryService, "fromEmail", "seima.app.vn@gmail.com");
+        lenient().when(stringRedisTemplate.opsForStream()).thenReturn(streamOperations);
+        lenient().when(stringRedisTemplate.opsForZSet()).thenReturn(zSetOperations);
+    }
+
+    private MapRecord<String, Object, Object> queued(String id, List<String> recipients) throws Exception {
+        QueuedEmail email = QueuedEmail.builder()
+                .id(id)
+                .recipients(recipients)
+                .subject("Member removed")
+                .templateName(TEMPLATE)
+                .variables(Map.of("groupName", "Family"))
+                .build();
+        return StreamRecords.newRecord().in("email:queue").withId(RecordId.of(id))
+                .ofMap(Map.<Object, Object>of("payload", objectMapper.writeValueAsString(email)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenQueue(MapRecord<String, Object, Object> record) {
+        when(streamOperations.read(any(Consumer.class), any(StreamReadOptions.class), any(StreamOffset.class)))
+                .thenReturn(List.of(record), List.of());
+        when(templateEngine.process(eq(TEMPLATE), any(IContext.class))).thenReturn("<p>Family</p>");
+    }
+
+    @Test
+    void enqueue_ShouldOnlyWriteToTheStream() throws Exception {
+        emailDeliveryService.enqueue(QueuedEmail.builder()
+                .recipients(List.of("a@seima.vn"))
+                .subject("Welcome")
+                .templateName(TEMPLATE)
+                .build());
+
+        verify(streamOperations).add(recordCaptor.capture());
+        QueuedEmail stored = objectMapper.readValue(recordCaptor.getValue().getValue().get("payload"), QueuedEmail.class);
+        assertEquals(List.of("a@seima.vn"), stored.getRecipients());
+        assertNotNull(stored.getId());
+        verifyNoInteractions(javaMailSender, templateEngine);
+    }
+
+    @Test
+    void pollQueue_ShouldRenderOnceAndSendBatchOverOneConnection() throws Exception {
+        givenQueue(queued("1-0", List.of("a@seima.vn", "b@seima.vn")));
+        when(javaMailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage((Session) null));
+
+        emailDeliveryService.pollQueue();
+
+        ArgumentCaptor<MimeMessage> messageCaptor = ArgumentCaptor.forClass(MimeMessage.class);
+        verify(javaMailSender, times(1)).send(messageCaptor.capture(), messageCaptor.capture());
+        assertEquals(2, messageCaptor.getAllValues().size());
+        verify(templateEngine, times(1)).process(eq(TEMPLATE), any(IContext.class));
+        verify(streamOperations).acknowledge("email:queue", "email-workers", RecordId.of("1-0"));
+        verify(streamOperations).delete("email:queue", RecordId.of("1-0"));
+        verifyNoInteractions(zSetOperations);
+    }
+
+    @Test
+    void pollQueue_ShouldRetryOnlyTheFailedRecipient() throws Exception {
+        givenQueue(queued("1-0", List.of("a@seima.vn", "b@seima.vn")));
+        MimeMessage first = new MimeMessage((Session) null);
+        MimeMessage second = new MimeMessage((Session) null);
+        when(javaMailSender.createMimeMessage()).thenReturn(first, second);
+        doThrow(new MailSendException(Map.<Object, Exception>of(second, new MessagingException("Mailbox unavailable"))))
+                .when(javaMailSender).send(any(MimeMessage.class), any(MimeMessage.class));
+
+        emailDeliveryService.pollQueue();
+
+        ArgumentCaptor<String> retryCaptor = ArgumentCaptor.forClass(String.class);
+        verify(zSetOperations).add(eq("email:retry"), retryCaptor.capture(), anyDouble());
+        QueuedEmail retry = objectMapper.readValue(retryCaptor.getValue(), QueuedEmail.class);
+        assertEquals(List.of("b@seima.vn"), retry.getRecipients());
+        assertEquals(1, retry.getAttempt());
+        // The original entry is done with either way
+        verify(streamOperations).acknowledge("email:queue", "email-workers", RecordId.of("1-0"));
+    }
+}
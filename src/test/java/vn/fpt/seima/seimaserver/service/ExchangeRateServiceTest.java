@@ -0,0 +1,134 @@
+package vn.fpt.seima.seimaserver.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import vn.fpt.seima.seimaserver.config.currency.CurrencyProperties;
+import vn.fpt.seima.seimaserver.dto.response.currency.CurrencyAmount;
+import vn.fpt.seima.seimaserver.entity.ExchangeRate;
+import vn.fpt.seima.seimaserver.repository.ExchangeRateRepository;
+import vn.fpt.seima.seimaserver.repository.UserRepository;
+import vn.fpt.seima.seimaserver.service.impl.ExchangeRateServiceImpl;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExchangeRateServiceTest {
+    private static final LocalDate FRIDAY = LocalDate.of(2025, 6, 6);
+
+    @Mock private ExchangeRateRepository exchangeRateRepository;
+    @Mock private UserRepository userRepository;
+
+    private ExchangeRateServiceImpl exchangeRateService;
+
+    private static ExchangeRate rate(String currency, LocalDate day, String value) {
+        ExchangeRate rate = new ExchangeRate();
+        rate.setCurrencyCode(currency);
+        rate.setRateDate(day);
+        rate.setRate(new BigDecimal(value));
+        return rate;
+    }
+
+    @BeforeEach
+    void setUp() {
+        when(exchangeRateRepository.findByRateDateGreaterThanEqual(any())).thenReturn(List.of(
+                rate("USD", FRIDAY, "25000"),
+                rate("USD", FRIDAY.plusDays(3), "26000"),
+                rate("EUR", FRIDAY, "27500")));
+        exchangeRateService = new ExchangeRateServiceImpl(exchangeRateRepository, userRepository, new CurrencyProperties());
+        exchangeRateService.refreshRates();
+    }
+
+    @Test
+    void convert_Weekend_ShouldUseFridayRate() {
+        assertEquals(new BigDecimal("250000.00"),
+                exchangeRateService.convert(BigDecimal.TEN, "USD", "VND", FRIDAY.plusDays(2)));
+        assertEquals(new BigDecimal("260000.00"),
+                exchangeRateService.convert(BigDecimal.TEN, "usd", "VND", FRIDAY.plusDays(3)));
+    }
+
+    @Test
+    void ratesVersion_ShouldOnlyChangeWhenTheLoadedRatesChange() {
+        String version = exchangeRateService.ratesVersion();
+
+        when(exchangeRateRepository.findByRateDateGreaterThanEqual(any())).thenReturn(List.of(
+                rate("EUR", FRIDAY, "27500"),
+                rate("USD", FRIDAY.plusDays(3), "26000"),
+                rate("USD", FRIDAY, "25000")));
+        exchangeRateService.refreshRates();
+        assertEquals(version, exchangeRateService.ratesVersion());
+
+        when(exchangeRateRepository.findByRateDateGreaterThanEqual(any())).thenReturn(List.of(
+                rate("USD", FRIDAY, "25000"),
+                rate("USD", FRIDAY.plusDays(3), "26000"),
+                rate("USD", FRIDAY.plusDays(4), "26100"),
+                rate("EUR", FRIDAY, "27500")));
+        exchangeRateService.refreshRates();
+        assertNotEquals(version, exchangeRateService.ratesVersion());
+    }
+
+    @Test
+    void convert_BetweenTwoForeignCurrencies_ShouldGoThroughBase() {
+        assertEquals(new BigDecimal("11.00"),
+                exchangeRateService.convert(BigDecimal.TEN, "EUR", "USD", FRIDAY));
+    }
+
+    @Test
+    void convert_UnknownCurrency_ShouldReject() {
+        assertThrows(IllegalArgumentException.class,
+                () -> exchangeRateService.convert(new BigDecimal("12.50"), "XYZ", "VND", FRIDAY));
+        assertFalse(exchangeRateService.supports("XYZ"));
+        assertTrue(exchangeRateService.supports("VND"));
+    }
+
+    @Test
+    void convertForReport_UnknownCurrency_ShouldReturnAmountUnconvertedAndRecordIt() {
+        BigDecimal amount = new BigDecimal("12.50");
+        Set<String> unconverted = new HashSet<>();
+
+        assertSame(amount, exchangeRateService.convertForReport(amount, "XYZ", "VND", FRIDAY, unconverted));
+        assertEquals(new BigDecimal("250000.00"),
+                exchangeRateService.convertForReport(BigDecimal.TEN, "USD", "VND", FRIDAY, unconverted));
+        assertEquals(Set.of("XYZ"), unconverted);
+    }
+
+    @Test
+    void total_MixedCurrencies_ShouldSumInTargetCurrency() {
+        Set<String> unconverted = new HashSet<>();
+        BigDecimal total = exchangeRateService.total(List.of(
+                new CurrencyAmount("VND", new BigDecimal("50000")),
+                new CurrencyAmount("USD", FRIDAY, null, new BigDecimal("2"))), "VND", unconverted);
+
+        assertEquals(0, new BigDecimal("100000").compareTo(total));
+        assertTrue(unconverted.isEmpty());
+    }
+
+    @Test
+    void refreshRates_RepositoryFails_ShouldKeepPreviousRates() {
+        when(exchangeRateRepository.findByRateDateGreaterThanEqual(any())).thenThrow(new RuntimeException("down"));
+
+        exchangeRateService.refreshRates();
+
+        assertTrue(exchangeRateService.supports("USD"));
+    }
+
+    @Test
+    void baseCurrencyOf_UserWithoutPreference_ShouldUseConfiguredBase() {
+        when(userRepository.findBaseCurrencyCode(1)).thenReturn(Optional.empty());
+        when(userRepository.findBaseCurrencyCode(2)).thenReturn(Optional.of("USD"));
+
+        assertEquals("VND", exchangeRateService.baseCurrencyOf(1));
+        assertEquals("USD", exchangeRateService.baseCurrencyOf(2));
+    }
+}
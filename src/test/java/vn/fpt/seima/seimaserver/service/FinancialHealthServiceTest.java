@@ -0,0 +1,128 @@
+package vn.fpt.seima.seimaserver.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import vn.fpt.seima.seimaserver.config.datasource.DataSourceRoutingProperties;
+import vn.fpt.seima.seimaserver.config.datasource.PrimaryReads;
+import vn.fpt.seima.seimaserver.dto.response.budget.FinancialHealthResponse;
+import vn.fpt.seima.seimaserver.dto.response.currency.CurrencyAmount;
+import vn.fpt.seima.seimaserver.entity.Notification;
+import vn.fpt.seima.seimaserver.entity.User;
+import vn.fpt.seima.seimaserver.event.FinancialHealthChangedEvent;
+import vn.fpt.seima.seimaserver.repository.*;
+import vn.fpt.seima.seimaserver.service.impl.FinancialHealthServiceImpl;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FinancialHealthServiceTest {
+
+    @Mock private BudgetRepository budgetRepository;
+    @Mock private TransactionRepository transactionRepository;
+    @Mock private FcmService fcmService;
+    @Mock private UserDeviceRepository userDeviceRepository;
+    @Mock private NotificationRepository notificationRepository;
+    @Mock private RedisService redisService;
+    @Mock private BudgetPeriodRepository budgetPeriodRepository;
+    @Mock private WalletRepository walletRepository;
+    @Mock private UserRepository userRepository;
+    @Mock private ExchangeRateService exchangeRateService;
+    @Spy private PrimaryReads primaryReads = new PrimaryReads(mock(PlatformTransactionManager.class), new DataSourceRoutingProperties());
+    @InjectMocks private FinancialHealthServiceImpl financialHealthService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(financialHealthService, "debounceMillis", 0L);
+        lenient().when(exchangeRateService.baseCurrencyOf(anyInt())).thenReturn("VND");
+        lenient().when(exchangeRateService.total(anyCollection(), eq("VND"), anySet())).thenAnswer(invocation -> {
+            Collection<CurrencyAmount> amounts = invocation.getArgument(0);
+            return amounts.stream().map(CurrencyAmount::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+        });
+    }
+
+    private void givenNoTransactions() {
+        when(transactionRepository.sumIncomeAndExpenseByCurrency(eq(1), any(), any())).thenReturn(List.of());
+        when(walletRepository.sumBalanceByCurrency(1)).thenReturn(List.of(new CurrencyAmount("VND", BigDecimal.TEN)));
+    }
+
+    @Test
+    void refreshScore_NoTransactions_ShouldStoreFullScore() {
+        givenNoTransactions();
+
+        FinancialHealthResponse response = financialHealthService.refreshScore(1);
+
+        assertEquals(100, response.getScore());
+        assertEquals("Very Good", response.getLevel());
+        verify(redisService).set("financial_health:1", response);
+        verify(budgetRepository, never()).countByUserId(anyInt());
+        verify(notificationRepository, never()).save(any());
+    }
+
+    @Test
+    void refreshScore_ShouldExpireAtEndOfMonth() {
+        givenNoTransactions();
+        LocalDateTime nextMonth = LocalDate.now().withDayOfMonth(1).plusMonths(1).atStartOfDay();
+        long maxSeconds = Duration.between(LocalDateTime.now(), nextMonth).toSeconds() + 1;
+
+        financialHealthService.refreshScore(1);
+
+        // The score is for the current month, so it must not outlive it
+        verify(redisService).setTimeToLive(eq("financial_health:1"),
+                longThat(seconds -> seconds > 0 && seconds <= maxSeconds));
+    }
+
+    @Test
+    void refreshDirtyScores_SeveralChanges_ShouldRecomputeOnce() {
+        givenNoTransactions();
+        financialHealthService.onFinancialHealthChanged(new FinancialHealthChangedEvent(1));
+        financialHealthService.onFinancialHealthChanged(new FinancialHealthChangedEvent(1));
+
+        financialHealthService.refreshDirtyScores();
+        financialHealthService.refreshDirtyScores();
+
+        verify(redisService, times(1)).set(eq("financial_health:1"), any(FinancialHealthResponse.class));
+    }
+
+    @Test
+    void refreshDirtyScores_WithinDebounceWindow_ShouldWait() {
+        ReflectionTestUtils.setField(financialHealthService, "debounceMillis", 60_000L);
+        financialHealthService.onFinancialHealthChanged(new FinancialHealthChangedEvent(1));
+
+        financialHealthService.refreshDirtyScores();
+
+        verifyNoInteractions(transactionRepository, redisService);
+    }
+
+    @Test
+    void refreshScore_LevelChanged_ShouldNotify() {
+        givenNoTransactions();
+        User user = new User();
+        user.setUserId(1);
+        when(redisService.getObject("financial_health:1", FinancialHealthResponse.class))
+                .thenReturn(FinancialHealthResponse.builder().score(10).level("Low").build());
+        when(userRepository.findById(1)).thenReturn(Optional.of(user));
+        when(userDeviceRepository.findFcmTokensByUserIds(List.of(1))).thenReturn(List.of("token"));
+
+        financialHealthService.refreshScore(1);
+
+        verify(fcmService).sendMulticastNotification(eq(List.of("token")), anyString(), anyString(), anyMap());
+        verify(notificationRepository).save(any(Notification.class));
+    }
+}
@@ -7,8 +7,10 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.thymeleaf.context.Context;
 import vn.fpt.seima.seimaserver.config.base.AppProperties;
+import vn.fpt.seima.seimaserver.dto.request.group.BulkEmailInvitationRequest;
 import vn.fpt.seima.seimaserver.dto.request.group.EmailInvitationRequest;
 import vn.fpt.seima.seimaserver.dto.request.group.InvitationTokenData;
 import vn.fpt.seima.seimaserver.dto.response.group.*;
@@ -21,6 +23,7 @@ import vn.fpt.seima.seimaserver.service.impl.GroupInvitationServiceImpl;
 import vn.fpt.seima.seimaserver.util.UserUtils;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -66,6 +69,12 @@ class GroupInvitationServiceTest {
     @Mock
     private NotificationService notificationService;
 
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Mock
+    private GroupMembershipCacheService groupMembershipCacheService;
+
     @InjectMocks
     private GroupInvitationServiceImpl groupInvitationService;
 
@@ -116,20 +125,11 @@ class GroupInvitationServiceTest {
             when(groupRepository.findById(request.getGroupId())).thenReturn(Optional.of(testGroup));
             when(userRepository.findByUserEmailAndUserIsActiveTrue(request.getEmail()))
                     .thenReturn(Optional.of(targetUser));
-            when(groupMemberRepository.findMostRecentMembershipByUserIdAndGroupId(
-                    currentUser.getUserId(), request.getGroupId()))
-                    .thenReturn(Optional.of(createOwnerGroupMember()));
+            when(groupMembershipCacheService.getMembership(
+                    request.getGroupId(), currentUser.getUserId()))
+                    .thenReturn(membership(createOwnerGroupMember()));
             when(groupPermissionService.canInviteMembers(GroupMemberRole.OWNER))
                     .thenReturn(true);
-            when(groupMemberRepository.existsByUserAndGroupAndStatus(
-                    targetUser.getUserId(), request.getGroupId(), GroupMemberStatus.ACTIVE))
-                    .thenReturn(false);
-            when(groupMemberRepository.existsByUserAndGroupAndStatus(
-                    targetUser.getUserId(), request.getGroupId(), GroupMemberStatus.INVITED))
-                    .thenReturn(false);
-            when(groupMemberRepository.existsByUserAndGroupAndStatus(
-                    targetUser.getUserId(), request.getGroupId(), GroupMemberStatus.PENDING_APPROVAL))
-                    .thenReturn(false);
             
             // Mock validation service to not throw exception
             doNothing().when(groupValidationService).validateUserCanJoinGroup(targetUser.getUserId(), request.getGroupId());
@@ -357,8 +357,8 @@ class GroupInvitationServiceTest {
             mockedUserUtils.when(UserUtils::getCurrentUser).thenReturn(currentUser);
             
             when(groupRepository.findById(request.getGroupId())).thenReturn(Optional.of(testGroup));
-            when(groupMemberRepository.findMostRecentMembershipByUserIdAndGroupId(
-                    currentUser.getUserId(), request.getGroupId()))
+            when(groupMembershipCacheService.getMembership(
+                    request.getGroupId(), currentUser.getUserId()))
                     .thenReturn(Optional.empty());
             
             // When & Then
@@ -369,8 +369,8 @@ class GroupInvitationServiceTest {
             assertEquals("You are not an active member of this group", exception.getMessage());
             
             verify(groupRepository).findById(request.getGroupId());
-            verify(groupMemberRepository).findMostRecentMembershipByUserIdAndGroupId(
-                    currentUser.getUserId(), request.getGroupId());
+            verify(groupMembershipCacheService).getMembership(
+                    request.getGroupId(), currentUser.getUserId());
             verify(userRepository, never()).findByUserEmailAndUserIsActiveTrue(any());
             verify(groupMemberRepository, never()).save(any());
         }
@@ -388,9 +388,9 @@ class GroupInvitationServiceTest {
             inactiveMember.setStatus(GroupMemberStatus.LEFT);
             
             when(groupRepository.findById(request.getGroupId())).thenReturn(Optional.of(testGroup));
-            when(groupMemberRepository.findMostRecentMembershipByUserIdAndGroupId(
-                    currentUser.getUserId(), request.getGroupId()))
-                    .thenReturn(Optional.of(inactiveMember));
+            when(groupMembershipCacheService.getMembership(
+                    request.getGroupId(), currentUser.getUserId()))
+                    .thenReturn(membership(inactiveMember));
             
             // When & Then
             GroupException exception = assertThrows(GroupException.class, () ->
@@ -400,8 +400,8 @@ class GroupInvitationServiceTest {
             assertEquals("You are not an active member of this group", exception.getMessage());
             
             verify(groupRepository).findById(request.getGroupId());
-            verify(groupMemberRepository).findMostRecentMembershipByUserIdAndGroupId(
-                    currentUser.getUserId(), request.getGroupId());
+            verify(groupMembershipCacheService).getMembership(
+                    request.getGroupId(), currentUser.getUserId());
             verify(userRepository, never()).findByUserEmailAndUserIsActiveTrue(any());
             verify(groupMemberRepository, never()).save(any());
         }
@@ -420,9 +420,9 @@ class GroupInvitationServiceTest {
             member.setRole(GroupMemberRole.MEMBER);
             
             when(groupRepository.findById(request.getGroupId())).thenReturn(Optional.of(testGroup));
-            when(groupMemberRepository.findMostRecentMembershipByUserIdAndGroupId(
-                    currentUser.getUserId(), request.getGroupId()))
-                    .thenReturn(Optional.of(member));
+            when(groupMembershipCacheService.getMembership(
+                    request.getGroupId(), currentUser.getUserId()))
+                    .thenReturn(membership(member));
             when(groupPermissionService.canInviteMembers(GroupMemberRole.MEMBER))
                     .thenReturn(false);
             
@@ -434,8 +434,8 @@ class GroupInvitationServiceTest {
             assertEquals("You don't have permission to invite members to this group", exception.getMessage());
             
             verify(groupRepository).findById(request.getGroupId());
-            verify(groupMemberRepository).findMostRecentMembershipByUserIdAndGroupId(
-                    currentUser.getUserId(), request.getGroupId());
+            verify(groupMembershipCacheService).getMembership(
+                    request.getGroupId(), currentUser.getUserId());
             verify(groupPermissionService).canInviteMembers(GroupMemberRole.MEMBER);
             verify(userRepository, never()).findByUserEmailAndUserIsActiveTrue(any());
             verify(groupMemberRepository, never()).save(any());
@@ -449,9 +449,9 @@ class GroupInvitationServiceTest {
             mockedUserUtils.when(UserUtils::getCurrentUser).thenReturn(currentUser);
             
             when(groupRepository.findById(request.getGroupId())).thenReturn(Optional.of(testGroup));
-            when(groupMemberRepository.findMostRecentMembershipByUserIdAndGroupId(
-                    currentUser.getUserId(), request.getGroupId()))
-                    .thenReturn(Optional.of(createOwnerGroupMember()));
+            when(groupMembershipCacheService.getMembership(
+                    request.getGroupId(), currentUser.getUserId()))
+                    .thenReturn(membership(createOwnerGroupMember()));
             when(groupPermissionService.canInviteMembers(GroupMemberRole.OWNER))
                     .thenReturn(true);
             when(userRepository.findByUserEmailAndUserIsActiveTrue(request.getEmail()))
@@ -470,8 +470,8 @@ class GroupInvitationServiceTest {
             assertNull(response.getInviteLink());
             
             verify(groupRepository).findById(request.getGroupId());
-            verify(groupMemberRepository).findMostRecentMembershipByUserIdAndGroupId(
-                    currentUser.getUserId(), request.getGroupId());
+            verify(groupMembershipCacheService).getMembership(
+                    request.getGroupId(), currentUser.getUserId());
             verify(groupPermissionService).canInviteMembers(GroupMemberRole.OWNER);
             verify(userRepository).findByUserEmailAndUserIsActiveTrue(request.getEmail());
             verify(groupMemberRepository, never()).save(any());
@@ -487,16 +487,17 @@ class GroupInvitationServiceTest {
             mockedUserUtils.when(UserUtils::getCurrentUser).thenReturn(currentUser);
             
             when(groupRepository.findById(request.getGroupId())).thenReturn(Optional.of(testGroup));
-            when(groupMemberRepository.findMostRecentMembershipByUserIdAndGroupId(
-                    currentUser.getUserId(), request.getGroupId()))
-                    .thenReturn(Optional.of(createOwnerGroupMember()));
+            when(groupMembershipCacheService.getMembership(
+                    request.getGroupId(), currentUser.getUserId()))
+                    .thenReturn(membership(createOwnerGroupMember()));
             when(groupPermissionService.canInviteMembers(GroupMemberRole.OWNER))
                     .thenReturn(true);
             when(userRepository.findByUserEmailAndUserIsActiveTrue(request.getEmail()))
                     .thenReturn(Optional.of(targetUser));
-            when(groupMemberRepository.existsByUserAndGroupAndStatus(
-                    targetUser.getUserId(), request.getGroupId(), GroupMemberStatus.ACTIVE))
-                    .thenReturn(true);
+            when(groupMembershipCacheService.getMembership(
+                    request.getGroupId(), targetUser.getUserId()))
+                    .thenReturn(Optional.of(new GroupMembershipSnapshot(
+                            targetUser.getUserId(), GroupMemberRole.MEMBER, GroupMemberStatus.ACTIVE)));
             
             // When & Then
             GroupException exception = assertThrows(GroupException.class, () ->
@@ -506,12 +507,10 @@ class GroupInvitationServiceTest {
             assertEquals("User is already a member of this group", exception.getMessage());
             
             verify(groupRepository).findById(request.getGroupId());
-            verify(groupMemberRepository).findMostRecentMembershipByUserIdAndGroupId(
-                    currentUser.getUserId(), request.getGroupId());
+            verify(groupMembershipCacheService).getMembership(
+                    request.getGroupId(), currentUser.getUserId());
             verify(groupPermissionService).canInviteMembers(GroupMemberRole.OWNER);
             verify(userRepository).findByUserEmailAndUserIsActiveTrue(request.getEmail());
-            verify(groupMemberRepository).existsByUserAndGroupAndStatus(
-                    targetUser.getUserId(), request.getGroupId(), GroupMemberStatus.ACTIVE);
             verify(groupMemberRepository, never()).save(any());
             verify(invitationTokenService, never()).createInvitationToken(any());
             verify(emailService, never()).sendEmailWithHtmlTemplate(anyString(), anyString(), anyString(), any());
@@ -530,19 +529,16 @@ class GroupInvitationServiceTest {
             existingInvitation.setStatus(GroupMemberStatus.INVITED);
             
             when(groupRepository.findById(request.getGroupId())).thenReturn(Optional.of(testGroup));
-            when(groupMemberRepository.findMostRecentMembershipByUserIdAndGroupId(
-                    currentUser.getUserId(), request.getGroupId()))
-                    .thenReturn(Optional.of(createOwnerGroupMember()));
+            when(groupMembershipCacheService.getMembership(
+                    request.getGroupId(), currentUser.getUserId()))
+                    .thenReturn(membership(createOwnerGroupMember()));
             when(groupPermissionService.canInviteMembers(GroupMemberRole.OWNER))
                     .thenReturn(true);
             when(userRepository.findByUserEmailAndUserIsActiveTrue(request.getEmail()))
                     .thenReturn(Optional.of(targetUser));
-            when(groupMemberRepository.existsByUserAndGroupAndStatus(
-                    targetUser.getUserId(), request.getGroupId(), GroupMemberStatus.ACTIVE))
-                    .thenReturn(false);
-            when(groupMemberRepository.findMostRecentMembershipByUserIdAndGroupId(
-                    targetUser.getUserId(), request.getGroupId()))
-                    .thenReturn(Optional.of(existingInvitation));
+            when(groupMembershipCacheService.getMembership(
+                    request.getGroupId(), targetUser.getUserId()))
+                    .thenReturn(membership(existingInvitation));
             
             // When & Then
             GroupException exception = assertThrows(GroupException.class, () ->
@@ -552,14 +548,12 @@ class GroupInvitationServiceTest {
             assertEquals("User has already been invited to this group", exception.getMessage());
             
             verify(groupRepository).findById(request.getGroupId());
-            verify(groupMemberRepository).findMostRecentMembershipByUserIdAndGroupId(
-                    currentUser.getUserId(), request.getGroupId());
+            verify(groupMembershipCacheService).getMembership(
+                    request.getGroupId(), currentUser.getUserId());
             verify(groupPermissionService).canInviteMembers(GroupMemberRole.OWNER);
             verify(userRepository).findByUserEmailAndUserIsActiveTrue(request.getEmail());
-            verify(groupMemberRepository).existsByUserAndGroupAndStatus(
-                    targetUser.getUserId(), request.getGroupId(), GroupMemberStatus.ACTIVE);
-            verify(groupMemberRepository).findMostRecentMembershipByUserIdAndGroupId(
-                    targetUser.getUserId(), request.getGroupId());
+            verify(groupMembershipCacheService).getMembership(
+                    request.getGroupId(), targetUser.getUserId());
             verify(groupMemberRepository, never()).save(any());
             verify(invitationTokenService, never()).createInvitationToken(any());
             verify(emailService, never()).sendEmailWithHtmlTemplate(anyString(), anyString(), anyString(), any());
@@ -578,19 +572,16 @@ class GroupInvitationServiceTest {
             pendingApproval.setStatus(GroupMemberStatus.PENDING_APPROVAL);
             
             when(groupRepository.findById(request.getGroupId())).thenReturn(Optional.of(testGroup));
-            when(groupMemberRepository.findMostRecentMembershipByUserIdAndGroupId(
-                    currentUser.getUserId(), request.getGroupId()))
-                    .thenReturn(Optional.of(createOwnerGroupMember()));
+            when(groupMembershipCacheService.getMembership(
+                    request.getGroupId(), currentUser.getUserId()))
+                    .thenReturn(membership(createOwnerGroupMember()));
             when(groupPermissionService.canInviteMembers(GroupMemberRole.OWNER))
                     .thenReturn(true);
             when(userRepository.findByUserEmailAndUserIsActiveTrue(request.getEmail()))
                     .thenReturn(Optional.of(targetUser));
-            when(groupMemberRepository.existsByUserAndGroupAndStatus(
-                    targetUser.getUserId(), request.getGroupId(), GroupMemberStatus.ACTIVE))
-                    .thenReturn(false);
-            when(groupMemberRepository.findMostRecentMembershipByUserIdAndGroupId(
-                    targetUser.getUserId(), request.getGroupId()))
-                    .thenReturn(Optional.of(pendingApproval));
+            when(groupMembershipCacheService.getMembership(
+                    request.getGroupId(), targetUser.getUserId()))
+                    .thenReturn(membership(pendingApproval));
             
             // When & Then
             GroupException exception = assertThrows(GroupException.class, () ->
@@ -600,14 +591,12 @@ class GroupInvitationServiceTest {
             assertEquals("User already has a pending invitation to this group", exception.getMessage());
             
             verify(groupRepository).findById(request.getGroupId());
-            verify(groupMemberRepository).findMostRecentMembershipByUserIdAndGroupId(
-                    currentUser.getUserId(), request.getGroupId());
+            verify(groupMembershipCacheService).getMembership(
+                    request.getGroupId(), currentUser.getUserId());
             verify(groupPermissionService).canInviteMembers(GroupMemberRole.OWNER);
             verify(userRepository).findByUserEmailAndUserIsActiveTrue(request.getEmail());
-            verify(groupMemberRepository).existsByUserAndGroupAndStatus(
-                    targetUser.getUserId(), request.getGroupId(), GroupMemberStatus.ACTIVE);
-            verify(groupMemberRepository).findMostRecentMembershipByUserIdAndGroupId(
-                    targetUser.getUserId(), request.getGroupId());
+            verify(groupMembershipCacheService).getMembership(
+                    request.getGroupId(), targetUser.getUserId());
             verify(groupMemberRepository, never()).save(any());
             verify(invitationTokenService, never()).createInvitationToken(any());
             verify(emailService, never()).sendEmailWithHtmlTemplate(anyString(), anyString(), anyString(), any());
@@ -623,20 +612,11 @@ class GroupInvitationServiceTest {
             when(groupRepository.findById(request.getGroupId())).thenReturn(Optional.of(testGroup));
             when(userRepository.findByUserEmailAndUserIsActiveTrue(request.getEmail()))
                     .thenReturn(Optional.of(targetUser));
-            when(groupMemberRepository.findMostRecentMembershipByUserIdAndGroupId(
-                    currentUser.getUserId(), request.getGroupId()))
-                    .thenReturn(Optional.of(createOwnerGroupMember()));
+            when(groupMembershipCacheService.getMembership(
+                    request.getGroupId(), currentUser.getUserId()))
+                    .thenReturn(membership(createOwnerGroupMember()));
             when(groupPermissionService.canInviteMembers(GroupMemberRole.OWNER))
                     .thenReturn(true);
-            when(groupMemberRepository.existsByUserAndGroupAndStatus(
-                    targetUser.getUserId(), request.getGroupId(), GroupMemberStatus.ACTIVE))
-                    .thenReturn(false);
-            when(groupMemberRepository.existsByUserAndGroupAndStatus(
-                    targetUser.getUserId(), request.getGroupId(), GroupMemberStatus.INVITED))
-                    .thenReturn(false);
-            when(groupMemberRepository.existsByUserAndGroupAndStatus(
-                    targetUser.getUserId(), request.getGroupId(), GroupMemberStatus.PENDING_APPROVAL))
-                    .thenReturn(false);
             
             // Mock validation service to throw exception
             doThrow(new GroupException("User has reached the maximum number of groups (10). Cannot join more groups."))
@@ -666,20 +646,11 @@ class GroupInvitationServiceTest {
             when(groupRepository.findById(request.getGroupId())).thenReturn(Optional.of(testGroup));
             when(userRepository.findByUserEmailAndUserIsActiveTrue(request.getEmail()))
                     .thenReturn(Optional.of(targetUser));
-            when(groupMemberRepository.findMostRecentMembershipByUserIdAndGroupId(
-                    currentUser.getUserId(), request.getGroupId()))
-                    .thenReturn(Optional.of(createOwnerGroupMember()));
+            when(groupMembershipCacheService.getMembership(
+                    request.getGroupId(), currentUser.getUserId()))
+                    .thenReturn(membership(createOwnerGroupMember()));
             when(groupPermissionService.canInviteMembers(GroupMemberRole.OWNER))
                     .thenReturn(true);
-            when(groupMemberRepository.existsByUserAndGroupAndStatus(
-                    targetUser.getUserId(), request.getGroupId(), GroupMemberStatus.ACTIVE))
-                    .thenReturn(false);
-            when(groupMemberRepository.existsByUserAndGroupAndStatus(
-                    targetUser.getUserId(), request.getGroupId(), GroupMemberStatus.INVITED))
-                    .thenReturn(false);
-            when(groupMemberRepository.existsByUserAndGroupAndStatus(
-                    targetUser.getUserId(), request.getGroupId(), GroupMemberStatus.PENDING_APPROVAL))
-                    .thenReturn(false);
             
             // Mock validation service to not throw exception
             doNothing().when(groupValidationService).validateUserCanJoinGroup(targetUser.getUserId(), request.getGroupId());
@@ -731,20 +702,11 @@ class GroupInvitationServiceTest {
             when(groupRepository.findById(boundaryRequest.getGroupId())).thenReturn(Optional.of(testGroup));
             when(userRepository.findByUserEmailAndUserIsActiveTrue(boundaryRequest.getEmail()))
                     .thenReturn(Optional.of(targetUser));
-            when(groupMemberRepository.findMostRecentMembershipByUserIdAndGroupId(
-                    currentUser.getUserId(), boundaryRequest.getGroupId()))
-                    .thenReturn(Optional.of(createOwnerGroupMember()));
+            when(groupMembershipCacheService.getMembership(
+                    boundaryRequest.getGroupId(), currentUser.getUserId()))
+                    .thenReturn(membership(createOwnerGroupMember()));
             when(groupPermissionService.canInviteMembers(GroupMemberRole.OWNER))
                     .thenReturn(true);
-            when(groupMemberRepository.existsByUserAndGroupAndStatus(
-                    targetUser.getUserId(), boundaryRequest.getGroupId(), GroupMemberStatus.ACTIVE))
-                    .thenReturn(false);
-            when(groupMemberRepository.existsByUserAndGroupAndStatus(
-                    targetUser.getUserId(), boundaryRequest.getGroupId(), GroupMemberStatus.INVITED))
-                    .thenReturn(false);
-            when(groupMemberRepository.existsByUserAndGroupAndStatus(
-                    targetUser.getUserId(), boundaryRequest.getGroupId(), GroupMemberStatus.PENDING_APPROVAL))
-                    .thenReturn(false);
             
             doNothing().when(groupValidationService).validateUserCanJoinGroup(targetUser.getUserId(), boundaryRequest.getGroupId());
             doNothing().when(emailService).sendEmailWithHtmlTemplate(anyString(), anyString(), anyString(), any());
@@ -788,20 +750,11 @@ class GroupInvitationServiceTest {
             when(groupRepository.findById(largeRequest.getGroupId())).thenReturn(Optional.of(largeGroup));
             when(userRepository.findByUserEmailAndUserIsActiveTrue(largeRequest.getEmail()))
                     .thenReturn(Optional.of(targetUser));
-            when(groupMemberRepository.findMostRecentMembershipByUserIdAndGroupId(
-                    currentUser.getUserId(), largeRequest.getGroupId()))
-                    .thenReturn(Optional.of(createOwnerGroupMember()));
+            when(groupMembershipCacheService.getMembership(
+                    largeRequest.getGroupId(), currentUser.getUserId()))
+                    .thenReturn(membership(createOwnerGroupMember()));
             when(groupPermissionService.canInviteMembers(GroupMemberRole.OWNER))
                     .thenReturn(true);
-            when(groupMemberRepository.existsByUserAndGroupAndStatus(
-                    targetUser.getUserId(), largeRequest.getGroupId(), GroupMemberStatus.ACTIVE))
-                    .thenReturn(false);
-            when(groupMemberRepository.existsByUserAndGroupAndStatus(
-                    targetUser.getUserId(), largeRequest.getGroupId(), GroupMemberStatus.INVITED))
-                    .thenReturn(false);
-            when(groupMemberRepository.existsByUserAndGroupAndStatus(
-                    targetUser.getUserId(), largeRequest.getGroupId(), GroupMemberStatus.PENDING_APPROVAL))
-                    .thenReturn(false);
             
             doNothing().when(groupValidationService).validateUserCanJoinGroup(targetUser.getUserId(), largeRequest.getGroupId());
             doNothing().when(emailService).sendEmailWithHtmlTemplate(anyString(), anyString(), anyString(), any());
@@ -826,6 +779,66 @@ class GroupInvitationServiceTest {
         }
     }
 
+    @Test
+    void sendBulkEmailInvitation_ShouldBatchLookupsTokensAndMemberships() {
+        try (MockedStatic<UserUtils> mockedUserUtils = mockStatic(UserUtils.class)) {
+            // Given
+            mockedUserUtils.when(UserUtils::getCurrentUser).thenReturn(currentUser);
+            User secondUser = User.builder()
+                    .userId(3)
+                    .userEmail("second@example.com")
+                    .userFullName("Second User")
+                    .userIsActive(true)
+                    .build();
+            BulkEmailInvitationRequest bulkRequest = BulkEmailInvitationRequest.builder()
+                    .groupId(1)
+                    .emails(List.of("Target@example.com", "second@example.com", "target@example.com", "missing@example.com"))
+                    .build();
+
+            when(groupRepository.findById(1)).thenReturn(Optional.of(testGroup));
+            when(groupMembershipCacheService.getMembership(1, currentUser.getUserId()))
+                    .thenReturn(membership(createOwnerGroupMember()));
+            when(groupPermissionService.canInviteMembers(GroupMemberRole.OWNER)).thenReturn(true);
+            when(userRepository.findByUserEmailInAndUserIsActiveTrue(anyCollection()))
+                    .thenReturn(List.of(targetUser, secondUser));
+            when(groupMembershipCacheService.getMembership(1, secondUser.getUserId()))
+                    .thenReturn(Optional.of(new GroupMembershipSnapshot(3, GroupMemberRole.MEMBER, GroupMemberStatus.ACTIVE)));
+            when(invitationTokenService.createInvitationTokens(anyList())).thenReturn(List.of("token-1"));
+            when(groupMemberRepository.countActiveGroupMembers(1, GroupMemberStatus.ACTIVE)).thenReturn(2L);
+            AppProperties.Client mockClient = new AppProperties.Client();
+            mockClient.setBaseUrl("http://example.com");
+            when(appProperties.getClient()).thenReturn(mockClient);
+            when(appProperties.getLabName()).thenReturn("Test App");
+
+            // When
+            BulkEmailInvitationResponse response = groupInvitationService.sendBulkEmailInvitation(bulkRequest);
+
+            // Then
+            assertEquals(1, response.getInvitedCount());
+            assertEquals(3, response.getResults().size());
+            EmailInvitationResponse invited = response.getResults().get(0);
+            assertEquals("target@example.com", invited.getInvitedEmail());
+            assertTrue(invited.isEmailSent());
+            assertEquals("http://example.com/invite/token-1", invited.getInviteLink());
+            assertEquals("User is already a member of this group", response.getResults().get(1).getMessage());
+            assertFalse(response.getResults().get(2).isUserExists());
+
+            verify(userRepository, times(1)).findByUserEmailInAndUserIsActiveTrue(anyCollection());
+            verify(groupMemberRepository, times(1)).saveAll(anyList());
+            verify(groupMemberRepository, never()).save(any());
+            verify(invitationTokenService, never()).createInvitationToken(any());
+            verify(groupMemberRepository, times(1)).countActiveGroupMembers(1, GroupMemberStatus.ACTIVE);
+            verify(branchLinkService).pregenerateInvitationDeepLinks(eq(1), eq(1), eq(List.of(2)), anyList());
+            verify(emailService, times(1)).sendEmailWithHtmlTemplate(eq("target@example.com"), anyString(), eq("group-invitation"), any());
+            verify(applicationEventPublisher, times(1)).publishEvent(any(Object.class));
+        }
+    }
+
+    private Optional<GroupMembershipSnapshot> membership(GroupMember member) {
+        return Optional.of(new GroupMembershipSnapshot(
+                member.getUser().getUserId(), member.getRole(), member.getStatus()));
+    }
+
     private GroupMember createOwnerGroupMember() {
         GroupMember ownerMember = new GroupMember();
         ownerMember.setGroupMemberId(1);
@@ -870,9 +883,10 @@ class GroupInvitationServiceTest {
 
             when(userRepository.findById(userId.intValue())).thenReturn(Optional.of(user));
             when(groupRepository.findById(groupId.intValue())).thenReturn(Optional.of(group));
-            when(groupMemberRepository.findByUserAndGroupAndStatus(
-                    userId.intValue(), groupId.intValue(), GroupMemberStatus.ACTIVE))
-                    .thenReturn(Optional.of(groupMember));
+            when(groupMembershipCacheService.getMembership(
+                    groupId.intValue(), userId.intValue()))
+                    .thenReturn(Optional.of(new GroupMembershipSnapshot(
+                            userId.intValue(), GroupMemberRole.MEMBER, GroupMemberStatus.ACTIVE)));
             when(branchLinkService.createInvitationDeepLink(
                     groupId.intValue(), userId.intValue(), null, "VIEW_GROUP"))
                     .thenReturn(branchLinkResponse);
@@ -888,8 +902,8 @@ class GroupInvitationServiceTest {
 
             verify(userRepository).findById(userId.intValue());
             verify(groupRepository).findById(groupId.intValue());
-            verify(groupMemberRepository).findByUserAndGroupAndStatus(
-                    userId.intValue(), groupId.intValue(), GroupMemberStatus.ACTIVE);
+            verify(groupMembershipCacheService).getMembership(
+                    groupId.intValue(), userId.intValue());
             verify(branchLinkService).createInvitationDeepLink(
                     groupId.intValue(), userId.intValue(), null, "VIEW_GROUP");
         }
@@ -911,7 +925,7 @@ class GroupInvitationServiceTest {
 
             verify(userRepository, never()).findById(any());
             verify(groupRepository, never()).findById(any());
-            verify(groupMemberRepository, never()).findByUserAndGroupAndStatus(any(), any(), any());
+            verify(groupMembershipCacheService, never()).getMembership(any(), any());
             verify(branchLinkService, never()).createInvitationDeepLink(any(), any(), any(), any());
         }
 
@@ -932,7 +946,7 @@ class GroupInvitationServiceTest {
 
             verify(userRepository, never()).findById(any());
             verify(groupRepository, never()).findById(any());
-            verify(groupMemberRepository, never()).findByUserAndGroupAndStatus(any(), any(), any());
+            verify(groupMembershipCacheService, never()).getMembership(any(), any());
             verify(branchLinkService, never()).createInvitationDeepLink(any(), any(), any(), any());
         }
 
@@ -953,7 +967,7 @@ class GroupInvitationServiceTest {
 
             verify(userRepository, never()).findById(any());
             verify(groupRepository, never()).findById(any());
-            verify(groupMemberRepository, never()).findByUserAndGroupAndStatus(any(), any(), any());
+            verify(groupMembershipCacheService, never()).getMembership(any(), any());
             verify(branchLinkService, never()).createInvitationDeepLink(any(), any(), any(), any());
         }
 
@@ -976,7 +990,7 @@ class GroupInvitationServiceTest {
 
             verify(groupRepository).findById(groupId.intValue());
             verify(userRepository, never()).findById(any());
-            verify(groupMemberRepository, never()).findByUserAndGroupAndStatus(any(), any(), any());
+            verify(groupMembershipCacheService, never()).getMembership(any(), any());
             verify(branchLinkService, never()).createInvitationDeepLink(any(), any(), any(), any());
         }
 
@@ -1004,7 +1018,7 @@ class GroupInvitationServiceTest {
 
             verify(groupRepository).findById(groupId.intValue());
             verify(userRepository, never()).findById(any());
-            verify(groupMemberRepository, never()).findByUserAndGroupAndStatus(any(), any(), any());
+            verify(groupMembershipCacheService, never()).getMembership(any(), any());
             verify(branchLinkService, never()).createInvitationDeepLink(any(), any(), any(), any());
         }
 
@@ -1033,7 +1047,7 @@ class GroupInvitationServiceTest {
 
             verify(groupRepository).findById(groupId.intValue());
             verify(userRepository).findById(userId.intValue());
-            verify(groupMemberRepository, never()).findByUserAndGroupAndStatus(any(), any(), any());
+            verify(groupMembershipCacheService, never()).getMembership(any(), any());
             verify(branchLinkService, never()).createInvitationDeepLink(any(), any(), any(), any());
         }
 
@@ -1069,7 +1083,7 @@ class GroupInvitationServiceTest {
 
             verify(groupRepository).findById(groupId.intValue());
             verify(userRepository).findById(userId.intValue());
-            verify(groupMemberRepository, never()).findByUserAndGroupAndStatus(any(), any(), any());
+            verify(groupMembershipCacheService, never()).getMembership(any(), any());
             verify(branchLinkService, never()).createInvitationDeepLink(any(), any(), any(), any());
         }
 
@@ -1093,8 +1107,8 @@ class GroupInvitationServiceTest {
 
             when(groupRepository.findById(groupId.intValue())).thenReturn(Optional.of(group));
             when(userRepository.findById(userId.intValue())).thenReturn(Optional.of(user));
-            when(groupMemberRepository.findByUserAndGroupAndStatus(
-                    userId.intValue(), groupId.intValue(), GroupMemberStatus.ACTIVE))
+            when(groupMembershipCacheService.getMembership(
+                    groupId.intValue(), userId.intValue()))
                     .thenReturn(Optional.empty());
 
             // When
@@ -1108,8 +1122,8 @@ class GroupInvitationServiceTest {
 
             verify(groupRepository).findById(groupId.intValue());
             verify(userRepository).findById(userId.intValue());
-            verify(groupMemberRepository).findByUserAndGroupAndStatus(
-                    userId.intValue(), groupId.intValue(), GroupMemberStatus.ACTIVE);
+            verify(groupMembershipCacheService).getMembership(
+                    groupId.intValue(), userId.intValue());
             verify(branchLinkService, never()).createInvitationDeepLink(any(), any(), any(), any());
         }
 
@@ -1139,9 +1153,10 @@ class GroupInvitationServiceTest {
 
             when(groupRepository.findById(groupId.intValue())).thenReturn(Optional.of(group));
             when(userRepository.findById(userId.intValue())).thenReturn(Optional.of(user));
-            when(groupMemberRepository.findByUserAndGroupAndStatus(
-                    userId.intValue(), groupId.intValue(), GroupMemberStatus.ACTIVE))
-                    .thenReturn(Optional.of(groupMember));
+            when(groupMembershipCacheService.getMembership(
+                    groupId.intValue(), userId.intValue()))
+                    .thenReturn(Optional.of(new GroupMembershipSnapshot(
+                            userId.intValue(), GroupMemberRole.MEMBER, GroupMemberStatus.ACTIVE)));
             when(branchLinkService.createInvitationDeepLink(
                     groupId.intValue(), userId.intValue(), null, "VIEW_GROUP"))
                     .thenThrow(new RuntimeException("Branch link service error"));
@@ -1157,8 +1172,8 @@ class GroupInvitationServiceTest {
 
             verify(groupRepository).findById(groupId.intValue());
             verify(userRepository).findById(userId.intValue());
-            verify(groupMemberRepository).findByUserAndGroupAndStatus(
-                    userId.intValue(), groupId.intValue(), GroupMemberStatus.ACTIVE);
+            verify(groupMembershipCacheService).getMembership(
+                    groupId.intValue(), userId.intValue());
             verify(branchLinkService).createInvitationDeepLink(
                     groupId.intValue(), userId.intValue(), null, "VIEW_GROUP");
         }
@@ -1182,7 +1197,7 @@ class GroupInvitationServiceTest {
 
             verify(groupRepository).findById(groupId.intValue());
             verify(userRepository, never()).findById(any());
-            verify(groupMemberRepository, never()).findByUserAndGroupAndStatus(any(), any(), any());
+            verify(groupMembershipCacheService, never()).getMembership(any(), any());
             verify(branchLinkService, never()).createInvitationDeepLink(any(), any(), any(), any());
         }
 
@@ -1216,9 +1231,10 @@ class GroupInvitationServiceTest {
 
             when(userRepository.findById(userId.intValue())).thenReturn(Optional.of(user));
             when(groupRepository.findById(groupId.intValue())).thenReturn(Optional.of(group));
-            when(groupMemberRepository.findByUserAndGroupAndStatus(
-                    userId.intValue(), groupId.intValue(), GroupMemberStatus.ACTIVE))
-                    .thenReturn(Optional.of(groupMember));
+            when(groupMembershipCacheService.getMembership(
+                    groupId.intValue(), userId.intValue()))
+                    .thenReturn(Optional.of(new GroupMembershipSnapshot(
+                            userId.intValue(), GroupMemberRole.MEMBER, GroupMemberStatus.ACTIVE)));
             when(branchLinkService.createInvitationDeepLink(
                     groupId.intValue(), userId.intValue(), null, "VIEW_GROUP"))
                     .thenReturn(branchLinkResponse);
@@ -1263,9 +1279,10 @@ class GroupInvitationServiceTest {
 
             when(userRepository.findById(userId.intValue())).thenReturn(Optional.of(user));
             when(groupRepository.findById(groupId.intValue())).thenReturn(Optional.of(group));
-            when(groupMemberRepository.findByUserAndGroupAndStatus(
-                    userId.intValue(), groupId.intValue(), GroupMemberStatus.ACTIVE))
-                    .thenReturn(Optional.of(groupMember));
+            when(groupMembershipCacheService.getMembership(
+                    groupId.intValue(), userId.intValue()))
+                    .thenReturn(Optional.of(new GroupMembershipSnapshot(
+                            userId.intValue(), GroupMemberRole.MEMBER, GroupMemberStatus.ACTIVE)));
             when(branchLinkService.createInvitationDeepLink(
                     groupId.intValue(), userId.intValue(), null, "VIEW_GROUP"))
                     .thenReturn(branchLinkResponse);
@@ -7,12 +7,14 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.thymeleaf.context.Context;
 import vn.fpt.seima.seimaserver.dto.request.group.AcceptGroupMemberRequest;
 import vn.fpt.seima.seimaserver.dto.request.group.RejectGroupMemberRequest;
 import vn.fpt.seima.seimaserver.dto.request.group.UpdateMemberRoleRequest;
 import vn.fpt.seima.seimaserver.dto.request.group.TransferOwnershipRequest;
 import vn.fpt.seima.seimaserver.dto.response.group.GroupMemberListResponse;
+import vn.fpt.seima.seimaserver.dto.response.group.GroupMembershipSnapshot;
 import vn.fpt.seima.seimaserver.dto.response.group.PendingGroupMemberListResponse;
 import vn.fpt.seima.seimaserver.dto.response.group.OwnerExitOptionsResponse;
 import vn.fpt.seima.seimaserver.entity.*;
@@ -60,6 +62,12 @@ class GroupMemberServiceTest {
     @Mock
     private GroupValidationService groupValidationService;
 
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Mock
+    private GroupMembershipCacheService groupMembershipCacheService;
+
     @InjectMocks
     private GroupMemberServiceImpl groupMemberService;
 
@@ -145,6 +153,12 @@ class GroupMemberServiceTest {
         pendingGroupMember.setJoinDate(LocalDateTime.now().minusDays(1));
     }
 
+    private void givenMembership(Integer groupId, GroupMember member) {
+        when(groupMembershipCacheService.getMembership(groupId, member.getUser().getUserId()))
+                .thenReturn(Optional.of(new GroupMembershipSnapshot(
+                        member.getUser().getUserId(), member.getRole(), member.getStatus())));
+    }
+
     // ===== getActiveGroupMembers Tests =====
     @Test
     void getActiveGroupMembers_WhenValidRequest_ShouldReturnActiveMembers() {
@@ -154,9 +168,7 @@ class GroupMemberServiceTest {
             mockedUserUtils.when(UserUtils::getCurrentUser).thenReturn(currentUser);
             
             when(groupRepository.findById(groupId)).thenReturn(Optional.of(testGroup));
-            when(groupMemberRepository.existsByUserAndGroupAndStatus(
-                    currentUser.getUserId(), groupId, GroupMemberStatus.ACTIVE))
-                    .thenReturn(true);
+            givenMembership(groupId, ownerGroupMember);
             when(groupMemberRepository.findGroupOwner(groupId, GroupMemberStatus.ACTIVE))
                     .thenReturn(Optional.of(ownerGroupMember));
             when(groupMemberRepository.findActiveGroupMembers(groupId, GroupMemberStatus.ACTIVE))
@@ -176,8 +188,7 @@ class GroupMemberServiceTest {
             assertEquals(currentUser.getUserId(), result.getGroupLeader().getUserId());
 
             verify(groupRepository).findById(groupId);
-            verify(groupMemberRepository).existsByUserAndGroupAndStatus(
-                    currentUser.getUserId(), groupId, GroupMemberStatus.ACTIVE);
+            verify(groupMembershipCacheService).getMembership(groupId, currentUser.getUserId());
         }
     }
 
@@ -212,9 +223,6 @@ class GroupMemberServiceTest {
             mockedUserUtils.when(UserUtils::getCurrentUser).thenReturn(currentUser);
             
             when(groupRepository.findById(groupId)).thenReturn(Optional.of(testGroup));
-            when(groupMemberRepository.existsByUserAndGroupAndStatus(
-                    currentUser.getUserId(), groupId, GroupMemberStatus.ACTIVE))
-                    .thenReturn(false);
 
             // When & Then
             GroupException exception = assertThrows(GroupException.class, 
@@ -232,9 +240,7 @@ class GroupMemberServiceTest {
             mockedUserUtils.when(UserUtils::getCurrentUser).thenReturn(currentUser);
             
             when(groupRepository.findById(groupId)).thenReturn(Optional.of(testGroup));
-            when(groupMemberRepository.findByUserAndGroupAndStatus(
-                    currentUser.getUserId(), groupId, GroupMemberStatus.ACTIVE))
-                    .thenReturn(Optional.of(ownerGroupMember));
+            givenMembership(groupId, ownerGroupMember);
             when(groupPermissionService.canViewPendingRequests(GroupMemberRole.OWNER))
                     .thenReturn(true);
             when(groupMemberRepository.findPendingGroupMembers(groupId, GroupMemberStatus.PENDING_APPROVAL))
@@ -265,9 +271,7 @@ class GroupMemberServiceTest {
             mockedUserUtils.when(UserUtils::getCurrentUser).thenReturn(memberUser);
             
             when(groupRepository.findById(groupId)).thenReturn(Optional.of(testGroup));
-            when(groupMemberRepository.findByUserAndGroupAndStatus(
-                    memberUser.getUserId(), groupId, GroupMemberStatus.ACTIVE))
-                    .thenReturn(Optional.of(memberGroupMember));
+            givenMembership(groupId, memberGroupMember);
             when(groupPermissionService.canViewPendingRequests(GroupMemberRole.MEMBER))
                     .thenReturn(false);
 
@@ -289,9 +293,7 @@ class GroupMemberServiceTest {
             mockedUserUtils.when(UserUtils::getCurrentUser).thenReturn(currentUser);
             
             when(groupRepository.findById(groupId)).thenReturn(Optional.of(testGroup));
-            when(groupMemberRepository.findByUserAndGroupAndStatus(
-                    currentUser.getUserId(), groupId, GroupMemberStatus.ACTIVE))
-                    .thenReturn(Optional.of(ownerGroupMember));
+            givenMembership(groupId, ownerGroupMember);
             when(groupPermissionService.canAcceptGroupMemberRequests(GroupMemberRole.OWNER))
                     .thenReturn(true);
             when(groupMemberRepository.findByUserAndGroupAndStatus(
@@ -332,9 +334,7 @@ class GroupMemberServiceTest {
             mockedUserUtils.when(UserUtils::getCurrentUser).thenReturn(currentUser);
             
             when(groupRepository.findById(groupId)).thenReturn(Optional.of(testGroup));
-            when(groupMemberRepository.findByUserAndGroupAndStatus(
-                    currentUser.getUserId(), groupId, GroupMemberStatus.ACTIVE))
-                    .thenReturn(Optional.of(ownerGroupMember));
+            givenMembership(groupId, ownerGroupMember);
             when(groupPermissionService.canAcceptGroupMemberRequests(GroupMemberRole.OWNER))
                     .thenReturn(true);
             when(groupMemberRepository.findByUserAndGroupAndStatus(
@@ -357,9 +357,7 @@ class GroupMemberServiceTest {
             mockedUserUtils.when(UserUtils::getCurrentUser).thenReturn(currentUser);
             
             when(groupRepository.findById(groupId)).thenReturn(Optional.of(testGroup));
-            when(groupMemberRepository.findByUserAndGroupAndStatus(
-                    currentUser.getUserId(), groupId, GroupMemberStatus.ACTIVE))
-                    .thenReturn(Optional.of(ownerGroupMember));
+            givenMembership(groupId, ownerGroupMember);
             when(groupPermissionService.canAcceptGroupMemberRequests(GroupMemberRole.OWNER))
                     .thenReturn(true);
             when(groupMemberRepository.findByUserAndGroupAndStatus(
@@ -392,9 +390,7 @@ class GroupMemberServiceTest {
             mockedUserUtils.when(UserUtils::getCurrentUser).thenReturn(currentUser);
             
             when(groupRepository.findById(groupId)).thenReturn(Optional.of(testGroup));
-            when(groupMemberRepository.findByUserAndGroupAndStatus(
-                    currentUser.getUserId(), groupId, GroupMemberStatus.ACTIVE))
-                    .thenReturn(Optional.of(ownerGroupMember));
+            givenMembership(groupId, ownerGroupMember);
             when(groupPermissionService.canRejectGroupMemberRequests(GroupMemberRole.OWNER))
                     .thenReturn(true);
             when(groupMemberRepository.findByUserAndGroupAndStatus(
@@ -424,8 +420,7 @@ class GroupMemberServiceTest {
             mockedUserUtils.when(UserUtils::getCurrentUser).thenReturn(currentUser);
             
             when(groupRepository.findById(groupId)).thenReturn(Optional.of(testGroup));
-            when(groupMemberRepository.findMostRecentMembershipByUserIdAndGroupId(currentUser.getUserId(), groupId))
-                    .thenReturn(Optional.of(ownerGroupMember));
+            givenMembership(groupId, ownerGroupMember);
             when(groupMemberRepository.findMostRecentMembershipByUserIdAndGroupId(memberUserId, groupId))
                     .thenReturn(Optional.of(memberGroupMember));
             when(groupPermissionService.canRemoveMember(GroupMemberRole.OWNER, GroupMemberRole.MEMBER))
@@ -449,8 +444,7 @@ class GroupMemberServiceTest {
             mockedUserUtils.when(UserUtils::getCurrentUser).thenReturn(adminUser);
             
             when(groupRepository.findById(groupId)).thenReturn(Optional.of(testGroup));
-            when(groupMemberRepository.findMostRecentMembershipByUserIdAndGroupId(adminUser.getUserId(), groupId))
-                    .thenReturn(Optional.of(adminGroupMember));
+            givenMembership(groupId, adminGroupMember);
             when(groupMemberRepository.findMostRecentMembershipByUserIdAndGroupId(ownerUserId, groupId))
                     .thenReturn(Optional.of(ownerGroupMember));
 
@@ -473,8 +467,7 @@ class GroupMemberServiceTest {
             mockedUserUtils.when(UserUtils::getCurrentUser).thenReturn(currentUser);
             
             when(groupRepository.findById(groupId)).thenReturn(Optional.of(testGroup));
-            when(groupMemberRepository.findMostRecentMembershipByUserIdAndGroupId(currentUser.getUserId(), groupId))
-                    .thenReturn(Optional.of(ownerGroupMember));
+            givenMembership(groupId, ownerGroupMember);
             when(groupMemberRepository.findMostRecentMembershipByUserIdAndGroupId(memberUserId, groupId))
                     .thenReturn(Optional.of(memberGroupMember));
             when(groupPermissionService.canUpdateMemberRole(
@@ -497,8 +490,9 @@ class GroupMemberServiceTest {
             // Then
             assertEquals(GroupMemberRole.ADMIN, memberGroupMember.getRole());
             verify(groupMemberRepository).save(memberGroupMember);
-            // Verify email calls: one for the updated user, one for group members
-            verify(emailService, times(2)).sendEmailWithHtmlTemplate(any(), any(), any(), any());
+            // Verify email calls: one for the updated user, one batch for group members
+            verify(emailService).sendEmailWithHtmlTemplate(any(), any(), any(), any());
+            verify(emailService).sendBulkEmailWithHtmlTemplate(any(), any(), any(), any());
             verify(notificationService).sendRoleUpdateNotificationToUser(anyInt(), anyInt(), anyString(), anyString(), any(GroupMemberRole.class), any(GroupMemberRole.class));
             verify(notificationService).sendRoleUpdateNotificationToGroup(anyInt(), anyInt(), anyString(), anyString(), any(GroupMemberRole.class), any(GroupMemberRole.class));
         }
@@ -515,8 +509,7 @@ class GroupMemberServiceTest {
             mockedUserUtils.when(UserUtils::getCurrentUser).thenReturn(currentUser);
             
             when(groupRepository.findById(groupId)).thenReturn(Optional.of(testGroup));
-            when(groupMemberRepository.findMostRecentMembershipByUserIdAndGroupId(currentUser.getUserId(), groupId))
-                    .thenReturn(Optional.of(ownerGroupMember));
+            givenMembership(groupId, ownerGroupMember);
             when(groupMemberRepository.findMostRecentMembershipByUserIdAndGroupId(ownUserId, groupId))
                     .thenReturn(Optional.of(ownerGroupMember));
 
@@ -538,8 +531,7 @@ class GroupMemberServiceTest {
             mockedUserUtils.when(UserUtils::getCurrentUser).thenReturn(currentUser);
             
             when(groupRepository.findById(groupId)).thenReturn(Optional.of(testGroup));
-            when(groupMemberRepository.findMostRecentMembershipByUserIdAndGroupId(currentUser.getUserId(), groupId))
-                    .thenReturn(Optional.of(ownerGroupMember));
+            givenMembership(groupId, ownerGroupMember);
             when(groupMemberRepository.findMostRecentMembershipByUserIdAndGroupId(memberUserId, groupId))
                     .thenReturn(Optional.of(memberGroupMember));
             when(groupPermissionService.canUpdateMemberRole(
@@ -564,12 +556,18 @@ class GroupMemberServiceTest {
             verify(groupMemberRepository).save(memberGroupMember);
             
             // Verify email calls with different templates
-            verify(emailService, times(2)).sendEmailWithHtmlTemplate(
+            verify(emailService).sendEmailWithHtmlTemplate(
                 any(), // email
                 any(), // subject
                 any(), // template
                 any()  // context
             );
+            verify(emailService).sendBulkEmailWithHtmlTemplate(
+                eq(List.of(adminGroupMember.getUser().getUserEmail())), // emails
+                any(), // subject
+                any(), // template
+                any()  // context
+            );
             
             // Verify notification calls
             verify(notificationService).sendRoleUpdateNotificationToUser(anyInt(), anyInt(), anyString(), anyString(), any(GroupMemberRole.class), any(GroupMemberRole.class));
@@ -628,6 +626,7 @@ class GroupMemberServiceTest {
             mockedUserUtils.when(UserUtils::getCurrentUser).thenReturn(currentUser);
             
             when(groupRepository.findById(groupId)).thenReturn(Optional.of(testGroup));
+            givenMembership(groupId, ownerGroupMember);
             when(groupMemberRepository.findMostRecentMembershipByUserIdAndGroupId(currentUser.getUserId(), groupId))
                     .thenReturn(Optional.of(ownerGroupMember));
             when(groupMemberRepository.findMostRecentMembershipByUserIdAndGroupId(memberUser.getUserId(), groupId))
@@ -676,8 +675,7 @@ class GroupMemberServiceTest {
             mockedUserUtils.when(UserUtils::getCurrentUser).thenReturn(currentUser);
             
             when(groupRepository.findById(groupId)).thenReturn(Optional.of(testGroup));
-            when(groupMemberRepository.findMostRecentMembershipByUserIdAndGroupId(currentUser.getUserId(), groupId))
-                    .thenReturn(Optional.of(ownerGroupMember));
+            givenMembership(groupId, ownerGroupMember);
             when(groupMemberRepository.findActiveGroupMembers(groupId, GroupMemberStatus.ACTIVE))
                     .thenReturn(Arrays.asList(ownerGroupMember, adminGroupMember, memberGroupMember));
 
@@ -701,8 +699,7 @@ class GroupMemberServiceTest {
             mockedUserUtils.when(UserUtils::getCurrentUser).thenReturn(currentUser);
             
             when(groupRepository.findById(groupId)).thenReturn(Optional.of(testGroup));
-            when(groupMemberRepository.findMostRecentMembershipByUserIdAndGroupId(currentUser.getUserId(), groupId))
-                    .thenReturn(Optional.of(ownerGroupMember));
+            givenMembership(groupId, ownerGroupMember);
             when(groupMemberRepository.findActiveGroupMembers(groupId, GroupMemberStatus.ACTIVE))
                     .thenReturn(Arrays.asList(ownerGroupMember)); // Only owner
 
@@ -723,8 +720,7 @@ class GroupMemberServiceTest {
             mockedUserUtils.when(UserUtils::getCurrentUser).thenReturn(currentUser);
             
             when(groupRepository.findById(groupId)).thenReturn(Optional.of(testGroup));
-            when(groupMemberRepository.findMostRecentMembershipByUserIdAndGroupId(currentUser.getUserId(), groupId))
-                    .thenReturn(Optional.of(ownerGroupMember));
+            givenMembership(groupId, ownerGroupMember);
             when(groupMemberRepository.findActiveGroupMembers(groupId, GroupMemberStatus.ACTIVE))
                     .thenReturn(Arrays.asList(ownerGroupMember, adminGroupMember, memberGroupMember));
 
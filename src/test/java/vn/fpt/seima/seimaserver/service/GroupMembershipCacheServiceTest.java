@@ -0,0 +1,85 @@
+package vn.fpt.seima.seimaserver.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import vn.fpt.seima.seimaserver.config.datasource.DataSourceRoutingProperties;
+import vn.fpt.seima.seimaserver.config.datasource.PrimaryReads;
+import vn.fpt.seima.seimaserver.dto.response.group.GroupMembershipSnapshot;
+import vn.fpt.seima.seimaserver.entity.GroupMemberRole;
+import vn.fpt.seima.seimaserver.entity.GroupMemberStatus;
+import vn.fpt.seima.seimaserver.event.GroupMembershipChangedEvent;
+import vn.fpt.seima.seimaserver.repository.GroupMemberRepository;
+import vn.fpt.seima.seimaserver.service.impl.GroupMembershipCacheServiceImpl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GroupMembershipCacheServiceTest {
+
+    @Mock private GroupMemberRepository groupMemberRepository;
+    @Mock private RedisService redisService;
+    @Mock private RedisMessageListenerContainer redisMessageListenerContainer;
+    @Spy private PrimaryReads primaryReads = new PrimaryReads(mock(PlatformTransactionManager.class), new DataSourceRoutingProperties());
+    @InjectMocks private GroupMembershipCacheServiceImpl groupMembershipCacheService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(groupMembershipCacheService, "ttlSeconds", 300L);
+        lenient().when(groupMemberRepository.findMembershipSnapshots(1)).thenReturn(List.of(
+                new GroupMembershipSnapshot(10, GroupMemberRole.ADMIN, GroupMemberStatus.LEFT),
+                new GroupMembershipSnapshot(10, GroupMemberRole.MEMBER, GroupMemberStatus.ACTIVE),
+                new GroupMembershipSnapshot(20, GroupMemberRole.OWNER, GroupMemberStatus.ACTIVE)));
+    }
+
+    @Test
+    void getMembership_ShouldLoadGroupOnceAndKeepMostRecentRow() {
+        Optional<GroupMembershipSnapshot> rejoined = groupMembershipCacheService.getMembership(1, 10);
+        Optional<GroupMembershipSnapshot> owner = groupMembershipCacheService.getMembership(1, 20);
+        Optional<GroupMembershipSnapshot> stranger = groupMembershipCacheService.getMembership(1, 30);
+
+        assertEquals(GroupMemberRole.MEMBER, rejoined.orElseThrow().getRole());
+        assertTrue(rejoined.get().isActive());
+        assertEquals(GroupMemberRole.OWNER, owner.orElseThrow().getRole());
+        assertTrue(stranger.isEmpty());
+        verify(groupMemberRepository, times(1)).findMembershipSnapshots(1);
+    }
+
+    @Test
+    void onGroupMembershipChanged_ShouldReloadAndBroadcast() {
+        groupMembershipCacheService.getMembership(1, 10);
+
+        groupMembershipCacheService.onGroupMembershipChanged(new GroupMembershipChangedEvent(1));
+        groupMembershipCacheService.getMembership(1, 10);
+
+        verify(groupMemberRepository, times(2)).findMembershipSnapshots(1);
+        verify(redisService).publish(anyString(), eq(1));
+    }
+
+    @Test
+    void onMessage_FromAnotherInstance_ShouldEvictLocally() {
+        groupMembershipCacheService.getMembership(1, 10);
+
+        groupMembershipCacheService.onMessage(new DefaultMessage(
+                "group:membership:evict".getBytes(StandardCharsets.UTF_8),
+                "1".getBytes(StandardCharsets.UTF_8)), null);
+        groupMembershipCacheService.getMembership(1, 10);
+
+        verify(groupMemberRepository, times(2)).findMembershipSnapshots(1);
+        verify(redisService, never()).publish(anyString(), any());
+    }
+}
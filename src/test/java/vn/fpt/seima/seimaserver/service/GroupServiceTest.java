@@ -7,6 +7,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import vn.fpt.seima.seimaserver.config.base.AppProperties;
 import vn.fpt.seima.seimaserver.dto.request.group.CancelJoinGroupRequest;
 import vn.fpt.seima.seimaserver.dto.request.group.CreateGroupRequest;
@@ -23,6 +24,7 @@ import vn.fpt.seima.seimaserver.util.UserUtils;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -53,6 +55,15 @@ class GroupServiceTest {
     @Mock
     private GroupValidationService groupValidationService;
 
+    @Mock
+    private GroupSummaryService groupSummaryService;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Mock
+    private GroupMembershipCacheService groupMembershipCacheService;
+
     @InjectMocks
     private GroupServiceImpl groupService;
 
@@ -107,6 +118,11 @@ class GroupServiceTest {
                 .build();
     }
 
+    private Optional<GroupMembershipSnapshot> membership(GroupMember member) {
+        return Optional.of(new GroupMembershipSnapshot(
+                member.getUser().getUserId(), member.getRole(), member.getStatus()));
+    }
+
     // ================= CREATE GROUP TESTS =================
 
     @Test
@@ -254,8 +270,8 @@ class GroupServiceTest {
             userUtilsMock.when(UserUtils::getCurrentUser).thenReturn(testUser);
             
             when(groupRepository.findById(TEST_GROUP_ID)).thenReturn(Optional.of(testGroup));
-            when(groupMemberRepository.findByUserAndGroupAndStatus(TEST_USER_ID, TEST_GROUP_ID, GroupMemberStatus.ACTIVE))
-                    .thenReturn(Optional.of(testGroupMember));
+            when(groupMembershipCacheService.getMembership(TEST_GROUP_ID, TEST_USER_ID))
+                    .thenReturn(membership(testGroupMember));
             when(groupPermissionService.canViewGroupMembers(GroupMemberRole.OWNER)).thenReturn(true);
             when(groupMemberRepository.findGroupOwner(TEST_GROUP_ID, GroupMemberStatus.ACTIVE))
                     .thenReturn(Optional.of(testGroupMember));
@@ -324,7 +340,7 @@ class GroupServiceTest {
         try (MockedStatic<UserUtils> userUtilsMock = mockStatic(UserUtils.class)) {
             userUtilsMock.when(UserUtils::getCurrentUser).thenReturn(testUser);
             when(groupRepository.findById(TEST_GROUP_ID)).thenReturn(Optional.of(testGroup));
-            when(groupMemberRepository.findByUserAndGroupAndStatus(TEST_USER_ID, TEST_GROUP_ID, GroupMemberStatus.ACTIVE))
+            when(groupMembershipCacheService.getMembership(TEST_GROUP_ID, TEST_USER_ID))
                     .thenReturn(Optional.empty());
 
             // When & Then
@@ -346,8 +362,8 @@ class GroupServiceTest {
             userUtilsMock.when(UserUtils::getCurrentUser).thenReturn(testUser);
             
             when(groupRepository.findById(TEST_GROUP_ID)).thenReturn(Optional.of(testGroup));
-            when(groupMemberRepository.findByUserAndGroupAndStatus(TEST_USER_ID, TEST_GROUP_ID, GroupMemberStatus.ACTIVE))
-                    .thenReturn(Optional.of(testGroupMember));
+            when(groupMembershipCacheService.getMembership(TEST_GROUP_ID, TEST_USER_ID))
+                    .thenReturn(membership(testGroupMember));
             when(groupPermissionService.canUpdateGroupInfo(GroupMemberRole.OWNER)).thenReturn(true);
             when(groupRepository.save(any(Group.class))).thenReturn(testGroup);
             when(groupMapper.toResponse(any(Group.class))).thenReturn(new GroupResponse());
@@ -422,6 +438,30 @@ class GroupServiceTest {
         }
     }
 
+    @Test
+    void getUserJoinedGroups_ShouldUseGroupSummaries() {
+        // Given
+        try (MockedStatic<UserUtils> userUtilsMock = mockStatic(UserUtils.class)) {
+            userUtilsMock.when(UserUtils::getCurrentUser).thenReturn(testUser);
+
+            GroupMemberResponse leader = new GroupMemberResponse();
+            leader.setUserId(TEST_USER_ID);
+            when(groupMemberRepository.findUserJoinedGroups(TEST_USER_ID, GroupMemberStatus.ACTIVE, true))
+                    .thenReturn(Arrays.asList(testGroupMember));
+            when(groupSummaryService.getSummaries(List.of(TEST_GROUP_ID))).thenReturn(Map.of(TEST_GROUP_ID,
+                    GroupSummaryResponse.builder().groupId(TEST_GROUP_ID).activeMemberCount(5).groupLeader(leader).build()));
+
+            // When
+            List<UserJoinedGroupResponse> result = groupService.getUserJoinedGroups();
+
+            // Then
+            assertEquals(5, result.get(0).getTotalMembersCount());
+            assertSame(leader, result.get(0).getGroupLeader());
+            verify(groupMemberRepository, never()).findGroupOwner(anyInt(), any());
+            verify(groupMemberRepository, never()).findActiveGroupMembers(anyInt(), any());
+        }
+    }
+
     @Test
     void getUserJoinedGroups_WhenNoJoinedGroups_ShouldReturnEmptyList() {
         // Given
@@ -449,8 +489,8 @@ class GroupServiceTest {
             userUtilsMock.when(UserUtils::getCurrentUser).thenReturn(testUser);
             
             when(groupRepository.findById(TEST_GROUP_ID)).thenReturn(Optional.of(testGroup));
-            when(groupMemberRepository.findByUserAndGroupAndStatus(TEST_USER_ID, TEST_GROUP_ID, GroupMemberStatus.ACTIVE))
-                    .thenReturn(Optional.of(testGroupMember));
+            when(groupMembershipCacheService.getMembership(TEST_GROUP_ID, TEST_USER_ID))
+                    .thenReturn(membership(testGroupMember));
             when(groupPermissionService.canManageGroupSettings(GroupMemberRole.OWNER)).thenReturn(true);
             when(groupRepository.save(any(Group.class))).thenReturn(testGroup);
             when(groupMapper.toResponse(any(Group.class))).thenReturn(new GroupResponse());
@@ -502,8 +542,8 @@ class GroupServiceTest {
             userUtilsMock.when(UserUtils::getCurrentUser).thenReturn(testUser);
             
             when(groupRepository.findById(TEST_GROUP_ID)).thenReturn(Optional.of(testGroup));
-            when(groupMemberRepository.findMostRecentMembershipByUserIdAndGroupId(TEST_USER_ID, TEST_GROUP_ID))
-                    .thenReturn(Optional.of(testGroupMember));
+            when(groupMembershipCacheService.getMembership(TEST_GROUP_ID, TEST_USER_ID))
+                    .thenReturn(membership(testGroupMember));
 
             // When
             GroupMemberStatusResponse result = groupService.getCurrentUserGroupStatus(TEST_GROUP_ID);
@@ -567,7 +607,7 @@ class GroupServiceTest {
         try (MockedStatic<UserUtils> userUtilsMock = mockStatic(UserUtils.class)) {
             userUtilsMock.when(UserUtils::getCurrentUser).thenReturn(testUser);
             when(groupRepository.findById(TEST_GROUP_ID)).thenReturn(Optional.of(testGroup));
-            when(groupMemberRepository.findMostRecentMembershipByUserIdAndGroupId(TEST_USER_ID, TEST_GROUP_ID))
+            when(groupMembershipCacheService.getMembership(TEST_GROUP_ID, TEST_USER_ID))
                     .thenReturn(Optional.empty());
 
             // When
@@ -589,8 +629,8 @@ class GroupServiceTest {
             userUtilsMock.when(UserUtils::getCurrentUser).thenReturn(testUser);
             
             when(groupRepository.findById(TEST_GROUP_ID)).thenReturn(Optional.of(testGroup));
-            when(groupMemberRepository.findByUserAndGroupAndStatus(TEST_USER_ID, TEST_GROUP_ID, GroupMemberStatus.ACTIVE))
-                    .thenReturn(Optional.of(testGroupMember));
+            when(groupMembershipCacheService.getMembership(TEST_GROUP_ID, TEST_USER_ID))
+                    .thenReturn(membership(testGroupMember));
 
             // When
             groupService.deleteGroup(TEST_GROUP_ID);
@@ -791,8 +831,8 @@ class GroupServiceTest {
             userUtilsMock.when(UserUtils::getCurrentUser).thenReturn(testUser);
             
             when(groupRepository.findById(TEST_GROUP_ID)).thenReturn(Optional.of(testGroup));
-            when(groupMemberRepository.findByUserAndGroupAndStatus(TEST_USER_ID, TEST_GROUP_ID, GroupMemberStatus.ACTIVE))
-                    .thenReturn(Optional.of(testGroupMember));
+            when(groupMembershipCacheService.getMembership(TEST_GROUP_ID, TEST_USER_ID))
+                    .thenReturn(membership(testGroupMember));
             when(groupPermissionService.canViewInvitedMembers(GroupMemberRole.OWNER)).thenReturn(true);
             when(groupMemberRepository.findByGroupAndStatusAndUserIdNot(TEST_GROUP_ID, GroupMemberStatus.INVITED, TEST_USER_ID))
                     .thenReturn(Arrays.asList());
@@ -884,7 +924,7 @@ class GroupServiceTest {
             userUtilsMock.when(UserUtils::getCurrentUser).thenReturn(testUser);
             
             when(groupRepository.findById(TEST_GROUP_ID)).thenReturn(Optional.of(testGroup));
-            when(groupMemberRepository.findByUserAndGroupAndStatus(TEST_USER_ID, TEST_GROUP_ID, GroupMemberStatus.ACTIVE))
+            when(groupMembershipCacheService.getMembership(TEST_GROUP_ID, TEST_USER_ID))
                     .thenReturn(Optional.empty());
 
             // When & Then
@@ -904,8 +944,8 @@ class GroupServiceTest {
             userUtilsMock.when(UserUtils::getCurrentUser).thenReturn(testUser);
             
             when(groupRepository.findById(TEST_GROUP_ID)).thenReturn(Optional.of(testGroup));
-            when(groupMemberRepository.findByUserAndGroupAndStatus(TEST_USER_ID, TEST_GROUP_ID, GroupMemberStatus.ACTIVE))
-                    .thenReturn(Optional.of(testGroupMember));
+            when(groupMembershipCacheService.getMembership(TEST_GROUP_ID, TEST_USER_ID))
+                    .thenReturn(membership(testGroupMember));
             when(groupPermissionService.canViewInvitedMembers(GroupMemberRole.OWNER)).thenReturn(false);
 
             // When & Then
@@ -1012,8 +1052,8 @@ class GroupServiceTest {
         try (MockedStatic<UserUtils> userUtilsMock = mockStatic(UserUtils.class)) {
             userUtilsMock.when(UserUtils::getCurrentUser).thenReturn(testUser);
             when(groupRepository.findById(1)).thenReturn(Optional.of(testGroup));
-            when(groupMemberRepository.findByUserAndGroupAndStatus(TEST_USER_ID, 1, GroupMemberStatus.ACTIVE))
-                    .thenReturn(Optional.of(testGroupMember));
+            when(groupMembershipCacheService.getMembership(1, TEST_USER_ID))
+                    .thenReturn(membership(testGroupMember));
             when(groupPermissionService.canViewInvitedMembers(GroupMemberRole.OWNER)).thenReturn(true);
             when(groupMemberRepository.findByGroupAndStatusAndUserIdNot(1, GroupMemberStatus.INVITED, TEST_USER_ID))
                     .thenReturn(Arrays.asList());
@@ -1033,8 +1073,8 @@ class GroupServiceTest {
         try (MockedStatic<UserUtils> userUtilsMock = mockStatic(UserUtils.class)) {
             userUtilsMock.when(UserUtils::getCurrentUser).thenReturn(testUser);
             when(groupRepository.findById(Integer.MAX_VALUE)).thenReturn(Optional.of(testGroup));
-            when(groupMemberRepository.findByUserAndGroupAndStatus(TEST_USER_ID, Integer.MAX_VALUE, GroupMemberStatus.ACTIVE))
-                    .thenReturn(Optional.of(testGroupMember));
+            when(groupMembershipCacheService.getMembership(Integer.MAX_VALUE, TEST_USER_ID))
+                    .thenReturn(membership(testGroupMember));
             when(groupPermissionService.canViewInvitedMembers(GroupMemberRole.OWNER)).thenReturn(true);
             when(groupMemberRepository.findByGroupAndStatusAndUserIdNot(Integer.MAX_VALUE, GroupMemberStatus.INVITED, TEST_USER_ID))
                     .thenReturn(Arrays.asList());
@@ -0,0 +1,98 @@
+package vn.fpt.seima.seimaserver.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import vn.fpt.seima.seimaserver.config.datasource.DataSourceRoutingProperties;
+import vn.fpt.seima.seimaserver.config.datasource.PrimaryReads;
+import vn.fpt.seima.seimaserver.dto.response.group.GroupMemberCount;
+import vn.fpt.seima.seimaserver.dto.response.group.GroupSummaryResponse;
+import vn.fpt.seima.seimaserver.entity.*;
+import vn.fpt.seima.seimaserver.event.GroupMembershipChangedEvent;
+import vn.fpt.seima.seimaserver.event.UserProfileChangedEvent;
+import vn.fpt.seima.seimaserver.repository.GroupMemberRepository;
+import vn.fpt.seima.seimaserver.repository.GroupRepository;
+import vn.fpt.seima.seimaserver.service.impl.GroupSummaryServiceImpl;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GroupSummaryServiceTest {
+
+    @Mock private GroupRepository groupRepository;
+    @Mock private GroupMemberRepository groupMemberRepository;
+    @Mock private RedisService redisService;
+    @Spy private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    @Spy private PrimaryReads primaryReads = new PrimaryReads(mock(PlatformTransactionManager.class), new DataSourceRoutingProperties());
+    @InjectMocks private GroupSummaryServiceImpl groupSummaryService;
+
+    private Group group(Integer id) {
+        Group group = new Group();
+        group.setGroupId(id);
+        group.setGroupName("Group " + id);
+        group.setGroupIsActive(true);
+        return group;
+    }
+
+    @Test
+    void getSummaries_ShouldOnlyRebuildMissingGroups() {
+        GroupSummaryResponse cached = GroupSummaryResponse.builder().groupId(1).activeMemberCount(3).build();
+        when(redisService.multiGet(List.of("group:summary:v2:1", "group:summary:v2:2")))
+                .thenReturn(Arrays.<Object>asList(cached, null));
+
+        User owner = new User();
+        owner.setUserId(10);
+        owner.setUserIsActive(true);
+        GroupMember ownerMember = new GroupMember();
+        ownerMember.setGroup(group(2));
+        ownerMember.setUser(owner);
+        ownerMember.setRole(GroupMemberRole.OWNER);
+        when(groupMemberRepository.findGroupOwners(List.of(2), GroupMemberStatus.ACTIVE)).thenReturn(List.of(ownerMember));
+        when(groupMemberRepository.countMembersByGroupIds(List.of(2))).thenReturn(List.of(
+                new GroupMemberCount(2, GroupMemberStatus.ACTIVE, 5L, 4L),
+                new GroupMemberCount(2, GroupMemberStatus.PENDING_APPROVAL, 1L, 1L)));
+        when(groupRepository.findAllById(List.of(2))).thenReturn(List.of(group(2)));
+
+        Map<Integer, GroupSummaryResponse> summaries = groupSummaryService.getSummaries(List.of(1, 2));
+
+        assertEquals(3, summaries.get(1).getActiveMemberCount());
+        GroupSummaryResponse rebuilt = summaries.get(2);
+        assertEquals(4, rebuilt.getActiveMemberCount());
+        // The pending-invitation list counts deactivated members too, as countActiveGroupMembers does
+        assertEquals(5, rebuilt.getActiveMembershipCount());
+        assertEquals(1, rebuilt.getPendingMemberCount());
+        assertEquals(0, rebuilt.getInvitedMemberCount());
+        assertEquals(10, rebuilt.getGroupLeader().getUserId());
+        verify(redisService).set("group:summary:v2:2", rebuilt);
+        verify(redisService, never()).set(eq("group:summary:v2:1"), any());
+    }
+
+    @Test
+    void onGroupMembershipChanged_ShouldEvictSummary() {
+        groupSummaryService.onGroupMembershipChanged(new GroupMembershipChangedEvent(5));
+
+        verify(redisService).delete("group:summary:v2:5");
+    }
+
+    @Test
+    void onUserProfileChanged_ShouldEvictSummariesOfEveryGroupOfTheUser() {
+        when(groupMemberRepository.findGroupIdsByUserId(10)).thenReturn(List.of(2, 3));
+
+        groupSummaryService.onUserProfileChanged(new UserProfileChangedEvent(10));
+
+        verify(redisService).delete("group:summary:v2:2");
+        verify(redisService).delete("group:summary:v2:3");
+        verifyNoMoreInteractions(redisService);
+    }
+}
@@ -6,11 +6,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import vn.fpt.seima.seimaserver.dto.response.group.GroupMembershipSnapshot;
+import vn.fpt.seima.seimaserver.entity.GroupMemberRole;
 import vn.fpt.seima.seimaserver.entity.GroupMemberStatus;
 import vn.fpt.seima.seimaserver.exception.GroupException;
 import vn.fpt.seima.seimaserver.repository.GroupMemberRepository;
 import vn.fpt.seima.seimaserver.service.impl.GroupValidationServiceImpl;
 
+import java.util.Optional;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -20,6 +24,9 @@ class GroupValidationServiceTest {
     @Mock
     private GroupMemberRepository groupMemberRepository;
 
+    @Mock
+    private GroupMembershipCacheService groupMembershipCacheService;
+
     @InjectMocks
     private GroupValidationServiceImpl groupValidationService;
 
@@ -155,8 +162,8 @@ class GroupValidationServiceTest {
     @Test
     void validateUserCanJoinGroup_WhenAllValidationsPass_ShouldNotThrowException() {
         // Given
-        when(groupMemberRepository.existsByUserAndGroupAndStatus(TEST_USER_ID, TEST_GROUP_ID, GroupMemberStatus.ACTIVE))
-                .thenReturn(false); // User is not already a member
+        when(groupMembershipCacheService.getMembership(TEST_GROUP_ID, TEST_USER_ID))
+                .thenReturn(Optional.empty()); // User is not already a member
         when(groupMemberRepository.countUserActiveGroups(TEST_USER_ID, GroupMemberStatus.ACTIVE))
                 .thenReturn(5L); // User has 5 groups
         when(groupMemberRepository.countActiveGroupMembers(TEST_GROUP_ID, GroupMemberStatus.ACTIVE))
@@ -167,7 +174,7 @@ class GroupValidationServiceTest {
             groupValidationService.validateUserCanJoinGroup(TEST_USER_ID, TEST_GROUP_ID)
         );
         
-        verify(groupMemberRepository).existsByUserAndGroupAndStatus(TEST_USER_ID, TEST_GROUP_ID, GroupMemberStatus.ACTIVE);
+        verify(groupMembershipCacheService).getMembership(TEST_GROUP_ID, TEST_USER_ID);
         verify(groupMemberRepository).countUserActiveGroups(TEST_USER_ID, GroupMemberStatus.ACTIVE);
         verify(groupMemberRepository).countActiveGroupMembers(TEST_GROUP_ID, GroupMemberStatus.ACTIVE);
     }
@@ -175,8 +182,9 @@ class GroupValidationServiceTest {
     @Test
     void validateUserCanJoinGroup_WhenUserIsAlreadyMember_ShouldThrowException() {
         // Given
-        when(groupMemberRepository.existsByUserAndGroupAndStatus(TEST_USER_ID, TEST_GROUP_ID, GroupMemberStatus.ACTIVE))
-                .thenReturn(true); // User is already a member
+        when(groupMembershipCacheService.getMembership(TEST_GROUP_ID, TEST_USER_ID))
+                .thenReturn(Optional.of(new GroupMembershipSnapshot(
+                        TEST_USER_ID, GroupMemberRole.MEMBER, GroupMemberStatus.ACTIVE))); // User is already a member
 
         // When & Then
         GroupException exception = assertThrows(GroupException.class, () ->
@@ -185,7 +193,7 @@ class GroupValidationServiceTest {
         
         assertEquals("User is already an active member of this group", exception.getMessage());
         
-        verify(groupMemberRepository).existsByUserAndGroupAndStatus(TEST_USER_ID, TEST_GROUP_ID, GroupMemberStatus.ACTIVE);
+        verify(groupMembershipCacheService).getMembership(TEST_GROUP_ID, TEST_USER_ID);
         verify(groupMemberRepository, never()).countUserActiveGroups(any(), any());
         verify(groupMemberRepository, never()).countActiveGroupMembers(any(), any());
     }
@@ -199,7 +207,7 @@ class GroupValidationServiceTest {
         
         assertEquals("User ID cannot be null", exception.getMessage());
         
-        verify(groupMemberRepository, never()).existsByUserAndGroupAndStatus(any(), any(), any());
+        verify(groupMembershipCacheService, never()).getMembership(any(), any());
     }
 
     @Test
@@ -211,7 +219,7 @@ class GroupValidationServiceTest {
         
         assertEquals("Group ID cannot be null", exception.getMessage());
         
-        verify(groupMemberRepository, never()).existsByUserAndGroupAndStatus(any(), any(), any());
+        verify(groupMembershipCacheService, never()).getMembership(any(), any());
     }
 
     @Test
@@ -4,16 +4,26 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
 import vn.fpt.seima.seimaserver.dto.request.group.InvitationTokenData;
 import vn.fpt.seima.seimaserver.service.impl.InvitationTokenServiceImpl;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -22,21 +32,30 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class InvitationTokenServiceTest {
 
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
     @Mock
     private RedisService redisService;
 
     @Mock
     private ObjectMapper objectMapper;
 
+    @Mock
+    private RedisOperations<String, String> pipeline;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
     @InjectMocks
     private InvitationTokenServiceImpl invitationTokenService;
 
     private InvitationTokenData validTokenData;
-    private String validToken;
-    private String validTokenKey;
-    private String validUserGroupKey;
-    private String validTokenDataJson;
-    
+    private Map<String, String> validTokenHash;
+
     // Test constants
     private static final String TEST_TOKEN = "abcd1234efgh5678ijkl9012";
     private static final Integer TEST_USER_ID = 123;
@@ -46,16 +65,16 @@ class InvitationTokenServiceTest {
     private static final String TEST_GROUP_NAME = "Test Group";
     private static final String TEST_INVITER_NAME = "Test Inviter";
     private static final String TEST_STATUS = "INVITED";
-    private static final String UPDATED_STATUS = "ACCEPTED";
-    private static final String TOKEN_PREFIX = "invitation:token:";
-    private static final String USER_GROUP_PREFIX = "invitation:user_group:";
-    private static final long TOKEN_EXPIRATION_MINUTES = 30 * 24 * 60; // 30 days
+    private static final String UPDATED_STATUS = "PENDING_APPROVAL";
+    private static final String TOKEN_KEY = "invitation:t:" + TEST_TOKEN;
+    private static final String USER_GROUP_KEY = "invitation:ug:" + TEST_USER_ID + ":" + TEST_GROUP_ID;
+    private static final String LEGACY_TOKEN_KEY = "invitation:token:" + TEST_TOKEN;
+    private static final String LEGACY_USER_GROUP_KEY = "invitation:user_group:" + TEST_USER_ID + ":" + TEST_GROUP_ID;
 
     @BeforeEach
     void setUp() {
-        // Setup test data
         LocalDateTime now = LocalDateTime.now();
-        
+
         validTokenData = InvitationTokenData.builder()
                 .groupId(TEST_GROUP_ID)
                 .inviterId(TEST_INVITER_ID)
@@ -68,393 +87,267 @@ class InvitationTokenServiceTest {
                 .inviterName(TEST_INVITER_NAME)
                 .build();
 
-        validToken = TEST_TOKEN;
-        validTokenKey = TOKEN_PREFIX + validToken;
-        validUserGroupKey = USER_GROUP_PREFIX + TEST_USER_ID + ":" + TEST_GROUP_ID;
-        validTokenDataJson = "{\"groupId\":456,\"inviterId\":789,\"invitedUserId\":123,\"invitedUserEmail\":\"test@example.com\",\"status\":\"INVITED\",\"groupName\":\"Test Group\",\"inviterName\":\"Test Inviter\"}";
+        validTokenHash = new HashMap<>();
+        validTokenHash.put("g", TEST_GROUP_ID.toString());
+        validTokenHash.put("i", TEST_INVITER_ID.toString());
+        validTokenHash.put("u", TEST_USER_ID.toString());
+        validTokenHash.put("e", TEST_EMAIL);
+        validTokenHash.put("s", TEST_STATUS);
+        validTokenHash.put("c", now.toString());
+        validTokenHash.put("x", now.plusDays(30).toString());
+        validTokenHash.put("gn", TEST_GROUP_NAME);
+        validTokenHash.put("in", TEST_INVITER_NAME);
+
+        lenient().doReturn(hashOperations).when(stringRedisTemplate).opsForHash();
+        lenient().doReturn(hashOperations).when(pipeline).opsForHash();
+        lenient().when(pipeline.opsForValue()).thenReturn(valueOperations);
+    }
+
+    private static RedisScript<Long> anyScript() {
+        return any();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenPipelineRuns() {
+        when(stringRedisTemplate.executePipelined(any(SessionCallback.class))).thenAnswer(invocation -> {
+            SessionCallback<Object> callback = invocation.getArgument(0);
+            callback.execute(pipeline);
+            return List.of();
+        });
     }
 
     // ===== CREATE INVITATION TOKEN TESTS =====
 
     @Test
-    void createInvitationToken_Success_WithValidData() throws Exception {
-        // Given
-        try (MockedStatic<UUID> uuidMock = mockStatic(UUID.class)) {
-            UUID mockUuid = mock(UUID.class);
-            when(mockUuid.toString()).thenReturn("abcd-1234-efgh-5678-ijkl-9012");
-            uuidMock.when(UUID::randomUUID).thenReturn(mockUuid);
-            
-            when(objectMapper.writeValueAsString(any(InvitationTokenData.class))).thenReturn(validTokenDataJson);
-
-            // When
-            String result = invitationTokenService.createInvitationToken(validTokenData);
-
-            // Then
-            assertNotNull(result);
-            assertEquals(TEST_TOKEN, result);
-            
-            // Verify Redis operations
-            verify(redisService).set(eq(validTokenKey), anyString());
-            verify(redisService).setTimeToLiveInMinutes(validTokenKey, TOKEN_EXPIRATION_MINUTES);
-            verify(redisService).set(eq(validUserGroupKey), eq(TEST_TOKEN));
-            verify(redisService).setTimeToLiveInMinutes(validUserGroupKey, TOKEN_EXPIRATION_MINUTES);
-            
-            // Verify token data was updated with timestamps
-            assertNotNull(validTokenData.getCreatedAt());
-            assertNotNull(validTokenData.getExpiresAt());
-        }
+    @SuppressWarnings("unchecked")
+    void createInvitationToken_Success_WritesHashAndIndexInOnePipeline() {
+        givenPipelineRuns();
+
+        String token = invitationTokenService.createInvitationToken(validTokenData);
+
+        assertNotNull(token);
+        assertEquals(32, token.length());
+        verify(stringRedisTemplate, times(1)).executePipelined(any(SessionCallback.class));
+
+        ArgumentCaptor<Map<String, String>> hashCaptor = ArgumentCaptor.forClass(Map.class);
+        verify(hashOperations).putAll(eq("invitation:t:" + token), hashCaptor.capture());
+        assertEquals(TEST_EMAIL, hashCaptor.getValue().get("e"));
+        assertEquals(TEST_STATUS, hashCaptor.getValue().get("s"));
+        assertEquals(validTokenData.getExpiresAt().toString(), hashCaptor.getValue().get("x"));
+        verify(pipeline).expire("invitation:t:" + token, Duration.ofDays(30));
+        verify(valueOperations).set(USER_GROUP_KEY, token, Duration.ofDays(30));
     }
 
     @Test
-    void createInvitationToken_ThrowsException_WhenObjectMapperFails() throws Exception {
-        // Given
-        try (MockedStatic<UUID> uuidMock = mockStatic(UUID.class)) {
-            UUID mockUuid = mock(UUID.class);
-            when(mockUuid.toString()).thenReturn("abcd-1234-efgh-5678-ijkl-9012");
-            uuidMock.when(UUID::randomUUID).thenReturn(mockUuid);
-            
-            when(objectMapper.writeValueAsString(any(InvitationTokenData.class)))
-                    .thenThrow(new RuntimeException("JSON serialization failed"));
-
-            // When & Then
-            RuntimeException exception = assertThrows(RuntimeException.class, 
-                    () -> invitationTokenService.createInvitationToken(validTokenData));
-            
-            assertEquals("Failed to create invitation token", exception.getMessage());
-            
-            // Verify no Redis operations were performed
-            verify(redisService, never()).set(anyString(), anyString());
-            verify(redisService, never()).setTimeToLiveInMinutes(anyString(), anyLong());
-        }
+    @SuppressWarnings("unchecked")
+    void createInvitationTokens_Success_SharesOnePipeline() {
+        givenPipelineRuns();
+        InvitationTokenData second = InvitationTokenData.builder()
+                .groupId(TEST_GROUP_ID)
+                .invitedUserId(124)
+                .status(TEST_STATUS)
+                .build();
+
+        List<String> tokens = invitationTokenService.createInvitationTokens(List.of(validTokenData, second));
+
+        assertEquals(2, tokens.size());
+        assertNotEquals(tokens.get(0), tokens.get(1));
+        assertNotNull(second.getExpiresAt());
+        verify(stringRedisTemplate, times(1)).executePipelined(any(SessionCallback.class));
+        verify(hashOperations, times(2)).putAll(anyString(), anyMap());
+        verify(valueOperations).set("invitation:ug:124:" + TEST_GROUP_ID, tokens.get(1), Duration.ofDays(30));
     }
 
     @Test
-    void createInvitationToken_ThrowsException_WhenRedisOperationFails() throws Exception {
-        // Given
-        try (MockedStatic<UUID> uuidMock = mockStatic(UUID.class)) {
-            UUID mockUuid = mock(UUID.class);
-            when(mockUuid.toString()).thenReturn("abcd-1234-efgh-5678-ijkl-9012");
-            uuidMock.when(UUID::randomUUID).thenReturn(mockUuid);
-            
-            when(objectMapper.writeValueAsString(any(InvitationTokenData.class))).thenReturn(validTokenDataJson);
-            doThrow(new RuntimeException("Redis connection failed")).when(redisService).set(anyString(), anyString());
-
-            // When & Then
-            RuntimeException exception = assertThrows(RuntimeException.class, 
-                    () -> invitationTokenService.createInvitationToken(validTokenData));
-            
-            assertEquals("Failed to create invitation token", exception.getMessage());
-        }
+    @SuppressWarnings("unchecked")
+    void createInvitationToken_ThrowsException_WhenRedisOperationFails() {
+        when(stringRedisTemplate.executePipelined(any(SessionCallback.class)))
+                .thenThrow(new RedisConnectionFailureException("Redis connection failed"));
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> invitationTokenService.createInvitationToken(validTokenData));
+
+        assertEquals("Failed to create invitation token", exception.getMessage());
     }
 
     // ===== GET INVITATION TOKEN DATA TESTS =====
 
     @Test
-    void getInvitationTokenData_Success_WithValidToken() throws Exception {
-        // Given
-        when(redisService.getObject(validTokenKey, String.class)).thenReturn(validTokenDataJson);
-        when(objectMapper.readValue(validTokenDataJson, InvitationTokenData.class)).thenReturn(validTokenData);
+    void getInvitationTokenData_Success_WithValidToken() {
+        doReturn(new HashMap<>(validTokenHash)).when(hashOperations).entries(TOKEN_KEY);
 
-        // When
-        Optional<InvitationTokenData> result = invitationTokenService.getInvitationTokenData(validToken);
+        Optional<InvitationTokenData> result = invitationTokenService.getInvitationTokenData(TEST_TOKEN);
 
-        // Then
         assertTrue(result.isPresent());
-        assertEquals(validTokenData, result.get());
-        verify(redisService).getObject(validTokenKey, String.class);
-        verify(objectMapper).readValue(validTokenDataJson, InvitationTokenData.class);
+        assertEquals(TEST_GROUP_ID, result.get().getGroupId());
+        assertEquals(TEST_USER_ID, result.get().getInvitedUserId());
+        assertEquals(TEST_INVITER_NAME, result.get().getInviterName());
+        assertEquals(validTokenData.getExpiresAt(), result.get().getExpiresAt());
+        verifyNoInteractions(redisService);
     }
 
     @Test
-    void getInvitationTokenData_ReturnsEmpty_WhenTokenNotFound() throws Exception {
-        // Given
-        when(redisService.getObject(validTokenKey, String.class)).thenReturn(null);
+    void getInvitationTokenData_ReturnsEmpty_WhenTokenNotFound() {
+        doReturn(Map.of()).when(hashOperations).entries(TOKEN_KEY);
+        when(redisService.getObject(LEGACY_TOKEN_KEY, String.class)).thenReturn(null);
 
-        // When
-        Optional<InvitationTokenData> result = invitationTokenService.getInvitationTokenData(validToken);
+        Optional<InvitationTokenData> result = invitationTokenService.getInvitationTokenData(TEST_TOKEN);
 
-        // Then
-        assertTrue(result.isEmpty());
-        verify(redisService).getObject(validTokenKey, String.class);
-        verify(objectMapper, never()).readValue(anyString(), eq(InvitationTokenData.class));
+        assertFalse(result.isPresent());
     }
 
     @Test
-    void getInvitationTokenData_ReturnsEmpty_WhenTokenExpired() throws Exception {
-        // Given
-        InvitationTokenData expiredTokenData = InvitationTokenData.builder()
-                .groupId(TEST_GROUP_ID)
-                .inviterId(TEST_INVITER_ID)
-                .invitedUserId(TEST_USER_ID)
-                .invitedUserEmail(TEST_EMAIL)
-                .status(TEST_STATUS)
-                .createdAt(LocalDateTime.now().minusDays(35))
-                .expiresAt(LocalDateTime.now().minusDays(5)) // Expired 5 days ago
-                .groupName(TEST_GROUP_NAME)
-                .inviterName(TEST_INVITER_NAME)
-                .build();
-
-        when(redisService.getObject(validTokenKey, String.class)).thenReturn(validTokenDataJson);
-        when(objectMapper.readValue(validTokenDataJson, InvitationTokenData.class)).thenReturn(expiredTokenData);
+    void getInvitationTokenData_ReturnsEmpty_WhenTokenExpired() {
+        validTokenHash.put("x", LocalDateTime.now().minusDays(1).toString());
+        doReturn(new HashMap<>(validTokenHash)).when(hashOperations).entries(TOKEN_KEY);
+        when(stringRedisTemplate.execute(anyScript(), eq(List.of(TOKEN_KEY)), eq("invitation:ug:"), eq(TEST_TOKEN)))
+                .thenReturn(1L);
 
-        // When
-        Optional<InvitationTokenData> result = invitationTokenService.getInvitationTokenData(validToken);
+        Optional<InvitationTokenData> result = invitationTokenService.getInvitationTokenData(TEST_TOKEN);
 
-        // Then
-        assertTrue(result.isEmpty());
-        // Should be called twice: once for getting token data, once for removing expired token
-        verify(redisService, times(2)).getObject(validTokenKey, String.class);
+        assertFalse(result.isPresent());
+        verify(stringRedisTemplate).execute(anyScript(), eq(List.of(TOKEN_KEY)), eq("invitation:ug:"), eq(TEST_TOKEN));
     }
 
     @Test
-    void getInvitationTokenData_ReturnsEmpty_WhenDeserializationFails() throws Exception {
-        // Given
-        when(redisService.getObject(validTokenKey, String.class)).thenReturn(validTokenDataJson);
-        when(objectMapper.readValue(validTokenDataJson, InvitationTokenData.class))
-                .thenThrow(new RuntimeException("JSON deserialization failed"));
-
-        // When
-        Optional<InvitationTokenData> result = invitationTokenService.getInvitationTokenData(validToken);
-
-        // Then
-        assertTrue(result.isEmpty());
-        verify(redisService).getObject(validTokenKey, String.class);
-        verify(objectMapper).readValue(validTokenDataJson, InvitationTokenData.class);
-    }
+    void getInvitationTokenData_MigratesLegacyToken() throws Exception {
+        String legacyJson = "{\"groupId\":456}";
+        doReturn(Map.of()).when(hashOperations).entries(TOKEN_KEY);
+        when(redisService.getObject(LEGACY_TOKEN_KEY, String.class)).thenReturn(legacyJson);
+        when(objectMapper.readValue(legacyJson, InvitationTokenData.class)).thenReturn(validTokenData);
+        givenPipelineRuns();
 
-    // ===== UPDATE INVITATION TOKEN STATUS TESTS =====
+        Optional<InvitationTokenData> result = invitationTokenService.getInvitationTokenData(TEST_TOKEN);
+
+        assertTrue(result.isPresent());
+        assertEquals(TEST_EMAIL, result.get().getInvitedUserEmail());
+        verify(hashOperations).putAll(eq(TOKEN_KEY), anyMap());
+        verify(valueOperations).set(eq(USER_GROUP_KEY), eq(TEST_TOKEN), any(Duration.class));
+        verify(redisService).delete(LEGACY_TOKEN_KEY);
+        verify(redisService).delete(LEGACY_USER_GROUP_KEY);
+    }
 
     @Test
-    void updateInvitationTokenStatus_Success_WithValidToken() throws Exception {
-        // Given
-        when(redisService.getObject(validTokenKey, String.class)).thenReturn(validTokenDataJson);
-        when(objectMapper.readValue(validTokenDataJson, InvitationTokenData.class)).thenReturn(validTokenData);
-        when(objectMapper.writeValueAsString(any(InvitationTokenData.class))).thenReturn(validTokenDataJson);
+    void getInvitationTokenData_ReturnsEmpty_WhenRedisFails() {
+        when(hashOperations.entries(TOKEN_KEY)).thenThrow(new RedisConnectionFailureException("Redis connection failed"));
 
-        // When
-        boolean result = invitationTokenService.updateInvitationTokenStatus(validToken, UPDATED_STATUS);
+        Optional<InvitationTokenData> result = invitationTokenService.getInvitationTokenData(TEST_TOKEN);
 
-        // Then
-        assertTrue(result);
-        assertEquals(UPDATED_STATUS, validTokenData.getStatus());
-        verify(redisService).set(eq(validTokenKey), anyString());
-        verify(redisService).setTimeToLiveInMinutes(eq(validTokenKey), anyLong());
+        assertFalse(result.isPresent());
     }
 
+    // ===== UPDATE INVITATION TOKEN STATUS TESTS =====
+
     @Test
-    void updateInvitationTokenStatus_ReturnsFalse_WhenTokenNotFound() throws Exception {
-        // Given
-        when(redisService.getObject(validTokenKey, String.class)).thenReturn(null);
+    void updateInvitationTokenStatus_Success_WithValidToken() {
+        when(stringRedisTemplate.execute(anyScript(), eq(List.of(TOKEN_KEY)), eq(UPDATED_STATUS))).thenReturn(1L);
 
-        // When
-        boolean result = invitationTokenService.updateInvitationTokenStatus(validToken, UPDATED_STATUS);
+        boolean result = invitationTokenService.updateInvitationTokenStatus(TEST_TOKEN, UPDATED_STATUS);
 
-        // Then
-        assertFalse(result);
-        verify(redisService).getObject(validTokenKey, String.class);
-        verify(redisService, never()).set(anyString(), anyString());
+        assertTrue(result);
+        verify(hashOperations, never()).entries(anyString());
+        verifyNoInteractions(redisService);
     }
 
     @Test
-    void updateInvitationTokenStatus_ReturnsFalse_WhenTokenExpired() throws Exception {
-        // Given
-        InvitationTokenData expiredTokenData = InvitationTokenData.builder()
-                .groupId(TEST_GROUP_ID)
-                .inviterId(TEST_INVITER_ID)
-                .invitedUserId(TEST_USER_ID)
-                .invitedUserEmail(TEST_EMAIL)
-                .status(TEST_STATUS)
-                .createdAt(LocalDateTime.now().minusDays(35))
-                .expiresAt(LocalDateTime.now().minusDays(5)) // Expired 5 days ago
-                .groupName(TEST_GROUP_NAME)
-                .inviterName(TEST_INVITER_NAME)
-                .build();
-
-        when(redisService.getObject(validTokenKey, String.class)).thenReturn(validTokenDataJson);
-        when(objectMapper.readValue(validTokenDataJson, InvitationTokenData.class)).thenReturn(expiredTokenData);
+    void updateInvitationTokenStatus_ReturnsFalse_WhenTokenNotFound() {
+        when(stringRedisTemplate.execute(anyScript(), eq(List.of(TOKEN_KEY)), eq(UPDATED_STATUS))).thenReturn(0L);
+        when(redisService.getObject(LEGACY_TOKEN_KEY, String.class)).thenReturn(null);
 
-        // When
-        boolean result = invitationTokenService.updateInvitationTokenStatus(validToken, UPDATED_STATUS);
+        boolean result = invitationTokenService.updateInvitationTokenStatus(TEST_TOKEN, UPDATED_STATUS);
 
-        // Then
         assertFalse(result);
-        verify(redisService, never()).set(anyString(), anyString());
     }
 
     @Test
-    void updateInvitationTokenStatus_ReturnsFalse_WhenSerializationFails() throws Exception {
-        // Given
-        when(redisService.getObject(validTokenKey, String.class)).thenReturn(validTokenDataJson);
-        when(objectMapper.readValue(validTokenDataJson, InvitationTokenData.class)).thenReturn(validTokenData);
-        when(objectMapper.writeValueAsString(any(InvitationTokenData.class)))
-                .thenThrow(new RuntimeException("JSON serialization failed"));
+    void updateInvitationTokenStatus_ReturnsFalse_WhenRedisFails() {
+        when(stringRedisTemplate.execute(anyScript(), eq(List.of(TOKEN_KEY)), eq(UPDATED_STATUS)))
+                .thenThrow(new RedisConnectionFailureException("Redis connection failed"));
 
-        // When
-        boolean result = invitationTokenService.updateInvitationTokenStatus(validToken, UPDATED_STATUS);
+        boolean result = invitationTokenService.updateInvitationTokenStatus(TEST_TOKEN, UPDATED_STATUS);
 
-        // Then
         assertFalse(result);
-        verify(redisService, never()).set(anyString(), anyString());
     }
 
     // ===== REMOVE INVITATION TOKEN TESTS =====
 
     @Test
-    void removeInvitationToken_Success_WithValidToken() throws Exception {
-        // Given
-        when(redisService.getObject(validTokenKey, String.class)).thenReturn(validTokenDataJson);
-        when(objectMapper.readValue(validTokenDataJson, InvitationTokenData.class)).thenReturn(validTokenData);
+    void removeInvitationToken_Success_WithValidToken() {
+        when(stringRedisTemplate.execute(anyScript(), eq(List.of(TOKEN_KEY)), eq("invitation:ug:"), eq(TEST_TOKEN)))
+                .thenReturn(1L);
 
-        // When
-        boolean result = invitationTokenService.removeInvitationToken(validToken);
+        boolean result = invitationTokenService.removeInvitationToken(TEST_TOKEN);
 
-        // Then
         assertTrue(result);
-        verify(redisService).getObject(validTokenKey, String.class);
-        verify(redisService).delete(validUserGroupKey);
-        verify(redisService).delete(validTokenKey);
     }
 
     @Test
-    void removeInvitationToken_ReturnsFalse_WhenTokenNotFound() throws Exception {
-        // Given
-        when(redisService.getObject(validTokenKey, String.class)).thenReturn(null);
+    void removeInvitationToken_ReturnsFalse_WhenTokenNotFound() {
+        when(stringRedisTemplate.execute(anyScript(), eq(List.of(TOKEN_KEY)), eq("invitation:ug:"), eq(TEST_TOKEN)))
+                .thenReturn(0L);
 
-        // When
-        boolean result = invitationTokenService.removeInvitationToken(validToken);
+        boolean result = invitationTokenService.removeInvitationToken(TEST_TOKEN);
 
-        // Then
         assertFalse(result);
-        verify(redisService).getObject(validTokenKey, String.class);
-        verify(redisService, never()).delete(anyString());
-    }
-
-    @Test
-    void removeInvitationToken_Success_WhenUserGroupKeyCleanupFails() throws Exception {
-        // Given
-        when(redisService.getObject(validTokenKey, String.class)).thenReturn(validTokenDataJson);
-        when(objectMapper.readValue(validTokenDataJson, InvitationTokenData.class))
-                .thenThrow(new RuntimeException("JSON deserialization failed"));
-
-        // When
-        boolean result = invitationTokenService.removeInvitationToken(validToken);
-
-        // Then
-        assertTrue(result); // Should still succeed even if user-group key cleanup fails
-        verify(redisService).getObject(validTokenKey, String.class);
-        verify(redisService).delete(validTokenKey);
-        // User-group key deletion should not be called due to deserialization failure
-        verify(redisService, never()).delete(validUserGroupKey);
     }
 
     @Test
-    void removeInvitationToken_ReturnsFalse_WhenRedisDeleteFails() throws Exception {
-        // Given
-        when(redisService.getObject(validTokenKey, String.class)).thenReturn(validTokenDataJson);
-        doThrow(new RuntimeException("Redis delete failed")).when(redisService).delete(validTokenKey);
+    void removeInvitationToken_ReturnsFalse_WhenRedisFails() {
+        when(stringRedisTemplate.execute(anyScript(), eq(List.of(TOKEN_KEY)), eq("invitation:ug:"), eq(TEST_TOKEN)))
+                .thenThrow(new RedisConnectionFailureException("Redis connection failed"));
 
-        // When
-        boolean result = invitationTokenService.removeInvitationToken(validToken);
+        boolean result = invitationTokenService.removeInvitationToken(TEST_TOKEN);
 
-        // Then
         assertFalse(result);
-        verify(redisService).getObject(validTokenKey, String.class);
     }
 
     // ===== REMOVE INVITATION TOKEN BY USER AND GROUP TESTS =====
 
     @Test
-    void removeInvitationTokenByUserAndGroup_Success_WithValidData() throws Exception {
-        // Given
-        when(redisService.getObject(validUserGroupKey, String.class)).thenReturn(validToken);
+    void removeInvitationTokenByUserAndGroup_Success_WithValidData() {
+        when(stringRedisTemplate.execute(anyScript(), eq(List.of(USER_GROUP_KEY)), eq("invitation:t:")))
+                .thenReturn(1L);
 
-        // When
         boolean result = invitationTokenService.removeInvitationTokenByUserAndGroup(TEST_USER_ID, TEST_GROUP_ID);
 
-        // Then
         assertTrue(result);
-        verify(redisService).getObject(validUserGroupKey, String.class);
-        verify(redisService).delete(validUserGroupKey);
-        verify(redisService).delete(validTokenKey);
+        verifyNoInteractions(redisService);
     }
 
     @Test
-    void removeInvitationTokenByUserAndGroup_ReturnsFalse_WhenTokenNotFound() throws Exception {
-        // Given
-        when(redisService.getObject(validUserGroupKey, String.class)).thenReturn(null);
+    void removeInvitationTokenByUserAndGroup_Success_WithLegacyToken() {
+        when(stringRedisTemplate.execute(anyScript(), eq(List.of(USER_GROUP_KEY)), eq("invitation:t:")))
+                .thenReturn(0L);
+        when(redisService.getObject(LEGACY_USER_GROUP_KEY, String.class)).thenReturn(TEST_TOKEN);
 
-        // When
         boolean result = invitationTokenService.removeInvitationTokenByUserAndGroup(TEST_USER_ID, TEST_GROUP_ID);
 
-        // Then
-        assertFalse(result);
-        verify(redisService).getObject(validUserGroupKey, String.class);
-        verify(redisService, never()).delete(anyString());
+        assertTrue(result);
+        verify(redisService).delete(LEGACY_USER_GROUP_KEY);
+        verify(redisService).delete(LEGACY_TOKEN_KEY);
     }
 
     @Test
-    void removeInvitationTokenByUserAndGroup_ReturnsFalse_WhenRedisOperationFails() throws Exception {
-        // Given
-        when(redisService.getObject(validUserGroupKey, String.class)).thenReturn(validToken);
-        doThrow(new RuntimeException("Redis delete failed")).when(redisService).delete(validUserGroupKey);
+    void removeInvitationTokenByUserAndGroup_ReturnsFalse_WhenTokenNotFound() {
+        when(stringRedisTemplate.execute(anyScript(), eq(List.of(USER_GROUP_KEY)), eq("invitation:t:")))
+                .thenReturn(0L);
+        when(redisService.getObject(LEGACY_USER_GROUP_KEY, String.class)).thenReturn(null);
 
-        // When
         boolean result = invitationTokenService.removeInvitationTokenByUserAndGroup(TEST_USER_ID, TEST_GROUP_ID);
 
-        // Then
         assertFalse(result);
-        verify(redisService).getObject(validUserGroupKey, String.class);
+        verify(redisService, never()).delete(any());
     }
 
-    // ===== UTILITY METHOD TESTS =====
+    // ===== KEY GENERATION TESTS =====
 
     @Test
-    void generateTokenKey_Success_WithValidToken() throws Exception {
-        // When
-        String result = invitationTokenService.generateTokenKey(validToken);
-
-        // Then
-        assertEquals(TOKEN_PREFIX + validToken, result);
+    void generateTokenKey_Success_WithValidToken() {
+        assertEquals(TOKEN_KEY, invitationTokenService.generateTokenKey(TEST_TOKEN));
     }
 
     @Test
-    void generateTokenKeyByUserAndGroup_Success_WithValidData() throws Exception {
-        // When
-        String result = invitationTokenService.generateTokenKeyByUserAndGroup(TEST_USER_ID, TEST_GROUP_ID);
-
-        // Then
-        assertEquals(USER_GROUP_PREFIX + TEST_USER_ID + ":" + TEST_GROUP_ID, result);
-    }
-
-    // ===== HELPER METHODS =====
-
-    private InvitationTokenData createTestTokenData(Integer groupId, Integer inviterId, Integer invitedUserId, String status) {
-        LocalDateTime now = LocalDateTime.now();
-        return InvitationTokenData.builder()
-                .groupId(groupId)
-                .inviterId(inviterId)
-                .invitedUserId(invitedUserId)
-                .invitedUserEmail("test@example.com")
-                .status(status)
-                .createdAt(now)
-                .expiresAt(now.plusDays(30))
-                .groupName("Test Group")
-                .inviterName("Test Inviter")
-                .build();
-    }
-
-    private InvitationTokenData createExpiredTokenData() {
-        LocalDateTime now = LocalDateTime.now();
-        return InvitationTokenData.builder()
-                .groupId(TEST_GROUP_ID)
-                .inviterId(TEST_INVITER_ID)
-                .invitedUserId(TEST_USER_ID)
-                .invitedUserEmail(TEST_EMAIL)
-                .status(TEST_STATUS)
-                .createdAt(now.minusDays(35))
-                .expiresAt(now.minusDays(5))
-                .groupName(TEST_GROUP_NAME)
-                .inviterName(TEST_INVITER_NAME)
-                .build();
+    void generateTokenKeyByUserAndGroup_Success_WithValidData() {
+        assertEquals(USER_GROUP_KEY, invitationTokenService.generateTokenKeyByUserAndGroup(TEST_USER_ID, TEST_GROUP_ID));
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,118 @@
+package vn.fpt.seima.seimaserver.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import vn.fpt.seima.seimaserver.config.notification.NotificationRetentionProperties;
+import vn.fpt.seima.seimaserver.config.notification.NotificationRetentionProperties.Action;
+import vn.fpt.seima.seimaserver.config.notification.NotificationRetentionProperties.Policy;
+import vn.fpt.seima.seimaserver.entity.NotificationType;
+import vn.fpt.seima.seimaserver.service.impl.NotificationRetentionServiceImpl;
+
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationRetentionServiceTest {
+
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private PlatformTransactionManager transactionManager;
+    @Mock private NotificationCacheService notificationCacheService;
+    @Mock private ResultSet resultSet;
+
+    private final NotificationRetentionProperties properties = new NotificationRetentionProperties();
+    private NotificationRetentionServiceImpl notificationRetentionService;
+
+    @BeforeEach
+    void setUp() {
+        notificationRetentionService = new NotificationRetentionServiceImpl(jdbcTemplate, transactionManager,
+                notificationCacheService, properties);
+        // Only BUDGET_LIMIT_WARNING expires in these tests
+        Policy keep = new Policy();
+        keep.setReadAfter(null);
+        keep.setAction(Action.DELETE);
+        properties.setDefaultPolicy(keep);
+    }
+
+    /** The first SELECT of expired rows returns the given (id, receiver) pairs, later ones nothing. */
+    @SuppressWarnings("unchecked")
+    private void givenExpired(int id, int receiverId, Integer... more) throws Exception {
+        List<Integer> ids = new ArrayList<>(List.of(id));
+        List<Integer> receivers = new ArrayList<>(List.of(receiverId));
+        for (int i = 0; i < more.length; i += 2) {
+            ids.add(more[i]);
+            receivers.add(more[i + 1]);
+        }
+        when(resultSet.getInt("notification_id")).thenReturn(ids.get(0), ids.subList(1, ids.size()).toArray(Integer[]::new));
+        when(resultSet.getInt("receiver_id")).thenReturn(receivers.get(0), receivers.subList(1, receivers.size()).toArray(Integer[]::new));
+        when(resultSet.getInt("created_month")).thenReturn(202401);
+        List<Object> returned = new ArrayList<>();
+        when(jdbcTemplate.query(startsWith("SELECT notification_id"), any(RowMapper.class), any(), any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    if (!returned.isEmpty()) {
+                        return List.of();
+                    }
+                    RowMapper<Object> mapper = invocation.getArgument(1);
+                    for (int i = 0; i < ids.size(); i++) {
+                        returned.add(mapper.mapRow(resultSet, i));
+                    }
+                    return new ArrayList<>(returned);
+                });
+    }
+
+    @Test
+    void applyRetention_ShouldDigestThenDeleteWithoutArchiving() throws Exception {
+        Policy policy = new Policy();
+        policy.setReadAfter(Duration.ofDays(30));
+        policy.setAction(Action.DELETE);
+        policy.setDigest(true);
+        properties.getPolicies().put(NotificationType.BUDGET_LIMIT_WARNING, policy);
+        givenExpired(11, 7, 12, 8);
+
+        notificationRetentionService.applyRetention();
+
+        verify(jdbcTemplate).execute(startsWith("CREATE TABLE IF NOT EXISTS notification_digest"));
+        verify(jdbcTemplate, never()).execute(startsWith("CREATE TABLE IF NOT EXISTS notification_archive"));
+        verify(jdbcTemplate).update(startsWith("INSERT INTO notification_digest"), eq(11), eq(12));
+        verify(jdbcTemplate).update(eq("DELETE FROM notification WHERE notification_id IN (?, ?)"), eq(11), eq(12));
+        verify(jdbcTemplate, never()).update(startsWith("INSERT IGNORE INTO notification_archive"), any(Object[].class));
+        // Read notifications do not affect the unread counters
+        verifyNoInteractions(notificationCacheService);
+    }
+
+    @Test
+    void applyRetention_ShouldArchiveIntoAMonthlyPartitionAndDropStaleUnreadCounts() throws Exception {
+        Policy policy = new Policy();
+        policy.setReadAfter(null);
+        policy.setUnreadAfter(Duration.ofDays(90));
+        properties.getPolicies().put(NotificationType.BUDGET_LIMIT_WARNING, policy);
+        givenExpired(21, 7);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class))).thenReturn(202312);
+
+        notificationRetentionService.applyRetention();
+
+        verify(jdbcTemplate).execute(contains("PARTITION p202401 VALUES LESS THAN (202402)"));
+        verify(jdbcTemplate).update(startsWith("INSERT IGNORE INTO notification_archive"), eq(21));
+        verify(jdbcTemplate).update(eq("DELETE FROM notification WHERE notification_id IN (?)"), eq(21));
+        verify(notificationCacheService).removeUnreadCountFromCache(7);
+    }
+
+    @Test
+    void applyRetention_ShouldDoNothingWhenDisabled() {
+        properties.setEnabled(false);
+
+        notificationRetentionService.applyRetention();
+
+        verifyNoInteractions(jdbcTemplate, notificationCacheService);
+    }
+}
@@ -0,0 +1,41 @@
+package vn.fpt.seima.seimaserver.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import vn.fpt.seima.seimaserver.config.ocr.AzureFormRecognizerConfig;
+import vn.fpt.seima.seimaserver.dto.request.upload.DirectUploadRequest;
+import vn.fpt.seima.seimaserver.dto.request.upload.UploadPurpose;
+import vn.fpt.seima.seimaserver.service.impl.OcrServiceImpl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OcrServiceTest {
+
+    @Mock private CloudinaryService cloudinaryService;
+    @Mock private GeminiService geminiService;
+    @Mock private AzureFormRecognizerConfig config;
+    @InjectMocks private OcrServiceImpl ocrService;
+
+    @Test
+    void extractTextFromUpload_InvalidSignature_ShouldPropagateIllegalArgumentException() {
+        DirectUploadRequest upload = DirectUploadRequest.builder()
+                .publicId("seima/receipts/user_1/abc")
+                .version(1700000000L)
+                .signature("forged")
+                .build();
+        when(cloudinaryService.verifyDirectUpload(UploadPurpose.RECEIPT, 1, upload))
+                .thenThrow(new IllegalArgumentException("Invalid upload signature"));
+
+        // The controller maps IllegalArgumentException to 400, so it must not be rewrapped
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> ocrService.extractTextFromUpload(1, upload));
+
+        assertEquals("Invalid upload signature", exception.getMessage());
+        verifyNoInteractions(geminiService, config);
+    }
+}
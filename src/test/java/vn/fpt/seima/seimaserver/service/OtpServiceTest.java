@@ -0,0 +1,73 @@
+package vn.fpt.seima.seimaserver.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+import vn.fpt.seima.seimaserver.dto.response.auth.OtpIssueResult;
+import vn.fpt.seima.seimaserver.dto.response.auth.OtpVerifyResult;
+import vn.fpt.seima.seimaserver.service.impl.OtpServiceImpl;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OtpServiceTest {
+    private static final String KEY = "otp:register:test.user@example.com";
+
+    @Mock private StringRedisTemplate stringRedisTemplate;
+    @InjectMocks private OtpServiceImpl otpService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(otpService, "resendCooldownSeconds", 30L);
+    }
+
+    private static RedisScript<Long> anyScript() {
+        return any();
+    }
+
+    @Test
+    void issue_ShouldOnlyApplyCooldownToResends() {
+        when(stringRedisTemplate.execute(anyScript(), eq(List.of(KEY)), eq("123456"), eq("5"), eq("180"), eq("0")))
+                .thenReturn(1L);
+        when(stringRedisTemplate.execute(anyScript(), eq(List.of(KEY)), eq("654321"), eq("5"), eq("180"), eq("30")))
+                .thenReturn(-12L);
+
+        OtpIssueResult issued = otpService.issue(KEY, "123456", false);
+        OtpIssueResult resent = otpService.issue(KEY, "654321", true);
+
+        assertEquals(OtpIssueResult.Status.ISSUED, issued.getStatus());
+        assertEquals(OtpIssueResult.Status.COOLING_DOWN, resent.getStatus());
+        assertEquals(12, resent.getRetryAfterSeconds());
+    }
+
+    @Test
+    void issue_ShouldReportLimitReached() {
+        when(stringRedisTemplate.execute(anyScript(), eq(List.of(KEY)), eq("123456"), eq("5"), eq("180"), eq("30")))
+                .thenReturn(0L);
+
+        assertEquals(OtpIssueResult.Status.LIMIT_REACHED, otpService.issue(KEY, "123456", true).getStatus());
+    }
+
+    @Test
+    void verify_ShouldMapScriptResults() {
+        when(stringRedisTemplate.execute(anyScript(), eq(List.of(KEY)), anyString(), eq("3")))
+                .thenReturn(0L, -1L, -2L, 1L);
+
+        assertEquals(OtpVerifyResult.Status.VERIFIED, otpService.verify(KEY, "123456").getStatus());
+        assertEquals(OtpVerifyResult.Status.NOT_FOUND, otpService.verify(KEY, "123456").getStatus());
+        assertEquals(OtpVerifyResult.Status.LOCKED, otpService.verify(KEY, "000000").getStatus());
+        OtpVerifyResult invalid = otpService.verify(KEY, "000000");
+        assertEquals(OtpVerifyResult.Status.INVALID, invalid.getStatus());
+        assertEquals(2, invalid.getAttemptsRemaining());
+    }
+}
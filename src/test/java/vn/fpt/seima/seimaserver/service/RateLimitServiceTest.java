@@ -0,0 +1,99 @@
+package vn.fpt.seima.seimaserver.service;
+
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.distributed.BucketProxy;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.distributed.proxy.RemoteBucketBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import vn.fpt.seima.seimaserver.config.ratelimit.RateLimitProperties;
+import vn.fpt.seima.seimaserver.service.impl.RateLimitServiceImpl;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitServiceTest {
+
+    @Mock private ProxyManager<byte[]> rateLimitProxyManager;
+    @Mock private RemoteBucketBuilder<byte[]> remoteBucketBuilder;
+    @Mock private BucketProxy bucket;
+    @Mock private ConsumptionProbe probe;
+    @Spy private RateLimitProperties rateLimitProperties = new RateLimitProperties();
+    @InjectMocks private RateLimitServiceImpl rateLimitService;
+
+    @BeforeEach
+    void setUp() {
+        when(rateLimitProxyManager.builder()).thenReturn(remoteBucketBuilder);
+        lenient().when(remoteBucketBuilder.withOptimization(any())).thenReturn(remoteBucketBuilder);
+        when(remoteBucketBuilder.build(any(byte[].class), anySupplier())).thenReturn(bucket);
+        when(bucket.tryConsumeAndReturnRemaining(1)).thenReturn(probe);
+    }
+
+    private static Supplier<BucketConfiguration> anySupplier() {
+        return any();
+    }
+
+    private static byte[] key(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void tryConsume_CostlyRoute_ShouldUseItsPolicyAndReuseBucket() {
+        ConsumptionProbe first = rateLimitService.tryConsume("POST", "/api/v1/transactions/scan-invoice", "user:a@seima.vn");
+        rateLimitService.tryConsume("POST", "/api/v1/transactions/scan-invoice", "user:a@seima.vn");
+
+        assertSame(probe, first);
+        verify(remoteBucketBuilder, times(1)).build(aryEq(key("rate-limit:ocr:user:a@seima.vn")), anySupplier());
+        verify(bucket, times(2)).tryConsumeAndReturnRemaining(1);
+    }
+
+    @Test
+    void tryConsume_TightPolicy_ShouldAlwaysCheckRedis() {
+        rateLimitService.tryConsume("POST", "/api/v1/auth/register", "ip:10.0.0.1");
+
+        verify(remoteBucketBuilder).build(aryEq(key("rate-limit:register:ip:10.0.0.1")), anySupplier());
+        verify(remoteBucketBuilder, never()).withOptimization(any());
+    }
+
+    @Test
+    void tryConsume_ForgotPasswordAndGoogleLogin_ShouldUseTheirTightPolicies() {
+        rateLimitService.tryConsume("POST", "/api/v1/auth/forgot-password", "ip:10.0.0.1");
+        rateLimitService.tryConsume("POST", "/api/v1/auth/google", "ip:10.0.0.1");
+
+        verify(remoteBucketBuilder).build(aryEq(key("rate-limit:forgot-password:ip:10.0.0.1")), anySupplier());
+        verify(remoteBucketBuilder).build(aryEq(key("rate-limit:google-login:ip:10.0.0.1")), anySupplier());
+        verify(remoteBucketBuilder, never()).withOptimization(any());
+    }
+
+    @Test
+    void tryConsume_DefaultPolicy_ShouldSyncLocally() {
+        rateLimitService.tryConsume("GET", "/api/v1/wallets", "user:a@seima.vn");
+
+        verify(remoteBucketBuilder).build(aryEq(key("rate-limit:default:user:a@seima.vn")), anySupplier());
+        verify(remoteBucketBuilder).withOptimization(any());
+    }
+
+    @Test
+    void evictIdleBuckets_ShouldDropUnusedBuckets() {
+        rateLimitProperties.setIdleTimeout(Duration.ofMillis(-1));
+        rateLimitService.tryConsume("GET", "/api/v1/wallets", "user:a@seima.vn");
+
+        rateLimitService.evictIdleBuckets();
+        rateLimitService.tryConsume("GET", "/api/v1/wallets", "user:a@seima.vn");
+
+        verify(remoteBucketBuilder, times(2)).build(any(byte[].class), anySupplier());
+    }
+}
@@ -0,0 +1,103 @@
+package vn.fpt.seima.seimaserver.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import vn.fpt.seima.seimaserver.config.transaction.TransactionArchiveProperties;
+import vn.fpt.seima.seimaserver.repository.TransactionTiers;
+import vn.fpt.seima.seimaserver.service.impl.TransactionArchiveServiceImpl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionArchiveServiceTest {
+
+    private static final LocalDateTime HOT_FROM = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private PlatformTransactionManager transactionManager;
+    @Mock private TransactionTiers transactionTiers;
+
+    private final TransactionArchiveProperties properties = new TransactionArchiveProperties();
+    private TransactionArchiveServiceImpl transactionArchiveService;
+
+    @BeforeEach
+    void setUp() {
+        properties.setBatchSize(2);
+        properties.setBatchPause(Duration.ZERO);
+        transactionArchiveService = new TransactionArchiveServiceImpl(jdbcTemplate, transactionManager,
+                transactionTiers, properties);
+        lenient().when(transactionTiers.hotFrom()).thenReturn(HOT_FROM);
+    }
+
+    @SafeVarargs
+    private void stubCandidates(List<Integer>... batches) {
+        when(jdbcTemplate.queryForList(startsWith("SELECT transaction_id FROM `transaction` WHERE transaction_date"),
+                eq(Integer.class), any(), any()))
+                .thenReturn(batches[0], Arrays.copyOfRange(batches, 1, batches.length));
+        lenient().when(jdbcTemplate.queryForList(contains("'INACTIVE'"), eq(Integer.class), any(), any()))
+                .thenReturn(List.of());
+    }
+
+    @Test
+    void archiveTransactions_ShouldMoveLockedRowsInBatches() {
+        stubCandidates(List.of(1, 2), List.of(3));
+        when(jdbcTemplate.queryForList(contains("FOR UPDATE"), eq(Integer.class), eq(1), eq(2), any()))
+                .thenReturn(List.of(1, 2));
+        when(jdbcTemplate.queryForList(contains("FOR UPDATE"), eq(Integer.class), eq(3), any()))
+                .thenReturn(List.of(3));
+        lenient().when(jdbcTemplate.update(startsWith("INSERT INTO transaction_archive"), eq(1), eq(2))).thenReturn(2);
+        lenient().when(jdbcTemplate.update(startsWith("INSERT INTO transaction_archive"), eq(3))).thenReturn(1);
+
+        transactionArchiveService.archiveTransactions();
+
+        verify(jdbcTemplate).update(eq("DELETE FROM `transaction` WHERE transaction_id IN (?, ?)"), eq(1), eq(2));
+        verify(jdbcTemplate).update(eq("DELETE FROM `transaction` WHERE transaction_id IN (?)"), eq(3));
+    }
+
+    @Test
+    void archiveTransactions_ShouldLeaveRowsThatNoLongerQualify() {
+        // Row 1 was moved to a recent date between the candidate query and the lock
+        stubCandidates(List.of(1, 2), List.of());
+        when(jdbcTemplate.queryForList(contains("FOR UPDATE"), eq(Integer.class), eq(1), eq(2), any()))
+                .thenReturn(List.of(2));
+        lenient().when(jdbcTemplate.update(startsWith("INSERT INTO transaction_archive"), eq(2))).thenReturn(1);
+
+        transactionArchiveService.archiveTransactions();
+
+        verify(jdbcTemplate).update(eq("DELETE FROM `transaction` WHERE transaction_id IN (?)"), eq(2));
+        verify(jdbcTemplate, never()).update(startsWith("DELETE"), eq(1), eq(2));
+    }
+
+    @Test
+    void archiveTransactions_ShouldNotDeleteWhenTheCopyIsIncomplete() {
+        stubCandidates(List.of(1, 2), List.of());
+        when(jdbcTemplate.queryForList(contains("FOR UPDATE"), eq(Integer.class), eq(1), eq(2), any()))
+                .thenReturn(List.of(1, 2));
+        lenient().when(jdbcTemplate.update(startsWith("INSERT INTO transaction_archive"), eq(1), eq(2))).thenReturn(1);
+
+        transactionArchiveService.archiveTransactions();
+
+        verify(jdbcTemplate, never()).update(startsWith("DELETE"), eq(1), eq(2));
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void archiveTransactions_ShouldDoNothingWhenDisabled() {
+        properties.setEnabled(false);
+
+        transactionArchiveService.archiveTransactions();
+
+        verifyNoInteractions(jdbcTemplate, transactionTiers);
+    }
+}
@@ -0,0 +1,130 @@
+package vn.fpt.seima.seimaserver.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import vn.fpt.seima.seimaserver.dto.response.transaction.TransactionExportRow;
+import vn.fpt.seima.seimaserver.entity.TransactionType;
+import vn.fpt.seima.seimaserver.repository.TransactionRepository;
+import vn.fpt.seima.seimaserver.service.TransactionExportService.ExportFormat;
+import vn.fpt.seima.seimaserver.service.impl.TransactionExportServiceImpl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionExportServiceTest {
+    private static final String CSV_HEADER = "transaction_id,transaction_date,transaction_type,amount,currency_code," +
+            "category_name,wallet_name,description,payee_payer_name\r\n";
+
+    @Mock private TransactionRepository transactionRepository;
+
+    private TransactionExportServiceImpl exportService;
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    @BeforeEach
+    void setUp() {
+        exportService = new TransactionExportServiceImpl(transactionRepository, new ObjectMapper().findAndRegisterModules());
+    }
+
+    private static TransactionExportRow row(int id, String description) {
+        return new TransactionExportRow(id, LocalDateTime.of(2025, 3, 1, 8, 30), TransactionType.EXPENSE,
+                new BigDecimal("150000.00"), "VND", "Food", "Cash", description, null);
+    }
+
+    private String written() {
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void exportTransactions_Csv_ShouldWriteHeaderAndEscapedRows() throws IOException {
+        when(transactionRepository.streamForExport(eq(1), any(), any(), isNull(), isNull()))
+                .thenReturn(Stream.of(row(7, "Lunch"), row(8, "Coffee, with \"friends\"")));
+
+        exportService.exportTransactions(1, null, null, null, null, ExportFormat.CSV, out);
+
+        assertEquals(CSV_HEADER
+                + "7,2025-03-01 08:30:00,EXPENSE,150000.00,VND,Food,Cash,Lunch,\r\n"
+                + "8,2025-03-01 08:30:00,EXPENSE,150000.00,VND,Food,Cash,\"Coffee, with \"\"friends\"\"\",\r\n",
+                written());
+    }
+
+    @Test
+    void exportTransactions_ShouldQueryOwnRowsForWholeDaysAndFilters() throws IOException {
+        when(transactionRepository.streamForExport(anyInt(), any(), any(), any(), any())).thenReturn(Stream.empty());
+
+        exportService.exportTransactions(1, LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31), 10, 20,
+                ExportFormat.CSV, out);
+
+        // The user id is the only owner filter the query gets; the range covers both end days in full
+        verify(transactionRepository).streamForExport(1, LocalDateTime.of(2025, 3, 1, 0, 0),
+                LocalDateTime.of(2025, 3, 31, 23, 59, 59), 10, 20);
+    }
+
+    @Test
+    void exportTransactions_StartAfterEnd_ShouldRejectWithoutQuerying() {
+        assertThrows(IllegalArgumentException.class, () -> exportService.exportTransactions(1,
+                LocalDate.of(2025, 4, 1), LocalDate.of(2025, 3, 1), null, null, ExportFormat.CSV, out));
+
+        verifyNoInteractions(transactionRepository);
+        assertEquals(0, out.size());
+    }
+
+    @Test
+    void exportTransactions_NullUser_ShouldReject() {
+        assertThrows(IllegalArgumentException.class,
+                () -> exportService.exportTransactions(null, null, null, null, null, ExportFormat.CSV, out));
+
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void exportTransactions_EmptyResult_ShouldWriteHeaderOnlyAndCloseStream() throws IOException {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(transactionRepository.streamForExport(anyInt(), any(), any(), any(), any()))
+                .thenReturn(Stream.<TransactionExportRow>empty().onClose(() -> closed.set(true)));
+
+        exportService.exportTransactions(1, null, null, null, null, ExportFormat.CSV, out);
+
+        assertEquals(CSV_HEADER, written());
+        // The cursor holds the connection until the stream is closed
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void exportTransactions_EmptyResultAsJson_ShouldWriteEmptyArray() throws IOException {
+        when(transactionRepository.streamForExport(anyInt(), any(), any(), any(), any())).thenReturn(Stream.empty());
+
+        exportService.exportTransactions(1, null, null, null, null, ExportFormat.JSON, out);
+
+        assertEquals("[]", written());
+    }
+
+    @Test
+    void exportTransactions_Json_ShouldWriteOneObjectPerRow() throws IOException {
+        when(transactionRepository.streamForExport(anyInt(), any(), any(), any(), any()))
+                .thenReturn(Stream.of(row(7, "Lunch"), row(8, "Dinner")));
+
+        exportService.exportTransactions(1, null, null, null, null, ExportFormat.JSON, out);
+
+        JsonNode rows = new ObjectMapper().readTree(written());
+        assertEquals(2, rows.size());
+        assertEquals(7, rows.get(0).path("transactionId").asInt());
+        assertEquals("2025-03-01 08:30:00", rows.get(0).path("transactionDate").asText());
+        assertEquals("Dinner", rows.get(1).path("description").asText());
+    }
+}
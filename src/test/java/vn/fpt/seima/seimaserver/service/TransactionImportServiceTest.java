@@ -0,0 +1,228 @@
+package vn.fpt.seima.seimaserver.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import vn.fpt.seima.seimaserver.dto.response.transaction.TransactionImportResponse;
+import vn.fpt.seima.seimaserver.dto.response.transaction.TransactionImportResponse.ImportStatus;
+import vn.fpt.seima.seimaserver.entity.*;
+import vn.fpt.seima.seimaserver.event.FinancialHealthChangedEvent;
+import vn.fpt.seima.seimaserver.event.ResourceChangedEvent;
+import vn.fpt.seima.seimaserver.repository.*;
+import vn.fpt.seima.seimaserver.service.impl.TransactionImportServiceImpl;
+import vn.fpt.seima.seimaserver.util.UserUtils;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionImportServiceTest {
+    private static final String HEADER = "date,type,amount,category_id,wallet_id,description\n";
+
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private PlatformTransactionManager transactionManager;
+    @Mock private TransactionStatus transactionStatus;
+    @Mock private RedisService redisService;
+    @Mock private WalletRepository walletRepository;
+    @Mock private CategoryRepository categoryRepository;
+    @Mock private BudgetRepository budgetRepository;
+    @Mock private BudgetCategoryLimitRepository budgetCategoryLimitRepository;
+    @Mock private BudgetWalletRepository budgetWalletRepository;
+    @Mock private BudgetPeriodRepository budgetPeriodRepository;
+    @Mock private BudgetPeriodService budgetPeriodService;
+    @Mock private ApplicationEventPublisher applicationEventPublisher;
+    @Mock private ExchangeRateService exchangeRateService;
+
+    private TransactionImportServiceImpl importService;
+    private MockedStatic<UserUtils> mockedUserUtils;
+    private final List<List<Object[]>> batches = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setUserId(1);
+        mockedUserUtils = Mockito.mockStatic(UserUtils.class);
+        mockedUserUtils.when(UserUtils::getCurrentUser).thenReturn(user);
+
+        // Runs the import on the calling thread
+        importService = new TransactionImportServiceImpl(jdbcTemplate, transactionManager, Runnable::run, redisService,
+                walletRepository, categoryRepository, budgetRepository, budgetCategoryLimitRepository,
+                budgetWalletRepository, budgetPeriodRepository, budgetPeriodService, applicationEventPublisher,
+                exchangeRateService);
+
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+        // The batch list is cleared after each call, so copy it when it is sent
+        lenient().when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            List<Object[]> rows = invocation.getArgument(1);
+            batches.add(new ArrayList<>(rows));
+            return new int[0];
+        });
+
+        Wallet wallet = new Wallet();
+        wallet.setId(10);
+        wallet.setCurrencyCode("VND");
+        wallet.setCurrentBalance(BigDecimal.valueOf(1000));
+        lenient().when(walletRepository.findAllActiveByUserId(1)).thenReturn(List.of(wallet));
+        lenient().when(categoryRepository.findByCategoryTypeAndUser_UserIdOrUserIsNull(CategoryType.EXPENSE, 1))
+                .thenReturn(List.of(category(20)));
+        lenient().when(categoryRepository.findByCategoryTypeAndUser_UserIdOrUserIsNull(CategoryType.INCOME, 1))
+                .thenReturn(List.of(category(30)));
+        lenient().when(budgetRepository.findByUserId(1)).thenReturn(List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        mockedUserUtils.close();
+    }
+
+    private static Category category(int id) {
+        Category category = new Category();
+        category.setCategoryId(id);
+        return category;
+    }
+
+    private TransactionImportResponse importCsv(String csv) {
+        return importService.startImport(new MockMultipartFile("file", "statement.csv", "text/csv",
+                csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void startImport_ShouldParseQuotedFieldsAndBothDateFormats() {
+        TransactionImportResponse job = importCsv(HEADER
+                + "2025-03-01,expense,150,20,10,\"Coffee, with \"\"friends\"\"\"\n"
+                + "2025-03-02 18:30:00,INCOME,500,30,10,Salary\n");
+
+        assertEquals(ImportStatus.COMPLETED, job.getStatus());
+        assertEquals(2, job.getImportedRows());
+        assertEquals(1, batches.size());
+        assertEquals("Coffee, with \"friends\"", batches.get(0).get(0)[7]);
+        assertEquals("INCOME", batches.get(0).get(1)[3]);
+    }
+
+    @Test
+    void startImport_ShouldInsertInBatchesOfFiveHundred() {
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 0; i < 501; i++) {
+            csv.append("2025-03-01,EXPENSE,1,20,10,row ").append(i).append('\n');
+        }
+
+        TransactionImportResponse job = importCsv(csv.toString());
+
+        assertEquals(501, job.getImportedRows());
+        assertEquals(List.of(500, 1), batches.stream().map(List::size).toList());
+    }
+
+    @Test
+    void startImport_InvalidRows_ShouldBeRejectedWithLineNumbers() {
+        TransactionImportResponse job = importCsv(HEADER
+                + "2025-03-01,EXPENSE,abc,20,10,bad amount\n"
+                + "2025-03-01,TRANSFER,5,20,10,bad type\n"
+                + "2025-03-01,EXPENSE,5,99,10,unknown category\n"
+                + "2025-03-01,EXPENSE,5,20,99,unknown wallet\n"
+                + "03/01/2025,EXPENSE,5,20,10,bad date\n"
+                + "2025-03-01,EXPENSE,5,20,10,good\n");
+
+        assertEquals(ImportStatus.COMPLETED, job.getStatus());
+        assertEquals(6, job.getProcessedRows());
+        assertEquals(1, job.getImportedRows());
+        assertEquals(5, job.getRejectedRows());
+        assertEquals("Line 2: Amount is not a number", job.getErrors().get(0));
+        assertTrue(job.getErrors().get(4).startsWith("Line 6: Date must be"));
+    }
+
+    @Test
+    void startImport_MissingColumn_ShouldFailWithoutSideEffects() {
+        TransactionImportResponse job = importCsv("date,type,amount,wallet_id\n2025-03-01,EXPENSE,5,10\n");
+
+        assertEquals(ImportStatus.FAILED, job.getStatus());
+        assertTrue(job.getMessage().contains("Missing column: category_id"));
+        verify(walletRepository, never()).addToBalance(any(), any());
+        verifyNoInteractions(applicationEventPublisher);
+    }
+
+    @Test
+    void startImport_QueueFull_ShouldFailJobWithoutRunning() {
+        TransactionImportServiceImpl busyService = new TransactionImportServiceImpl(jdbcTemplate, transactionManager,
+                task -> {
+                    throw new RejectedExecutionException("queue full");
+                }, redisService, walletRepository, categoryRepository, budgetRepository, budgetCategoryLimitRepository,
+                budgetWalletRepository, budgetPeriodRepository, budgetPeriodService, applicationEventPublisher,
+                exchangeRateService);
+
+        TransactionImportResponse job = busyService.startImport(new MockMultipartFile("file", "statement.csv",
+                "text/csv", (HEADER + "2025-03-01,EXPENSE,5,20,10,a\n").getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(ImportStatus.FAILED, job.getStatus());
+        assertNotNull(job.getFinishedAt());
+        assertTrue(batches.isEmpty());
+        verify(redisService, atLeastOnce()).set(eq("tx:import:" + job.getJobId()), same(job));
+    }
+
+    @Test
+    void startImport_ShouldAddNetDeltaToWalletAtomicallyAndInvalidateOnce() {
+        TransactionImportResponse job = importCsv(HEADER
+                + "2025-03-01,EXPENSE,150,20,10,a\n"
+                + "2025-04-02,EXPENSE,50,20,10,b\n"
+                + "2025-04-03,INCOME,500,30,10,c\n");
+
+        assertEquals(ImportStatus.COMPLETED, job.getStatus());
+        // Added in the database, not written over the balance loaded at the start
+        verify(walletRepository).addToBalance(10, BigDecimal.valueOf(300));
+        verify(walletRepository, never()).saveAll(any());
+        verify(redisService).delete("tx:overviews:1:2025-03");
+        verify(redisService).delete("tx:overviews:1:2025-04");
+        verify(applicationEventPublisher).publishEvent(any(FinancialHealthChangedEvent.class));
+        verify(applicationEventPublisher).publishEvent(any(ResourceChangedEvent.class));
+    }
+
+    @Test
+    void startImport_ShouldChargeMatchingBudgetPeriodOnce() {
+        Budget budget = new Budget();
+        budget.setBudgetId(5);
+        budget.setCurrencyCode("USD");
+        BudgetCategoryLimit limit = new BudgetCategoryLimit();
+        limit.setCategory(category(20));
+        BudgetPeriod period = new BudgetPeriod();
+        period.setStartDate(LocalDateTime.of(2025, 3, 1, 0, 0));
+        period.setRemainingAmount(BigDecimal.valueOf(1000));
+        when(budgetRepository.findByUserId(1)).thenReturn(List.of(budget));
+        when(budgetCategoryLimitRepository.findByBudget(5)).thenReturn(List.of(limit));
+        when(budgetWalletRepository.findWalletIdsByBudgetId(5)).thenReturn(List.of(10));
+        when(budgetPeriodService.resolvePeriodIndex(eq(budget), any())).thenReturn(3);
+        when(budgetPeriodService.buildPeriod(budget, 3)).thenReturn(period);
+        when(budgetPeriodService.getOrCreatePeriod(budget, period.getStartDate())).thenReturn(period);
+        // Each day's spending is converted from the wallet's VND at that day's rate
+        when(exchangeRateService.convert(new BigDecimal("150"), "VND", "USD", LocalDate.of(2025, 3, 1)))
+                .thenReturn(BigDecimal.valueOf(6));
+        when(exchangeRateService.convert(new BigDecimal("50"), "VND", "USD", LocalDate.of(2025, 3, 5)))
+                .thenReturn(BigDecimal.valueOf(2));
+
+        importCsv(HEADER
+                + "2025-03-01,EXPENSE,150,20,10,a\n"
+                + "2025-03-05,EXPENSE,50,20,10,b\n"
+                + "2025-03-06,INCOME,500,30,10,c\n");
+
+        assertEquals(0, BigDecimal.valueOf(992).compareTo(period.getRemainingAmount()));
+        verify(budgetPeriodService, times(1)).getOrCreatePeriod(any(), any());
+        verify(budgetPeriodRepository).saveAll(List.of(period));
+    }
+}
@@ -8,14 +8,21 @@ import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import vn.fpt.seima.seimaserver.config.datasource.DataSourceRoutingProperties;
+import vn.fpt.seima.seimaserver.config.datasource.PrimaryReads;
 import vn.fpt.seima.seimaserver.dto.request.transaction.CreateTransactionRequest;
 import vn.fpt.seima.seimaserver.dto.response.transaction.TransactionCategoryReportResponse;
 import vn.fpt.seima.seimaserver.dto.response.transaction.TransactionDetailReportResponse;
+import vn.fpt.seima.seimaserver.dto.response.transaction.TransactionListRow;
 import vn.fpt.seima.seimaserver.dto.response.transaction.TransactionOverviewResponse;
 import vn.fpt.seima.seimaserver.dto.response.transaction.TransactionResponse;
+import vn.fpt.seima.seimaserver.dto.response.transaction.TransactionWalletResponse;
+import vn.fpt.seima.seimaserver.dto.response.group.GroupMembershipSnapshot;
 import vn.fpt.seima.seimaserver.entity.*;
 import vn.fpt.seima.seimaserver.mapper.TransactionMapper;
 import vn.fpt.seima.seimaserver.repository.*;
@@ -45,6 +52,7 @@ class TransactionServiceTest {
     private Cache cache;
     @Mock
     private BudgetRepository budgetRepository;
+    @Spy private PrimaryReads primaryReads = new PrimaryReads(mock(PlatformTransactionManager.class), new DataSourceRoutingProperties());
     @InjectMocks private TransactionServiceImpl transactionService;
     @Mock
     private BudgetCategoryLimitRepository budgetCategoryLimitRepository;
@@ -52,6 +60,9 @@ class TransactionServiceTest {
     @Mock private GroupRepository groupRepository;
     @Mock private GroupMemberRepository groupMemberRepository;
     @Mock private NotificationService notificationService;
+    @Mock private ApplicationEventPublisher applicationEventPublisher;
+    @Mock private GroupMembershipCacheService groupMembershipCacheService;
+    @Mock private ExchangeRateService exchangeRateService;
 
     private MockedStatic<UserUtils> userUtilsMockedStatic;
 
@@ -64,6 +75,10 @@ class TransactionServiceTest {
         user.setUserFullName("Test User");
         userUtilsMockedStatic = mockStatic(UserUtils.class);
         userUtilsMockedStatic.when(UserUtils::getCurrentUser).thenReturn(user);
+        lenient().when(exchangeRateService.convert(any(), any(), any(), any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        lenient().when(exchangeRateService.convertForReport(any(), any(), any(), any(), anySet()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
     }
 
     @AfterEach
@@ -77,7 +92,7 @@ class TransactionServiceTest {
         Transaction transaction = new Transaction();
         TransactionResponse response = new TransactionResponse();
 
-        when(transactionRepository.findById(1)).thenReturn(Optional.of(transaction));
+        when(transactionRepository.findInAnyTier(1)).thenReturn(Optional.of(transaction));
         when(transactionMapper.toResponse(transaction)).thenReturn(response);
 
         TransactionResponse result = transactionService.getTransactionById(1);
@@ -86,10 +101,90 @@ class TransactionServiceTest {
 
     @Test
     void testGetTransactionById_NotFound() {
-        when(transactionRepository.findById(1)).thenReturn(Optional.empty());
+        when(transactionRepository.findInAnyTier(1)).thenReturn(Optional.empty());
         assertThrows(IllegalArgumentException.class, () -> transactionService.getTransactionById(1));
     }
 
+    private static TransactionListRow row(int id, TransactionType type, String amount, String categoryName, LocalDateTime date) {
+        TransactionListRow row = new TransactionListRow();
+        row.setTransactionId(id);
+        row.setTransactionType(type);
+        row.setAmount(new BigDecimal(amount));
+        row.setCategoryId(id * 10);
+        row.setCategoryName(categoryName);
+        row.setTransactionDate(date);
+        return row;
+    }
+
+    @Test
+    void testGetTransactionWallet_UsesProjectedRowsAndLeavesTheWalletAlone() {
+        Wallet wallet = new Wallet();
+        wallet.setId(3);
+        wallet.setInitialBalance(new BigDecimal("100"));
+        wallet.setCurrentBalance(new BigDecimal("150"));
+        when(walletRepository.findById(3)).thenReturn(Optional.of(wallet));
+        when(transactionRepository.listRowsByWallet(3, 1)).thenReturn(List.of(
+                row(1, TransactionType.INCOME, "80", "Salary", LocalDateTime.of(2026, 10, 1, 9, 0)),
+                row(2, TransactionType.EXPENSE, "30", "Food", LocalDateTime.of(2026, 10, 2, 12, 0))));
+
+        TransactionWalletResponse response = transactionService.getTransactionWallet(3,
+                LocalDate.of(2026, 10, 1), LocalDate.of(2026, 10, 31), "ALL");
+
+        assertEquals(new BigDecimal("150"), response.getSummary().getCurrentBalance());
+        assertEquals("Food", response.getReportByWallet().get("2026-10-02").get(0).getCategoryName());
+        assertEquals(20, response.getReportByWallet().get("2026-10-02").get(0).getCategoryId());
+        verify(walletRepository, never()).save(any());
+    }
+
+    @Test
+    void testGetTransactionOverview_GroupsProjectedRowsByDay() {
+        YearMonth month = YearMonth.of(2026, 10);
+        TransactionListRow salary = row(1, TransactionType.INCOME, "80", "Salary", LocalDateTime.of(2026, 10, 1, 9, 0));
+        TransactionListRow food = row(2, TransactionType.EXPENSE, "30", "Food", LocalDateTime.of(2026, 10, 2, 12, 0));
+        when(transactionRepository.findAllByUserAndTransactionDateBetween(eq(1), eq(TransactionType.INACTIVE), any(), any()))
+                .thenReturn(List.of(salary, food));
+        when(transactionMapper.toTransactionItem(salary)).thenReturn(TransactionOverviewResponse.TransactionItem.builder().transactionId(1).build());
+        when(transactionMapper.toTransactionItem(food)).thenReturn(TransactionOverviewResponse.TransactionItem.builder().transactionId(2).build());
+
+        TransactionOverviewResponse response = transactionService.getTransactionOverview(1, month);
+
+        assertEquals(new BigDecimal("50"), response.getSummary().getBalance());
+        assertEquals(LocalDate.of(2026, 10, 2), response.getByDate().get(0).getDate());
+        assertEquals(2, response.getByDate().get(0).getTransactions().get(0).getTransactionId());
+        assertFalse(response.getSummary().isUnconverted());
+    }
+
+    @Test
+    void testGetTransactionOverview_CachesPerBaseCurrencyAndRatesVersion() {
+        when(exchangeRateService.baseCurrencyOf(user)).thenReturn("USD");
+        when(exchangeRateService.ratesVersion()).thenReturn("a1");
+        when(transactionRepository.findAllByUserAndTransactionDateBetween(eq(1), eq(TransactionType.INACTIVE), any(), any()))
+                .thenReturn(List.of());
+
+        TransactionOverviewResponse response = transactionService.getTransactionOverview(1, YearMonth.of(2026, 10));
+
+        verify(redisService).hashGetObject("tx:overviews:1:2026-10", "USD:a1", TransactionOverviewResponse.class);
+        verify(redisService).hashSet("tx:overviews:1:2026-10", "USD:a1", response);
+    }
+
+    @Test
+    void testGetTransactionOverview_AmountWithoutRate_FlagsSummaryAsUnconverted() {
+        TransactionListRow food = row(2, TransactionType.EXPENSE, "30", "Food", LocalDateTime.of(2026, 10, 2, 12, 0));
+        when(transactionRepository.findAllByUserAndTransactionDateBetween(eq(1), eq(TransactionType.INACTIVE), any(), any()))
+                .thenReturn(List.of(food));
+        when(exchangeRateService.convertForReport(eq(new BigDecimal("30")), any(), any(), any(), anySet()))
+                .thenAnswer(invocation -> {
+                    Set<String> unconverted = invocation.getArgument(4);
+                    unconverted.add("XYZ");
+                    return invocation.getArgument(0);
+                });
+
+        TransactionOverviewResponse response = transactionService.getTransactionOverview(1, YearMonth.of(2026, 10));
+
+        assertEquals(new BigDecimal("30"), response.getSummary().getTotalExpense());
+        assertTrue(response.getSummary().isUnconverted());
+    }
+
     @Test
     void testRecordIncome() {
         CreateTransactionRequest request = new CreateTransactionRequest();
@@ -165,7 +260,8 @@ class TransactionServiceTest {
         when(transactionRepository.findById(transactionId)).thenReturn(Optional.of(existingTransaction));
         when(categoryRepository.findById(1)).thenReturn(Optional.of(category));
         when(groupRepository.findById(groupId)).thenReturn(Optional.of(group));
-        when(groupMemberRepository.existsByUserUserIdAndGroupGroupId(user.getUserId(), groupId)).thenReturn(true);
+        when(groupMembershipCacheService.getMembership(groupId, user.getUserId()))
+                .thenReturn(Optional.of(new GroupMembershipSnapshot(user.getUserId(), GroupMemberRole.MEMBER, GroupMemberStatus.ACTIVE)));
         when(transactionRepository.save(any(Transaction.class))).thenReturn(updatedTransaction);
         when(transactionMapper.toResponse(updatedTransaction)).thenReturn(response);
 
@@ -185,6 +281,50 @@ class TransactionServiceTest {
         );
     }
 
+    @Test
+    void testUpdateTransaction_MovedWallet_ReversesStoredAmountInItsOwnCurrencyAndDate() {
+        // Arrange
+        LocalDateTime storedDate = LocalDateTime.of(2025, 6, 6, 18, 30);
+        LocalDateTime newDate = LocalDateTime.of(2025, 6, 9, 8, 0);
+        Category category = new Category();
+        category.setCategoryId(1);
+        Wallet oldWallet = new Wallet();
+        oldWallet.setId(10);
+        Wallet newWallet = new Wallet();
+        newWallet.setId(20);
+
+        Transaction existingTransaction = new Transaction();
+        existingTransaction.setTransactionId(1);
+        existingTransaction.setUser(user);
+        existingTransaction.setCategory(category);
+        existingTransaction.setWallet(oldWallet);
+        existingTransaction.setTransactionType(TransactionType.EXPENSE);
+        existingTransaction.setAmount(BigDecimal.valueOf(50));
+        existingTransaction.setCurrencyCode("USD");
+        existingTransaction.setTransactionDate(storedDate);
+
+        CreateTransactionRequest request = new CreateTransactionRequest();
+        request.setCategoryId(1);
+        request.setWalletId(20);
+        request.setAmount(BigDecimal.valueOf(100));
+        request.setCurrencyCode("VND");
+        request.setTransactionDate(newDate);
+
+        when(transactionRepository.findById(1)).thenReturn(Optional.of(existingTransaction));
+        when(categoryRepository.findById(1)).thenReturn(Optional.of(category));
+        when(walletRepository.findById(20)).thenReturn(Optional.of(newWallet));
+        when(transactionRepository.save(existingTransaction)).thenReturn(existingTransaction);
+
+        // Act
+        transactionService.updateTransaction(1, request);
+
+        // Assert
+        verify(walletService).reduceAmount(10, BigDecimal.valueOf(50), storedDate, "update-add", "USD");
+        verify(walletService).reduceAmount(20, BigDecimal.valueOf(100), newDate, "update-subtract", "VND");
+        verify(budgetService).reduceAmount(user.getUserId(), 1, BigDecimal.valueOf(50), storedDate,
+                "update-add", "USD", 10, BigDecimal.valueOf(100));
+    }
+
     @Test
     void testUpdateTransaction_NotificationServiceThrowsException_DoesNotAffectMainFlow() {
         // Arrange
@@ -220,7 +360,8 @@ class TransactionServiceTest {
         when(transactionRepository.findById(transactionId)).thenReturn(Optional.of(existingTransaction));
         when(categoryRepository.findById(1)).thenReturn(Optional.of(category));
         when(groupRepository.findById(groupId)).thenReturn(Optional.of(group));
-        when(groupMemberRepository.existsByUserUserIdAndGroupGroupId(user.getUserId(), groupId)).thenReturn(true);
+        when(groupMembershipCacheService.getMembership(groupId, user.getUserId()))
+                .thenReturn(Optional.of(new GroupMembershipSnapshot(user.getUserId(), GroupMemberRole.MEMBER, GroupMemberStatus.ACTIVE)));
         when(transactionRepository.save(any(Transaction.class))).thenReturn(updatedTransaction);
         when(transactionMapper.toResponse(updatedTransaction)).thenReturn(response);
 
@@ -275,7 +416,8 @@ class TransactionServiceTest {
         when(transactionRepository.findById(transactionId)).thenReturn(Optional.of(existingTransaction));
         when(categoryRepository.findById(1)).thenReturn(Optional.of(category));
         when(groupRepository.findById(groupId)).thenReturn(Optional.of(group));
-        when(groupMemberRepository.existsByUserUserIdAndGroupGroupId(user.getUserId(), groupId)).thenReturn(true);
+        when(groupMembershipCacheService.getMembership(groupId, user.getUserId()))
+                .thenReturn(Optional.of(new GroupMembershipSnapshot(user.getUserId(), GroupMemberRole.MEMBER, GroupMemberStatus.ACTIVE)));
         when(transactionRepository.save(any(Transaction.class))).thenReturn(updatedTransaction);
         when(transactionMapper.toResponse(updatedTransaction)).thenReturn(response);
 
@@ -316,7 +458,8 @@ class TransactionServiceTest {
         // Mock repository calls
         when(transactionRepository.findById(transactionId)).thenReturn(Optional.of(transaction));
         when(groupRepository.findById(groupId)).thenReturn(Optional.of(group));
-        when(groupMemberRepository.existsByUserUserIdAndGroupGroupId(user.getUserId(), groupId)).thenReturn(true);
+        when(groupMembershipCacheService.getMembership(groupId, user.getUserId()))
+                .thenReturn(Optional.of(new GroupMembershipSnapshot(user.getUserId(), GroupMemberRole.MEMBER, GroupMemberStatus.ACTIVE)));
         when(transactionRepository.save(any(Transaction.class))).thenReturn(transaction);
 
         // Act
@@ -385,7 +528,8 @@ class TransactionServiceTest {
         // Mock repository calls
         when(transactionRepository.findById(transactionId)).thenReturn(Optional.of(transaction));
         when(groupRepository.findById(groupId)).thenReturn(Optional.of(group));
-        when(groupMemberRepository.existsByUserUserIdAndGroupGroupId(user.getUserId(), groupId)).thenReturn(true);
+        when(groupMembershipCacheService.getMembership(groupId, user.getUserId()))
+                .thenReturn(Optional.of(new GroupMembershipSnapshot(user.getUserId(), GroupMemberRole.MEMBER, GroupMemberStatus.ACTIVE)));
         when(transactionRepository.save(any(Transaction.class))).thenReturn(transaction);
 
         // Mock notification service to throw exception
@@ -423,7 +567,8 @@ class TransactionServiceTest {
         // Mock repository calls
         when(transactionRepository.findById(transactionId)).thenReturn(Optional.of(transaction));
         when(groupRepository.findById(groupId)).thenReturn(Optional.of(group));
-        when(groupMemberRepository.existsByUserUserIdAndGroupGroupId(user.getUserId(), groupId)).thenReturn(true);
+        when(groupMembershipCacheService.getMembership(groupId, user.getUserId()))
+                .thenReturn(Optional.of(new GroupMembershipSnapshot(user.getUserId(), GroupMemberRole.MEMBER, GroupMemberStatus.ACTIVE)));
         when(transactionRepository.save(any(Transaction.class))).thenReturn(transaction);
 
         // Act
@@ -454,6 +599,27 @@ class TransactionServiceTest {
         );
     }
 
+    @Test
+    void testDeleteTransaction_Archived_RestoresItBeforeDeleting() {
+        Wallet wallet = new Wallet();
+        wallet.setCurrentBalance(BigDecimal.valueOf(1000));
+
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(7);
+        transaction.setUser(user);
+        transaction.setAmount(BigDecimal.valueOf(100));
+        transaction.setTransactionDate(LocalDateTime.now().minusYears(3));
+        transaction.setWallet(wallet);
+
+        when(transactionRepository.findById(7)).thenReturn(Optional.empty(), Optional.of(transaction));
+        when(transactionRepository.restoreFromArchive(7)).thenReturn(true);
+        when(transactionRepository.save(any(Transaction.class))).thenReturn(transaction);
+
+        transactionService.deleteTransaction(7);
+
+        verify(transactionRepository).save(transaction);
+    }
+
     @Test
     void testSaveTransaction_WithGroup_SendsNotification() {
         // Arrange
@@ -493,7 +659,8 @@ class TransactionServiceTest {
         // Mock repository calls
         when(categoryRepository.findById(1)).thenReturn(Optional.of(category));
         when(groupRepository.findById(100)).thenReturn(Optional.of(group));
-        when(groupMemberRepository.existsByUserUserIdAndGroupGroupId(user.getUserId(), 100)).thenReturn(true);
+        when(groupMembershipCacheService.getMembership(100, user.getUserId()))
+                .thenReturn(Optional.of(new GroupMembershipSnapshot(user.getUserId(), GroupMemberRole.MEMBER, GroupMemberStatus.ACTIVE)));
         when(transactionMapper.toEntity(request)).thenReturn(transaction);
         when(transactionRepository.save(any(Transaction.class))).thenReturn(savedTransaction);
         when(transactionMapper.toResponse(savedTransaction)).thenReturn(response);
@@ -591,7 +758,8 @@ class TransactionServiceTest {
         // Mock repository calls
         when(categoryRepository.findById(1)).thenReturn(Optional.of(category));
         when(groupRepository.findById(100)).thenReturn(Optional.of(group));
-        when(groupMemberRepository.existsByUserUserIdAndGroupGroupId(user.getUserId(), 100)).thenReturn(true);
+        when(groupMembershipCacheService.getMembership(100, user.getUserId()))
+                .thenReturn(Optional.of(new GroupMembershipSnapshot(user.getUserId(), GroupMemberRole.MEMBER, GroupMemberStatus.ACTIVE)));
         when(transactionMapper.toEntity(request)).thenReturn(transaction);
         when(transactionRepository.save(any(Transaction.class))).thenReturn(savedTransaction);
         when(transactionMapper.toResponse(savedTransaction)).thenReturn(response);
@@ -647,7 +815,8 @@ class TransactionServiceTest {
         // Mock repository calls
         when(categoryRepository.findById(1)).thenReturn(Optional.of(category));
         when(groupRepository.findById(100)).thenReturn(Optional.of(group));
-        when(groupMemberRepository.existsByUserUserIdAndGroupGroupId(user.getUserId(), 100)).thenReturn(true);
+        when(groupMembershipCacheService.getMembership(100, user.getUserId()))
+                .thenReturn(Optional.of(new GroupMembershipSnapshot(user.getUserId(), GroupMemberRole.MEMBER, GroupMemberStatus.ACTIVE)));
         when(transactionMapper.toEntity(request)).thenReturn(transaction);
         when(transactionRepository.save(any(Transaction.class))).thenReturn(savedTransaction);
         when(transactionMapper.toResponse(savedTransaction)).thenReturn(response);
@@ -705,7 +874,8 @@ class TransactionServiceTest {
         // Mock repository calls
         when(categoryRepository.findById(1)).thenReturn(Optional.of(category));
         when(groupRepository.findById(100)).thenReturn(Optional.of(group));
-        when(groupMemberRepository.existsByUserUserIdAndGroupGroupId(user.getUserId(), 100)).thenReturn(true);
+        when(groupMembershipCacheService.getMembership(100, user.getUserId()))
+                .thenReturn(Optional.of(new GroupMembershipSnapshot(user.getUserId(), GroupMemberRole.MEMBER, GroupMemberStatus.ACTIVE)));
         when(transactionMapper.toEntity(request)).thenReturn(transaction);
         when(transactionRepository.save(any(Transaction.class))).thenReturn(savedTransaction);
         when(transactionMapper.toResponse(savedTransaction)).thenReturn(response);
@@ -764,7 +934,8 @@ class TransactionServiceTest {
         // Mock repository calls
         when(categoryRepository.findById(1)).thenReturn(Optional.of(category));
         when(groupRepository.findById(100)).thenReturn(Optional.of(group));
-        when(groupMemberRepository.existsByUserUserIdAndGroupGroupId(user.getUserId(), 100)).thenReturn(true);
+        when(groupMembershipCacheService.getMembership(100, user.getUserId()))
+                .thenReturn(Optional.of(new GroupMembershipSnapshot(user.getUserId(), GroupMemberRole.MEMBER, GroupMemberStatus.ACTIVE)));
         when(transactionMapper.toEntity(request)).thenReturn(transaction);
         when(transactionRepository.save(any(Transaction.class))).thenReturn(savedTransaction);
         when(transactionMapper.toResponse(savedTransaction)).thenReturn(response);
@@ -0,0 +1,206 @@
+package vn.fpt.seima.seimaserver.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import vn.fpt.seima.seimaserver.dto.response.transaction.TransactionListRow;
+import vn.fpt.seima.seimaserver.entity.ArchivedTransaction;
+import vn.fpt.seima.seimaserver.entity.Transaction;
+import vn.fpt.seima.seimaserver.entity.TransactionType;
+import vn.fpt.seima.seimaserver.repository.ActiveTransactionRepository;
+import vn.fpt.seima.seimaserver.repository.ArchivedTransactionRepository;
+import vn.fpt.seima.seimaserver.repository.TransactionRepositoryCustomImpl;
+import vn.fpt.seima.seimaserver.repository.TransactionTiers;
+import vn.fpt.seima.seimaserver.repository.TransactionTiers.Tier;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionTierRoutingTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2022, 6, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2024, 6, 30, 23, 59, 59);
+
+    @Mock private ActiveTransactionRepository activeTransactionRepository;
+    @Mock private ArchivedTransactionRepository archivedTransactionRepository;
+    @Mock private TransactionTiers transactionTiers;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private TransactionRepositoryCustomImpl transactionRepository;
+
+    private static Transaction hot(int id) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(id);
+        return transaction;
+    }
+
+    private static ArchivedTransaction archived(int id) {
+        ArchivedTransaction transaction = new ArchivedTransaction();
+        transaction.setTransactionId(id);
+        return transaction;
+    }
+
+    private static TransactionListRow row(int id) {
+        TransactionListRow row = new TransactionListRow();
+        row.setTransactionId(id);
+        return row;
+    }
+
+    private static TransactionListRow row(int id, String date) {
+        TransactionListRow row = row(id);
+        row.setTransactionDate(LocalDate.parse(date).atStartOfDay());
+        return row;
+    }
+
+    private static List<Integer> ids(Page<TransactionListRow> page) {
+        return page.getContent().stream().map(TransactionListRow::getTransactionId).collect(Collectors.toList());
+    }
+
+    @Test
+    void findByDate_ShouldOnlyReadTheHotTableForRecentDates() {
+        Pageable pageable = PageRequest.of(0, 10);
+        when(transactionTiers.tierFor(START, END)).thenReturn(Tier.HOT);
+        when(activeTransactionRepository.findByDate(TransactionType.INACTIVE, START, END, null, 7, pageable))
+                .thenReturn(new PageImpl<>(List.of(row(1)), pageable, 1));
+
+        Page<TransactionListRow> page = transactionRepository.findByDate(TransactionType.INACTIVE, START, END, null, 7, pageable);
+
+        assertEquals(List.of(1), ids(page));
+        verifyNoInteractions(archivedTransactionRepository);
+    }
+
+    @Test
+    void findByDate_ShouldContinueIntoTheArchiveAfterTheLastHotRow() {
+        // 3 hot rows, 4 archived rows, pages of 2: page 1 holds hot row 3 and archived row 11
+        Pageable pageable = PageRequest.of(1, 2);
+        when(transactionTiers.tierFor(START, END)).thenReturn(Tier.BOTH);
+        when(activeTransactionRepository.findByDate(TransactionType.INACTIVE, START, END, null, 7, pageable))
+                .thenReturn(new PageImpl<>(List.of(row(3)), pageable, 3));
+        when(archivedTransactionRepository.findByDate(TransactionType.INACTIVE, START, END, null, 7, PageRequest.of(0, 2)))
+                .thenReturn(new PageImpl<>(List.of(row(11), row(12)), PageRequest.of(0, 2), 4));
+
+        Page<TransactionListRow> page = transactionRepository.findByDate(TransactionType.INACTIVE, START, END, null, 7, pageable);
+
+        assertEquals(List.of(3, 11), ids(page));
+        assertEquals(7, page.getTotalElements());
+    }
+
+    @Test
+    void findByDate_ShouldSkipTheArchivedRowsShownOnEarlierPages() {
+        // Page 2 of 2: hot rows are used up (3), archived rows 12 and 13 follow the 11 shown on page 1
+        Pageable pageable = PageRequest.of(2, 2);
+        when(transactionTiers.tierFor(START, END)).thenReturn(Tier.BOTH);
+        when(activeTransactionRepository.findByDate(TransactionType.INACTIVE, START, END, null, 7, pageable))
+                .thenReturn(new PageImpl<>(List.of(), pageable, 3));
+        when(archivedTransactionRepository.findByDate(TransactionType.INACTIVE, START, END, null, 7, PageRequest.of(0, 2)))
+                .thenReturn(new PageImpl<>(List.of(row(11), row(12)), PageRequest.of(0, 2), 4));
+        when(archivedTransactionRepository.findByDate(TransactionType.INACTIVE, START, END, null, 7, PageRequest.of(1, 2)))
+                .thenReturn(new PageImpl<>(List.of(row(13), row(14)), PageRequest.of(1, 2), 4));
+
+        Page<TransactionListRow> page = transactionRepository.findByDate(TransactionType.INACTIVE, START, END, null, 7, pageable);
+
+        assertEquals(List.of(12, 13), ids(page));
+    }
+
+    @Test
+    void findByDate_Sorted_ShouldMergeBothTiersInTheRequestedOrder() {
+        Sort byDateDesc = Sort.by("transactionDate").descending();
+        Pageable pageable = PageRequest.of(1, 2, byDateDesc);
+        Pageable head = PageRequest.of(0, 4, byDateDesc);
+        when(transactionTiers.tierFor(START, END)).thenReturn(Tier.BOTH);
+        when(activeTransactionRepository.findByDate(TransactionType.INACTIVE, START, END, null, 7, head))
+                .thenReturn(new PageImpl<>(List.of(row(1, "2024-06-01"), row(2, "2022-07-01")), head, 2));
+        when(archivedTransactionRepository.findByDate(TransactionType.INACTIVE, START, END, null, 7, head))
+                .thenReturn(new PageImpl<>(List.of(row(11, "2023-01-01"), row(12, "2022-08-01")), head, 2));
+
+        Page<TransactionListRow> page = transactionRepository.findByDate(TransactionType.INACTIVE, START, END, null, 7, pageable);
+
+        // Merged order is 1, 11, 12, 2
+        assertEquals(List.of(12, 2), ids(page));
+        assertEquals(4, page.getTotalElements());
+    }
+
+    @Test
+    void sumIncomeWallet_ShouldAddBothTiers() {
+        when(transactionTiers.tierFor(null, null)).thenReturn(Tier.BOTH);
+        when(activeTransactionRepository.sumIncomeWallet(3, 7)).thenReturn(new BigDecimal("150.00"));
+        when(archivedTransactionRepository.sumIncomeWallet(3, 7)).thenReturn(new BigDecimal("50.00"));
+
+        assertEquals(new BigDecimal("200.00"), transactionRepository.sumIncomeWallet(3, 7));
+        // Both sums come from one read-only transaction, so a batch moved in between is not counted twice
+        verify(transactionManager).getTransaction(argThat(TransactionDefinition::isReadOnly));
+    }
+
+    @Test
+    void sumIncomeWallet_HotOnly_ShouldNotOpenATransaction() {
+        when(transactionTiers.tierFor(null, null)).thenReturn(Tier.HOT);
+        when(activeTransactionRepository.sumIncomeWallet(3, 7)).thenReturn(new BigDecimal("150.00"));
+
+        assertEquals(new BigDecimal("150.00"), transactionRepository.sumIncomeWallet(3, 7));
+        verifyNoInteractions(transactionManager, archivedTransactionRepository);
+    }
+
+    @Test
+    void findInAnyTier_ShouldFallBackToTheArchive() {
+        when(activeTransactionRepository.findById(5)).thenReturn(Optional.empty());
+        when(archivedTransactionRepository.findById(5)).thenReturn(Optional.of(archived(5)));
+
+        Optional<Transaction> transaction = transactionRepository.findInAnyTier(5);
+
+        assertEquals(5, transaction.orElseThrow().getTransactionId());
+    }
+
+    @Test
+    void findInAnyTier_HotRow_ShouldNotReadTheArchive() {
+        when(activeTransactionRepository.findById(5)).thenReturn(Optional.of(hot(5)));
+
+        assertTrue(transactionRepository.findInAnyTier(5).isPresent());
+        verifyNoInteractions(archivedTransactionRepository);
+    }
+
+    @Test
+    void restoreFromArchive_ShouldMoveTheRowBackToTheHotTable() {
+        when(archivedTransactionRepository.copyToHot(5)).thenReturn(1);
+
+        assertTrue(transactionRepository.restoreFromArchive(5));
+        verify(archivedTransactionRepository).deleteArchivedById(5);
+    }
+
+    @Test
+    void restoreFromArchive_NotArchived_ShouldDeleteNothing() {
+        when(archivedTransactionRepository.copyToHot(5)).thenReturn(0);
+
+        assertFalse(transactionRepository.restoreFromArchive(5));
+        verify(archivedTransactionRepository, never()).deleteArchivedById(any());
+    }
+
+    @Test
+    void listTransactionsChart_ShouldNotReturnARowTwiceWhenTheMoverRanInBetween() {
+        when(transactionTiers.tierFor(START, END)).thenReturn(Tier.BOTH);
+        when(activeTransactionRepository.listTransactionsChart(null, START, END)).thenReturn(List.of(hot(1), hot(2)));
+        when(archivedTransactionRepository.listTransactionsChart(null, START, END)).thenReturn(List.of(archived(2), archived(9)));
+
+        List<Transaction> transactions = transactionRepository.listTransactionsChart(null, START, END);
+
+        assertEquals(List.of(1, 2, 9), transactions.stream().map(Transaction::getTransactionId).collect(Collectors.toList()));
+    }
+}
@@ -7,11 +7,16 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.web.multipart.MultipartFile;
 import vn.fpt.seima.seimaserver.dto.request.user.UserCreationRequestDto;
 import vn.fpt.seima.seimaserver.dto.request.user.UserUpdateRequestDto;
 import vn.fpt.seima.seimaserver.entity.User;
+import vn.fpt.seima.seimaserver.event.FinancialHealthChangedEvent;
+import vn.fpt.seima.seimaserver.event.ResourceChangedEvent;
+import vn.fpt.seima.seimaserver.event.ResourceFamily;
+import vn.fpt.seima.seimaserver.event.UserProfileChangedEvent;
 import vn.fpt.seima.seimaserver.exception.NotMatchCurrentGmailException;
 import vn.fpt.seima.seimaserver.exception.ResourceNotFoundException;
 import vn.fpt.seima.seimaserver.repository.UserDeviceRepository;
@@ -20,6 +25,7 @@ import vn.fpt.seima.seimaserver.service.impl.UserServiceImpl;
 import vn.fpt.seima.seimaserver.util.UserUtils;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -42,6 +48,12 @@ class UserServiceTest {
     @Mock
     private UserDeviceService userDeviceService;
 
+    @Mock
+    private ExchangeRateService exchangeRateService;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -217,6 +229,58 @@ class UserServiceTest {
         assertEquals(userUpdateRequest.getGender(), testUser.getUserGender());
         assertTrue(testUser.getUserIsActive());
         verify(userRepository).save(testUser);
+        verify(applicationEventPublisher).publishEvent(any(UserProfileChangedEvent.class));
+    }
+
+    @Test
+    void updateUserProfileWithImage_WhenBaseCurrencySupported_ShouldStoreUpperCase() {
+        // Given
+        Integer userId = 1;
+        userUpdateRequest.setBaseCurrencyCode("usd");
+        when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
+        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        when(exchangeRateService.supports("USD")).thenReturn(true);
+
+        // When
+        userService.updateUserProfileWithImage(userId, userUpdateRequest);
+
+        // Then
+        assertEquals("USD", testUser.getBaseCurrencyCode());
+        verify(applicationEventPublisher).publishEvent(argThat((Object event) -> event instanceof ResourceChangedEvent changed
+                && changed.getFamilies().containsAll(List.of(ResourceFamily.TRANSACTIONS, ResourceFamily.WALLETS, ResourceFamily.BUDGETS))));
+        verify(applicationEventPublisher).publishEvent(any(FinancialHealthChangedEvent.class));
+    }
+
+    @Test
+    void updateUserProfileWithImage_WhenBaseCurrencyUnchanged_ShouldNotInvalidateReports() {
+        // Given
+        Integer userId = 1;
+        testUser.setBaseCurrencyCode("USD");
+        userUpdateRequest.setBaseCurrencyCode("usd");
+        when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
+        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        when(exchangeRateService.supports("USD")).thenReturn(true);
+
+        // When
+        userService.updateUserProfileWithImage(userId, userUpdateRequest);
+
+        // Then
+        verify(applicationEventPublisher, never()).publishEvent(any(ResourceChangedEvent.class));
+        verify(applicationEventPublisher, never()).publishEvent(any(FinancialHealthChangedEvent.class));
+    }
+
+    @Test
+    void updateUserProfileWithImage_WhenBaseCurrencyHasNoRates_ShouldThrowIllegalArgumentException() {
+        // Given
+        Integer userId = 1;
+        userUpdateRequest.setBaseCurrencyCode("XYZ");
+        when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
+        when(exchangeRateService.supports("XYZ")).thenReturn(false);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> userService.updateUserProfileWithImage(userId, userUpdateRequest));
+        verify(userRepository, never()).save(any(User.class));
     }
 
     @Test
@@ -7,6 +7,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import vn.fpt.seima.seimaserver.dto.request.wallet.CreateWalletRequest;
 import vn.fpt.seima.seimaserver.dto.response.wallet.WalletResponse;
 import vn.fpt.seima.seimaserver.entity.BankInformation;
@@ -21,6 +22,8 @@ import vn.fpt.seima.seimaserver.util.UserUtils;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -53,10 +56,16 @@ class WalletServiceTest {
 
     @Mock
     private RedisService redisService;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
     
     @Mock
     private BankInformationRepository bankInformationRepository;
 
+    @Mock
+    private ExchangeRateService exchangeRateService;
+
     @InjectMocks
     private WalletServiceImpl walletService;
 
@@ -2804,4 +2813,19 @@ class WalletServiceTest {
             verify(walletRepository, never()).save(any());
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void reduceAmount_ExpenseInAnotherCurrency_ShouldSubtractItsValueAtTransactionDate() {
+        // Given
+        when(walletRepository.findById(1)).thenReturn(Optional.of(testWallet));
+        when(exchangeRateService.convert(new BigDecimal("10"), "USD", "VND", LocalDate.of(2025, 6, 6)))
+                .thenReturn(new BigDecimal("250.00"));
+
+        // When
+        walletService.reduceAmount(1, new BigDecimal("10"), LocalDateTime.of(2025, 6, 6, 18, 30), "EXPENSE", "USD");
+
+        // Then
+        assertEquals(new BigDecimal("750.00"), testWallet.getCurrentBalance());
+        verify(walletRepository).save(testWallet);
+    }
+}